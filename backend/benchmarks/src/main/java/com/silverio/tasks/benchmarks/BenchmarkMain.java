@@ -0,0 +1,22 @@
+package com.silverio.tasks.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Mesmo que {@code org.openjdk.jmh.Main}, mas com o profiler de GC ligado por padrão:
+ * além de ops/s, cada benchmark reporta {@code gc.alloc.rate.norm} (bytes alocados por operação).
+ */
+public class BenchmarkMain {
+
+  public static void main(String[] args) throws Exception {
+    var cli = new CommandLineOptions(args);
+    var options = new OptionsBuilder().parent(cli);
+    if (cli.getProfilers().isEmpty()) {
+      options.addProfiler(GCProfiler.class);
+    }
+    new Runner(options.build()).run();
+  }
+}
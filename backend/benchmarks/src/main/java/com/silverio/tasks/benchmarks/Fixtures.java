@@ -0,0 +1,46 @@
+package com.silverio.tasks.benchmarks;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/** Dados determinísticos (semente fixa) para que as rodadas sejam comparáveis entre si. */
+final class Fixtures {
+
+  private static final TaskStatus[] STATUSES = TaskStatus.values();
+  private static final TaskPriority[] PRIORITIES = TaskPriority.values();
+
+  private Fixtures() {}
+
+  static List<Task> tasks(int n) {
+    var random = new Random(42);
+    var base = Instant.parse("2026-01-01T12:00:00Z");
+    var tasks = new ArrayList<Task>(n);
+    for (int i = 0; i < n; i++) {
+      tasks.add(new Task(
+          new TaskId(new UUID(random.nextLong(), random.nextLong())),
+          "Tarefa " + i,
+          i % 3 == 0 ? null : "Descrição da tarefa " + i + ", com vírgula e \"aspas\"",
+          STATUSES[i % STATUSES.length],
+          PRIORITIES[i % PRIORITIES.length],
+          LocalDateTime.of(2026, 1 + i % 12, 1 + i % 28, 9, 30),
+          base.plusSeconds(i * 37L),
+          false,
+          i % 5));
+    }
+    return tasks;
+  }
+
+  static List<TaskResponse> responses(int n) {
+    return tasks(n).stream().map(TaskResponse::of).toList();
+  }
+}
@@ -0,0 +1,48 @@
+package com.silverio.tasks.benchmarks;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/** Construção e validação do agregado {@link Task}. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskDomainBenchmark {
+
+  private final LocalDateTime dueDate = LocalDateTime.of(2026, 2, 12, 0, 0);
+  private final Instant createdAt = Instant.parse("2026-01-01T12:00:00Z");
+  private final TaskId id = new TaskId(UUID.fromString("7d3c1c2e-8a4b-4d7e-9f60-1b2c3d4e5f60"));
+
+  /** Caminho do POST: gera UUID aleatório e lê o relógio. */
+  @Benchmark
+  public Task create() {
+    return Task.create("  Título com espaços  ", "Descrição", dueDate, TaskPriority.HIGH);
+  }
+
+  /** Caminho de leitura: reidratação a partir do banco, sem UUID novo nem relógio. */
+  @Benchmark
+  public Task rehydrate() {
+    return new Task(id, "Título", "Descrição", TaskStatus.DOING, TaskPriority.HIGH, dueDate, createdAt, false, 3L);
+  }
+
+  /** Validação que falha: custo da exceção (com stack trace) para título em branco. */
+  @Benchmark
+  public Object createWithBlankTitle() {
+    try {
+      return Task.create("   ", null, dueDate, null);
+    } catch (IllegalArgumentException ex) {
+      return ex;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.silverio.tasks.benchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização Jackson de uma página de {@link TaskResponse}, com os padrões de data
+ * do {@code @JsonFormat} — o que o endpoint de listagem faz a cada requisição.
+ * O ObjectMapper é montado como o do Spring Boot (módulos JSR-310/JDK8, datas como texto).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskJsonBenchmark {
+
+  /** Tamanho padrão e máximo da página da listagem. */
+  @Param({"50", "200"})
+  public int size;
+
+  private List<TaskResponse> page;
+  private ObjectMapper mapper;
+  private ObjectWriter listWriter;
+
+  @Setup
+  public void setUp() {
+    page = Fixtures.responses(size);
+    mapper = Jackson2ObjectMapperBuilder.json().build();
+    listWriter = mapper.writerFor(new TypeReference<List<TaskResponse>>() {});
+  }
+
+  /** Como o Spring MVC escreve o corpo: tipo resolvido a cada chamada. */
+  @Benchmark
+  public byte[] writeValueAsBytes() throws Exception {
+    return mapper.writeValueAsBytes(page);
+  }
+
+  /** Com o ObjectWriter do tipo já resolvido (referência para comparação). */
+  @Benchmark
+  public byte[] preparedWriter() throws Exception {
+    return listWriter.writeValueAsBytes(page);
+  }
+}
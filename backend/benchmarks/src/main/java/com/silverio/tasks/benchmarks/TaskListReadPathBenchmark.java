@@ -0,0 +1,48 @@
+package com.silverio.tasks.benchmarks;
+
+import com.silverio.tasks.task.domain.model.TaskView;
+import com.silverio.tasks.task.infrastructure.mapper.TaskMapper;
+import com.silverio.tasks.task.infrastructure.persistence.JpaTaskEntity;
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem da página da listagem a partir do que a consulta devolve: o caminho antigo
+ * (entidade → {@code Task} com as validações do domínio → {@link TaskResponse}) contra a
+ * projeção ({@link TaskView} → {@link TaskResponse}). Só a parte em memória: o custo do
+ * Hibernate gerenciar as entidades (snapshot, dirty checking) fica no {@code ListReadPathComparisonTest}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskListReadPathBenchmark {
+
+  @Param({"200", "5000"})
+  public int size;
+
+  private List<JpaTaskEntity> entities;
+  private List<TaskView> views;
+
+  @Setup
+  public void setUp() {
+    var tasks = Fixtures.tasks(size);
+    entities = tasks.stream().map(TaskMapper::toEntity).toList();
+    views = tasks.stream().map(TaskView::of).toList();
+  }
+
+  @Benchmark
+  public List<TaskResponse> entityToDomainToResponse() {
+    return entities.stream().map(TaskMapper::toDomain).map(TaskResponse::of).toList();
+  }
+
+  @Benchmark
+  public List<TaskResponse> projectionToResponse() {
+    return views.stream().map(TaskResponse::of).toList();
+  }
+}
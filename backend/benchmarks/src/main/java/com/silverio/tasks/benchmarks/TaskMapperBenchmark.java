@@ -0,0 +1,37 @@
+package com.silverio.tasks.benchmarks;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.infrastructure.mapper.TaskMapper;
+import com.silverio.tasks.task.infrastructure.persistence.JpaTaskEntity;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/** Conversão domínio ⇄ entidade JPA ({@link TaskMapper}), feita em toda leitura e escrita. */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskMapperBenchmark {
+
+  private Task task;
+  private JpaTaskEntity entity;
+
+  @Setup
+  public void setUp() {
+    task = Fixtures.tasks(1).get(0);
+    entity = TaskMapper.toEntity(task);
+  }
+
+  @Benchmark
+  public JpaTaskEntity toEntity() {
+    return TaskMapper.toEntity(task);
+  }
+
+  @Benchmark
+  public Task toDomain() {
+    return TaskMapper.toDomain(entity);
+  }
+}
@@ -0,0 +1,42 @@
+package com.silverio.tasks.benchmarks;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão para o DTO da API (o {@code toResponse} do controller), separando o custo
+ * de {@code LocalDateTime.ofInstant(..., America/Sao_Paulo)} do resto da cópia de campos.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TaskResponseBenchmark {
+
+  private static final ZoneId ZONE_BR = ZoneId.of("America/Sao_Paulo");
+
+  private Task task;
+
+  @Setup
+  public void setUp() {
+    task = Fixtures.tasks(1).get(0);
+  }
+
+  @Benchmark
+  public TaskResponse toResponse() {
+    return TaskResponse.of(task);
+  }
+
+  /** Só a conversão de fuso (regras de horário de verão consultadas a cada chamada). */
+  @Benchmark
+  public LocalDateTime ofInstantSaoPaulo() {
+    return LocalDateTime.ofInstant(task.getCreatedAt(), ZONE_BR);
+  }
+}
@@ -0,0 +1,133 @@
+package com.silverio.tasks.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.shared.exception.ApiError;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Com virtual threads o Tomcat não tem mais o teto de threads do pool: sem este filtro,
+ * milhares de requisições ficariam na fila do Hikari até estourar o connection-timeout.
+ * Aqui a fila fica antes do controller, limitada, e quem não consegue vaga a tempo recebe
+ * 503 com Retry-After em vez de segurar memória e timeouts no pool de conexões.
+ * <p>
+ * Resposta assíncrona (exportação com {@code StreamingResponseBody}) segura a vaga até o fim da resposta:
+ * a conexão e o cursor no servidor continuam abertos na thread assíncrona depois que a cadeia retorna.
+ */
+public class DbConcurrencyFilter extends OncePerRequestFilter {
+
+  private final Semaphore permits;
+  private final int maxInFlight;
+  private final long acquireTimeoutMillis;
+  private final ObjectMapper mapper;
+  private final AtomicLong rejected = new AtomicLong();
+
+  public DbConcurrencyFilter(int maxInFlight, Duration acquireTimeout, ObjectMapper mapper) {
+    this.permits = new Semaphore(maxInFlight, true);
+    this.maxInFlight = maxInFlight;
+    this.acquireTimeoutMillis = acquireTimeout.toMillis();
+    this.mapper = mapper;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    // stream SSE e actuator não usam conexão por requisição (e o stream fica aberto por minutos)
+    var path = request.getRequestURI();
+    return path.startsWith("/actuator") || path.equals("/api/tarefas/stream");
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      acquired = false;
+    }
+    if (!acquired) {
+      reject(request, response);
+      return;
+    }
+    try {
+      chain.doFilter(request, response);
+    } finally {
+      // o despacho assíncrono não passa por aqui de novo (shouldNotFilterAsyncDispatch): a vaga sai no fim dele
+      if (request.isAsyncStarted()) {
+        request.getAsyncContext().addListener(new ReleaseOnComplete());
+      } else {
+        permits.release();
+      }
+    }
+  }
+
+  public int inFlight() {
+    return maxInFlight - permits.availablePermits();
+  }
+
+  public int waiting() {
+    return permits.getQueueLength();
+  }
+
+  public long rejectedCount() {
+    return rejected.get();
+  }
+
+  private void reject(HttpServletRequest request, HttpServletResponse response) throws IOException {
+    rejected.incrementAndGet();
+    var body = new ApiError(
+        Instant.now(),
+        HttpStatus.SERVICE_UNAVAILABLE.value(),
+        "Serviço sobrecarregado",
+        "Muitas requisições simultâneas. Tente novamente em instantes.",
+        request.getRequestURI(),
+        null);
+    response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    mapper.writeValue(response.getOutputStream(), body);
+  }
+
+  // onComplete vem sempre, inclusive depois de erro ou timeout
+  private class ReleaseOnComplete implements AsyncListener {
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    @Override
+    public void onComplete(AsyncEvent event) {
+      if (released.compareAndSet(false, true)) permits.release();
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+      // novo ciclo assíncrono na mesma requisição: os listeners precisam se registrar de novo
+      event.getAsyncContext().addListener(this);
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package com.silverio.tasks.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Limite de requisições simultâneas no modo virtual threads ({@code tasks.db-concurrency.*}).
+ *
+ * @param perConnection  requisições em andamento por conexão do Hikari (nem toda requisição segura a conexão o tempo todo)
+ * @param maxInFlight    limite explícito; 0 calcula {@code maximumPoolSize * perConnection}
+ * @param acquireTimeout espera máxima por uma vaga antes de responder 503
+ */
+@ConfigurationProperties(prefix = "tasks.db-concurrency")
+public record DbConcurrencyProperties(
+  @DefaultValue("2") int perConnection,
+  @DefaultValue("0") int maxInFlight,
+  @DefaultValue("2s") Duration acquireTimeout
+) {}
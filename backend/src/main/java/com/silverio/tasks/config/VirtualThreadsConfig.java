@@ -0,0 +1,70 @@
+package com.silverio.tasks.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Modo virtual threads ({@code spring.threads.virtual.enabled=true}): o Spring Boot já troca
+ * o executor do Tomcat, o de requisições assíncronas (exportação) e o de {@code @Async}/{@code @Scheduled}.
+ * Aqui só entra a proteção do pool de conexões, que passa a ser o único limite de concorrência.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@EnableConfigurationProperties(DbConcurrencyProperties.class)
+public class VirtualThreadsConfig {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+  private static final int HIKARI_DEFAULT_POOL_SIZE = 10;
+
+  @Bean
+  public FilterRegistrationBean<DbConcurrencyFilter> dbConcurrencyFilter(DbConcurrencyProperties props,
+                                                                         DataSource dataSource,
+                                                                         ObjectMapper mapper,
+                                                                         ObjectProvider<MeterRegistry> registry) {
+    var poolSize = poolSize(dataSource);
+    var maxInFlight = props.maxInFlight() > 0 ? props.maxInFlight() : poolSize * Math.max(1, props.perConnection());
+    if (maxInFlight < poolSize) {
+      log.warn("tasks.db-concurrency.max-in-flight={} é menor que o pool de conexões ({}): conexões vão ficar ociosas",
+          maxInFlight, poolSize);
+    }
+    log.info("Virtual threads ativas: até {} requisições simultâneas para {} conexões (espera máxima {})",
+        maxInFlight, poolSize, props.acquireTimeout());
+
+    var filter = new DbConcurrencyFilter(maxInFlight, props.acquireTimeout(), mapper);
+    registry.ifAvailable(r -> {
+      Gauge.builder("tasks.db-concurrency.in-flight", filter, DbConcurrencyFilter::inFlight).register(r);
+      Gauge.builder("tasks.db-concurrency.waiting", filter, DbConcurrencyFilter::waiting).register(r);
+      FunctionCounter.builder("tasks.db-concurrency.rejected", filter, DbConcurrencyFilter::rejectedCount).register(r);
+    });
+
+    var registration = new FilterRegistrationBean<>(filter);
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+
+  private static int poolSize(DataSource dataSource) {
+    try {
+      // -1 = não configurado; o Hikari só aplica o padrão ao abrir o pool
+      var size = dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+      return size > 0 ? size : HIKARI_DEFAULT_POOL_SIZE;
+    } catch (Exception ex) {
+      // outro pool: sem como saber o tamanho, assume o padrão do Hikari
+      return HIKARI_DEFAULT_POOL_SIZE;
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.silverio.tasks.config;
 
+import com.silverio.tasks.shared.datasource.ReadYourWritesFilter;
+import com.silverio.tasks.shared.sql.SqlStatementsFilter;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -13,6 +15,8 @@ public class WebConfig implements WebMvcConfigurer {
       .allowedOrigins("http://localhost:4200")
       .allowedMethods("GET", "POST", "PUT", "DELETE")
       .allowedHeaders("*")
+      .exposedHeaders("ETag", SqlStatementsFilter.STATEMENTS_HEADER, SqlStatementsFilter.SERVER_TIMING_HEADER,
+          ReadYourWritesFilter.HEADER)
       .allowCredentials(false)
       .maxAge(3600);
   }
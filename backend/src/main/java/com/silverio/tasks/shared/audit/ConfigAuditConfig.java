@@ -0,0 +1,28 @@
+package com.silverio.tasks.shared.audit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(ConfigAuditProperties.class)
+public class ConfigAuditConfig {
+
+  @Bean
+  public ConfigAuditor configAuditor(DataSource dataSource,
+                                     ObjectProvider<EntityManagerFactory> entityManagerFactory,
+                                     Environment env,
+                                     ConfigAuditProperties props,
+                                     MeterRegistry registry) {
+    var emf = entityManagerFactory.getIfAvailable();
+    return new ConfigAuditor(dataSource, emf == null ? Map.of() : emf.getProperties(), env, props,
+        registry);
+  }
+}
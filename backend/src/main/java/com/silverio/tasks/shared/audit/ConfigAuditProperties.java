@@ -0,0 +1,29 @@
+package com.silverio.tasks.shared.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * Auditoria da configuração de banco na subida ({@code tasks.config-audit.*}).
+ *
+ * @param mode   o que fazer com as configurações lentas encontradas
+ * @param ignore verificações aceitas de propósito (ex.: {@code server-prepare} atrás de um PgBouncer
+ *               em modo transação)
+ */
+@ConfigurationProperties(prefix = "tasks.config-audit")
+public record ConfigAuditProperties(
+  @DefaultValue("log") Mode mode,
+  @DefaultValue Set<String> ignore
+) {
+
+  public enum Mode {
+    /** não verifica */
+    OFF,
+    /** loga cada achado e publica {@code tasks.config.audit.findings} */
+    LOG,
+    /** como LOG, e impede a subida (produção) */
+    FAIL
+  }
+}
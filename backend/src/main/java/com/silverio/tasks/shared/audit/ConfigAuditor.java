@@ -0,0 +1,181 @@
+package com.silverio.tasks.shared.audit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.Driver;
+import org.postgresql.PGProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Confere, depois que tudo subiu, as configurações efetivas do pool (Hikari), do driver (pgjdbc) e
+ * do Hibernate contra configurações sabidamente lentas. Lê o que está valendo (propriedades do
+ * EntityManagerFactory, o pool por trás do DataSource, parâmetros da URL JDBC), não o YAML.
+ * <p>
+ * Cada achado tem um nome ({@code show-sql}, {@code batched-inserts-rewrite}...) que pode ser aceito
+ * em {@code tasks.config-audit.ignore}. Com {@code mode=fail} (perfil {@code prod}) a aplicação não sobe.
+ */
+public class ConfigAuditor implements SmartInitializingSingleton {
+
+  private static final Logger log = LoggerFactory.getLogger(ConfigAuditor.class);
+
+  private static final Set<String> SCHEMA_CHANGING_DDL = Set.of("update", "create", "create-drop", "create-only");
+
+  record Finding(String check, String setting, String problem) {
+    @Override
+    public String toString() {
+      return "[" + check + "] " + setting + ": " + problem;
+    }
+  }
+
+  private final DataSource dataSource;
+  private final Map<String, Object> jpa;
+  private final Environment env;
+  private final ConfigAuditProperties props;
+  private volatile int found;
+
+  public ConfigAuditor(DataSource dataSource, Map<String, Object> jpaProperties, Environment env,
+                       ConfigAuditProperties props, MeterRegistry registry) {
+    this.dataSource = dataSource;
+    this.jpa = jpaProperties;
+    this.env = env;
+    this.props = props;
+    Gauge.builder("tasks.config.audit.findings", this, a -> a.found)
+        .description("Configurações lentas encontradas na subida (fora as de tasks.config-audit.ignore)")
+        .register(registry);
+  }
+
+  @Override
+  public void afterSingletonsInstantiated() {
+    if (props.mode() == ConfigAuditProperties.Mode.OFF) return;
+    var findings = audit();
+    found = findings.size();
+    findings.forEach(f -> log.warn("Configuração lenta {}", f));
+    if (!findings.isEmpty() && props.mode() == ConfigAuditProperties.Mode.FAIL) {
+      throw new IllegalStateException("Configuração lenta com tasks.config-audit.mode=fail (aceite com "
+          + "tasks.config-audit.ignore): " + findings.stream().map(Finding::toString).collect(Collectors.joining("; ")));
+    }
+  }
+
+  List<Finding> audit() {
+    var findings = new ArrayList<Finding>();
+    hibernate(findings);
+    var pool = pool();
+    if (pool != null) {
+      pool(pool, findings);
+      driver(pool, findings);
+    }
+    findings.removeIf(f -> props.ignore().contains(f.check()));
+    return findings;
+  }
+
+  private void hibernate(List<Finding> findings) {
+    if (bool("hibernate.show_sql", false)) {
+      findings.add(new Finding("show-sql", "hibernate.show_sql=true",
+          "escreve cada comando no stdout, de forma síncrona"));
+    }
+    if (bool("hibernate.format_sql", false)) {
+      findings.add(new Finding("format-sql", "hibernate.format_sql=true",
+          "reformata o texto de cada comando logado; só serve para depurar"));
+    }
+    if (LoggerFactory.getLogger("org.hibernate.SQL").isDebugEnabled()
+        || LoggerFactory.getLogger("org.hibernate.orm.jdbc.bind").isTraceEnabled()) {
+      findings.add(new Finding("sql-logging", "logging.level.org.hibernate.SQL/orm.jdbc.bind",
+          "log de cada comando (e parâmetro) no caminho de toda requisição"));
+    }
+    var batchSize = integer("hibernate.jdbc.batch_size", 0);
+    if (batchSize <= 1) {
+      findings.add(new Finding("jdbc-batching", "hibernate.jdbc.batch_size=" + batchSize,
+          "os endpoints /batch fazem uma ida ao banco por linha"));
+    }
+    if (!bool("hibernate.query.in_clause_parameter_padding", false)) {
+      findings.add(new Finding("in-clause-padding", "hibernate.query.in_clause_parameter_padding=false",
+          "cada tamanho de lista no IN vira outro SQL: enche o cache de planos e de prepared statements"));
+    }
+    var planCacheSize = integer("hibernate.query.plan_cache_max_size", 2048);
+    if (!bool("hibernate.query.plan_cache_enabled", true) || planCacheSize < 256) {
+      findings.add(new Finding("plan-cache", "hibernate.query.plan_cache_*",
+          "JPQL reinterpretado a cada execução (desligado ou com " + planCacheSize + " entradas)"));
+    }
+    var ddl = String.valueOf(jpa.getOrDefault("hibernate.hbm2ddl.auto", "none"));
+    if (SCHEMA_CHANGING_DDL.contains(ddl)) {
+      findings.add(new Finding("ddl-auto", "hibernate.hbm2ddl.auto=" + ddl,
+          "compara e altera o schema na subida; quem migra é o Flyway"));
+    }
+    if (env.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+      findings.add(new Finding("open-in-view", "spring.jpa.open-in-view=true",
+          "segura a conexão até o fim da resposta, inclusive durante a serialização"));
+    }
+  }
+
+  private static void pool(HikariDataSource pool, List<Finding> findings) {
+    var max = pool.getMaximumPoolSize();
+    var minIdle = pool.getMinimumIdle();
+    if (minIdle >= 0 && minIdle < max) {
+      findings.add(new Finding("pool-fixed", "hikari minimum-idle=" + minIdle + " < maximum-pool-size=" + max,
+          "conexões abertas no meio de um pico, e com elas o cache de prepared statements do driver"));
+    }
+  }
+
+  private void driver(HikariDataSource pool, List<Finding> findings) {
+    if (pool.getJdbcUrl() == null || !pool.getJdbcUrl().startsWith("jdbc:postgresql:")) return;
+    Properties driver = Driver.parseURL(pool.getJdbcUrl(), pool.getDataSourceProperties());
+    if (driver == null) return;
+    try {
+      var threshold = PGProperty.PREPARE_THRESHOLD.getInt(driver);
+      var mode = PGProperty.PREFER_QUERY_MODE.getOrDefault(driver);
+      if (threshold <= 0 || "simple".equalsIgnoreCase(mode)) {
+        findings.add(new Finding("server-prepare", "prepareThreshold=" + threshold + ", preferQueryMode=" + mode,
+            "o Postgres analisa e planeja cada comando de novo a cada execução"));
+      }
+      var cacheQueries = PGProperty.PREPARED_STATEMENT_CACHE_QUERIES.getInt(driver);
+      var cacheMiB = PGProperty.PREPARED_STATEMENT_CACHE_SIZE_MIB.getInt(driver);
+      if (cacheQueries <= 0 || cacheMiB <= 0) {
+        findings.add(new Finding("statement-cache",
+            "preparedStatementCacheQueries=" + cacheQueries + ", preparedStatementCacheSizeMiB=" + cacheMiB,
+            "prepared statements descartados ao fechar, sem reaproveitar o plano no servidor"));
+      }
+    } catch (SQLException ex) {
+      findings.add(new Finding("driver-properties", "propriedades do pgjdbc", ex.getMessage()));
+    }
+    if (integer("hibernate.jdbc.batch_size", 0) > 1 && !PGProperty.REWRITE_BATCHED_INSERTS.getBoolean(driver)) {
+      findings.add(new Finding("batched-inserts-rewrite", "reWriteBatchedInserts=false",
+          "cada INSERT do lote é executado separado em vez de um INSERT com várias linhas"));
+    }
+  }
+
+  private HikariDataSource pool() {
+    try {
+      return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+    } catch (SQLException ex) {
+      return null;
+    }
+  }
+
+  private boolean bool(String key, boolean fallback) {
+    var value = jpa.get(key);
+    return value == null ? fallback : Boolean.parseBoolean(value.toString().trim());
+  }
+
+  private int integer(String key, int fallback) {
+    var value = jpa.get(key);
+    if (value == null) return fallback;
+    try {
+      return Integer.parseInt(value.toString().trim());
+    } catch (NumberFormatException ex) {
+      return fallback;
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.silverio.tasks.shared.cluster;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.FixedDelayTask;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(ClusterProperties.class)
+public class ClusterConfig {
+
+  // estático: pós-processa o DataSource, criado antes desta configuração
+  @Bean
+  public static ClusterSessionTagger clusterSessionTagger(ObjectProvider<ClusterProperties> props) {
+    return new ClusterSessionTagger(props);
+  }
+
+  @Bean
+  public DedicatedConnections dedicatedConnections(DataSourceProperties dataSource) {
+    return new DedicatedConnections(dataSource);
+  }
+
+  @Bean
+  public LeaderElection leaderElection(ClusterProperties props,
+                                       DedicatedConnections connections,
+                                       MeterRegistry registry) {
+    if (!props.enabled()) return LeaderElection.standalone();
+    return new PgLeaderElection(connections, registry);
+  }
+
+  // agenda todos os LeaderJob (arquivamento, expurgo, painel); nas outras instâncias a rodada não faz nada
+  @Bean
+  public SchedulingConfigurer leaderJobsSchedule(ObjectProvider<LeaderJob> jobs, LeaderElection leader) {
+    return registrar -> jobs.orderedStream().forEach(job -> registrar.addFixedDelayTask(
+        new FixedDelayTask(leader.whenLeader(job.name(), job.task()), job.interval(), job.interval())));
+  }
+}
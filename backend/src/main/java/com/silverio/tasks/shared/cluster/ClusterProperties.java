@@ -0,0 +1,43 @@
+package com.silverio.tasks.shared.cluster;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Coordenação entre instâncias pelo próprio Postgres ({@code tasks.cluster.*}).
+ *
+ * @param enabled         liga o canal de alterações e a eleição de líder; desligado, cada instância
+ *                        roda todos os jobs e não sabe das escritas das outras
+ * @param nodeId          identifica a instância nas notificações (vazio = aleatório a cada subida);
+ *                        letras, dígitos, {@code -} e {@code _}, porque vai nas options da conexão
+ * @param channel         canal do LISTEN/NOTIFY
+ * @param pollInterval    espera máxima por notificações
+ * @param probeEvery      esperas vazias seguidas antes de testar a conexão do LISTEN: uma sessão
+ *                        que caiu sem aviso (rede, failover) só dá erro quando alguém escreve nela
+ * @param reconnectDelay  espera antes de reabrir uma conexão dedicada que caiu
+ */
+@ConfigurationProperties(prefix = "tasks.cluster")
+public record ClusterProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("") String nodeId,
+  @DefaultValue("tasks_changed") String channel,
+  @DefaultValue("500ms") Duration pollInterval,
+  @DefaultValue("10") int probeEvery,
+  @DefaultValue("2s") Duration reconnectDelay
+) {
+  public ClusterProperties {
+    if (nodeId == null || nodeId.isBlank()) nodeId = UUID.randomUUID().toString().substring(0, 8);
+    if (!channel.matches("[a-z_][a-z0-9_]*")) {
+      throw new IllegalArgumentException("tasks.cluster.channel inválido: " + channel);
+    }
+    if (probeEvery < 1) {
+      throw new IllegalArgumentException("tasks.cluster.probe-every deve ser positivo: " + probeEvery);
+    }
+    if (!nodeId.matches("[A-Za-z0-9_-]+")) {
+      throw new IllegalArgumentException("tasks.cluster.node-id inválido: " + nodeId);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.silverio.tasks.shared.cluster;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.Ordered;
+
+/**
+ * Marca as conexões do pool da aplicação com o nó e o canal do cluster
+ * ({@code -c tasks.cluster_node=... -c tasks.cluster_channel=...} nas {@code options} do pgjdbc):
+ * o trigger {@code tasks_notify} (V13) lê os dois para mandar o NOTIFY dentro da transação que
+ * escreve. Roda antes do datasource-proxy, ainda sobre o {@link HikariDataSource} do Spring Boot;
+ * com réplica, {@code ReplicaDataSourceConfig} chama {@link #tag} no pool do primário.
+ */
+public class ClusterSessionTagger implements BeanPostProcessor, Ordered {
+
+  private final ObjectProvider<ClusterProperties> props;
+
+  public ClusterSessionTagger(ObjectProvider<ClusterProperties> props) {
+    this.props = props;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(Object bean, String beanName) {
+    if (bean instanceof HikariDataSource pool) tag(pool);
+    return bean;
+  }
+
+  public void tag(HikariDataSource pool) {
+    var cluster = props.getObject();
+    if (!cluster.enabled()) return;
+    var options = pool.getDataSourceProperties().getProperty("options", "");
+    if (options.contains("tasks.cluster_node=")) return;
+    var tags = "-c tasks.cluster_node=" + cluster.nodeId() + " -c tasks.cluster_channel=" + cluster.channel();
+    pool.addDataSourceProperty("options", options.isBlank() ? tags : options + " " + tags);
+  }
+
+  @Override
+  public int getOrder() {
+    return Ordered.HIGHEST_PRECEDENCE;
+  }
+}
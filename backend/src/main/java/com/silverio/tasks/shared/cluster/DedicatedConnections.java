@@ -0,0 +1,31 @@
+package com.silverio.tasks.shared.cluster;
+
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.Properties;
+
+/**
+ * Conexões fora do pool do Hikari, para o que precisa da mesma sessão por muito tempo
+ * (LISTEN, advisory locks de sessão): não tomam lugar das requisições e não passam pela
+ * contagem de SQL por requisição. Aparecem em {@code pg_stat_activity} como {@code tasks-<uso>}.
+ */
+public class DedicatedConnections {
+
+  private final DataSourceProperties dataSource;
+
+  public DedicatedConnections(DataSourceProperties dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  public Connection open(String purpose) throws SQLException {
+    var props = new Properties();
+    props.setProperty("user", dataSource.determineUsername());
+    if (dataSource.determinePassword() != null) props.setProperty("password", dataSource.determinePassword());
+    props.setProperty("ApplicationName", "tasks-" + purpose);
+    props.setProperty("tcpKeepAlive", "true");
+    return DriverManager.getConnection(dataSource.determineUrl(), props);
+  }
+}
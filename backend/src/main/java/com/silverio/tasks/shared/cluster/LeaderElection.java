@@ -0,0 +1,24 @@
+package com.silverio.tasks.shared.cluster;
+
+/**
+ * Decide qual instância roda cada job que não pode rodar em paralelo (arquivamento, expurgo,
+ * conferência do painel, lembretes). Cada job tem seu líder, então jobs diferentes podem ficar
+ * em instâncias diferentes.
+ */
+public interface LeaderElection {
+
+  /** Se esta instância é (ou acabou de virar) a líder do job. Barato: chame antes de cada rodada. */
+  boolean isLeader(String job);
+
+  /** Envolve a rodada de um job agendado: nas outras instâncias ela não faz nada. */
+  default Runnable whenLeader(String job, Runnable task) {
+    return () -> {
+      if (isLeader(job)) task.run();
+    };
+  }
+
+  /** Instância única: lidera tudo. */
+  static LeaderElection standalone() {
+    return job -> true;
+  }
+}
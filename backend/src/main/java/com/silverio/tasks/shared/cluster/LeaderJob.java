@@ -0,0 +1,10 @@
+package com.silverio.tasks.shared.cluster;
+
+import java.time.Duration;
+
+/**
+ * Job periódico que só roda na instância líder. Registre como bean: {@link ClusterConfig} agenda
+ * cada um com espera fixa de {@code interval} entre o fim de uma rodada e o começo da próxima.
+ * O intervalo é um Duration ("1h", "30m"): {@code @Scheduled} só aceita milissegundos ou ISO-8601.
+ */
+public record LeaderJob(String name, Duration interval, Runnable task) {}
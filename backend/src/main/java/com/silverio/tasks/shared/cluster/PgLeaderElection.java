@@ -0,0 +1,90 @@
+package com.silverio.tasks.shared.cluster;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Líder por job com advisory lock de sessão ({@code pg_try_advisory_lock}) numa conexão dedicada.
+ * <p>
+ * Quem pega o lock lidera até a conexão cair ou a aplicação parar; aí o Postgres solta o lock e a
+ * próxima instância que tentar vira líder. A conexão é conferida a cada pergunta, então uma
+ * instância que perdeu a conexão deixa de rodar o job já na rodada seguinte. Na troca de líder
+ * uma rodada pode se sobrepor à do líder anterior: os jobs aguentam isso ({@code SKIP LOCKED},
+ * lembretes conferidos no banco), no máximo com um lembrete repetido.
+ */
+public class PgLeaderElection implements LeaderElection, DisposableBean {
+
+  private static final Logger log = LoggerFactory.getLogger(PgLeaderElection.class);
+  private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+  private final DedicatedConnections connections;
+  private final MeterRegistry registry;
+  private final Set<String> held = ConcurrentHashMap.newKeySet();
+  private final Set<String> known = ConcurrentHashMap.newKeySet();
+  private Connection conn;
+
+  public PgLeaderElection(DedicatedConnections connections, MeterRegistry registry) {
+    this.connections = connections;
+    this.registry = registry;
+  }
+
+  @Override
+  public synchronized boolean isLeader(String job) {
+    if (known.add(job)) {
+      Gauge.builder("tasks.cluster.leader", held, h -> h.contains(job) ? 1 : 0)
+          .tag("job", job)
+          .description("1 se esta instância é a líder do job")
+          .register(registry);
+    }
+    try {
+      if (conn == null || !conn.isValid(VALIDATION_TIMEOUT_SECONDS)) reconnect();
+      if (held.contains(job)) return true;
+      try (var ps = conn.prepareStatement("SELECT pg_try_advisory_lock(hashtext(?))")) {
+        ps.setString(1, "tasks_leader:" + job);
+        try (var rs = ps.executeQuery()) {
+          rs.next();
+          if (rs.getBoolean(1)) {
+            held.add(job);
+            log.info("Esta instância assumiu o job {}", job);
+          }
+        }
+      }
+      return held.contains(job);
+    } catch (SQLException ex) {
+      log.warn("Falha na eleição de líder do job {}: {}", job, ex.getMessage());
+      close();
+      return false;
+    }
+  }
+
+  @Override
+  public synchronized void destroy() {
+    close();
+  }
+
+  private void reconnect() throws SQLException {
+    close();
+    conn = connections.open("leader");
+  }
+
+  // fechar a sessão solta todos os locks: outra instância assume na próxima tentativa
+  private void close() {
+    if (!held.isEmpty()) log.warn("Liderança liberada: {}", held);
+    held.clear();
+    if (conn == null) return;
+    try {
+      conn.close();
+    } catch (SQLException ignored) {
+      // a sessão já caiu
+    }
+    conn = null;
+  }
+}
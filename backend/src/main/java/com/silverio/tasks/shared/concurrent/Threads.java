@@ -0,0 +1,35 @@
+package com.silverio.tasks.shared.concurrent;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadFactory;
+
+/** Threads e esperas dos trabalhos em segundo plano (arquivamento, expurgo, SSE...). */
+public final class Threads {
+
+  private Threads() {}
+
+  /** Threads daemon {@code <prefix>1}, {@code <prefix>2}...: não seguram o desligamento da JVM. */
+  public static ThreadFactory daemon(String prefix) {
+    return Thread.ofPlatform().daemon().name(prefix, 1).factory();
+  }
+
+  /** Uma única thread daemon com nome fixo, já iniciada (laços que vivem enquanto a aplicação roda). */
+  public static Thread startDaemon(String name, Runnable task) {
+    return Thread.ofPlatform().daemon().name(name).start(task);
+  }
+
+  /**
+   * Espera entre lotes ou tentativas. Devolve false se a thread foi interrompida (aplicação
+   * desligando), com a interrupção preservada: o chamador para ali.
+   */
+  public static boolean pause(Duration pause) {
+    if (pause.isZero()) return true;
+    try {
+      Thread.sleep(pause);
+      return true;
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.silverio.tasks.shared.datasource;
+
+/**
+ * Força leituras da thread corrente para o primário, mesmo em transação somente leitura: usado
+ * depois de uma escrita do cliente (ler o que acabou de gravar) e para encher caches compartilhados
+ * logo depois de uma invalidação (um dado atrasado da réplica ficaria no cache até o TTL). Sem
+ * réplica configurada, não faz nada.
+ * <pre>{@code
+ * try (var pin = ReadRouting.pinToPrimary()) { ... }
+ * }</pre>
+ * Vale para a conexão aberta dentro do bloco; a transação que já tem conexão continua nela.
+ */
+public final class ReadRouting {
+
+  private static final ThreadLocal<Integer> PINS = ThreadLocal.withInitial(() -> 0);
+
+  private ReadRouting() {
+  }
+
+  public static Pin pinToPrimary() {
+    PINS.set(PINS.get() + 1);
+    return new Pin();
+  }
+
+  public static boolean pinnedToPrimary() {
+    return PINS.get() > 0;
+  }
+
+  public static final class Pin implements AutoCloseable {
+    private boolean closed;
+
+    private Pin() {
+    }
+
+    @Override
+    public void close() {
+      if (closed) return;
+      closed = true;
+      var pins = PINS.get() - 1;
+      if (pins <= 0) PINS.remove();
+      else PINS.set(pins);
+    }
+  }
+}
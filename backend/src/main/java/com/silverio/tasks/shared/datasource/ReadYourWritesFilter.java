@@ -0,0 +1,60 @@
+package com.silverio.tasks.shared.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Ler o que acabou de gravar com réplica atrasada: toda requisição de escrita devolve o header
+ * {@value #HEADER} com o horário até quando o cliente deve ler do primário, e as requisições que o
+ * mandam de volta dentro do prazo ficam presas ao primário ({@link ReadRouting}). Vale entre
+ * instâncias (está no cliente, não na memória de um nó). Header e não cookie: o frontend é de outra
+ * origem e não manda credenciais, então um cookie nunca voltaria. O header vai antes do corpo, já
+ * que a resposta pode ser gravada no meio.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+  public static final String HEADER = "X-Tasks-Primary-Until";
+
+  private static final Set<String> WRITES = Set.of("POST", "PUT", "PATCH", "DELETE");
+
+  private final Duration stickiness;
+
+  public ReadYourWritesFilter(Duration stickiness) {
+    this.stickiness = stickiness;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    var now = System.currentTimeMillis();
+    if (WRITES.contains(request.getMethod())) {
+      response.setHeader(HEADER, Long.toString(now + stickiness.toMillis()));
+    }
+    if (!pinned(request, now)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    try (var pin = ReadRouting.pinToPrimary()) {
+      chain.doFilter(request, response);
+    }
+  }
+
+  // o header vem do cliente: um prazo além de stickiness não foi dado por nós e não prende a leitura
+  private boolean pinned(HttpServletRequest request, long now) {
+    var header = request.getHeader(HEADER);
+    if (header == null) return false;
+    try {
+      var until = Long.parseLong(header.trim());
+      return until > now && until <= now + stickiness.toMillis();
+    } catch (NumberFormatException ex) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+package com.silverio.tasks.shared.datasource;
+
+import com.silverio.tasks.shared.cluster.ClusterSessionTagger;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Com {@code tasks.replica.enabled=true}, substitui o DataSource do Spring Boot por primário + réplica
+ * roteados por transação (veja {@link ReplicaRoutingDataSource}). Os dois pools herdam
+ * {@code spring.datasource.hikari.*} e publicam as métricas do Hikari com {@code pool=tasks-primary}
+ * e {@code pool=tasks-replica}.
+ */
+@Configuration
+@EnableConfigurationProperties(ReplicaProperties.class)
+@ConditionalOnProperty(prefix = "tasks.replica", name = "enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+  @Bean
+  ReplicaPools replicaPools(DataSourceProperties primary,
+                            ReplicaProperties props,
+                            Environment env,
+                            ObjectProvider<ClusterSessionTagger> tagger,
+                            MeterRegistry registry) {
+    if (props.url().isBlank()) {
+      throw new IllegalStateException("tasks.replica.enabled=true exige tasks.replica.url");
+    }
+    var primaryPool = pool("primary", primary.determineUrl(), primary.determineUsername(),
+        primary.determinePassword(), env, registry);
+    // as escritas (e com elas o NOTIFY do trigger) passam só por este pool
+    tagger.ifAvailable(t -> t.tag(primaryPool));
+    var replicaPool = pool("replica", props.url(),
+        props.username().isBlank() ? primary.determineUsername() : props.username(),
+        props.password().isBlank() ? primary.determinePassword() : props.password(), env, registry);
+    replicaPool.setReadOnly(true);
+    if (props.poolSize() > 0) replicaPool.setMaximumPoolSize(props.poolSize());
+    return new ReplicaPools(primaryPool, replicaPool);
+  }
+
+  @Bean
+  public ReplicaLagMonitor replicaLagMonitor(ReplicaPools pools,
+                                             ReplicaProperties props,
+                                             MeterRegistry registry) {
+    return new ReplicaLagMonitor(pools.primary(), pools.replica(), props,
+        registry);
+  }
+
+  @Bean
+  public DataSource dataSource(ReplicaPools pools, ReplicaLagMonitor monitor, MeterRegistry registry) {
+    var routing = new ReplicaRoutingDataSource(pools.primary(), pools.replica(), monitor,
+        registry);
+    return new LazyConnectionDataSourceProxy(routing);
+  }
+
+  @Bean
+  public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReplicaProperties props) {
+    var registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(props.stickiness()));
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+
+  private static HikariDataSource pool(String name, String url, String username, String password,
+                                       Environment env, MeterRegistry registry) {
+    var pool = new HikariDataSource();
+    Binder.get(env).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+    pool.setPoolName("tasks-" + name);
+    pool.setJdbcUrl(url);
+    pool.setUsername(username);
+    pool.setPassword(password);
+    pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(registry));
+    return pool;
+  }
+}
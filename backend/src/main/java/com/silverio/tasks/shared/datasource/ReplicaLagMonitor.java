@@ -0,0 +1,128 @@
+package com.silverio.tasks.shared.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mede de tempos em tempos o atraso da réplica e diz se ela pode atender leituras.
+ * <p>
+ * Compara a posição do WAL do primário com a última reaplicada na réplica: se a réplica já
+ * reaplicou tudo, o atraso é zero (mesmo com o primário parado, quando o horário da última
+ * transação reaplicada fica velho). Senão, o atraso é a idade da última transação reaplicada.
+ * Réplica fora do ar, medição falhando ou atraso acima de {@code maxLag}: leituras vão para o primário.
+ * Um banco que não está em recuperação (réplica apontando para o próprio primário) tem atraso zero.
+ */
+public class ReplicaLagMonitor implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+  private static final String REPLICA_LAG = """
+      SELECT CASE
+               WHEN NOT pg_is_in_recovery() THEN 0
+               WHEN pg_wal_lsn_diff(?::pg_lsn, pg_last_wal_replay_lsn()) <= 0 THEN 0
+               ELSE coalesce(extract(epoch FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+             END
+      """;
+
+  private final DataSource primary;
+  private final DataSource replica;
+  private final ReplicaProperties props;
+  private volatile long lagMillis = -1;
+  private volatile boolean usable;
+  private ScheduledExecutorService checker;
+
+  public ReplicaLagMonitor(DataSource primary, DataSource replica, ReplicaProperties props, MeterRegistry registry) {
+    this.primary = primary;
+    this.replica = replica;
+    this.props = props;
+    Gauge.builder("tasks.datasource.replica.lag", this, m -> m.lagMillis / 1000.0)
+        .description("Atraso (s) medido da réplica; -1 se a medição falhou")
+        .baseUnit("seconds")
+        .register(registry);
+    Gauge.builder("tasks.datasource.replica.usable", this, m -> m.usable ? 1 : 0)
+        .description("1 se as leituras estão indo para a réplica")
+        .register(registry);
+  }
+
+  /** Se leituras podem ir para a réplica agora. */
+  public boolean usable() {
+    return usable;
+  }
+
+  /**
+   * Quanto a réplica pode estar atrás enquanto atende leituras: {@code maxLag} na última medição,
+   * mais o que pode crescer até a próxima.
+   */
+  public Duration maxStaleness() {
+    return props.maxLag().plus(props.checkInterval());
+  }
+
+  public Duration lag() {
+    return lagMillis < 0 ? null : Duration.ofMillis(lagMillis);
+  }
+
+  @Override
+  public void start() {
+    checker = Executors.newSingleThreadScheduledExecutor(r -> {
+      var t = new Thread(r, "tasks-replica-lag");
+      t.setDaemon(true);
+      return t;
+    });
+    var interval = props.checkInterval().toMillis();
+    checker.scheduleWithFixedDelay(this::check, 0, interval, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    if (checker != null) checker.shutdownNow();
+    usable = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return checker != null && !checker.isShutdown();
+  }
+
+  void check() {
+    var wasUsable = usable;
+    try {
+      lagMillis = measure();
+      usable = lagMillis <= props.maxLag().toMillis();
+      if (wasUsable && !usable) {
+        log.warn("Réplica {} ms atrás (máximo {}): leituras vão para o primário", lagMillis, props.maxLag());
+      } else if (!wasUsable && usable) {
+        log.info("Réplica em dia ({} ms): leituras voltam para ela", lagMillis);
+      }
+    } catch (SQLException | RuntimeException ex) {
+      lagMillis = -1;
+      usable = false;
+      if (wasUsable) log.warn("Réplica indisponível, leituras vão para o primário: {}", ex.getMessage());
+    }
+  }
+
+  private long measure() throws SQLException {
+    String primaryLsn;
+    try (var conn = primary.getConnection(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT pg_current_wal_lsn()::text")) {
+      rs.next();
+      primaryLsn = rs.getString(1);
+    }
+    try (var conn = replica.getConnection(); var ps = conn.prepareStatement(REPLICA_LAG)) {
+      ps.setString(1, primaryLsn);
+      try (var rs = ps.executeQuery()) {
+        rs.next();
+        return Math.round(rs.getDouble(1));
+      }
+    }
+  }
+}
@@ -0,0 +1,13 @@
+package com.silverio.tasks.shared.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/** Os dois pools atrás do roteamento. Não são beans: o único DataSource do contexto é o roteado. */
+record ReplicaPools(HikariDataSource primary, HikariDataSource replica) implements AutoCloseable {
+
+  @Override
+  public void close() {
+    replica.close();
+    primary.close();
+  }
+}
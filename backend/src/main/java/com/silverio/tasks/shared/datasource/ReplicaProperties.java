@@ -0,0 +1,30 @@
+package com.silverio.tasks.shared.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Réplica de leitura ({@code tasks.replica.*}). O primário continua em {@code spring.datasource}.
+ *
+ * @param enabled       liga o roteamento; desligado, tudo vai para {@code spring.datasource}
+ * @param url           JDBC da réplica
+ * @param username      usuário da réplica (vazio = o do primário)
+ * @param password      senha da réplica (vazio = a do primário)
+ * @param poolSize      conexões do pool da réplica (0 = o mesmo tamanho do primário)
+ * @param maxLag        atraso acima do qual as leituras voltam para o primário
+ * @param stickiness    depois de uma escrita, por quanto tempo o mesmo cliente só lê do primário
+ * @param checkInterval intervalo da medição do atraso
+ */
+@ConfigurationProperties(prefix = "tasks.replica")
+public record ReplicaProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("") String url,
+  @DefaultValue("") String username,
+  @DefaultValue("") String password,
+  @DefaultValue("0") int poolSize,
+  @DefaultValue("2s") Duration maxLag,
+  @DefaultValue("5s") Duration stickiness,
+  @DefaultValue("1s") Duration checkInterval
+) {}
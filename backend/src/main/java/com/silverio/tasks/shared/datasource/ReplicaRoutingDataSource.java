@@ -0,0 +1,66 @@
+package com.silverio.tasks.shared.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Escolhe o pool de cada conexão: transações {@code readOnly} vão para a réplica, a não ser que a
+ * thread esteja presa ao primário ({@link ReadRouting}) ou a réplica esteja atrasada demais
+ * ({@link ReplicaLagMonitor}); todo o resto vai para o primário.
+ * <p>
+ * Precisa de um {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} na frente:
+ * o gerenciador de transação pede a conexão antes de marcar a transação como somente leitura, e o
+ * proxy só escolhe o pool no primeiro comando.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+  enum Route {
+    WRITE(Pool.PRIMARY), PINNED(Pool.PRIMARY), LAGGING(Pool.PRIMARY), READ(Pool.REPLICA);
+
+    final Pool pool;
+
+    Route(Pool pool) {
+      this.pool = pool;
+    }
+  }
+
+  enum Pool { PRIMARY, REPLICA }
+
+  private final ReplicaLagMonitor monitor;
+  private final Map<Route, Counter> routed = new EnumMap<>(Route.class);
+
+  public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaLagMonitor monitor,
+                                  MeterRegistry registry) {
+    this.monitor = monitor;
+    setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+    setDefaultTargetDataSource(primary);
+    for (var route : Route.values()) {
+      routed.put(route, Counter.builder("tasks.datasource.connections")
+          .tag("pool", route.pool.name().toLowerCase())
+          .tag("reason", route.name().toLowerCase())
+          .description("Conexões entregues por pool e motivo da escolha")
+          .register(registry));
+    }
+    afterPropertiesSet();
+  }
+
+  @Override
+  protected Object determineCurrentLookupKey() {
+    var route = route();
+    routed.get(route).increment();
+    return route.pool;
+  }
+
+  Route route() {
+    if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) return Route.WRITE;
+    if (ReadRouting.pinnedToPrimary()) return Route.PINNED;
+    if (!monitor.usable()) return Route.LAGGING;
+    return Route.READ;
+  }
+}
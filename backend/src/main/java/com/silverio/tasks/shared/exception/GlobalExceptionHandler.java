@@ -6,23 +6,30 @@ import com.fasterxml.jackson.databind.exc.InvalidFormatException;
 import java.time.LocalDateTime;
 
 import org.springframework.core.convert.ConversionFailedException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestNotUsableException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+import org.springframework.web.util.DisconnectedClientHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.time.Instant;
 import java.util.HashMap;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+  private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+
   @ExceptionHandler(NotFoundException.class)
   public ResponseEntity<ApiError> handleNotFound(NotFoundException ex, HttpServletRequest req) {
     var body = new ApiError(
@@ -47,6 +54,42 @@ public class GlobalExceptionHandler {
     return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(body);
   }
 
+  @ExceptionHandler(PreconditionFailedException.class)
+  public ResponseEntity<ApiError> handlePreconditionFailed(PreconditionFailedException ex, HttpServletRequest req) {
+    var body = new ApiError(
+        Instant.now(),
+        HttpStatus.PRECONDITION_FAILED.value(),
+        "Versão desatualizada",
+        ex.getMessage(),
+        req.getRequestURI(),
+        null);
+    return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).body(body);
+  }
+
+  @ExceptionHandler(GoneException.class)
+  public ResponseEntity<ApiError> handleGone(GoneException ex, HttpServletRequest req) {
+    var body = new ApiError(
+        Instant.now(),
+        HttpStatus.GONE.value(),
+        "Sincronização expirada",
+        ex.getMessage(),
+        req.getRequestURI(),
+        null);
+    return ResponseEntity.status(HttpStatus.GONE).body(body);
+  }
+
+  @ExceptionHandler(OptimisticLockingFailureException.class)
+  public ResponseEntity<ApiError> handleOptimisticLock(OptimisticLockingFailureException ex, HttpServletRequest req) {
+    var body = new ApiError(
+        Instant.now(),
+        HttpStatus.CONFLICT.value(),
+        "Conflito de edição",
+        "A tarefa foi alterada por outra requisição. Recarregue e tente novamente.",
+        req.getRequestURI(),
+        null);
+    return ResponseEntity.status(HttpStatus.CONFLICT).body(body);
+  }
+
   @ExceptionHandler({ MethodArgumentTypeMismatchException.class, ConversionFailedException.class })
   @ResponseStatus(HttpStatus.BAD_REQUEST)
   public ResponseEntity<ApiError> handleTypeMismatch(Exception ex, HttpServletRequest request) {
@@ -93,7 +136,14 @@ public class GlobalExceptionHandler {
     return ResponseEntity.badRequest().body(body);
   }
 
-  private static final Logger log = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+  // Cliente fechou a conexão no meio da resposta (stream SSE, exportação): não há a quem responder.
+  // Qualquer outra falha de E/S (banco, disco, escrita da exportação) é erro do servidor
+  @ExceptionHandler({ AsyncRequestNotUsableException.class, IOException.class })
+  public ResponseEntity<ApiError> handleIo(Exception ex, HttpServletRequest req) {
+    if (!DisconnectedClientHelper.isClientDisconnectedException(ex)) return handleGeneric(ex, req);
+    log.debug("Conexão encerrada pelo cliente em {} {}: {}", req.getMethod(), req.getRequestURI(), ex.getMessage());
+    return null;
+  }
 
   @ExceptionHandler(Exception.class)
   public ResponseEntity<ApiError> handleGeneric(Exception ex, HttpServletRequest req) {
@@ -106,7 +156,8 @@ public class GlobalExceptionHandler {
         "Ocorreu um erro inesperado. Tente novamente.",
         req.getRequestURI(),
         null);
-    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(body);
+    // JSON mesmo quando o endpoint já tinha escolhido outro formato (exportação em ndjson/csv)
+    return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).contentType(MediaType.APPLICATION_JSON).body(body);
   }
 
   @ExceptionHandler(org.springframework.web.HttpRequestMethodNotSupportedException.class)
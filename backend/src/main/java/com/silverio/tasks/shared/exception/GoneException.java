@@ -0,0 +1,7 @@
+package com.silverio.tasks.shared.exception;
+
+public class GoneException extends RuntimeException {
+  public GoneException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,17 @@
+package com.silverio.tasks.shared.metrics;
+
+import io.micrometer.common.annotation.ValueResolver;
+
+/**
+ * Valor da tag {@code status} nos timers ({@code @MeterTag(key = "status", resolver = ...)}).
+ * Status nulo é a listagem sem filtro e vira {@code ALL}.
+ */
+public class StatusTagResolver implements ValueResolver {
+
+  public static final String ALL = "ALL";
+
+  @Override
+  public String resolve(Object parameter) {
+    return parameter == null ? ALL : parameter.toString();
+  }
+}
@@ -0,0 +1,20 @@
+package com.silverio.tasks.shared.sql;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Máximo de comandos SQL que um endpoint pode executar por requisição.
+ * Acima disso o {@link SqlStatementsFilter} conta em {@code tasks.sql.budget.exceeded}
+ * e, com {@code tasks.sql.budget-mode=fail} (testes), lança {@link SqlBudgetExceededException}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SqlBudget {
+
+  int value();
+}
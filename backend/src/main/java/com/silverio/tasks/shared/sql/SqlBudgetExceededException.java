@@ -0,0 +1,8 @@
+package com.silverio.tasks.shared.sql;
+
+public class SqlBudgetExceededException extends IllegalStateException {
+
+  public SqlBudgetExceededException(String endpoint, int statements, int budget) {
+    super(endpoint + " executou " + statements + " comandos SQL (orçamento: " + budget + ")");
+  }
+}
@@ -0,0 +1,52 @@
+package com.silverio.tasks.shared.sql;
+
+import java.time.Duration;
+
+/**
+ * Comandos SQL executados pela requisição corrente (uma ida ao banco = um comando;
+ * um lote JDBC conta como um). Só existe entre {@link #begin()} e {@link #end()},
+ * na thread da requisição: trabalho em outras threads (exportação, SSE) não entra.
+ */
+public final class SqlStatements {
+
+  private static final ThreadLocal<SqlStatements> CURRENT = new ThreadLocal<>();
+
+  private int count;
+  private long nanos;
+  private long startedAt;
+
+  private SqlStatements() {
+  }
+
+  static SqlStatements begin() {
+    var stats = new SqlStatements();
+    CURRENT.set(stats);
+    return stats;
+  }
+
+  static void end() {
+    CURRENT.remove();
+  }
+
+  /** Contagem da requisição corrente, ou {@code null} fora de uma requisição. */
+  public static SqlStatements current() {
+    return CURRENT.get();
+  }
+
+  void started(long now) {
+    startedAt = now;
+  }
+
+  void finished(long now) {
+    count++;
+    nanos += now - startedAt;
+  }
+
+  public int count() {
+    return count;
+  }
+
+  public Duration time() {
+    return Duration.ofNanos(nanos);
+  }
+}
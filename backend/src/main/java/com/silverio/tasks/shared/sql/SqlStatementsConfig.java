@@ -0,0 +1,48 @@
+package com.silverio.tasks.shared.sql;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Envolve o DataSource com o datasource-proxy para contar toda execução JDBC (inclusive
+ * as que não passam pelo Hibernate, como o UPDATE ... RETURNING do repositório) e registra
+ * o {@link SqlStatementsFilter}. O pool continua acessível por {@code unwrap}.
+ */
+@Configuration
+@EnableConfigurationProperties(SqlStatementsProperties.class)
+@ConditionalOnProperty(prefix = "tasks.sql", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementsConfig {
+
+  @Bean
+  public static BeanPostProcessor sqlStatementsDataSourceProxy() {
+    var listener = new SqlStatementsListener();
+    return new BeanPostProcessor() {
+      @Override
+      public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof DataSource dataSource) {
+          return ProxyDataSourceBuilder.create(dataSource).name(beanName).listener(listener).build();
+        }
+        return bean;
+      }
+    };
+  }
+
+  @Bean
+  public FilterRegistrationBean<SqlStatementsFilter> sqlStatementsFilter(SqlStatementsProperties props,
+                                                                         ObjectProvider<MeterRegistry> registry) {
+    var registration = new FilterRegistrationBean<>(new SqlStatementsFilter(props, registry.getIfAvailable()));
+    // por fora dos demais filtros: respostas geradas por eles (ex.: 503 do DbConcurrencyFilter) também levam os headers
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+    return registration;
+  }
+}
@@ -0,0 +1,139 @@
+package com.silverio.tasks.shared.sql;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Conta os comandos SQL e o tempo de banco de cada requisição: devolve nos headers
+ * (gravados antes do corpo), registra em {@code tasks.sql.statements}/{@code tasks.sql.time}
+ * por endpoint e confere o {@link SqlBudget} do handler.
+ */
+public class SqlStatementsFilter extends OncePerRequestFilter {
+
+  public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+  public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+  private static final Logger log = LoggerFactory.getLogger(SqlStatementsFilter.class);
+
+  private final SqlStatementsProperties props;
+  private final MeterRegistry registry;
+
+  public SqlStatementsFilter(SqlStatementsProperties props, MeterRegistry registry) {
+    this.props = props;
+    this.registry = registry;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+      throws ServletException, IOException {
+    var stats = SqlStatements.begin();
+    var wrapped = props.headers() ? new StatementHeadersResponse(response, stats) : null;
+    try {
+      chain.doFilter(request, wrapped != null ? wrapped : response);
+    } finally {
+      SqlStatements.end();
+    }
+    if (wrapped != null) wrapped.writeHeaders();
+    // exportação/SSE: o trabalho continua em outra thread, a contagem daqui não diz nada
+    if (request.isAsyncStarted()) return;
+
+    var pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+    if (pattern == null) return;
+    var endpoint = request.getMethod() + " " + pattern;
+    var tags = Tags.of("method", request.getMethod(), "uri", pattern.toString());
+    if (registry != null) {
+      DistributionSummary.builder("tasks.sql.statements").tags(tags).register(registry).record(stats.count());
+      Timer.builder("tasks.sql.time").tags(tags).register(registry).record(stats.time());
+    }
+    checkBudget(request, endpoint, tags, stats);
+  }
+
+  private void checkBudget(HttpServletRequest request, String endpoint, Tags tags, SqlStatements stats) {
+    if (props.budgetMode() == SqlStatementsProperties.BudgetMode.OFF) return;
+    var budget = budgetOf(request);
+    if (budget == null || stats.count() <= budget.value()) return;
+
+    if (registry != null) Counter.builder("tasks.sql.budget.exceeded").tags(tags).register(registry).increment();
+    log.warn("{} executou {} comandos SQL (orçamento: {})", endpoint, stats.count(), budget.value());
+    if (props.budgetMode() == SqlStatementsProperties.BudgetMode.FAIL) {
+      throw new SqlBudgetExceededException(endpoint, stats.count(), budget.value());
+    }
+  }
+
+  private static SqlBudget budgetOf(HttpServletRequest request) {
+    return request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler
+        ? handler.getMethodAnnotation(SqlBudget.class)
+        : null;
+  }
+
+  /**
+   * Grava os headers quando o corpo começa a ser escrito (o serviço já terminou) ou,
+   * em respostas sem corpo, ao final do filtro.
+   */
+  private static final class StatementHeadersResponse extends HttpServletResponseWrapper {
+
+    private final SqlStatements stats;
+    private boolean written;
+
+    StatementHeadersResponse(HttpServletResponse response, SqlStatements stats) {
+      super(response);
+      this.stats = stats;
+    }
+
+    void writeHeaders() {
+      if (written || isCommitted()) return;
+      written = true;
+      setHeader(STATEMENTS_HEADER, Integer.toString(stats.count()));
+      setHeader(SERVER_TIMING_HEADER,
+          String.format(Locale.ROOT, "db;dur=%.1f", stats.time().toNanos() / 1_000_000.0));
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+      writeHeaders();
+      return super.getOutputStream();
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+      writeHeaders();
+      return super.getWriter();
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+      writeHeaders();
+      super.flushBuffer();
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+      writeHeaders();
+      super.sendError(sc, msg);
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+      writeHeaders();
+      super.sendError(sc);
+    }
+  }
+}
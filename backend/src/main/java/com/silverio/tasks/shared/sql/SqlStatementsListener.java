@@ -0,0 +1,23 @@
+package com.silverio.tasks.shared.sql;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/** Soma cada execução JDBC (Hibernate ou JdbcTemplate) na {@link SqlStatements} da requisição. */
+class SqlStatementsListener implements QueryExecutionListener {
+
+  @Override
+  public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    var stats = SqlStatements.current();
+    if (stats != null) stats.started(System.nanoTime());
+  }
+
+  @Override
+  public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    var stats = SqlStatements.current();
+    if (stats != null) stats.finished(System.nanoTime());
+  }
+}
@@ -0,0 +1,28 @@
+package com.silverio.tasks.shared.sql;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Contagem de comandos SQL por requisição ({@code tasks.sql.*}).
+ *
+ * @param enabled    envolve o DataSource e registra o filtro
+ * @param headers    devolve {@code X-Sql-Statements} e {@code Server-Timing: db;dur=...} em cada resposta
+ * @param budgetMode o que fazer quando um endpoint passa do seu {@link SqlBudget}
+ */
+@ConfigurationProperties(prefix = "tasks.sql")
+public record SqlStatementsProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("true") boolean headers,
+  @DefaultValue("log") BudgetMode budgetMode
+) {
+
+  public enum BudgetMode {
+    /** não verifica */
+    OFF,
+    /** loga e conta em {@code tasks.sql.budget.exceeded} */
+    LOG,
+    /** como LOG, e lança {@link SqlBudgetExceededException} (testes) */
+    FAIL
+  }
+}
@@ -0,0 +1,31 @@
+package com.silverio.tasks.task.application.archive;
+
+import com.silverio.tasks.shared.cluster.LeaderJob;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskArchiveProperties.class)
+@ConditionalOnProperty(prefix = "tasks.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiveConfig {
+
+  @Bean
+  public TaskArchiver taskArchiver(TaskRepository repo,
+                                   TaskRevision revision,
+                                   ApplicationEventPublisher events,
+                                   TaskArchiveProperties props,
+                                   MeterRegistry registry) {
+    return new TaskArchiver(repo, revision, events, props, registry);
+  }
+
+  @Bean
+  public LeaderJob taskArchiveJob(TaskArchiver archiver, TaskArchiveProperties props) {
+    return new LeaderJob("archive", props.interval(), archiver::run);
+  }
+}
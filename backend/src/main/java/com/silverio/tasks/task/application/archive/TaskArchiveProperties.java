@@ -0,0 +1,28 @@
+package com.silverio.tasks.task.application.archive;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Arquivamento de tarefas antigas ({@code tasks.archive.*}).
+ *
+ * @param enabled      liga/desliga o job
+ * @param deletedAfter tempo desde a exclusão lógica até a tarefa ir para o arquivo
+ * @param doneAfter    tempo sem alteração de uma tarefa DONE até ir para o arquivo
+ * @param batchSize    tarefas movidas por comando (cada lote é uma transação curta)
+ * @param maxBatches   lotes por rodada e por tipo; o que sobrar fica para a próxima rodada
+ * @param pause        espera entre lotes, para não disputar o banco com as requisições
+ * @param interval     intervalo entre o fim de uma rodada e o início da próxima
+ */
+@ConfigurationProperties(prefix = "tasks.archive")
+public record TaskArchiveProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("30d") Duration deletedAfter,
+  @DefaultValue("90d") Duration doneAfter,
+  @DefaultValue("500") int batchSize,
+  @DefaultValue("100") int maxBatches,
+  @DefaultValue("200ms") Duration pause,
+  @DefaultValue("1h") Duration interval
+) {}
@@ -0,0 +1,89 @@
+package com.silverio.tasks.task.application.archive;
+
+import com.silverio.tasks.shared.concurrent.Threads;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.BiFunction;
+
+/**
+ * Tira da tabela viva as tarefas deletadas há mais de {@code deletedAfter} e as concluídas sem
+ * alteração há mais de {@code doneAfter}, movendo-as para {@code tasks_archive} em lotes limitados.
+ * <p>
+ * A sincronização continua vendo as arquivadas (como removidas); as concluídas somem da listagem,
+ * então cada lote delas muda a revisão da listagem e publica a remoção para o stream.
+ */
+public class TaskArchiver {
+
+  private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+
+  private final TaskRepository repo;
+  private final TaskRevision revision;
+  private final ApplicationEventPublisher events;
+  private final TaskArchiveProperties props;
+  private final Counter deletedRows;
+  private final Counter doneRows;
+  private final Timer batches;
+
+  public TaskArchiver(TaskRepository repo,
+                      TaskRevision revision,
+                      ApplicationEventPublisher events,
+                      TaskArchiveProperties props,
+                      MeterRegistry registry) {
+    this.repo = repo;
+    this.revision = revision;
+    this.events = events;
+    this.props = props;
+    this.deletedRows = rows(registry, "deleted");
+    this.doneRows = rows(registry, "done");
+    this.batches = Timer.builder("tasks.archive.batch")
+        .description("Duração de cada lote do arquivamento")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  /** Uma rodada: deletadas e depois concluídas, cada uma até esgotar ou atingir {@code maxBatches}. */
+  public void run() {
+    var now = Instant.now();
+    var deleted = archive(repo::archiveDeleted, now.minus(props.deletedAfter()), deletedRows, false);
+    var done = archive(repo::archiveDone, now.minus(props.doneAfter()), doneRows, true);
+    if (deleted + done > 0) {
+      log.info("Arquivamento: {} deletadas e {} concluídas movidas para tasks_archive", deleted, done);
+    }
+  }
+
+  private int archive(BiFunction<Instant, Integer, List<TaskId>> batch, Instant before, Counter rows, boolean visible) {
+    var total = 0;
+    for (int i = 0; i < props.maxBatches(); i++) {
+      // interrompido (desligando): para entre lotes; cada lote já foi gravado por inteiro
+      if (i > 0 && !Threads.pause(props.pause())) break;
+      var moved = batches.record(() -> batch.apply(before, props.batchSize()));
+      rows.increment(moved.size());
+      total += moved.size();
+      if (visible && !moved.isEmpty()) {
+        // concluídas saem da listagem: nova revisão (ETag) e remoção para quem acompanha o stream
+        revision.changed();
+        moved.forEach(id -> events.publishEvent(TaskChangedEvent.deleted(id.value())));
+      }
+      if (moved.size() < props.batchSize()) break;
+    }
+    return total;
+  }
+
+  private static Counter rows(MeterRegistry registry, String kind) {
+    return Counter.builder("tasks.archive.rows")
+        .description("Tarefas movidas para tasks_archive")
+        .tag("kind", kind)
+        .register(registry);
+  }
+}
@@ -0,0 +1,24 @@
+package com.silverio.tasks.task.application.outbox;
+
+import com.silverio.tasks.task.domain.model.TaskEvent;
+
+import java.util.List;
+
+/**
+ * Destino dos eventos do outbox (notificações, indexação, analytics). Basta registrar um bean:
+ * o {@link TaskOutboxRelay} entrega a cada sink os lotes em ordem de gravação, fora das requisições.
+ * <p>
+ * Entrega ao menos uma vez: se qualquer sink lança exceção, o lote inteiro volta mais tarde para
+ * todos. Com vários workers, lotes diferentes chegam em paralelo e a ordem entre eles não é garantida;
+ * use {@link TaskEvent#id()} para descartar repetidos e {@code task().getVersion()} para descartar
+ * estados mais velhos que o já aplicado.
+ */
+public interface TaskEventSink {
+
+  default String name() {
+    return getClass().getSimpleName();
+  }
+
+  /** Chamado dentro da transação que reservou o lote: deve terminar rápido ou falhar. */
+  void deliver(List<TaskEvent> events) throws Exception;
+}
@@ -0,0 +1,26 @@
+package com.silverio.tasks.task.application.outbox;
+
+import com.silverio.tasks.task.domain.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@Configuration
+@EnableConfigurationProperties(TaskOutboxProperties.class)
+public class TaskOutboxConfig {
+
+  // sempre registrado: com o outbox desligado ou sem sinks, a subida do relay não liga o trigger nem abre workers
+  @Bean
+  public TaskOutboxRelay taskOutboxRelay(TaskOutboxRepository repo,
+                                         PlatformTransactionManager transactions,
+                                         ObjectProvider<TaskEventSink> sinks,
+                                         TaskOutboxProperties props,
+                                         MeterRegistry registry) {
+    return new TaskOutboxRelay(repo, new TransactionTemplate(transactions), sinks.orderedStream().toList(),
+        props, registry);
+  }
+}
@@ -0,0 +1,30 @@
+package com.silverio.tasks.task.application.outbox;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Entrega do outbox ({@code tasks.outbox.*}).
+ *
+ * @param enabled       liga o outbox: o trigger grava um evento por escrita e os workers entregam. Desligado,
+ *                      ou sem nenhum {@link TaskEventSink}, nada é gravado. A chave fica no banco: use o mesmo
+ *                      valor em todas as instâncias
+ * @param workers       threads drenando em paralelo; cada uma usa uma conexão enquanto entrega um lote
+ * @param batchSize     eventos reservados e entregues por transação
+ * @param pollInterval  espera quando o outbox está vazio (ou o lote veio incompleto)
+ * @param retryDelay    espera antes de reentregar um lote que falhou; dobra a cada tentativa
+ * @param maxRetryDelay teto da espera entre tentativas
+ * @param maxAttempts   entregas com falha até o evento ir para {@code tasks_outbox_dead}
+ */
+@ConfigurationProperties(prefix = "tasks.outbox")
+public record TaskOutboxProperties(
+  @DefaultValue("false") boolean enabled,
+  @DefaultValue("4") int workers,
+  @DefaultValue("100") int batchSize,
+  @DefaultValue("200ms") Duration pollInterval,
+  @DefaultValue("1s") Duration retryDelay,
+  @DefaultValue("5m") Duration maxRetryDelay,
+  @DefaultValue("20") int maxAttempts
+) {}
@@ -0,0 +1,186 @@
+package com.silverio.tasks.task.application.outbox;
+
+import com.silverio.tasks.shared.concurrent.Threads;
+import com.silverio.tasks.task.domain.model.TaskEvent;
+import com.silverio.tasks.task.domain.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drena {@code tasks_outbox} para os {@link TaskEventSink}s com {@code workers} threads.
+ * <p>
+ * Cada lote é uma transação: reserva com {@code FOR UPDATE SKIP LOCKED} (workers e instâncias não
+ * pegam o mesmo evento nem esperam um pelo outro), entrega a todos os sinks e apaga. Se algum sink
+ * falha, o lote é adiado com espera crescente; se a aplicação cai no meio, o rollback devolve o lote.
+ * Nos dois casos o evento é entregue de novo: ao menos uma vez. Evento que já falhou é reentregue
+ * sozinho, então um evento que nenhum sink aceita não segura os outros; depois de {@code maxAttempts}
+ * falhas ele vai para {@code tasks_outbox_dead}.
+ * <p>
+ * Na subida liga o trigger que grava os eventos só com {@code enabled=true} e algum sink registrado;
+ * caso contrário desliga e não abre workers.
+ */
+public class TaskOutboxRelay implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(TaskOutboxRelay.class);
+
+  private final TaskOutboxRepository repo;
+  private final TransactionOperations transactions;
+  private final List<TaskEventSink> sinks;
+  private final TaskOutboxProperties props;
+  private final Map<TaskEventSink, Counter> delivered = new HashMap<>();
+  private final Map<TaskEventSink, Counter> failed = new HashMap<>();
+  private final Counter dead;
+  private final Timer lag;
+  private final Timer batches;
+  private final AtomicLong oldestAge = new AtomicLong();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile boolean running;
+  private ExecutorService workers;
+
+  public TaskOutboxRelay(TaskOutboxRepository repo,
+                         TransactionOperations transactions,
+                         List<TaskEventSink> sinks,
+                         TaskOutboxProperties props,
+                         MeterRegistry registry) {
+    this.repo = repo;
+    this.transactions = transactions;
+    this.sinks = List.copyOf(sinks);
+    this.props = props;
+    for (var sink : this.sinks) {
+      delivered.put(sink, Counter.builder("tasks.outbox.delivered").tag("sink", sink.name())
+          .description("Eventos entregues ao sink (reentregas contam de novo)").register(registry));
+      failed.put(sink, Counter.builder("tasks.outbox.failed").tag("sink", sink.name())
+          .description("Eventos cuja entrega ao sink falhou e foi adiada").register(registry));
+    }
+    this.dead = Counter.builder("tasks.outbox.dead")
+        .description("Eventos que esgotaram as tentativas e foram para tasks_outbox_dead")
+        .register(registry);
+    this.lag = Timer.builder("tasks.outbox.lag")
+        .description("Tempo entre a escrita da tarefa e a entrega do evento a todos os sinks")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.batches = Timer.builder("tasks.outbox.batch")
+        .description("Duração da entrega de cada lote aos sinks")
+        .publishPercentileHistogram()
+        .register(registry);
+    Gauge.builder("tasks.outbox.oldest.age", oldestAge, a -> a.get() / 1000.0)
+        .description("Idade (s) do evento mais antigo reservado por último; 0 com o outbox vazio")
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  @Override
+  public void start() {
+    // a chave vale para o banco inteiro: uma instância sem sinks (ou desligada) não mexe nela, para não
+    // parar a gravação das que consomem. Desligar de vez é manual (veja o README)
+    if (!props.enabled() || sinks.isEmpty()) {
+      if (props.enabled()) log.warn("tasks.outbox.enabled=true sem nenhum TaskEventSink: relay parado aqui");
+      return;
+    }
+    repo.enableOutbox();
+    running = true;
+    workers = Executors.newFixedThreadPool(props.workers(), Threads.daemon("tasks-outbox-"));
+    for (int i = 0; i < props.workers(); i++) workers.submit(this::work);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (workers == null) return;
+    // termina o lote em andamento; o que não terminar a tempo volta para o outbox no rollback
+    workers.shutdown();
+    try {
+      if (!workers.awaitTermination(10, TimeUnit.SECONDS)) workers.shutdownNow();
+    } catch (InterruptedException ex) {
+      workers.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void work() {
+    while (running) {
+      int claimed;
+      try {
+        claimed = drain();
+      } catch (RuntimeException ex) {
+        // banco fora, por exemplo: nada foi apagado, tenta de novo depois da espera
+        log.warn("Falha ao drenar o outbox: {}", ex.getMessage());
+        claimed = 0;
+      }
+      if (claimed < props.batchSize() && !Threads.pause(props.pollInterval())) return;
+    }
+  }
+
+  /** Um lote numa transação; devolve quantos eventos foram reservados. */
+  int drain() {
+    inFlight.incrementAndGet();
+    try {
+      Integer claimed = transactions.execute(tx -> {
+        var events = repo.claimEvents(props.batchSize());
+        if (events.isEmpty()) {
+          // outros workers podem estar com eventos reservados (SKIP LOCKED): só zera sem nenhum em andamento
+          if (inFlight.get() == 1) oldestAge.set(0);
+          return 0;
+        }
+        oldestAge.set(Duration.between(events.get(0).createdAt(), Instant.now()).toMillis());
+        // o que já falhou vai sozinho; os demais reservados voltam à fila no commit sem contar tentativa
+        var batch = events.stream().filter(e -> e.attempts() > 0).findFirst().map(List::of).orElse(events);
+        var ids = batch.stream().map(TaskEvent::id).toList();
+        if (batches.record(() -> deliver(batch))) {
+          repo.completeEvents(ids);
+          var now = Instant.now();
+          batch.forEach(e -> lag.record(Duration.between(e.createdAt(), now)));
+        } else {
+          var buried = repo.retryEvents(ids, props.retryDelay(), props.maxRetryDelay(), props.maxAttempts());
+          if (buried > 0) {
+            dead.increment(buried);
+            log.error("{} eventos do outbox (a partir de {}) esgotaram {} tentativas; movidos para tasks_outbox_dead",
+                buried, batch.get(0).id(), props.maxAttempts());
+          }
+        }
+        return events.size();
+      });
+      return claimed == null ? 0 : claimed;
+    } finally {
+      inFlight.decrementAndGet();
+    }
+  }
+
+  private boolean deliver(List<TaskEvent> events) {
+    var ok = true;
+    for (var sink : sinks) {
+      try {
+        sink.deliver(events);
+        delivered.get(sink).increment(events.size());
+      } catch (Exception ex) {
+        ok = false;
+        failed.get(sink).increment(events.size());
+        log.warn("Sink {} falhou com {} eventos (a partir de {}); o lote será reentregue: {}",
+            sink.name(), events.size(), events.get(0).id(), ex.getMessage());
+      }
+    }
+    return ok;
+  }
+}
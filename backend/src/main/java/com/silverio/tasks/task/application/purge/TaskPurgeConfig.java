@@ -0,0 +1,25 @@
+package com.silverio.tasks.task.application.purge;
+
+import com.silverio.tasks.shared.cluster.LeaderJob;
+import com.silverio.tasks.task.domain.repository.TaskPurgeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskPurgeProperties.class)
+@ConditionalOnProperty(prefix = "tasks.purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskPurgeConfig {
+
+  @Bean
+  public TaskPurger taskPurger(TaskPurgeRepository repo, TaskPurgeProperties props, MeterRegistry registry) {
+    return new TaskPurger(repo, props, registry);
+  }
+
+  @Bean
+  public LeaderJob taskPurgeJob(TaskPurger purger, TaskPurgeProperties props) {
+    return new LeaderJob("purge", props.interval(), purger::run);
+  }
+}
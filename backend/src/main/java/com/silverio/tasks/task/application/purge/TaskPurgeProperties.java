@@ -0,0 +1,26 @@
+package com.silverio.tasks.task.application.purge;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Expurgo de tarefas deletadas ({@code tasks.purge.*}).
+ *
+ * @param enabled    liga/desliga o job
+ * @param retention  tempo desde a exclusão lógica até a tarefa ser apagada de vez
+ * @param batchSize  tarefas apagadas por comando (cada lote é uma transação curta)
+ * @param maxBatches lotes por rodada; o que sobrar fica para a próxima rodada
+ * @param pause      espera entre lotes, para o vacuum e as requisições acompanharem
+ * @param interval   intervalo entre o fim de uma rodada e o início da próxima
+ */
+@ConfigurationProperties(prefix = "tasks.purge")
+public record TaskPurgeProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("365d") Duration retention,
+  @DefaultValue("500") int batchSize,
+  @DefaultValue("100") int maxBatches,
+  @DefaultValue("500ms") Duration pause,
+  @DefaultValue("6h") Duration interval
+) {}
@@ -0,0 +1,61 @@
+package com.silverio.tasks.task.application.purge;
+
+import com.silverio.tasks.shared.concurrent.Threads;
+import com.silverio.tasks.task.domain.model.TaskPurgeBatch;
+import com.silverio.tasks.task.domain.model.TaskPurgeCursor;
+import com.silverio.tasks.task.domain.repository.TaskPurgeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+
+/**
+ * Apaga de vez as tarefas deletadas há mais de {@code retention}. Elas já saíram da tabela viva
+ * pelo arquivamento; aqui saem de {@code tasks_archive}, em lotes limitados e na ordem da exclusão.
+ * <p>
+ * Nada muda na API nem no stream (as tarefas já não apareciam); só a sincronização perde as remoções,
+ * e clientes com {@code since} anterior ao expurgo recebem 410 e recomeçam do zero.
+ */
+public class TaskPurger {
+
+  private static final Logger log = LoggerFactory.getLogger(TaskPurger.class);
+
+  private final TaskPurgeRepository repo;
+  private final TaskPurgeProperties props;
+  private final Counter rows;
+  private final Timer batches;
+
+  public TaskPurger(TaskPurgeRepository repo, TaskPurgeProperties props, MeterRegistry registry) {
+    this.repo = repo;
+    this.props = props;
+    this.rows = Counter.builder("tasks.purge.rows")
+        .description("Tarefas deletadas apagadas de vez")
+        .register(registry);
+    this.batches = Timer.builder("tasks.purge.batch")
+        .description("Duração de cada lote do expurgo")
+        .publishPercentileHistogram()
+        .register(registry);
+  }
+
+  /** Uma rodada: até esgotar as vencidas ou atingir {@code maxBatches}. */
+  public void run() {
+    var before = Instant.now().minus(props.retention());
+    TaskPurgeCursor after = null;
+    var total = 0;
+    for (int i = 0; i < props.maxBatches(); i++) {
+      if (i > 0 && !Threads.pause(props.pause())) break;
+      var from = after;
+      TaskPurgeBatch batch = batches.record(() -> repo.purgeDeleted(before, from, props.batchSize()));
+      rows.increment(batch.purged());
+      total += batch.purged();
+      if (batch.purged() < props.batchSize()) break;
+      after = batch.last();
+    }
+    if (total > 0) {
+      log.info("Expurgo: {} tarefas deletadas antes de {} apagadas de tasks_archive", total, before);
+    }
+  }
+}
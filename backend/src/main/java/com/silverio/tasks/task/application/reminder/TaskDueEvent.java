@@ -0,0 +1,13 @@
+package com.silverio.tasks.task.application.reminder;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Publicado pelo {@link TaskReminderScheduler} quando chega a hora do lembrete de uma tarefa aberta.
+ * Sai da thread do agendador, fora de transação: ouça com {@code @EventListener} e não bloqueie.
+ *
+ * @param id      id da tarefa
+ * @param dueDate vencimento conferido no banco no momento do disparo
+ */
+public record TaskDueEvent(UUID id, LocalDateTime dueDate) {}
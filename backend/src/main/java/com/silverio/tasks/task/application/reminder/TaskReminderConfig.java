@@ -0,0 +1,25 @@
+package com.silverio.tasks.task.application.reminder;
+
+import com.silverio.tasks.shared.cluster.LeaderElection;
+import com.silverio.tasks.task.domain.repository.TaskReminderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskReminderProperties.class)
+@ConditionalOnProperty(prefix = "tasks.reminders", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskReminderConfig {
+
+  @Bean
+  public TaskReminderScheduler taskReminderScheduler(TaskReminderRepository repo,
+                                                     ApplicationEventPublisher events,
+                                                     TaskReminderProperties props,
+                                                     LeaderElection leader,
+                                                     MeterRegistry registry) {
+    return new TaskReminderScheduler(repo, events, props, leader, registry);
+  }
+}
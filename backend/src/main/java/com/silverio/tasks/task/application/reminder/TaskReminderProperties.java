@@ -0,0 +1,26 @@
+package com.silverio.tasks.task.application.reminder;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Lembretes de vencimento ({@code tasks.reminders.*}).
+ *
+ * @param enabled       liga/desliga o agendador
+ * @param lead          antecedência do lembrete em relação ao vencimento (0 = no vencimento)
+ * @param tick          resolução da roda de tempo: atraso máximo esperado de um lembrete
+ * @param lookahead     janela carregada em memória à frente do relógio; o resto fica no índice
+ * @param catchUp       lembretes perdidos há até esse tempo (aplicação fora do ar) ainda disparam ao subir
+ * @param loadBatchSize linhas por consulta ao carregar a janela
+ */
+@ConfigurationProperties(prefix = "tasks.reminders")
+public record TaskReminderProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("0s") Duration lead,
+  @DefaultValue("1s") Duration tick,
+  @DefaultValue("10m") Duration lookahead,
+  @DefaultValue("5m") Duration catchUp,
+  @DefaultValue("5000") int loadBatchSize
+) {}
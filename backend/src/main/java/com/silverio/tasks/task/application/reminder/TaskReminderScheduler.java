@@ -0,0 +1,234 @@
+package com.silverio.tasks.task.application.reminder;
+
+import com.silverio.tasks.shared.cluster.LeaderElection;
+import com.silverio.tasks.shared.concurrent.Threads;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskResyncEvent;
+import com.silverio.tasks.task.domain.model.TaskDue;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.repository.TaskReminderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dispara {@link TaskDueEvent} quando chega o vencimento (menos {@code lead}) das tarefas abertas.
+ * <p>
+ * Só a janela dos próximos {@code lookahead} fica em memória, numa {@link TimingWheel}; o resto das
+ * pendentes continua no índice parcial {@code idx_tasks_open_due_date_id}, lido por faixa e por chave
+ * quando o relógio chega na metade da janela. As escritas do {@code TaskService} mantêm a roda em dia
+ * pelo {@link TaskChangedEvent}: sem varrer a tabela e sem esperar a próxima carga.
+ * <p>
+ * Antes de disparar, o lote vencido é conferido no banco: concluídas e deletadas são puladas e
+ * vencimento adiado por outra instância é reagendado. O atraso fica perto de um {@code tick}.
+ * Ao subir, lembretes perdidos há até {@code catchUp} ainda disparam; vencimento já passado no momento
+ * da escrita não gera lembrete.
+ * <p>
+ * Com várias instâncias só a líder do job {@code reminders} mantém a roda; as escritas das outras
+ * chegam como {@link TaskChangedEvent} {@code remote}. Quem assume a liderança carrega a janela do zero.
+ */
+public class TaskReminderScheduler implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(TaskReminderScheduler.class);
+  static final String JOB = "reminders";
+
+  private final TaskReminderRepository repo;
+  private final ApplicationEventPublisher events;
+  private final TaskReminderProperties props;
+  private final LeaderElection leader;
+  private final Counter fired;
+  private final Counter skipped;
+  private final Timer lateness;
+  private final Timer loads;
+  private volatile TimingWheel wheel;
+  // vencimentos antes daqui já foram carregados (ou chegam pelas escritas)
+  private volatile LocalDateTime windowEnd;
+  private volatile boolean running;
+  private ScheduledExecutorService ticker;
+
+  public TaskReminderScheduler(TaskReminderRepository repo,
+                               ApplicationEventPublisher events,
+                               TaskReminderProperties props,
+                               LeaderElection leader,
+                               MeterRegistry registry) {
+    this.repo = repo;
+    this.events = events;
+    this.props = props;
+    this.leader = leader;
+    this.fired = Counter.builder("tasks.reminders.fired")
+        .description("Lembretes de vencimento disparados")
+        .register(registry);
+    this.skipped = Counter.builder("tasks.reminders.skipped")
+        .description("Lembretes vencidos na roda que não dispararam: tarefa concluída, deletada ou com outro vencimento")
+        .register(registry);
+    this.lateness = Timer.builder("tasks.reminders.lateness")
+        .description("Atraso entre a hora do lembrete e o disparo")
+        .publishPercentileHistogram()
+        .register(registry);
+    this.loads = Timer.builder("tasks.reminders.load")
+        .description("Duração da carga de uma nova janela de vencimentos")
+        .publishPercentileHistogram()
+        .register(registry);
+    Gauge.builder("tasks.reminders.pending", this, s -> s.wheel == null ? 0 : s.wheel.size())
+        .description("Lembretes agendados em memória (só a janela à frente do relógio)")
+        .register(registry);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    ticker = Executors.newSingleThreadScheduledExecutor(Threads.daemon("tasks-reminders-"));
+    var tick = props.tick().toMillis();
+    ticker.scheduleWithFixedDelay(this::tick, 0, tick, TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    if (ticker == null) return;
+    ticker.shutdown();
+    try {
+      if (!ticker.awaitTermination(10, TimeUnit.SECONDS)) ticker.shutdownNow();
+    } catch (InterruptedException ex) {
+      ticker.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  /** Roda vazia a partir de {@code now}; a primeira carga já pega os perdidos dentro de {@code catchUp}. */
+  void init(LocalDateTime now) {
+    var tick = props.tick().toMillis();
+    // duas janelas de slots: o que é carregado cai sempre na primeira volta
+    var slots = (int) Math.max(1, 2 * props.lookahead().toMillis() / tick);
+    windowEnd = now.plus(props.lead()).minus(props.catchUp());
+    wheel = new TimingWheel(tick, slots, now);
+  }
+
+  private void tick() {
+    try {
+      if (!leader.isLeader(JOB)) {
+        wheel = null; // outra instância dispara; se voltar a liderar, carrega de novo
+        return;
+      }
+      var now = LocalDateTime.now();
+      if (wheel == null) init(now);
+      tick(now);
+    } catch (RuntimeException ex) {
+      // banco fora, por exemplo: o que venceu volta para a roda e é conferido no próximo tick
+      log.warn("Falha no agendador de lembretes: {}", ex.getMessage());
+    }
+  }
+
+  void tick(LocalDateTime now) {
+    refill(now);
+    fire(now);
+  }
+
+  /** Carrega a próxima janela quando o relógio passa da metade da atual. */
+  void refill(LocalDateTime now) {
+    var from = windowEnd;
+    var horizon = now.plus(props.lead()).plus(props.lookahead());
+    if (from.isAfter(now.plus(props.lead()).plus(props.lookahead().dividedBy(2)))) return;
+    // avança antes de ler: escrita concorrente com a carga já agenda pelo evento, e a carga
+    // (que pode ter lido a linha antiga) não sobrescreve o que o evento agendou
+    windowEnd = horizon;
+    try {
+      loads.record(() -> {
+        TaskDue after = null;
+        List<TaskDue> page;
+        do {
+          page = repo.findOpenDueBetween(from, horizon, after, props.loadBatchSize());
+          page.forEach(due -> wheel.scheduleIfAbsent(due, fireAt(due)));
+          after = page.isEmpty() ? null : page.get(page.size() - 1);
+        } while (page.size() == props.loadBatchSize());
+      });
+    } catch (RuntimeException ex) {
+      // a faixa não foi lida (ou só em parte): volta a janela para o próximo tick ler de novo desde 'from';
+      // o que já entrou na roda não duplica (scheduleIfAbsent)
+      windowEnd = from;
+      throw ex;
+    }
+  }
+
+  /** Avança a roda e dispara o que venceu e ainda está aberto com o mesmo vencimento. */
+  void fire(LocalDateTime now) {
+    var due = wheel.advance(now);
+    for (int i = 0; i < due.size(); i += props.loadBatchSize()) {
+      var batch = due.subList(i, Math.min(due.size(), i + props.loadBatchSize()));
+      var current = new HashMap<UUID, TaskDue>();
+      try {
+        repo.findOpenDue(batch.stream().map(TaskDue::id).toList()).forEach(d -> current.put(d.id(), d));
+      } catch (RuntimeException ex) {
+        due.subList(i, due.size()).forEach(d -> wheel.scheduleIfAbsent(d, fireAt(d)));
+        throw ex;
+      }
+      for (var scheduled : batch) {
+        var actual = current.get(scheduled.id());
+        // adiada sem passar por esta instância: volta para a roda se ainda couber na janela
+        // (compara horários, não igualdade: o banco guarda microssegundos)
+        if (actual == null || fireAt(actual).isAfter(now)) {
+          skipped.increment();
+          if (actual != null && accepts(actual, now)) wheel.scheduleIfAbsent(actual, fireAt(actual));
+          continue;
+        }
+        events.publishEvent(new TaskDueEvent(actual.id(), actual.dueDate()));
+        fired.increment();
+        lateness.record(Duration.between(fireAt(scheduled), now));
+      }
+    }
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskChanged(TaskChangedEvent event) {
+    var wheel = this.wheel;
+    if (wheel == null) return;
+    var task = event.task();
+    if (event.isDeleted() || task.getStatus() == TaskStatus.DONE) {
+      wheel.cancel(event.id());
+      return;
+    }
+    var due = new TaskDue(event.id(), task.getDueDate());
+    // fora da janela a carga pega depois; já passado não dispara (nem de novo, numa edição após o lembrete)
+    if (accepts(due, LocalDateTime.now())) wheel.schedule(due, fireAt(due));
+    else wheel.cancel(event.id());
+  }
+
+  /** Escritas de outras instâncias podem ter se perdido: recarrega a janela a partir de agora. */
+  @EventListener
+  public void onResync(TaskResyncEvent event) {
+    if (wheel != null) windowEnd = LocalDateTime.now().plus(props.lead());
+  }
+
+  int pending() {
+    return wheel == null ? 0 : wheel.size();
+  }
+
+  private boolean accepts(TaskDue due, LocalDateTime now) {
+    return due.dueDate().isBefore(windowEnd) && fireAt(due).isAfter(now);
+  }
+
+  private LocalDateTime fireAt(TaskDue due) {
+    return due.dueDate().minus(props.lead());
+  }
+}
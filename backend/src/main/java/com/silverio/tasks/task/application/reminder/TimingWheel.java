@@ -0,0 +1,93 @@
+package com.silverio.tasks.task.application.reminder;
+
+import com.silverio.tasks.task.domain.model.TaskDue;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Roda de tempo com {@code slots} posições de {@code tickMillis} cada: agendar, cancelar e trocar o
+ * horário são O(1), e cada avanço só visita as posições dos ticks que passaram. Horário além de uma
+ * volta da roda cai na posição certa e espera as voltas necessárias (só dispara quando o tick chega).
+ * <p>
+ * Horários são {@code LocalDateTime} de relógio de parede, como {@code due_date}, convertidos sem fuso.
+ * Sincronizada: o agendador avança a roda enquanto as escritas agendam e cancelam.
+ */
+class TimingWheel {
+
+  private final long tickMillis;
+  private final Map<UUID, TaskDue>[] slots;
+  private final Map<UUID, Long> ticks = new HashMap<>();
+  private long current;
+
+  @SuppressWarnings("unchecked")
+  TimingWheel(long tickMillis, int slots, LocalDateTime start) {
+    if (tickMillis <= 0 || slots <= 0) throw new IllegalArgumentException("tick e slots precisam ser positivos");
+    this.tickMillis = tickMillis;
+    this.slots = new Map[slots];
+    for (int i = 0; i < slots; i++) this.slots[i] = new HashMap<>();
+    this.current = tickOf(start);
+  }
+
+  /** Agenda (ou reagenda) o lembrete para {@code fireAt}; horário já passado dispara no próximo avanço. */
+  synchronized void schedule(TaskDue due, LocalDateTime fireAt) {
+    cancel(due.id());
+    var tick = Math.max(tickOf(fireAt), current + 1);
+    slots[slot(tick)].put(due.id(), due);
+    ticks.put(due.id(), tick);
+  }
+
+  /** Como {@link #schedule}, mas não mexe em tarefa que já está na roda. */
+  synchronized boolean scheduleIfAbsent(TaskDue due, LocalDateTime fireAt) {
+    if (ticks.containsKey(due.id())) return false;
+    schedule(due, fireAt);
+    return true;
+  }
+
+  synchronized boolean cancel(UUID id) {
+    var tick = ticks.remove(id);
+    if (tick == null) return false;
+    slots[slot(tick)].remove(id);
+    return true;
+  }
+
+  /** Avança até {@code now} e devolve (e tira da roda) o que venceu, na ordem dos ticks. */
+  synchronized List<TaskDue> advance(LocalDateTime now) {
+    var target = tickOf(now);
+    var fired = new ArrayList<TaskDue>();
+    // parado por mais de uma volta (GC, máquina suspensa): cada posição é visitada uma vez só
+    var first = Math.max(current + 1, target - slots.length + 1);
+    for (long tick = first; tick <= target; tick++) {
+      var slot = slots[slot(tick)];
+      if (slot.isEmpty()) continue;
+      var it = slot.values().iterator();
+      while (it.hasNext()) {
+        var due = it.next();
+        if (ticks.get(due.id()) <= target) {
+          it.remove();
+          ticks.remove(due.id());
+          fired.add(due);
+        }
+      }
+    }
+    current = Math.max(current, target);
+    return fired;
+  }
+
+  synchronized int size() {
+    return ticks.size();
+  }
+
+  private long tickOf(LocalDateTime time) {
+    return Math.floorDiv(time.toInstant(ZoneOffset.UTC).toEpochMilli(), tickMillis);
+  }
+
+  private int slot(long tick) {
+    return (int) Math.floorMod(tick, (long) slots.length);
+  }
+}
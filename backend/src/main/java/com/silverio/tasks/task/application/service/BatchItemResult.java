@@ -0,0 +1,40 @@
+package com.silverio.tasks.task.application.service;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Resultado de um item de uma operação em lote. {@code index} é a posição do item na requisição;
+ * {@code fields} traz, para itens que falharam na validação da requisição, campo → mensagem.
+ */
+public record BatchItemResult(int index, UUID id, Outcome outcome, String message, Map<String, String> fields) {
+
+  public enum Outcome {
+    CREATED, UPDATED, DELETED, NOT_FOUND, INVALID
+  }
+
+  public BatchItemResult(int index, UUID id, Outcome outcome, String message) {
+    this(index, id, outcome, message, null);
+  }
+
+  public boolean ok() {
+    return outcome != Outcome.NOT_FOUND && outcome != Outcome.INVALID;
+  }
+
+  static BatchItemResult of(int index, UUID id, Outcome outcome) {
+    return new BatchItemResult(index, id, outcome, null);
+  }
+
+  static BatchItemResult notFound(int index, UUID id) {
+    return new BatchItemResult(index, id, Outcome.NOT_FOUND, "Tarefa não encontrada");
+  }
+
+  static BatchItemResult invalid(int index, UUID id, String message) {
+    return new BatchItemResult(index, id, Outcome.INVALID, message);
+  }
+
+  // mesma mensagem e mesmos campos da resposta 400 de uma requisição avulsa
+  public static BatchItemResult invalidFields(int index, Map<String, String> fields) {
+    return new BatchItemResult(index, null, Outcome.INVALID, "Existem campos inválidos na requisição", fields);
+  }
+}
@@ -0,0 +1,15 @@
+package com.silverio.tasks.task.application.service;
+
+import com.silverio.tasks.task.domain.model.TaskPriority;
+
+import java.time.LocalDateTime;
+
+/**
+ * Dados de uma tarefa a ser criada em lote.
+ */
+public record NewTask(
+  String title,
+  String description,
+  LocalDateTime dueDate,
+  TaskPriority priority
+) {}
@@ -0,0 +1,36 @@
+package com.silverio.tasks.task.application.service;
+
+import com.silverio.tasks.task.domain.model.Task;
+
+import java.util.UUID;
+
+/**
+ * Publicado pelo {@link TaskService} a cada tarefa criada, alterada ou deletada.
+ * Os ouvintes devem usar {@code @TransactionalEventListener} para só reagir depois do commit.
+ * Para integrações que não podem perder evento, use o outbox ({@code TaskEventSink}).
+ *
+ * Escritas de outras instâncias chegam pelo canal de alterações como eventos {@code remote}.
+ *
+ * @param id     id da tarefa
+ * @param task   estado gravado; nulo quando a tarefa foi deletada
+ * @param remote gravada por outra instância (já está no banco e nas outras instâncias)
+ */
+public record TaskChangedEvent(UUID id, Task task, boolean remote) {
+
+  public static TaskChangedEvent saved(Task task) {
+    return new TaskChangedEvent(task.getId().value(), task, false);
+  }
+
+  public static TaskChangedEvent deleted(UUID id) {
+    return new TaskChangedEvent(id, null, false);
+  }
+
+  /** Escrita de outra instância; {@code task} nulo se ela não está mais viva. */
+  public static TaskChangedEvent remote(UUID id, Task task) {
+    return new TaskChangedEvent(id, task, true);
+  }
+
+  public boolean isDeleted() {
+    return task == null || task.isDeleted();
+  }
+}
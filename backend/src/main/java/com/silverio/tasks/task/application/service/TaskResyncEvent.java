@@ -0,0 +1,7 @@
+package com.silverio.tasks.task.application.service;
+
+/**
+ * Escritas de outras instâncias podem ter sido perdidas (o canal de alterações caiu ou ficou para
+ * trás): estado em memória derivado das tarefas deve ser descartado ou recarregado do banco.
+ */
+public record TaskResyncEvent() {}
@@ -0,0 +1,38 @@
+package com.silverio.tasks.task.application.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de alterações da tabela de tarefas, usado como ETag da listagem.
+ * <p>
+ * É incrementado pelo {@link TaskService} a cada escrita, sempre depois do commit:
+ * quem lê o token antes dos dados nunca associa um token novo a dados antigos.
+ * O prefixo muda a cada inicialização para que tokens de antes de um restart não casem.
+ */
+@Component
+public class TaskRevision {
+
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong counter = new AtomicLong();
+
+  public String current() {
+    return epoch + "-" + counter.get();
+  }
+
+  public void changed() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCommit() {
+          counter.incrementAndGet();
+        }
+      });
+    } else {
+      counter.incrementAndGet();
+    }
+  }
+}
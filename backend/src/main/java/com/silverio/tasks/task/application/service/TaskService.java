@@ -1,71 +1,329 @@
 package com.silverio.tasks.task.application.service;
 
 import com.silverio.tasks.shared.exception.BadRequestException;
+import com.silverio.tasks.shared.exception.GoneException;
 import com.silverio.tasks.shared.exception.NotFoundException;
+import com.silverio.tasks.shared.exception.PreconditionFailedException;
+import com.silverio.tasks.shared.metrics.StatusTagResolver;
 import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskChanges;
+import com.silverio.tasks.task.domain.model.TaskCursor;
 import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
+import com.silverio.tasks.task.domain.model.TaskPatch;
 import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskQueryPage;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchPage;
+import com.silverio.tasks.task.domain.model.TaskStats;
 import com.silverio.tasks.task.domain.model.TaskStatus;
 import com.silverio.tasks.task.domain.repository.TaskRepository;
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+// tasks.service{operation, status, exception}: histograma para p50/p99 no Prometheus
 @Service
+@Timed(value = "tasks.service", histogram = true)
 public class TaskService {
 
+  public static final int DEFAULT_PAGE_SIZE = 50;
+  public static final int MAX_PAGE_SIZE = 200;
+  public static final int MAX_BATCH_SIZE = 5000;
+  public static final int DEFAULT_CHANGES_PAGE_SIZE = 500;
+  public static final int MAX_CHANGES_PAGE_SIZE = 1000;
+  public static final int MAX_SEARCH_LENGTH = 200;
+
   private final TaskRepository repo;
+  private final TaskStatsRepository statsRepo;
+  private final TaskRevision revision;
+  private final ApplicationEventPublisher events;
 
-  public TaskService(TaskRepository repo) {
+  public TaskService(TaskRepository repo, TaskStatsRepository statsRepo, TaskRevision revision,
+                     ApplicationEventPublisher events) {
     this.repo = repo;
+    this.statsRepo = statsRepo;
+    this.revision = revision;
+    this.events = events;
   }
 
   public Task create(String title, String description, LocalDateTime dueDate, TaskPriority priority) {
     try {
       var task = Task.create(title, description, dueDate, priority);
-      return repo.save(task);
+      var saved = repo.save(task);
+      revision.changed();
+      events.publishEvent(TaskChangedEvent.saved(saved));
+      return saved;
     } catch (IllegalArgumentException ex) {
       throw new BadRequestException("Não foi possível criar a tarefa: " + ex.getMessage());
     }
   }
 
-  public List<Task> list(TaskStatus status) {
+  @Transactional(readOnly = true)
+  public List<Task> list(@MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status) {
     return repo.findAll(status);
   }
 
+  /** Token que muda a cada escrita; igual ao anterior significa que a listagem não mudou. */
+  public String listRevision() {
+    return revision.current();
+  }
+
+  @Transactional(readOnly = true)
+  public TaskPage listPage(@MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status,
+                           TaskCursor after,
+                           Integer limit) {
+    return repo.findPage(status, after, pageSize(limit));
+  }
+
+  /**
+   * Listagem com filtros e ordenação, paginada por chave na ordem pedida. O cursor só vale
+   * para a mesma ordenação em que foi gerado.
+   */
+  @Transactional(readOnly = true)
+  public TaskQueryPage query(TaskQuery query, TaskQueryCursor after, Integer limit) {
+    if (query.dueFrom() != null && query.dueTo() != null && query.dueFrom().isAfter(query.dueTo())) {
+      throw new BadRequestException("O parâmetro 'dueFrom' deve ser anterior ou igual a 'dueTo'.");
+    }
+    if (after != null && after.sort() != query.sort()) {
+      throw new BadRequestException("Parâmetro 'cursor' inválido.");
+    }
+    return repo.findByQuery(query, after, pageSize(limit));
+  }
+
+  /**
+   * Busca em título e descrição, paginada como a listagem. Sem resultado pela busca textual,
+   * cai para similaridade no título (erros de digitação).
+   */
+  @Transactional(readOnly = true)
+  public TaskSearchPage search(String text,
+                               @MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status,
+                               TaskSearchCursor after,
+                               Integer limit) {
+    if (text == null || text.isBlank()) {
+      throw new BadRequestException("Informe o parâmetro 'q'.");
+    }
+    if (text.length() > MAX_SEARCH_LENGTH) {
+      throw new BadRequestException("O parâmetro 'q' excede o máximo de " + MAX_SEARCH_LENGTH + " caracteres");
+    }
+    return repo.search(status, text.strip(), after, pageSize(limit));
+  }
+
+  /**
+   * Contagens do painel por status e prioridade e das vencidas, sem varrer a tabela.
+   */
+  @Transactional(readOnly = true)
+  public TaskStats stats() {
+    return statsRepo.stats(LocalDateTime.now());
+  }
+
+  /**
+   * Alterações desde uma revisão, inclusive exclusões lógicas. A mesma tarefa pode
+   * voltar em rodadas seguintes; o cliente deve aplicar os itens como upsert. Um {@code since}
+   * anterior ao expurgo não tem mais como receber todas as remoções: o cliente recomeça com 0.
+   */
+  public TaskChanges changesSince(TaskChangeCursor cursor, Integer limit) {
+    if (cursor.since() < 0) {
+      throw new BadRequestException("Parâmetro 'since' inválido.");
+    }
+    var changes = repo.findChanges(cursor, clamp(limit, DEFAULT_CHANGES_PAGE_SIZE, MAX_CHANGES_PAGE_SIZE));
+    if (changes.expired()) {
+      throw new GoneException("Tarefas removidas após a revisão informada já foram expurgadas. "
+          + "Descarte a cópia local e sincronize de novo com since=0.");
+    }
+    return changes;
+  }
+
+  /**
+   * Percorre todas as tarefas (não deletadas) sem carregá-las em memória,
+   * entregando uma a uma ao consumidor dentro de uma única transação.
+   */
+  @Transactional(readOnly = true)
+  public void export(Consumer<Task> sink) {
+    try (var tasks = repo.streamAll()) {
+      tasks.forEach(sink);
+    }
+  }
+
+  @Transactional(readOnly = true)
+  public Task get(UUID id) {
+    return repo.findById(new TaskId(id))
+      .orElseThrow(() -> new NotFoundException("Tarefa não encontrada"));
+  }
+
   public Task update(UUID id,
                      String title,
                      String description,
                      TaskStatus status,
                      TaskPriority priority,
                      LocalDateTime dueDate) {
-    var task = repo.findById(new TaskId(id))
-      .orElseThrow(() -> new NotFoundException("Tarefa não encontrada"));
+    return update(id, null, title, description, status, priority, dueDate);
+  }
 
+  /**
+   * Atualiza só os campos informados. Se {@code expectedVersion} for informado,
+   * a escrita só acontece se a tarefa ainda estiver nessa versão.
+   */
+  public Task update(UUID id,
+                     Long expectedVersion,
+                     String title,
+                     String description,
+                     TaskStatus status,
+                     TaskPriority priority,
+                     LocalDateTime dueDate) {
+    TaskPatch patch;
     try {
-      System.out.println(dueDate);
-      if (title != null) task.setTitle(title);
-      if (description != null) task.setDescription(description);
-      if (status != null) task.moveTo(status);
-      if (priority != null) task.setPriority(priority);
-      if (dueDate != null) task.setDueDate(dueDate);
-      return repo.save(task);
+      patch = new TaskPatch(title, description, status, priority, dueDate);
     } catch (IllegalArgumentException ex) {
       throw new BadRequestException("Não foi possível atualizar a tarefa: " + ex.getMessage());
     }
+
+    var taskId = new TaskId(id);
+    var updated = repo.update(taskId, patch, expectedVersion)
+      .orElseThrow(() -> missingOrStale(taskId, expectedVersion));
+    revision.changed();
+    events.publishEvent(TaskChangedEvent.saved(updated));
+    return updated;
   }
 
   public void deleteLogical(UUID id) {
-    var task = repo.findById(new TaskId(id))
-      .orElseThrow(() -> new NotFoundException("Tarefa não encontrada"));
+    deleteLogical(id, null);
+  }
+
+  public void deleteLogical(UUID id, Long expectedVersion) {
+    var taskId = new TaskId(id);
+    if (!repo.deleteLogical(taskId, expectedVersion)) {
+      throw missingOrStale(taskId, expectedVersion);
+    }
+    revision.changed();
+    events.publishEvent(TaskChangedEvent.deleted(id));
+  }
 
-    task.deleteLogical();
-    repo.save(task);
+  /**
+   * Cria várias tarefas numa única transação. Itens inválidos são reportados
+   * e não impedem a criação dos demais.
+   */
+  @Transactional
+  public List<BatchItemResult> createAll(List<NewTask> items) {
+    checkBatchSize(items);
+    var results = new ArrayList<BatchItemResult>(items.size());
+    var valid = new ArrayList<Task>(items.size());
+
+    for (int i = 0; i < items.size(); i++) {
+      var item = items.get(i);
+      try {
+        Objects.requireNonNull(item, "item vazio");
+        var task = Task.create(item.title(), item.description(), item.dueDate(), item.priority());
+        valid.add(task);
+        results.add(BatchItemResult.of(i, task.getId().value(), BatchItemResult.Outcome.CREATED));
+      } catch (IllegalArgumentException | NullPointerException ex) {
+        results.add(BatchItemResult.invalid(i, null, ex.getMessage()));
+      }
+    }
+
+    if (!valid.isEmpty()) {
+      repo.insertAll(valid).forEach(t -> events.publishEvent(TaskChangedEvent.saved(t)));
+      revision.changed();
+    }
+    return results;
+  }
+
+  /**
+   * Move várias tarefas para o mesmo status (uma leitura com IN e updates em lote).
+   */
+  @Transactional
+  public List<BatchItemResult> moveAll(List<UUID> ids,
+                                       @MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status) {
+    if (status == null) {
+      throw new BadRequestException("Não foi possível mover as tarefas: status é obrigatório");
+    }
+    return applyAll(ids, BatchItemResult.Outcome.UPDATED, task -> task.moveTo(status));
+  }
+
+  /**
+   * Exclusão lógica de várias tarefas (uma leitura com IN e updates em lote).
+   */
+  @Transactional
+  public List<BatchItemResult> deleteLogicalAll(List<UUID> ids) {
+    return applyAll(ids, BatchItemResult.Outcome.DELETED, Task::deleteLogical);
   }
 
   public void deletePhysical(UUID id) {
     repo.deletePhysical(new TaskId(id));
+    revision.changed();
+    events.publishEvent(TaskChangedEvent.deleted(id));
+  }
+
+  private List<BatchItemResult> applyAll(List<UUID> ids, BatchItemResult.Outcome outcome, Consumer<Task> change) {
+    checkBatchSize(ids);
+    var distinct = new LinkedHashSet<TaskId>();
+    for (var id : ids) {
+      if (id != null) distinct.add(new TaskId(id));
+    }
+
+    var found = new HashMap<TaskId, Task>();
+    for (var task : repo.findAllById(distinct)) {
+      change.accept(task);
+      found.put(task.getId(), task);
+    }
+
+    var results = new ArrayList<BatchItemResult>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      var id = ids.get(i);
+      if (id == null) {
+        results.add(BatchItemResult.invalid(i, null, "id é obrigatório"));
+      } else if (found.containsKey(new TaskId(id))) {
+        results.add(BatchItemResult.of(i, id, outcome));
+      } else {
+        results.add(BatchItemResult.notFound(i, id));
+      }
+    }
+
+    if (!found.isEmpty()) {
+      repo.saveAll(List.copyOf(found.values())).forEach(t -> events.publishEvent(TaskChangedEvent.saved(t)));
+      revision.changed();
+    }
+    return results;
+  }
+
+  // Só consulta de novo no caminho de falha, para diferenciar 404 de 412
+  private RuntimeException missingOrStale(TaskId id, Long expectedVersion) {
+    if (expectedVersion != null && repo.findById(id).isPresent()) {
+      return new PreconditionFailedException("A tarefa foi alterada por outra requisição. Recarregue e tente novamente.");
+    }
+    return new NotFoundException("Tarefa não encontrada");
+  }
+
+  private static void checkBatchSize(List<?> items) {
+    if (items == null || items.isEmpty()) {
+      throw new BadRequestException("O lote não pode ser vazio");
+    }
+    if (items.size() > MAX_BATCH_SIZE) {
+      throw new BadRequestException("O lote excede o máximo de " + MAX_BATCH_SIZE + " itens");
+    }
+  }
+
+  private static int pageSize(Integer limit) {
+    return clamp(limit, DEFAULT_PAGE_SIZE, MAX_PAGE_SIZE);
+  }
+
+  private static int clamp(Integer limit, int defaultSize, int maxSize) {
+    if (limit == null || limit < 1) return defaultSize;
+    return Math.min(limit, maxSize);
   }
 }
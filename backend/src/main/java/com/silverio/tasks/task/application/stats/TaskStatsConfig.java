@@ -0,0 +1,31 @@
+package com.silverio.tasks.task.application.stats;
+
+import com.silverio.tasks.shared.cluster.LeaderJob;
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskStatsProperties.class)
+public class TaskStatsConfig {
+
+  @Bean
+  public TaskStatsReconciler taskStatsReconciler(TaskStatsRepository repo, MeterRegistry registry) {
+    return new TaskStatsReconciler(repo, registry);
+  }
+
+  // sem a rodada os deltas só crescem: não depende de reconcile-enabled
+  @Bean
+  public LeaderJob taskStatsFoldJob(TaskStatsReconciler reconciler, TaskStatsProperties props) {
+    return new LeaderJob("stats-fold", props.foldInterval(), reconciler::fold);
+  }
+
+  @Bean
+  @ConditionalOnProperty(prefix = "tasks.stats", name = "reconcile-enabled", havingValue = "true", matchIfMissing = true)
+  public LeaderJob taskStatsJob(TaskStatsReconciler reconciler, TaskStatsProperties props) {
+    return new LeaderJob("stats-reconcile", props.reconcileInterval(), reconciler::run);
+  }
+}
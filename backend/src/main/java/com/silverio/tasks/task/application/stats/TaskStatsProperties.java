@@ -0,0 +1,22 @@
+package com.silverio.tasks.task.application.stats;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Manutenção do resumo do painel ({@code tasks.stats.*}).
+ *
+ * @param foldInterval      intervalo entre as rodadas que movem os deltas gravados pelos triggers para o
+ *                          resumo; a leitura soma os deltas pendentes, então só limita quantos ela soma
+ * @param reconcileEnabled  liga/desliga a conferência periódica
+ * @param reconcileInterval intervalo entre o fim de uma conferência e o início da próxima; cada uma
+ *                          varre {@code tasks}, sem bloquear as escritas
+ */
+@ConfigurationProperties(prefix = "tasks.stats")
+public record TaskStatsProperties(
+  @DefaultValue("5s") Duration foldInterval,
+  @DefaultValue("true") boolean reconcileEnabled,
+  @DefaultValue("6h") Duration reconcileInterval
+) {}
@@ -0,0 +1,50 @@
+package com.silverio.tasks.task.application.stats;
+
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Mantém o resumo do painel: move para ele os deltas que os triggers gravam a cada escrita e confere o
+ * resultado contra a contagem direta em {@code tasks}, corrigindo o que divergir.
+ * <p>
+ * Os triggers mantêm o resumo em toda escrita, então divergência indica escrita por fora deles
+ * (ex.: {@code session_replication_role = replica}, restauração parcial): vai para o log e para a métrica.
+ */
+public class TaskStatsReconciler {
+
+  private static final Logger log = LoggerFactory.getLogger(TaskStatsReconciler.class);
+
+  private final TaskStatsRepository repo;
+  private final Counter folded;
+  private final Counter drift;
+  private final Timer runs;
+
+  public TaskStatsReconciler(TaskStatsRepository repo, MeterRegistry registry) {
+    this.repo = repo;
+    this.folded = Counter.builder("tasks.stats.folded")
+        .description("Deltas dos triggers movidos para o resumo do painel")
+        .register(registry);
+    this.drift = Counter.builder("tasks.stats.drift")
+        .description("Diferença corrigida no resumo do painel (soma das diferenças por contador)")
+        .register(registry);
+    this.runs = Timer.builder("tasks.stats.reconcile")
+        .description("Duração de cada conferência do resumo do painel")
+        .register(registry);
+  }
+
+  public void fold() {
+    folded.increment(repo.foldStats());
+  }
+
+  public void run() {
+    long fixed = runs.record(repo::reconcileStats);
+    drift.increment(fixed);
+    if (fixed > 0) {
+      log.warn("Resumo do painel divergia de tasks em {} tarefas; corrigido", fixed);
+    }
+  }
+}
@@ -13,6 +13,7 @@ public class Task {
   private LocalDateTime dueDate;
   private final Instant createdAt;
   private boolean deleted;
+  private long version;
 
   public Task(TaskId id,
       String title,
@@ -22,6 +23,18 @@ public class Task {
       LocalDateTime dueDate,
       Instant createdAt,
       boolean deleted) {
+    this(id, title, description, status, priority, dueDate, createdAt, deleted, 0L);
+  }
+
+  public Task(TaskId id,
+      String title,
+      String description,
+      TaskStatus status,
+      TaskPriority priority,
+      LocalDateTime dueDate,
+      Instant createdAt,
+      boolean deleted,
+      long version) {
     this.id = Objects.requireNonNull(id, "id é obrigatório");
     setTitle(title);
     this.description = description;
@@ -30,6 +43,7 @@ public class Task {
     this.dueDate = Objects.requireNonNull(dueDate, "data limite é obrigatória");
     this.createdAt = createdAt == null ? Instant.now() : createdAt;
     this.deleted = deleted;
+    this.version = version;
   }
 
   public Task() {
@@ -45,10 +59,14 @@ public class Task {
   }
 
   public void setTitle(String title) {
+    this.title = requireTitle(title);
+  }
+
+  static String requireTitle(String title) {
     if (title == null || title.isBlank()) {
       throw new IllegalArgumentException("título é obrigatório");
     }
-    this.title = title.trim();
+    return title.trim();
   }
 
   public void setDescription(String description) {
@@ -103,4 +121,8 @@ public class Task {
   public boolean isDeleted() {
     return deleted;
   }
+
+  public long getVersion() {
+    return version;
+  }
 }
@@ -0,0 +1,22 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.UUID;
+
+/**
+ * Posição na leitura de alterações.
+ *
+ * @param since         revisão a partir da qual (inclusive) as alterações são lidas
+ * @param watermark     próximo {@code since} desta rodada; nulo na primeira página
+ * @param afterRevision revisão do último item entregue; nulo na primeira página
+ * @param afterId       id do último item entregue; nulo na primeira página
+ */
+public record TaskChangeCursor(long since, Long watermark, Long afterRevision, UUID afterId) {
+
+  public static TaskChangeCursor since(long since) {
+    return new TaskChangeCursor(since, null, null, null);
+  }
+
+  public boolean isFirstPage() {
+    return afterRevision == null;
+  }
+}
@@ -0,0 +1,25 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.List;
+
+/**
+ * Uma página de alterações (inclui tarefas deletadas logicamente).
+ *
+ * @param items    tarefas alteradas, em ordem de revisão
+ * @param revision valor de {@code since} para a próxima rodada, depois de ler todas as páginas
+ * @param next     continuação desta rodada; nulo quando não há mais páginas
+ * @param expired  {@code since} anterior ao expurgo: remoções se perderam e o cliente precisa recomeçar do zero
+ */
+public record TaskChanges(List<Task> items, long revision, TaskChangeCursor next, boolean expired) {
+  public TaskChanges(List<Task> items, long revision, TaskChangeCursor next) {
+    this(items, revision, next, false);
+  }
+
+  public static TaskChanges expired(long horizon) {
+    return new TaskChanges(List.of(), horizon, null, true);
+  }
+
+  public boolean hasNext() {
+    return next != null;
+  }
+}
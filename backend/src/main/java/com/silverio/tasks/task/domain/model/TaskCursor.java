@@ -0,0 +1,24 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição na listagem paginada por chave (created_at, id).
+ * A próxima página começa estritamente depois desta posição.
+ */
+public record TaskCursor(Instant createdAt, UUID id) {
+  public TaskCursor {
+    Objects.requireNonNull(createdAt, "createdAt é obrigatório");
+    Objects.requireNonNull(id, "id é obrigatório");
+  }
+
+  public static TaskCursor of(Task task) {
+    return new TaskCursor(task.getCreatedAt(), task.getId().value());
+  }
+
+  public static TaskCursor of(TaskView task) {
+    return new TaskCursor(task.createdAt(), task.id());
+  }
+}
@@ -0,0 +1,16 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Vencimento de uma tarefa aberta (não deletada e não concluída). Também serve de posição
+ * na leitura por faixa de vencimento, na ordem (due_date, id).
+ */
+public record TaskDue(UUID id, LocalDateTime dueDate) {
+  public TaskDue {
+    Objects.requireNonNull(id, "id é obrigatório");
+    Objects.requireNonNull(dueDate, "dueDate é obrigatório");
+  }
+}
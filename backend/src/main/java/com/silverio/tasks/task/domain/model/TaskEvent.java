@@ -0,0 +1,14 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Um evento do outbox.
+ *
+ * @param id        posição no outbox; o mesmo evento entregue de novo tem o mesmo id
+ * @param type      o que aconteceu
+ * @param task      estado gravado pela escrita que gerou o evento
+ * @param createdAt início da transação que gravou
+ * @param attempts  entregas que já falharam
+ */
+public record TaskEvent(long id, TaskEventType type, Task task, Instant createdAt, int attempts) {}
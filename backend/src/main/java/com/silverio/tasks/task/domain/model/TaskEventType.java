@@ -0,0 +1,9 @@
+package com.silverio.tasks.task.domain.model;
+
+/**
+ * O que aconteceu com a tarefa. {@code REMOVED}: saiu da tabela viva sem ter sido deletada antes
+ * (arquivamento de concluída ou exclusão física).
+ */
+public enum TaskEventType {
+  CREATED, UPDATED, DELETED, REMOVED
+}
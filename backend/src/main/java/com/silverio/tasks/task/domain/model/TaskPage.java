@@ -0,0 +1,12 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem. {@code next} é nulo quando não há mais páginas.
+ */
+public record TaskPage(List<TaskView> items, TaskCursor next) {
+  public boolean hasNext() {
+    return next != null;
+  }
+}
@@ -0,0 +1,23 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Alteração parcial de uma tarefa: campos nulos são mantidos como estão.
+ * Aplica as mesmas regras de {@link Task} aos campos informados.
+ */
+public record TaskPatch(
+  String title,
+  String description,
+  TaskStatus status,
+  TaskPriority priority,
+  LocalDateTime dueDate
+) {
+  public TaskPatch {
+    if (title != null) title = Task.requireTitle(title);
+  }
+
+  public boolean isEmpty() {
+    return title == null && description == null && status == null && priority == null && dueDate == null;
+  }
+}
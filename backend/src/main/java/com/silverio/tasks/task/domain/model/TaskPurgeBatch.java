@@ -0,0 +1,10 @@
+package com.silverio.tasks.task.domain.model;
+
+/**
+ * Um lote do expurgo. {@code last} é nulo quando nada foi apagado.
+ */
+public record TaskPurgeBatch(int purged, TaskPurgeCursor last) {
+  public static TaskPurgeBatch empty() {
+    return new TaskPurgeBatch(0, null);
+  }
+}
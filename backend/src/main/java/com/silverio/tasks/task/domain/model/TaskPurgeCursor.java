@@ -0,0 +1,16 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.Instant;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição do expurgo: exclusão ({@code updated_at}) e id da última tarefa apagada.
+ * O lote seguinte começa depois dela, sem reler as entradas mortas do índice.
+ */
+public record TaskPurgeCursor(Instant updatedAt, UUID id) {
+  public TaskPurgeCursor {
+    Objects.requireNonNull(updatedAt, "updatedAt é obrigatório");
+    Objects.requireNonNull(id, "id é obrigatório");
+  }
+}
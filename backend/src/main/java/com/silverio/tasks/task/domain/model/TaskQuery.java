@@ -0,0 +1,29 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Filtros da listagem (todos opcionais e combinados com E) e a ordenação.
+ * {@code dueFrom}/{@code dueTo} são inclusivos; {@code overdue} traz só as vencidas ainda abertas
+ * (vencimento no passado e status diferente de DONE).
+ */
+public record TaskQuery(
+  TaskStatus status,
+  TaskPriority priority,
+  LocalDateTime dueFrom,
+  LocalDateTime dueTo,
+  boolean overdue,
+  Instant createdAfter,
+  TaskSort sort
+) {
+  public TaskQuery {
+    if (sort == null) sort = TaskSort.CREATED_AT;
+  }
+
+  /** Só o filtro de status e a ordem de criação: é a listagem simples, servida pelo cache. */
+  public boolean onlyStatus() {
+    return priority == null && dueFrom == null && dueTo == null && !overdue && createdAfter == null
+        && sort == TaskSort.CREATED_AT;
+  }
+}
@@ -0,0 +1,24 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição na listagem com filtros: os campos de ordenação da última tarefa entregue.
+ * Só vale para a mesma {@code sort} com que foi gerado.
+ */
+public record TaskQueryCursor(TaskSort sort, Instant createdAt, LocalDateTime dueDate, TaskPriority priority, UUID id) {
+  public TaskQueryCursor {
+    Objects.requireNonNull(sort, "sort é obrigatório");
+    Objects.requireNonNull(createdAt, "createdAt é obrigatório");
+    Objects.requireNonNull(dueDate, "dueDate é obrigatório");
+    Objects.requireNonNull(priority, "priority é obrigatório");
+    Objects.requireNonNull(id, "id é obrigatório");
+  }
+
+  public static TaskQueryCursor of(TaskSort sort, TaskView task) {
+    return new TaskQueryCursor(sort, task.createdAt(), task.dueDate(), task.priority(), task.id());
+  }
+}
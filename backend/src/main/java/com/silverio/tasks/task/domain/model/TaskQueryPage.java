@@ -0,0 +1,12 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.List;
+
+/**
+ * Uma página da listagem com filtros, na ordem pedida. {@code next} é nulo quando não há mais páginas.
+ */
+public record TaskQueryPage(List<TaskView> items, TaskQueryCursor next) {
+  public boolean hasNext() {
+    return next != null;
+  }
+}
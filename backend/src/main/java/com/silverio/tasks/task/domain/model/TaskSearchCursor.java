@@ -0,0 +1,14 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Posição na busca, ordenada por relevância (score decrescente, depois id).
+ * {@code fuzzy} indica que a busca caiu no fallback por similaridade, mantido nas páginas seguintes.
+ */
+public record TaskSearchCursor(boolean fuzzy, float score, UUID id) {
+  public TaskSearchCursor {
+    Objects.requireNonNull(id, "id é obrigatório");
+  }
+}
@@ -0,0 +1,12 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.List;
+
+/**
+ * Uma página da busca, da mais para a menos relevante. {@code next} é nulo quando não há mais páginas.
+ */
+public record TaskSearchPage(List<TaskView> items, TaskSearchCursor next) {
+  public boolean hasNext() {
+    return next != null;
+  }
+}
@@ -0,0 +1,44 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Ordenações aceitas pela listagem ({@code sort=dueDate}, {@code sort=-priority}, ...). Lista fechada:
+ * cada uma tem índice próprio, e todas desempatam pelo id para a paginação por chave ser estável.
+ * {@code priority} vem da mais urgente (HIGH) para a menos, e dentro da mesma prioridade pelo vencimento.
+ */
+public enum TaskSort {
+  CREATED_AT("createdAt", false),
+  CREATED_AT_DESC("-createdAt", true),
+  DUE_DATE("dueDate", false),
+  DUE_DATE_DESC("-dueDate", true),
+  PRIORITY("priority", false),
+  PRIORITY_DESC("-priority", true);
+
+  public static final String ACCEPTED = Arrays.stream(values()).map(TaskSort::param).collect(Collectors.joining(", "));
+
+  private final String param;
+  private final boolean descending;
+
+  TaskSort(String param, boolean descending) {
+    this.param = param;
+    this.descending = descending;
+  }
+
+  public String param() {
+    return param;
+  }
+
+  public boolean descending() {
+    return descending;
+  }
+
+  public static TaskSort fromParam(String param) {
+    if (param == null || param.isBlank()) return CREATED_AT;
+    for (var sort : values()) {
+      if (sort.param.equals(param)) return sort;
+    }
+    throw new IllegalArgumentException("ordenação desconhecida: " + param);
+  }
+}
@@ -0,0 +1,52 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Contagens das tarefas não deletadas: por status e prioridade, e das vencidas (não concluídas) por prioridade.
+ * Combinações sem tarefa aparecem com zero.
+ */
+public record TaskStats(Map<TaskStatus, Map<TaskPriority, Long>> counts, Map<TaskPriority, Long> overdue) {
+
+  public static TaskStats empty() {
+    var counts = new EnumMap<TaskStatus, Map<TaskPriority, Long>>(TaskStatus.class);
+    for (var status : TaskStatus.values()) counts.put(status, zeros());
+    return new TaskStats(counts, zeros());
+  }
+
+  /** Soma {@code n} à combinação (só para montar o resultado). */
+  public void add(TaskStatus status, TaskPriority priority, long n) {
+    counts.get(status).merge(priority, n, Long::sum);
+  }
+
+  public void addOverdue(TaskPriority priority, long n) {
+    overdue.merge(priority, n, Long::sum);
+  }
+
+  public long total() {
+    return counts.values().stream().flatMap(p -> p.values().stream()).mapToLong(Long::longValue).sum();
+  }
+
+  public Map<TaskStatus, Long> byStatus() {
+    var byStatus = new EnumMap<TaskStatus, Long>(TaskStatus.class);
+    counts.forEach((status, p) -> byStatus.put(status, p.values().stream().mapToLong(Long::longValue).sum()));
+    return byStatus;
+  }
+
+  public Map<TaskPriority, Long> byPriority() {
+    var byPriority = zeros();
+    counts.values().forEach(p -> p.forEach((priority, n) -> byPriority.merge(priority, n, Long::sum)));
+    return byPriority;
+  }
+
+  public long overdueTotal() {
+    return overdue.values().stream().mapToLong(Long::longValue).sum();
+  }
+
+  private static Map<TaskPriority, Long> zeros() {
+    var zeros = new EnumMap<TaskPriority, Long>(TaskPriority.class);
+    for (var priority : TaskPriority.values()) zeros.put(priority, 0L);
+    return zeros;
+  }
+}
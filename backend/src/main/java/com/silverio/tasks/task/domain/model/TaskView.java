@@ -0,0 +1,26 @@
+package com.silverio.tasks.task.domain.model;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Tarefa como aparece nas listagens: preenchida direto pela consulta (projeção), sem entidade
+ * gerenciada pelo Hibernate e sem passar pelas validações de {@link Task}, que já valeram na escrita.
+ * Imutável, então pode ser compartilhada pelo cache sem cópia.
+ */
+public record TaskView(
+  UUID id,
+  String title,
+  String description,
+  TaskStatus status,
+  TaskPriority priority,
+  LocalDateTime dueDate,
+  Instant createdAt,
+  long version
+) {
+  public static TaskView of(Task t) {
+    return new TaskView(t.getId().value(), t.getTitle(), t.getDescription(), t.getStatus(), t.getPriority(),
+        t.getDueDate(), t.getCreatedAt(), t.getVersion());
+  }
+}
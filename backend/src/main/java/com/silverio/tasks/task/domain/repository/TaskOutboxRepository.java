@@ -0,0 +1,19 @@
+package com.silverio.tasks.task.domain.repository;
+
+import com.silverio.tasks.task.domain.model.TaskEvent;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+/** Outbox ({@code tasks_outbox}): fora do {@link TaskRepository}, não passa pelo cache. */
+public interface TaskOutboxRepository {
+  // Liga a gravação de eventos pelo trigger (chave no banco, vale para todas as instâncias; nunca desliga);
+  // reserva até 'limit' eventos disponíveis (FOR UPDATE SKIP LOCKED, até o fim da transação do chamador),
+  // apaga os entregues ou adia os que falharam (espera dobra a cada tentativa, até maxDelay). Os que chegam a
+  // maxAttempts vão para tasks_outbox_dead; devolve quantos
+  void enableOutbox();
+  List<TaskEvent> claimEvents(int limit);
+  void completeEvents(Collection<Long> ids);
+  int retryEvents(Collection<Long> ids, Duration delay, Duration maxDelay, int maxAttempts);
+}
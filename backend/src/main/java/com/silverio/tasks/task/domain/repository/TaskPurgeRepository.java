@@ -0,0 +1,12 @@
+package com.silverio.tasks.task.domain.repository;
+
+import com.silverio.tasks.task.domain.model.TaskPurgeBatch;
+import com.silverio.tasks.task.domain.model.TaskPurgeCursor;
+
+import java.time.Instant;
+
+/** Expurgo do arquivo ({@code tasks_archive}): fora do {@link TaskRepository}, não passa pelo cache. */
+public interface TaskPurgeRepository {
+  // Apaga de vez até 'limit' arquivadas deletadas antes de 'before', na ordem (exclusão, id) depois de 'after'
+  TaskPurgeBatch purgeDeleted(Instant before, TaskPurgeCursor after, int limit);
+}
@@ -0,0 +1,16 @@
+package com.silverio.tasks.task.domain.repository;
+
+import com.silverio.tasks.task.domain.model.TaskDue;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/** Vencimentos das tarefas abertas para os lembretes: fora do {@link TaskRepository}, não passa pelo cache. */
+public interface TaskReminderRepository {
+  // Abertas com vencimento em [from, to), na ordem (vencimento, id) depois de 'after'; e o vencimento
+  // atual das que ainda estão abertas, entre os ids informados
+  List<TaskDue> findOpenDueBetween(LocalDateTime from, LocalDateTime to, TaskDue after, int limit);
+  List<TaskDue> findOpenDue(Collection<UUID> ids);
+}
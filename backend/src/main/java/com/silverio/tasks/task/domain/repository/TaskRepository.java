@@ -1,16 +1,49 @@
 package com.silverio.tasks.task.domain.repository;
 
 import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskChanges;
+import com.silverio.tasks.task.domain.model.TaskCursor;
 import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
+import com.silverio.tasks.task.domain.model.TaskPatch;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskQueryPage;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchPage;
 import com.silverio.tasks.task.domain.model.TaskStatus;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface TaskRepository {
   Task save(Task task);
   Optional<Task> findById(TaskId id);
+  // Escritas diretas (um único comando); vazio/false quando a tarefa não existe, já foi deletada
+  // ou, se expectedVersion for informado, está em outra versão
+  Optional<Task> update(TaskId id, TaskPatch patch, Long expectedVersion);
+  boolean deleteLogical(TaskId id, Long expectedVersion);
+  // Operações em lote: insertAll só para tarefas novas; saveAll para tarefas já existentes
+  List<Task> insertAll(List<Task> tasks);
+  List<Task> saveAll(List<Task> tasks);
+  List<Task> findAllById(Collection<TaskId> ids);
   List<Task> findAll(TaskStatus status);
+  TaskPage findPage(TaskStatus status, TaskCursor after, int limit);
+  // Listagem com filtros e ordenação (não deletadas); after só vale para a mesma ordenação
+  TaskQueryPage findByQuery(TaskQuery query, TaskQueryCursor after, int limit);
+  // Busca em título e descrição (não deletadas), da mais para a menos relevante
+  TaskSearchPage search(TaskStatus status, String text, TaskSearchCursor after, int limit);
+  // Alterações (inclusive exclusões lógicas e arquivadas) a partir de uma revisão; expired se since já foi expurgado
+  TaskChanges findChanges(TaskChangeCursor cursor, int limit);
+  // Arquivamento: move até 'limit' tarefas sem alteração desde 'before' para o arquivo; devolve os ids movidos
+  List<TaskId> archiveDeleted(Instant before, int limit);
+  List<TaskId> archiveDone(Instant before, int limit);
+  // Deve ser consumido dentro de uma transação e fechado ao final (cursor no servidor)
+  Stream<Task> streamAll();
   void deletePhysical(TaskId id);
   List<Task> findAllByDeletedFalse();
   List<Task> findAllByStatusAndDeletedFalse(TaskStatus status);
@@ -0,0 +1,15 @@
+package com.silverio.tasks.task.domain.repository;
+
+import com.silverio.tasks.task.domain.model.TaskStats;
+
+import java.time.LocalDateTime;
+
+/** Resumo do painel ({@code tasks_stats} e deltas): fora do {@link TaskRepository}, não passa pelo cache. */
+public interface TaskStatsRepository {
+  // Contagens do painel, lidas do resumo mais os deltas gravados pelos triggers (sem varrer tasks)
+  TaskStats stats(LocalDateTime now);
+  // Move os deltas acumulados para o resumo; devolve quantos foram movidos
+  long foldStats();
+  // Confere resumo + deltas contra GROUP BY em tasks e grava a diferença como delta; devolve a soma das diferenças
+  long reconcileStats();
+}
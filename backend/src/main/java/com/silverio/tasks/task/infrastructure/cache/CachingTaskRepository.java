@@ -0,0 +1,256 @@
+package com.silverio.tasks.task.infrastructure.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.silverio.tasks.shared.datasource.ReadRouting;
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskChanges;
+import com.silverio.tasks.task.domain.model.TaskCursor;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
+import com.silverio.tasks.task.domain.model.TaskPatch;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskQueryPage;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchPage;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Cache de leitura (read-through) na frente do {@link TaskRepository}.
+ * <p>
+ * Guarda cópias imutáveis por id e as listas/páginas por status. Qualquer escrita
+ * invalida as tarefas afetadas e todas as listas (uma tarefa pode mudar de coluna).
+ * Dentro de uma transação a invalidação é repetida após o commit, para que uma
+ * leitura concorrente não deixe no cache o estado anterior.
+ * <p>
+ * Com réplica, uma carga pode ir para ela quando a última invalidação é mais antiga que o atraso
+ * máximo da réplica ({@code replicaStaleness}): tudo o que invalidou o cache já foi reaplicado lá.
+ * Logo depois de uma invalidação, a carga vai ao primário.
+ */
+public class CachingTaskRepository implements TaskRepository {
+
+  private final TaskRepository delegate;
+  private final Cache<TaskId, TaskSnapshot> byId;
+  private final Cache<TaskStatusKey, List<TaskSnapshot>> lists;
+  private final Cache<PageKey, TaskPage> pages;
+  private final Duration replicaStaleness;
+  private volatile long lastEvicted = System.nanoTime();
+
+  public CachingTaskRepository(TaskRepository delegate, TaskCacheProperties props) {
+    this(delegate, props, null);
+  }
+
+  /** @param replicaStaleness atraso máximo da réplica em uso; {@code null} carrega sempre do primário */
+  public CachingTaskRepository(TaskRepository delegate, TaskCacheProperties props, Duration replicaStaleness) {
+    this.delegate = delegate;
+    this.replicaStaleness = replicaStaleness;
+    this.byId = Caffeine.newBuilder()
+        .maximumSize(props.maxTasks())
+        .expireAfterWrite(props.taskTtl())
+        .recordStats()
+        .build();
+    this.lists = Caffeine.newBuilder()
+        .maximumWeight(props.maxListRows())
+        .<TaskStatusKey, List<TaskSnapshot>>weigher((k, v) -> Math.max(1, v.size()))
+        .expireAfterWrite(props.listTtl())
+        .recordStats()
+        .build();
+    this.pages = Caffeine.newBuilder()
+        .maximumWeight(props.maxListRows())
+        .<PageKey, TaskPage>weigher((k, v) -> Math.max(1, v.items().size()))
+        .expireAfterWrite(props.listTtl())
+        .recordStats()
+        .build();
+  }
+
+  // ---------- leituras ----------
+
+  @Override
+  public Optional<Task> findById(TaskId id) {
+    // carga atômica por chave: uma invalidação concorrente espera a carga terminar,
+    // então uma leitura antiga não sobrescreve a invalidação. Ausências não são guardadas.
+    var snapshot = byId.get(id, k -> load(() -> delegate.findById(k).map(TaskSnapshot::of).orElse(null)));
+    return Optional.ofNullable(snapshot).map(TaskSnapshot::toTask);
+  }
+
+  @Override
+  public List<Task> findAll(TaskStatus status) {
+    var snapshots = lists.get(new TaskStatusKey(status),
+        k -> load(() -> delegate.findAll(status).stream().map(TaskSnapshot::of).toList()));
+    return toTasks(snapshots);
+  }
+
+  @Override
+  public TaskPage findPage(TaskStatus status, TaskCursor after, int limit) {
+    // páginas são de TaskView (imutável): o acerto devolve a mesma instância, sem cópia
+    return pages.get(new PageKey(status, after, limit), k -> load(() -> delegate.findPage(status, after, limit)));
+  }
+
+  // Combinações de filtros demais para cachear: vai sempre ao banco (índices de V6)
+  @Override
+  public TaskQueryPage findByQuery(TaskQuery query, TaskQueryCursor after, int limit) {
+    return delegate.findByQuery(query, after, limit);
+  }
+
+  // Consultas usadas por escritas em lote/exportação/sincronização/busca: sempre vão ao banco
+  @Override
+  public List<Task> findAllById(Collection<TaskId> ids) {
+    return delegate.findAllById(ids);
+  }
+
+  @Override
+  public TaskSearchPage search(TaskStatus status, String text, TaskSearchCursor after, int limit) {
+    return delegate.search(status, text, after, limit);
+  }
+
+  @Override
+  public TaskChanges findChanges(TaskChangeCursor cursor, int limit) {
+    return delegate.findChanges(cursor, limit);
+  }
+
+  @Override
+  public Stream<Task> streamAll() {
+    return delegate.streamAll();
+  }
+
+  @Override
+  public List<Task> findAllByDeletedFalse() {
+    return findAll(null);
+  }
+
+  @Override
+  public List<Task> findAllByStatusAndDeletedFalse(TaskStatus status) {
+    return findAll(status);
+  }
+
+  // ---------- escritas ----------
+
+  @Override
+  public Task save(Task task) {
+    var saved = delegate.save(task);
+    invalidate(List.of(task.getId()));
+    return saved;
+  }
+
+  @Override
+  public Optional<Task> update(TaskId id, TaskPatch patch, Long expectedVersion) {
+    var updated = delegate.update(id, patch, expectedVersion);
+    invalidate(List.of(id));
+    return updated;
+  }
+
+  @Override
+  public boolean deleteLogical(TaskId id, Long expectedVersion) {
+    var deleted = delegate.deleteLogical(id, expectedVersion);
+    invalidate(List.of(id));
+    return deleted;
+  }
+
+  @Override
+  public List<Task> insertAll(List<Task> tasks) {
+    var saved = delegate.insertAll(tasks);
+    invalidate(tasks.stream().map(Task::getId).toList());
+    return saved;
+  }
+
+  @Override
+  public List<Task> saveAll(List<Task> tasks) {
+    var saved = delegate.saveAll(tasks);
+    invalidate(tasks.stream().map(Task::getId).toList());
+    return saved;
+  }
+
+  @Override
+  public void deletePhysical(TaskId id) {
+    delegate.deletePhysical(id);
+    invalidate(List.of(id));
+  }
+
+  @Override
+  public List<TaskId> archiveDeleted(Instant before, int limit) {
+    var archived = delegate.archiveDeleted(before, limit);
+    if (!archived.isEmpty()) invalidate(archived);
+    return archived;
+  }
+
+  @Override
+  public List<TaskId> archiveDone(Instant before, int limit) {
+    var archived = delegate.archiveDone(before, limit);
+    if (!archived.isEmpty()) invalidate(archived);
+    return archived;
+  }
+
+  // ---------- suporte ----------
+
+  Cache<TaskId, TaskSnapshot> byIdCache() {
+    return byId;
+  }
+
+  Cache<TaskStatusKey, List<TaskSnapshot>> listCache() {
+    return lists;
+  }
+
+  Cache<PageKey, TaskPage> pageCache() {
+    return pages;
+  }
+
+  /** Descarta tudo: usado quando avisos de outros nós podem ter se perdido. */
+  public void invalidateAll() {
+    lastEvicted = System.nanoTime();
+    byId.invalidateAll();
+    lists.invalidateAll();
+    pages.invalidateAll();
+  }
+
+  private void invalidate(Collection<TaskId> ids) {
+    evict(ids);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+        @Override
+        public void afterCompletion(int status) {
+          evict(ids);
+        }
+      });
+    }
+  }
+
+  /** Descarta essas tarefas (e as listas) já: usado quando outro nó avisa que elas mudaram. */
+  public void evict(Collection<TaskId> ids) {
+    // antes de descartar: carga que começar depois daqui não pode vir de uma réplica sem este commit
+    lastEvicted = System.nanoTime();
+    byId.invalidateAll(ids);
+    lists.invalidateAll();
+    pages.invalidateAll();
+  }
+
+  // uma leitura da réplica sem o último commit ficaria aqui até o TTL: perto de uma invalidação, só o primário
+  private <T> T load(Supplier<T> load) {
+    if (replicaStaleness != null && System.nanoTime() - lastEvicted > replicaStaleness.toNanos()) {
+      return load.get();
+    }
+    try (var pin = ReadRouting.pinToPrimary()) {
+      return load.get();
+    }
+  }
+
+  private static List<Task> toTasks(List<TaskSnapshot> snapshots) {
+    return snapshots.stream().map(TaskSnapshot::toTask).toList();
+  }
+
+  record TaskStatusKey(TaskStatus status) {}
+
+  record PageKey(TaskStatus status, TaskCursor after, int limit) {}
+}
@@ -0,0 +1,35 @@
+package com.silverio.tasks.task.infrastructure.cache;
+
+import com.silverio.tasks.shared.datasource.ReplicaLagMonitor;
+import com.silverio.tasks.task.infrastructure.persistence.TaskRepositoryImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+@EnableConfigurationProperties(TaskCacheProperties.class)
+@ConditionalOnProperty(prefix = "tasks.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskCacheConfig {
+
+  @Bean
+  @Primary
+  public CachingTaskRepository cachingTaskRepository(TaskRepositoryImpl jpaRepository,
+                                                     TaskCacheProperties props,
+                                                     ObjectProvider<ReplicaLagMonitor> replica,
+                                                     ObjectProvider<MeterRegistry> registry) {
+    var monitor = replica.getIfAvailable();
+    var repo = new CachingTaskRepository(jpaRepository, props, monitor == null ? null : monitor.maxStaleness());
+    // hit/miss/evictions em /actuator/metrics/cache.* (tag cache=tasks.by-id|tasks.lists|tasks.pages)
+    registry.ifAvailable(r -> {
+      CaffeineCacheMetrics.monitor(r, repo.byIdCache(), "tasks.by-id");
+      CaffeineCacheMetrics.monitor(r, repo.listCache(), "tasks.lists");
+      CaffeineCacheMetrics.monitor(r, repo.pageCache(), "tasks.pages");
+    });
+    return repo;
+  }
+}
@@ -0,0 +1,24 @@
+package com.silverio.tasks.task.infrastructure.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração do cache de leitura de tarefas ({@code tasks.cache.*}).
+ *
+ * @param enabled     liga/desliga o cache (desligado, o repositório JPA é usado direto)
+ * @param maxTasks    máximo de tarefas no cache por id
+ * @param taskTtl     tempo de vida de uma tarefa no cache por id
+ * @param maxListRows máximo de linhas somadas entre todas as listas/páginas em cache
+ * @param listTtl     tempo de vida de uma lista/página em cache
+ */
+@ConfigurationProperties(prefix = "tasks.cache")
+public record TaskCacheProperties(
+  @DefaultValue("true") boolean enabled,
+  @DefaultValue("10000") long maxTasks,
+  @DefaultValue("5m") Duration taskTtl,
+  @DefaultValue("20000") long maxListRows,
+  @DefaultValue("30s") Duration listTtl
+) {}
@@ -0,0 +1,34 @@
+package com.silverio.tasks.task.infrastructure.cache;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Cópia imutável de uma {@link Task} guardada no cache. Cada leitura devolve
+ * uma Task nova, então quem altera o objeto retornado não corrompe o cache.
+ */
+record TaskSnapshot(
+  TaskId id,
+  String title,
+  String description,
+  TaskStatus status,
+  TaskPriority priority,
+  LocalDateTime dueDate,
+  Instant createdAt,
+  boolean deleted,
+  long version
+) {
+  static TaskSnapshot of(Task t) {
+    return new TaskSnapshot(t.getId(), t.getTitle(), t.getDescription(), t.getStatus(), t.getPriority(),
+        t.getDueDate(), t.getCreatedAt(), t.isDeleted(), t.getVersion());
+  }
+
+  Task toTask() {
+    return new Task(id, title, description, status, priority, dueDate, createdAt, deleted, version);
+  }
+}
@@ -16,6 +16,13 @@ public class TaskMapper {
     e.setDueDate(task.getDueDate());
     e.setCreatedAt(task.getCreatedAt());
     e.setDeleted(task.isDeleted());
+    e.setVersion(task.getVersion());
+    return e;
+  }
+
+  public static JpaTaskEntity toNewEntity(Task task) {
+    var e = toEntity(task);
+    e.markNew();
     return e;
   }
 
@@ -28,7 +35,8 @@ public class TaskMapper {
       e.getPriority(),
       e.getDueDate(),
       e.getCreatedAt(),
-      e.isDeleted()
+      e.isDeleted(),
+      e.getVersion()
     );
   }
 }
@@ -0,0 +1,22 @@
+package com.silverio.tasks.task.infrastructure.notify;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Payload do NOTIFY mandado pelo trigger {@code tasks_notify} (V13): {@code <nó>;<id>,<id>,...},
+ * até 200 ids por mensagem.
+ */
+record TaskChangeMessage(String node, Set<UUID> ids) {
+
+  static TaskChangeMessage parse(String payload) {
+    var sep = payload.indexOf(';');
+    if (sep <= 0) throw new IllegalArgumentException("notificação sem nó: " + payload);
+    var ids = new LinkedHashSet<UUID>();
+    for (var id : payload.substring(sep + 1).split(",")) {
+      if (!id.isEmpty()) ids.add(UUID.fromString(id));
+    }
+    return new TaskChangeMessage(payload.substring(0, sep), ids);
+  }
+}
@@ -0,0 +1,178 @@
+package com.silverio.tasks.task.infrastructure.notify;
+
+import com.silverio.tasks.shared.cluster.ClusterProperties;
+import com.silverio.tasks.shared.cluster.DedicatedConnections;
+import com.silverio.tasks.shared.concurrent.Threads;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskResyncEvent;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import com.silverio.tasks.task.infrastructure.cache.CachingTaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.UUID;
+
+/**
+ * Canal de alterações entre instâncias com LISTEN/NOTIFY do Postgres, sem broker.
+ * <p>
+ * Envio: o trigger {@code tasks_notify} (V13) manda o NOTIFY dentro da transação que escreve em
+ * {@code tasks}, com os ids alterados e o nó de quem escreveu (marcado na conexão por
+ * {@link com.silverio.tasks.shared.cluster.ClusterSessionTagger}). O Postgres só entrega no commit e
+ * entrega sempre que o commit acontece: a instância cair logo depois não perde o aviso.
+ * <p>
+ * Recebimento: uma conexão dedicada fica em LISTEN. Para cada id vindo de outra instância, o cache
+ * é invalidado, o ETag da listagem muda e um {@link TaskChangedEvent} {@code remote} com o estado
+ * atual é publicado aqui (SSE e lembretes reagem como a uma escrita local).
+ * <p>
+ * NOTIFY não fica guardado para quem não está ouvindo: o que foi avisado com esta instância
+ * desconectada se perde. Por isso, ao reabrir o LISTEN, ela recebe {@link TaskResyncEvent} e
+ * descarta o cache inteiro. Uma sessão que caiu sem aviso só dá erro quando alguém escreve nela:
+ * depois de {@code tasks.cluster.probe-every} esperas vazias seguidas a conexão é testada, e se não
+ * responde é tratada como queda.
+ */
+public class TaskChangeNotifier implements SmartLifecycle {
+
+  private static final Logger log = LoggerFactory.getLogger(TaskChangeNotifier.class);
+  private static final int PROBE_TIMEOUT_SECONDS = 5;
+
+  private final DedicatedConnections connections;
+  private final TaskRepository repo;
+  private final CachingTaskRepository cache;
+  private final TaskRevision revision;
+  private final ApplicationEventPublisher events;
+  private final ClusterProperties props;
+  private final Counter received;
+  private final Counter resyncs;
+  private volatile boolean running;
+  private Thread listener;
+
+  public TaskChangeNotifier(DedicatedConnections connections,
+                            TaskRepository repo,
+                            CachingTaskRepository cache,
+                            TaskRevision revision,
+                            ApplicationEventPublisher events,
+                            ClusterProperties props,
+                            MeterRegistry registry) {
+    this.connections = connections;
+    this.repo = repo;
+    this.cache = cache;
+    this.revision = revision;
+    this.events = events;
+    this.props = props;
+    this.received = Counter.builder("tasks.cluster.notify.received")
+        .description("Ids de tarefas alteradas por outras instâncias")
+        .register(registry);
+    this.resyncs = Counter.builder("tasks.cluster.notify.resync")
+        .description("Descartes completos por notificações possivelmente perdidas")
+        .register(registry);
+  }
+
+  @Override
+  public void start() {
+    running = true;
+    listener = Threads.startDaemon("tasks-notify-listen", this::listen);
+  }
+
+  @Override
+  public void stop() {
+    running = false;
+    try {
+      listener.join(props.pollInterval().toMillis() + 1000);
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public boolean isRunning() {
+    return running;
+  }
+
+  private void listen() {
+    Connection conn = null;
+    var connectedBefore = false;
+    var idle = 0;
+    while (running) {
+      try {
+        if (conn == null) {
+          conn = connections.open("listen");
+          try (var st = conn.createStatement()) {
+            st.execute("LISTEN " + props.channel());
+          }
+          // o que foi avisado enquanto este nó não ouvia se perdeu
+          if (connectedBefore) resync();
+          connectedBefore = true;
+          idle = 0;
+        }
+        var notifications = conn.unwrap(PGConnection.class).getNotifications((int) props.pollInterval().toMillis());
+        if (notifications == null) {
+          if (++idle >= props.probeEvery()) {
+            idle = 0;
+            probe(conn);
+          }
+          continue;
+        }
+        idle = 0;
+        for (var notification : notifications) {
+          var message = TaskChangeMessage.parse(notification.getParameter());
+          if (!message.node().equals(props.nodeId())) apply(message);
+        }
+      } catch (SQLException ex) {
+        log.warn("Canal de alterações caiu, reconectando: {}", ex.getMessage());
+        conn = close(conn);
+        if (!Threads.pause(props.reconnectDelay())) return;
+      } catch (RuntimeException ex) {
+        log.warn("Falha ao aplicar alterações de outra instância: {}", ex.getMessage());
+        resync();
+      }
+    }
+    close(conn);
+  }
+
+  void apply(TaskChangeMessage message) {
+    received.increment(message.ids().size());
+    var ids = message.ids().stream().map(TaskId::new).toList();
+    if (cache != null) cache.evict(ids);
+    revision.changed();
+    var live = new HashMap<UUID, Task>();
+    repo.findAllById(ids).forEach(t -> live.put(t.getId().value(), t));
+    for (var id : message.ids()) {
+      events.publishEvent(TaskChangedEvent.remote(id, live.get(id)));
+    }
+  }
+
+  void resync() {
+    resyncs.increment();
+    if (cache != null) cache.invalidateAll();
+    revision.changed();
+    events.publishEvent(new TaskResyncEvent());
+  }
+
+  private static void probe(Connection conn) throws SQLException {
+    if (!conn.isValid(PROBE_TIMEOUT_SECONDS)) {
+      throw new SQLException("conexão do LISTEN não respondeu em " + PROBE_TIMEOUT_SECONDS + "s");
+    }
+  }
+
+  private static Connection close(Connection conn) {
+    if (conn != null) {
+      try {
+        conn.close();
+      } catch (SQLException ignored) {
+        // a sessão já caiu
+      }
+    }
+    return null;
+  }
+}
@@ -0,0 +1,30 @@
+package com.silverio.tasks.task.infrastructure.notify;
+
+import com.silverio.tasks.shared.cluster.ClusterProperties;
+import com.silverio.tasks.shared.cluster.DedicatedConnections;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import com.silverio.tasks.task.infrastructure.cache.CachingTaskRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(prefix = "tasks.cluster", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskChangeNotifyConfig {
+
+  // sem cache (tasks.cache.enabled=false) só o ETag, o SSE e os lembretes precisam do aviso
+  @Bean
+  public TaskChangeNotifier taskChangeNotifier(DedicatedConnections connections,
+                                               TaskRepository repo,
+                                               ObjectProvider<CachingTaskRepository> cache,
+                                               TaskRevision revision,
+                                               ApplicationEventPublisher events,
+                                               ClusterProperties props,
+                                               MeterRegistry registry) {
+    return new TaskChangeNotifier(connections, repo, cache.getIfAvailable(), revision, events, props, registry);
+  }
+}
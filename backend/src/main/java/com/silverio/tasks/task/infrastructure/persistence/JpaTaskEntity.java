@@ -3,8 +3,10 @@ package com.silverio.tasks.task.infrastructure.persistence;
 import com.silverio.tasks.task.domain.model.TaskPriority;
 import com.silverio.tasks.task.domain.model.TaskStatus;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.springframework.data.domain.Persistable;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
@@ -14,7 +16,7 @@ import java.util.UUID;
 @Table(name = "tasks")
 @Getter
 @Setter
-public class JpaTaskEntity {
+public class JpaTaskEntity implements Persistable<UUID> {
 
   @Id
   private UUID id;
@@ -41,4 +43,36 @@ public class JpaTaskEntity {
 
   @Column(nullable = false)
   private boolean deleted;
+
+  @Version
+  @Column(nullable = false)
+  private long version;
+
+  // Mantidos pelo trigger trg_tasks_touch: somente leitura para o Hibernate
+  @Column(insertable = false, updatable = false)
+  private long revision;
+
+  @Column(name = "updated_at", insertable = false, updatable = false)
+  private Instant updatedAt;
+
+  // Id é atribuído pela aplicação: sem isso o save() faria merge (SELECT antes do INSERT)
+  @Transient
+  @Getter(AccessLevel.NONE)
+  @Setter(AccessLevel.NONE)
+  private boolean newEntity;
+
+  @Override
+  public boolean isNew() {
+    return newEntity;
+  }
+
+  public void markNew() {
+    this.newEntity = true;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    this.newEntity = false;
+  }
 }
@@ -1,13 +1,100 @@
 package com.silverio.tasks.task.infrastructure.persistence;
 
 import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.model.TaskView;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface JpaTaskRepository extends JpaRepository<JpaTaskEntity, UUID> {
   List<JpaTaskEntity> findByStatus(TaskStatus status);
   List<JpaTaskEntity> findAllByDeletedFalse();
   List<JpaTaskEntity> findAllByStatusAndDeletedFalse(TaskStatus status);
+  List<JpaTaskEntity> findAllByIdInAndDeletedFalse(Collection<UUID> ids);
+  Optional<JpaTaskEntity> findByIdAndDeletedFalse(UUID id);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update JpaTaskEntity t set t.deleted = true, t.version = t.version + 1
+      where t.id = :id and t.deleted = false
+      """)
+  int softDelete(@Param("id") UUID id);
+
+  @Transactional
+  @Modifying
+  @Query("""
+      update JpaTaskEntity t set t.deleted = true, t.version = t.version + 1
+      where t.id = :id and t.deleted = false and t.version = :version
+      """)
+  int softDelete(@Param("id") UUID id, @Param("version") long version);
+
+  // Paginação por chave (created_at, id): usa idx_tasks_live_created_at_id / idx_tasks_live_status_created_at_id.
+  // Projeção direto em TaskView: nada entra no contexto de persistência (sem snapshot nem dirty checking)
+  @Query("""
+      select new com.silverio.tasks.task.domain.model.TaskView(
+        t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.version)
+      from JpaTaskEntity t
+      where t.deleted = false
+      order by t.createdAt, t.id
+      """)
+  List<TaskView> findFirstPage(Pageable limit);
+
+  @Query("""
+      select new com.silverio.tasks.task.domain.model.TaskView(
+        t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.version)
+      from JpaTaskEntity t
+      where t.deleted = false
+        and t.createdAt >= :createdAt
+        and (t.createdAt > :createdAt or t.id > :id)
+      order by t.createdAt, t.id
+      """)
+  List<TaskView> findPageAfter(@Param("createdAt") Instant createdAt,
+                               @Param("id") UUID id,
+                               Pageable limit);
+
+  @Query("""
+      select new com.silverio.tasks.task.domain.model.TaskView(
+        t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.version)
+      from JpaTaskEntity t
+      where t.deleted = false and t.status = :status
+      order by t.createdAt, t.id
+      """)
+  List<TaskView> findFirstPageByStatus(@Param("status") TaskStatus status, Pageable limit);
+
+  @Query("""
+      select new com.silverio.tasks.task.domain.model.TaskView(
+        t.id, t.title, t.description, t.status, t.priority, t.dueDate, t.createdAt, t.version)
+      from JpaTaskEntity t
+      where t.deleted = false and t.status = :status
+        and t.createdAt >= :createdAt
+        and (t.createdAt > :createdAt or t.id > :id)
+      order by t.createdAt, t.id
+      """)
+  List<TaskView> findPageByStatusAfter(@Param("status") TaskStatus status,
+                                       @Param("createdAt") Instant createdAt,
+                                       @Param("id") UUID id,
+                                       Pageable limit);
+
+  // Exportação: cursor no servidor (fetch size) e entidades somente leitura
+  @QueryHints({
+      @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+      @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+      @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+  })
+  @Query("select t from JpaTaskEntity t where t.deleted = false order by t.createdAt, t.id")
+  Stream<JpaTaskEntity> streamAllByDeletedFalse();
 }
@@ -0,0 +1,79 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.TaskEvent;
+import com.silverio.tasks.task.domain.model.TaskEventType;
+import com.silverio.tasks.task.domain.repository.TaskOutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@Timed(value = "tasks.repository", histogram = true)
+public class TaskOutboxRepositoryImpl implements TaskOutboxRepository {
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public TaskOutboxRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  // só grava quando muda: as subidas seguintes não disputam a linha
+  @Override
+  public void enableOutbox() {
+    jdbc.update("UPDATE tasks_outbox_state SET enabled = true WHERE NOT enabled", new MapSqlParameterSource());
+  }
+
+  // A tarefa volta do payload pelo próprio tipo da tabela (jsonb_populate_record), lida pelo TaskRowMapper.
+  // Só faz sentido dentro de uma transação: os eventos ficam reservados até o commit ou rollback
+  @Override
+  public List<TaskEvent> claimEvents(int limit) {
+    var sql = """
+        SELECT e.id AS event_id, e.type, e.created_at AS event_created_at, e.attempts, t.*
+        FROM (SELECT id, type, payload, created_at, attempts FROM tasks_outbox
+              WHERE available_at <= now()
+              ORDER BY available_at, id LIMIT :limit FOR UPDATE SKIP LOCKED) e,
+             jsonb_populate_record(null::tasks, e.payload) t
+        ORDER BY e.id
+        """;
+    return jdbc.query(sql, new MapSqlParameterSource("limit", limit), (rs, n) -> new TaskEvent(
+        rs.getLong("event_id"),
+        TaskEventType.valueOf(rs.getString("type")),
+        TaskRowMapper.INSTANCE.mapRow(rs, n),
+        rs.getObject("event_created_at", OffsetDateTime.class).toInstant(),
+        rs.getInt("attempts")));
+  }
+
+  @Override
+  public void completeEvents(Collection<Long> ids) {
+    if (ids.isEmpty()) return;
+    jdbc.update("DELETE FROM tasks_outbox WHERE id IN (:ids)", new MapSqlParameterSource("ids", ids));
+  }
+
+  @Override
+  public int retryEvents(Collection<Long> ids, Duration delay, Duration maxDelay, int maxAttempts) {
+    if (ids.isEmpty()) return 0;
+    var params = new MapSqlParameterSource("ids", ids)
+        .addValue("delay", delay.toMillis() / 1000.0)
+        .addValue("maxDelay", maxDelay.toMillis() / 1000.0)
+        .addValue("maxAttempts", maxAttempts);
+    var dead = jdbc.update("""
+        WITH dead AS (
+          DELETE FROM tasks_outbox WHERE id IN (:ids) AND attempts + 1 >= :maxAttempts
+          RETURNING id, task_id, type, payload, created_at, attempts)
+        INSERT INTO tasks_outbox_dead (id, task_id, type, payload, created_at, attempts)
+        SELECT id, task_id, type, payload, created_at, attempts + 1 FROM dead
+        """, params);
+    jdbc.update("""
+        UPDATE tasks_outbox SET attempts = attempts + 1,
+          available_at = now() + make_interval(secs => least(:delay * power(2, attempts), :maxDelay))
+        WHERE id IN (:ids)
+        """, params);
+    return dead;
+  }
+}
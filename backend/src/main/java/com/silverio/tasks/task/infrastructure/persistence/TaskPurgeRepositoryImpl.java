@@ -0,0 +1,55 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.TaskPurgeBatch;
+import com.silverio.tasks.task.domain.model.TaskPurgeCursor;
+import com.silverio.tasks.task.domain.repository.TaskPurgeRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+@Repository
+@Timed(value = "tasks.repository", histogram = true)
+public class TaskPurgeRepositoryImpl implements TaskPurgeRepository {
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public TaskPurgeRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  // Um único comando: apaga o lote e, se ele levou remoções mais novas que o horizonte, avança o horizonte
+  // (na mesma transação; a sincronização nunca vê um sem o outro). A chave (updated_at, id) continua de onde o
+  // lote anterior parou, sem descer de novo pelas entradas que ele deixou mortas no índice até o vacuum
+  @Override
+  public TaskPurgeBatch purgeDeleted(Instant before, TaskPurgeCursor after, int limit) {
+    var params = new MapSqlParameterSource("before", before.atOffset(ZoneOffset.UTC)).addValue("limit", limit);
+    var keyset = "";
+    if (after != null) {
+      keyset = " AND (updated_at, id) > (:afterUpdatedAt, :afterId)";
+      params.addValue("afterUpdatedAt", after.updatedAt().atOffset(ZoneOffset.UTC)).addValue("afterId", after.id());
+    }
+    var sql = """
+        WITH purged AS (
+          DELETE FROM tasks_archive WHERE id IN (
+            SELECT id FROM tasks_archive WHERE deleted = true AND updated_at < :before%s
+            ORDER BY updated_at, id LIMIT :limit FOR UPDATE SKIP LOCKED)
+          RETURNING id, updated_at, revision),
+        horizon AS (
+          UPDATE tasks_sync_horizon SET revision = (SELECT max(revision) FROM purged)
+          WHERE revision < (SELECT max(revision) FROM purged))
+        SELECT id, updated_at, count(*) OVER () AS purged
+        FROM purged
+        ORDER BY updated_at DESC, id DESC
+        LIMIT 1
+        """.formatted(keyset);
+    var last = jdbc.query(sql, params, (rs, n) -> new TaskPurgeBatch(rs.getInt("purged"),
+        new TaskPurgeCursor(rs.getObject("updated_at", OffsetDateTime.class).toInstant(), rs.getObject("id", UUID.class))));
+    return last.isEmpty() ? TaskPurgeBatch.empty() : last.get(0);
+  }
+}
@@ -0,0 +1,106 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskSort;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Monta o SELECT da listagem com filtros a partir de {@link TaskQuery}. Só entram no SQL os filtros
+ * e ordenações da lista fechada, cada um coberto por um índice parcial (V6); valores sempre como parâmetro.
+ * Público para o teste de planos (EXPLAIN) rodar exatamente o mesmo SQL.
+ */
+public record TaskQuerySql(String sql, MapSqlParameterSource params) {
+
+  // mesma expressão do índice idx_tasks_live_priority_rank: o Postgres só usa o índice se for idêntica
+  static final String PRIORITY_RANK = "(CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END)";
+
+  /** {@code limit} já inclui a linha a mais que indica a próxima página; {@code now} decide o que está vencido. */
+  public static TaskQuerySql of(TaskQuery query, TaskQueryCursor after, int limit, LocalDateTime now) {
+    var where = new ArrayList<String>();
+    var params = new MapSqlParameterSource("limit", limit);
+    where.add("deleted = false");
+    if (query.status() != null) {
+      where.add("status = :status");
+      params.addValue("status", query.status().name());
+    }
+    if (query.priority() != null) {
+      where.add("priority = :priority");
+      params.addValue("priority", query.priority().name());
+    }
+    if (query.dueFrom() != null) {
+      where.add("due_date >= :dueFrom");
+      params.addValue("dueFrom", query.dueFrom());
+    }
+    if (query.dueTo() != null) {
+      where.add("due_date <= :dueTo");
+      params.addValue("dueTo", query.dueTo());
+    }
+    if (query.overdue()) {
+      // literal, não parâmetro: casa com o predicado do índice parcial idx_tasks_open_due_date_id
+      where.add("status <> 'DONE'");
+      where.add("due_date < :now");
+      params.addValue("now", now);
+    }
+    if (query.createdAfter() != null) {
+      where.add("created_at > :createdAfter");
+      params.addValue("createdAfter", utc(query.createdAfter()));
+    }
+
+    var keys = keys(query.sort());
+    if (after != null) {
+      // (a, b, id) > (:a, :b, :id): comparação de linha, vira condição de índice (todas as chaves na mesma direção)
+      var values = values(after);
+      var placeholders = new ArrayList<String>(keys.size());
+      for (int i = 0; i < keys.size(); i++) {
+        placeholders.add(":after" + i);
+        params.addValue("after" + i, values.get(i));
+      }
+      where.add("(" + String.join(", ", keys) + ") " + (query.sort().descending() ? "<" : ">")
+          + " (" + String.join(", ", placeholders) + ")");
+    }
+
+    var direction = query.sort().descending() ? " DESC" : "";
+    var sql = "SELECT " + TaskViewRowMapper.COLUMNS + " FROM tasks WHERE " + String.join(" AND ", where)
+        + " ORDER BY " + String.join(direction + ", ", keys) + direction
+        + " LIMIT :limit";
+    return new TaskQuerySql(sql, params);
+  }
+
+  private static List<String> keys(TaskSort sort) {
+    return switch (sort) {
+      case CREATED_AT, CREATED_AT_DESC -> List.of("created_at", "id");
+      case DUE_DATE, DUE_DATE_DESC -> List.of("due_date", "id");
+      case PRIORITY, PRIORITY_DESC -> List.of(PRIORITY_RANK, "due_date", "id");
+    };
+  }
+
+  private static List<Object> values(TaskQueryCursor after) {
+    return switch (after.sort()) {
+      case CREATED_AT, CREATED_AT_DESC -> List.of(utc(after.createdAt()), after.id());
+      case DUE_DATE, DUE_DATE_DESC -> List.of(after.dueDate(), after.id());
+      case PRIORITY, PRIORITY_DESC -> List.of(rank(after.priority()), after.dueDate(), after.id());
+    };
+  }
+
+  private static int rank(TaskPriority priority) {
+    return switch (priority) {
+      case HIGH -> 0;
+      case MEDIUM -> 1;
+      case LOW -> 2;
+    };
+  }
+
+  // created_at é TIMESTAMP gravado em UTC (o TaskViewRowMapper lê assim): parâmetro do mesmo tipo,
+  // senão o Postgres converte a coluna para timestamptz e o índice deixa de servir
+  private static LocalDateTime utc(Instant instant) {
+    return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+  }
+}
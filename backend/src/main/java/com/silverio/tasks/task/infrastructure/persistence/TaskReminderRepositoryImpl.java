@@ -0,0 +1,52 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.TaskDue;
+import com.silverio.tasks.task.domain.repository.TaskReminderRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+@Timed(value = "tasks.repository", histogram = true)
+public class TaskReminderRepositoryImpl implements TaskReminderRepository {
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public TaskReminderRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  // Só (due_date, id): index-only scan em idx_tasks_open_due_date_id, por chave a partir de 'after'
+  @Override
+  public List<TaskDue> findOpenDueBetween(LocalDateTime from, LocalDateTime to, TaskDue after, int limit) {
+    var params = new MapSqlParameterSource("from", from).addValue("to", to).addValue("limit", limit);
+    var keyset = "";
+    if (after != null) {
+      keyset = " AND (due_date, id) > (:afterDue, :afterId)";
+      params.addValue("afterDue", after.dueDate()).addValue("afterId", after.id());
+    }
+    var sql = "SELECT id, due_date FROM tasks WHERE deleted = false AND status <> 'DONE'"
+        + " AND due_date >= :from AND due_date < :to" + keyset
+        + " ORDER BY due_date, id LIMIT :limit";
+    return jdbc.query(sql, params, TaskReminderRepositoryImpl::taskDue);
+  }
+
+  @Override
+  public List<TaskDue> findOpenDue(Collection<UUID> ids) {
+    if (ids.isEmpty()) return List.of();
+    var sql = "SELECT id, due_date FROM tasks WHERE id IN (:ids) AND deleted = false AND status <> 'DONE'";
+    return jdbc.query(sql, new MapSqlParameterSource("ids", ids), TaskReminderRepositoryImpl::taskDue);
+  }
+
+  private static TaskDue taskDue(ResultSet rs, int rowNum) throws SQLException {
+    return new TaskDue(rs.getObject("id", UUID.class), rs.getObject("due_date", LocalDateTime.class));
+  }
+}
@@ -1,22 +1,61 @@
 package com.silverio.tasks.task.infrastructure.persistence;
 
+import com.silverio.tasks.shared.metrics.StatusTagResolver;
 import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskChanges;
+import com.silverio.tasks.task.domain.model.TaskCursor;
 import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
+import com.silverio.tasks.task.domain.model.TaskPatch;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskQueryPage;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchPage;
 import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.model.TaskView;
 import com.silverio.tasks.task.domain.repository.TaskRepository;
 import com.silverio.tasks.task.infrastructure.mapper.TaskMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.aop.MeterTag;
+import jakarta.persistence.EntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+// tasks.repository{operation, status}: só o acesso ao banco (acertos do cache não passam por aqui)
 @Repository
+@Timed(value = "tasks.repository", histogram = true)
 public class TaskRepositoryImpl implements TaskRepository {
 
+  private static final int MAX_SEARCH_TERMS = 8;
+  private static final String CHANGE_COLUMNS =
+      "id, title, description, status, priority, due_date, created_at, version, revision";
+
   private final JpaTaskRepository jpa;
+  private final EntityManager em;
+  private final NamedParameterJdbcTemplate jdbc;
 
-  public TaskRepositoryImpl(JpaTaskRepository jpa) {
+  public TaskRepositoryImpl(JpaTaskRepository jpa, EntityManager em, NamedParameterJdbcTemplate jdbc) {
     this.jpa = jpa;
+    this.em = em;
+    this.jdbc = jdbc;
   }
 
   @Override
@@ -27,16 +66,265 @@ public class TaskRepositoryImpl implements TaskRepository {
 
   @Override
   public Optional<Task> findById(TaskId id) {
-    // @Where já filtra deleted=false em todas as consultas
-    return jpa.findById(id.value()).map(TaskMapper::toDomain);
+    return jpa.findByIdAndDeletedFalse(id.value()).map(TaskMapper::toDomain);
+  }
+
+  @Override
+  public Optional<Task> update(TaskId id, TaskPatch patch, Long expectedVersion) {
+    if (patch.isEmpty()) {
+      return findById(id).filter(t -> expectedVersion == null || t.getVersion() == expectedVersion);
+    }
+
+    // UPDATE ... RETURNING: grava só os campos informados e devolve a linha numa única ida ao banco
+    var sets = new ArrayList<String>();
+    var params = new MapSqlParameterSource("id", id.value());
+    if (patch.title() != null) {
+      sets.add("title = :title");
+      params.addValue("title", patch.title());
+    }
+    if (patch.description() != null) {
+      sets.add("description = :description");
+      params.addValue("description", patch.description());
+    }
+    if (patch.status() != null) {
+      sets.add("status = :status");
+      params.addValue("status", patch.status().name());
+    }
+    if (patch.priority() != null) {
+      sets.add("priority = :priority");
+      params.addValue("priority", patch.priority().name());
+    }
+    if (patch.dueDate() != null) {
+      sets.add("due_date = :dueDate");
+      params.addValue("dueDate", patch.dueDate());
+    }
+
+    sets.add("version = version + 1");
+
+    var sql = "UPDATE tasks SET " + String.join(", ", sets) + " WHERE id = :id AND deleted = false";
+    if (expectedVersion != null) {
+      sql += " AND version = :version";
+      params.addValue("version", expectedVersion);
+    }
+    sql += " RETURNING *";
+    return jdbc.query(sql, params, TaskRowMapper.INSTANCE).stream().findFirst();
+  }
+
+  @Override
+  public boolean deleteLogical(TaskId id, Long expectedVersion) {
+    var rows = (expectedVersion == null)
+        ? jpa.softDelete(id.value())
+        : jpa.softDelete(id.value(), expectedVersion);
+    return rows > 0;
+  }
+
+  @Override
+  public List<Task> insertAll(List<Task> tasks) {
+    // isNew=true: persist direto, em lotes JDBC (hibernate.jdbc.batch_size)
+    var entities = tasks.stream().map(TaskMapper::toNewEntity).toList();
+    return jpa.saveAll(entities).stream().map(TaskMapper::toDomain).toList();
   }
 
   @Override
-  public List<Task> findAll(TaskStatus status) {
+  public List<Task> saveAll(List<Task> tasks) {
+    var entities = tasks.stream().map(TaskMapper::toEntity).toList();
+    return jpa.saveAll(entities).stream().map(TaskMapper::toDomain).toList();
+  }
+
+  @Override
+  public List<Task> findAllById(Collection<TaskId> ids) {
+    var uuids = ids.stream().map(TaskId::value).toList();
+    return jpa.findAllByIdInAndDeletedFalse(uuids).stream().map(TaskMapper::toDomain).toList();
+  }
+
+  @Override
+  public List<Task> findAll(@MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status) {
     var list = (status == null) ? jpa.findAllByDeletedFalse() : jpa.findAllByStatusAndDeletedFalse(status);
     return list.stream().map(TaskMapper::toDomain).toList();
   }
 
+  @Override
+  @Transactional(readOnly = true)
+  public TaskPage findPage(@MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status,
+                           TaskCursor after,
+                           int limit) {
+    // busca um item a mais só para saber se existe próxima página
+    var pageable = PageRequest.ofSize(limit + 1);
+    List<TaskView> rows;
+    if (status == null) {
+      rows = (after == null)
+          ? jpa.findFirstPage(pageable)
+          : jpa.findPageAfter(after.createdAt(), after.id(), pageable);
+    } else {
+      rows = (after == null)
+          ? jpa.findFirstPageByStatus(status, pageable)
+          : jpa.findPageByStatusAfter(status, after.createdAt(), after.id(), pageable);
+    }
+
+    var hasNext = rows.size() > limit;
+    var items = rows.size() > limit ? List.copyOf(rows.subList(0, limit)) : List.copyOf(rows);
+    var next = hasNext ? TaskCursor.of(items.get(items.size() - 1)) : null;
+    return new TaskPage(items, next);
+  }
+
+  @Override
+  public TaskQueryPage findByQuery(TaskQuery query, TaskQueryCursor after, int limit) {
+    var select = TaskQuerySql.of(query, after, limit + 1, LocalDateTime.now());
+    var rows = jdbc.query(select.sql(), select.params(), TaskViewRowMapper.INSTANCE);
+    var hasNext = rows.size() > limit;
+    var items = hasNext ? List.copyOf(rows.subList(0, limit)) : List.copyOf(rows);
+    var next = hasNext ? TaskQueryCursor.of(query.sort(), items.get(items.size() - 1)) : null;
+    return new TaskQueryPage(items, next);
+  }
+
+  @Override
+  public TaskChanges findChanges(TaskChangeCursor cursor, int limit) {
+    // o watermark (transação mais antiga em andamento: abaixo dela tudo já está visível) é lido antes dos dados
+    // e mantido em todas as páginas da rodada. No mesmo comando,
+    // o horizonte do expurgo: remoções até ele já não existem, então since <= horizonte não tem como seguir
+    long watermark;
+    if (cursor.isFirstPage()) {
+      var start = jdbc.getJdbcTemplate().queryForMap(
+          "SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS watermark,"
+              + " (SELECT revision FROM tasks_sync_horizon) AS horizon");
+      var horizon = ((Number) start.get("horizon")).longValue();
+      if (cursor.since() > 0 && cursor.since() <= horizon) return TaskChanges.expired(horizon);
+      watermark = ((Number) start.get("watermark")).longValue();
+    } else {
+      watermark = cursor.watermark();
+    }
+    var params = new MapSqlParameterSource("since", cursor.since()).addValue("limit", limit + 1);
+    var after = "";
+    if (!cursor.isFirstPage()) {
+      after = " AND (revision, id) > (:afterRevision, :afterId)";
+      params.addValue("afterRevision", cursor.afterRevision()).addValue("afterId", cursor.afterId());
+    }
+    // tabela viva (inclui deletadas, como tombstones) + arquivadas, que saíram da lista e voltam como removidas;
+    // cada lado desce pelo seu índice (revision, id) e só a página é ordenada
+    var sql = "(SELECT " + CHANGE_COLUMNS + ", deleted FROM tasks WHERE revision >= :since" + after
+        + " ORDER BY revision, id LIMIT :limit)"
+        + " UNION ALL (SELECT " + CHANGE_COLUMNS + ", true AS deleted FROM tasks_archive WHERE revision >= :since" + after
+        + " ORDER BY revision, id LIMIT :limit)"
+        + " ORDER BY revision, id LIMIT :limit";
+    var rows = jdbc.query(sql, params,
+        (rs, n) -> new Revised(TaskRowMapper.INSTANCE.mapRow(rs, n), rs.getLong("revision")));
+
+    var hasNext = rows.size() > limit;
+    var page = rows.subList(0, Math.min(limit, rows.size()));
+    TaskChangeCursor next = null;
+    if (hasNext) {
+      var last = page.get(page.size() - 1);
+      next = new TaskChangeCursor(cursor.since(), watermark, last.revision(), last.task().getId().value());
+    }
+    return new TaskChanges(page.stream().map(Revised::task).toList(), watermark, next);
+  }
+
+  @Override
+  public List<TaskId> archiveDeleted(Instant before, int limit) {
+    return archive("deleted = true", before, limit);
+  }
+
+  @Override
+  public List<TaskId> archiveDone(Instant before, int limit) {
+    return archive("deleted = false AND status = 'DONE'", before, limit);
+  }
+
+  // Um único comando (atômico sem transação explícita): apaga da tabela viva e grava no arquivo.
+  // SKIP LOCKED: linhas em edição ficam para o próximo lote, e duas instâncias arquivando não se bloqueiam
+  private List<TaskId> archive(String candidates, Instant before, int limit) {
+    var sql = """
+        WITH moved AS (
+          DELETE FROM tasks WHERE id IN (
+            SELECT id FROM tasks WHERE %s AND updated_at < :before
+            ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED)
+          RETURNING id, title, description, status, priority, due_date, created_at, deleted, version, updated_at)
+        INSERT INTO tasks_archive (id, title, description, status, priority, due_date, created_at, deleted, version,
+                                   updated_at, revision)
+        SELECT id, title, description, status, priority, due_date, created_at, deleted, version,
+               updated_at, pg_current_xact_id()::text::bigint
+        FROM moved
+        RETURNING id
+        """.formatted(candidates);
+    var params = new MapSqlParameterSource("before", before.atOffset(ZoneOffset.UTC)).addValue("limit", limit);
+    return jdbc.queryForList(sql, params, UUID.class).stream().map(TaskId::new).toList();
+  }
+
+  @Override
+  public TaskSearchPage search(@MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status,
+                               String text,
+                               TaskSearchCursor after,
+                               int limit) {
+    if (after != null) {
+      return searchPage(after.fuzzy(), status, text, after, limit);
+    }
+    var page = searchPage(false, status, text, null, limit);
+    // nada pela busca textual (erro de digitação?): tenta por similaridade no título
+    return page.items().isEmpty() ? searchPage(true, status, text, null, limit) : page;
+  }
+
+  private TaskSearchPage searchPage(boolean fuzzy, TaskStatus status, String text, TaskSearchCursor after, int limit) {
+    var params = new MapSqlParameterSource("limit", limit + 1);
+    String score;
+    String match;
+    if (fuzzy) {
+      // <% (alguma palavra parecida, limiar 0.6) ou % (título todo parecido, limiar 0.3): os dois usam
+      // idx_tasks_title_trgm; o segundo pega consultas de várias palavras com erro em todas
+      score = "word_similarity(:text, title)";
+      match = "(:text <% title OR :text % title)";
+      params.addValue("text", text);
+    } else {
+      var query = toTsQuery(text);
+      if (query.isEmpty()) return new TaskSearchPage(List.of(), null);
+      // @@ usa idx_tasks_search; ts_rank pondera título (A) acima da descrição (B)
+      score = "ts_rank(search, to_tsquery('tasks_pt', :query))";
+      match = "search @@ to_tsquery('tasks_pt', :query)";
+      params.addValue("query", query);
+    }
+
+    var sql = new StringBuilder("SELECT ").append(TaskViewRowMapper.COLUMNS).append(", ").append(score).append(" AS score")
+        .append(" FROM tasks WHERE deleted = false AND ").append(match);
+    if (status != null) {
+      sql.append(" AND status = :status");
+      params.addValue("status", status.name());
+    }
+    if (after != null) {
+      // mesma expressão, mesmo valor (real): o keyset por (score desc, id) não repete nem pula linhas
+      sql.append(" AND (").append(score).append(" < :score OR (").append(score).append(" = :score AND id > :id))");
+      params.addValue("score", after.score());
+      params.addValue("id", after.id());
+    }
+    sql.append(" ORDER BY score DESC, id LIMIT :limit");
+
+    var rows = jdbc.query(sql.toString(), params,
+        (rs, n) -> new Scored(TaskViewRowMapper.INSTANCE.mapRow(rs, n), rs.getFloat("score")));
+    var hasNext = rows.size() > limit;
+    var page = rows.subList(0, Math.min(limit, rows.size()));
+    TaskSearchCursor next = null;
+    if (hasNext) {
+      var last = page.get(page.size() - 1);
+      next = new TaskSearchCursor(fuzzy, last.score(), last.task().id());
+    }
+    return new TaskSearchPage(page.stream().map(Scored::task).toList(), next);
+  }
+
+  // Só letras e dígitos chegam ao tsquery (nada da sintaxe dele passa); todo termo vale como prefixo
+  static String toTsQuery(String text) {
+    return Arrays.stream(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+"))
+        .filter(t -> !t.isEmpty())
+        .limit(MAX_SEARCH_TERMS)
+        .map(t -> t + ":*")
+        .collect(Collectors.joining(" & "));
+  }
+
+  @Override
+  public Stream<Task> streamAll() {
+    // detach a cada linha para o contexto de persistência não crescer com a tabela
+    return jpa.streamAllByDeletedFalse().map(e -> {
+      em.detach(e);
+      return TaskMapper.toDomain(e);
+    });
+  }
+
   @Override
   public void deletePhysical(TaskId id) {
     jpa.deleteById(id.value());
@@ -49,10 +337,15 @@ public class TaskRepositoryImpl implements TaskRepository {
         .toList();
   }
 
-  public List<Task> findAllByStatusAndDeletedFalse(TaskStatus status) {
+  public List<Task> findAllByStatusAndDeletedFalse(
+      @MeterTag(key = "status", resolver = StatusTagResolver.class) TaskStatus status) {
     return jpa.findAllByStatusAndDeletedFalse(status)
         .stream()
         .map(TaskMapper::toDomain)
         .toList();
   }
+
+  private record Scored(TaskView task, float score) {}
+
+  private record Revised(Task task, long revision) {}
 }
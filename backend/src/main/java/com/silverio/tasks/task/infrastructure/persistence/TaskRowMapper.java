@@ -0,0 +1,37 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Lê uma linha de {@code tasks} direto para {@link Task}, para consultas SQL fora do JPA.
+ * created_at é lido como o Hibernate lê {@code Instant} (OffsetDateTime em UTC).
+ */
+class TaskRowMapper implements RowMapper<Task> {
+
+  static final TaskRowMapper INSTANCE = new TaskRowMapper();
+
+  @Override
+  public Task mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return new Task(
+      new TaskId(rs.getObject("id", UUID.class)),
+      rs.getString("title"),
+      rs.getString("description"),
+      TaskStatus.valueOf(rs.getString("status")),
+      TaskPriority.valueOf(rs.getString("priority")),
+      rs.getObject("due_date", LocalDateTime.class),
+      rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+      rs.getBoolean("deleted"),
+      rs.getLong("version")
+    );
+  }
+}
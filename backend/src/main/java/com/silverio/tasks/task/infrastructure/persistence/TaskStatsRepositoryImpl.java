@@ -0,0 +1,137 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStats;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+@Timed(value = "tasks.repository", histogram = true)
+public class TaskStatsRepositoryImpl implements TaskStatsRepository {
+
+  private final NamedParameterJdbcTemplate jdbc;
+
+  public TaskStatsRepositoryImpl(NamedParameterJdbcTemplate jdbc) {
+    this.jdbc = jdbc;
+  }
+
+  // Um comando: o resumo (status x prioridade) mais os deltas ainda não movidos, e as vencidas = dias anteriores
+  // do resumo por vencimento (e seus deltas) + as de hoje que já passaram da hora, contadas por idx_tasks_open_due_date_id
+  @Override
+  public TaskStats stats(LocalDateTime now) {
+    var sql = """
+        SELECT 'count' AS kind, status, priority, sum(total) AS total FROM (
+          SELECT status, priority, total FROM tasks_stats
+          UNION ALL
+          SELECT status, priority, total FROM tasks_stats_delta) c
+        GROUP BY status, priority
+        UNION ALL
+        SELECT 'overdue', NULL, priority, sum(total) FROM (
+          SELECT priority, total FROM tasks_due_stats WHERE due_day < :today
+          UNION ALL
+          SELECT priority, total FROM tasks_due_stats_delta WHERE due_day < :today
+          UNION ALL
+          SELECT priority, 1 FROM tasks
+          WHERE deleted = false AND status <> 'DONE' AND due_date >= :todayStart AND due_date < :now) o
+        GROUP BY priority
+        """;
+    var params = new MapSqlParameterSource("today", now.toLocalDate())
+        .addValue("todayStart", now.toLocalDate().atStartOfDay())
+        .addValue("now", now);
+    var stats = TaskStats.empty();
+    jdbc.query(sql, params, rs -> {
+      var priority = TaskPriority.valueOf(rs.getString("priority"));
+      if ("count".equals(rs.getString("kind"))) {
+        stats.add(TaskStatus.valueOf(rs.getString("status")), priority, rs.getLong("total"));
+      } else {
+        stats.addOverdue(priority, rs.getLong("total"));
+      }
+    });
+    return stats;
+  }
+
+  // Cada comando apaga os deltas que enxerga e soma no resumo de uma vez: a leitura vê os deltas ou o resumo
+  // já somado, nunca os dois. Deltas de transações ainda abertas ficam para a próxima rodada. Só o job mexe
+  // nas linhas do resumo, então as escritas não esperam por ele
+  @Override
+  @Transactional
+  public long foldStats() {
+    var none = new MapSqlParameterSource();
+    var counts = jdbc.queryForObject("""
+        WITH moved AS (DELETE FROM tasks_stats_delta RETURNING status, priority, total),
+        folded AS (
+          INSERT INTO tasks_stats AS s (status, priority, total)
+          SELECT status, priority, sum(total) FROM moved GROUP BY status, priority HAVING sum(total) <> 0
+          ORDER BY status, priority
+          ON CONFLICT (status, priority) DO UPDATE SET total = s.total + EXCLUDED.total)
+        SELECT count(*) FROM moved
+        """, none, Long.class);
+    var due = jdbc.queryForObject("""
+        WITH moved AS (DELETE FROM tasks_due_stats_delta RETURNING due_day, priority, total),
+        folded AS (
+          INSERT INTO tasks_due_stats AS d (due_day, priority, total)
+          SELECT due_day, priority, sum(total) FROM moved GROUP BY due_day, priority HAVING sum(total) <> 0
+          ORDER BY due_day, priority
+          ON CONFLICT (due_day, priority) DO UPDATE SET total = d.total + EXCLUDED.total)
+        SELECT count(*) FROM moved
+        """, none, Long.class);
+    // dias que zeraram (concluídas, arquivadas, vencimento mudado) não precisam mais de linha
+    jdbc.update("DELETE FROM tasks_due_stats WHERE total = 0", none);
+    return counts + due;
+  }
+
+  // Um comando por resumo: GROUP BY em tasks e resumo + deltas no mesmo snapshot, e a escrita de tasks grava
+  // seus deltas na mesma transação, então a diferença é exata sem bloquear escritas. Ela entra como mais um
+  // delta. O lock consultivo só impede duas conferências ao mesmo tempo (as duas gravariam a mesma correção)
+  @Override
+  @Transactional
+  public long reconcileStats() {
+    var none = new MapSqlParameterSource();
+    jdbc.queryForObject("SELECT pg_advisory_xact_lock(hashtext('tasks_stats_reconcile'))::text", none, String.class);
+    var counts = jdbc.queryForObject("""
+        WITH actual AS (
+          SELECT status, priority, count(*) AS total FROM tasks WHERE deleted = false GROUP BY status, priority),
+        recorded AS (
+          SELECT status, priority, sum(total) AS total FROM (
+            SELECT status, priority, total FROM tasks_stats
+            UNION ALL
+            SELECT status, priority, total FROM tasks_stats_delta) r
+          GROUP BY status, priority),
+        compared AS (
+          SELECT coalesce(a.status, r.status) AS status, coalesce(a.priority, r.priority) AS priority,
+                 coalesce(a.total, 0) - coalesce(r.total, 0) AS diff
+          FROM actual a FULL JOIN recorded r ON r.status = a.status AND r.priority = a.priority),
+        fixed AS (
+          INSERT INTO tasks_stats_delta (status, priority, total)
+          SELECT status, priority, diff FROM compared WHERE diff <> 0)
+        SELECT coalesce(sum(abs(diff)), 0) FROM compared
+        """, none, Long.class);
+    var due = jdbc.queryForObject("""
+        WITH actual AS (
+          SELECT due_date::date AS due_day, priority, count(*) AS total FROM tasks
+          WHERE deleted = false AND status <> 'DONE' GROUP BY due_date::date, priority),
+        recorded AS (
+          SELECT due_day, priority, sum(total) AS total FROM (
+            SELECT due_day, priority, total FROM tasks_due_stats
+            UNION ALL
+            SELECT due_day, priority, total FROM tasks_due_stats_delta) r
+          GROUP BY due_day, priority),
+        compared AS (
+          SELECT coalesce(a.due_day, r.due_day) AS due_day, coalesce(a.priority, r.priority) AS priority,
+                 coalesce(a.total, 0) - coalesce(r.total, 0) AS diff
+          FROM actual a FULL JOIN recorded r ON r.due_day = a.due_day AND r.priority = a.priority),
+        fixed AS (
+          INSERT INTO tasks_due_stats_delta (due_day, priority, total)
+          SELECT due_day, priority, diff FROM compared WHERE diff <> 0)
+        SELECT coalesce(sum(abs(diff)), 0) FROM compared
+        """, none, Long.class);
+    return counts + due;
+  }
+}
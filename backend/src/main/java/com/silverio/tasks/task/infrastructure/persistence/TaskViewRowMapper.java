@@ -0,0 +1,34 @@
+package com.silverio.tasks.task.infrastructure.persistence;
+
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.model.TaskView;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/** Lê uma linha de {@code tasks} direto para {@link TaskView} (mesmas conversões do {@link TaskRowMapper}). */
+class TaskViewRowMapper implements RowMapper<TaskView> {
+
+  static final TaskViewRowMapper INSTANCE = new TaskViewRowMapper();
+  // colunas que o SELECT precisa trazer
+  static final String COLUMNS = "id, title, description, status, priority, due_date, created_at, version";
+
+  @Override
+  public TaskView mapRow(ResultSet rs, int rowNum) throws SQLException {
+    return new TaskView(
+      rs.getObject("id", UUID.class),
+      rs.getString("title"),
+      rs.getString("description"),
+      TaskStatus.valueOf(rs.getString("status")),
+      TaskPriority.valueOf(rs.getString("priority")),
+      rs.getObject("due_date", LocalDateTime.class),
+      rs.getObject("created_at", OffsetDateTime.class).toInstant(),
+      rs.getLong("version")
+    );
+  }
+}
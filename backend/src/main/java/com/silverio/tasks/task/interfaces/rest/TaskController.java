@@ -1,13 +1,33 @@
 package com.silverio.tasks.task.interfaces.rest;
 
-import java.time.LocalDateTime;
-import java.time.ZoneId;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.shared.exception.BadRequestException;
+import com.silverio.tasks.shared.sql.SqlBudget;
+import com.silverio.tasks.task.application.service.BatchItemResult;
+import com.silverio.tasks.task.application.service.NewTask;
 import com.silverio.tasks.task.application.service.TaskService;
 import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskSort;
 import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.interfaces.rest.request.BatchDeleteRequest;
+import com.silverio.tasks.task.interfaces.rest.request.BatchStatusRequest;
 import com.silverio.tasks.task.interfaces.rest.request.CreateTaskRequest;
 import com.silverio.tasks.task.interfaces.rest.request.UpdateTaskRequest;
+import com.silverio.tasks.task.interfaces.rest.response.BatchResponse;
+import com.silverio.tasks.task.interfaces.rest.response.TaskChangesResponse;
+import com.silverio.tasks.task.interfaces.rest.response.TaskPageResponse;
 import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+import com.silverio.tasks.task.interfaces.rest.response.TaskStatsResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,9 +35,22 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -26,10 +59,17 @@ import java.util.UUID;
 public class TaskController {
 
   private final TaskService service;
-  private static final ZoneId ZONE_BR = ZoneId.of("America/Sao_Paulo");
+  private final ObjectMapper mapper;
+  private final Validator validator;
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+  private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+  // lotes: inserts/updates agrupados de 50 em 50 (hibernate.jdbc.batch_size)
+  private static final int BATCH_STATEMENTS = TaskService.MAX_BATCH_SIZE / 50;
 
-  public TaskController(TaskService service) {
+  public TaskController(TaskService service, ObjectMapper mapper, Validator validator) {
     this.service = service;
+    this.mapper = mapper;
+    this.validator = validator;
   }
 
   @Operation(summary = "Criar tarefa", description = "Cria uma nova tarefa com título, descrição, data limite e prioridade.")
@@ -38,52 +78,294 @@ public class TaskController {
       @ApiResponse(responseCode = "400", description = "Requisição inválida")
   })
   @PostMapping
-  public TaskResponse create(@RequestBody @Valid CreateTaskRequest req) {
+  @SqlBudget(2) // merge do Spring Data: SELECT pelo id + INSERT
+  public ResponseEntity<TaskResponse> create(@RequestBody @Valid CreateTaskRequest req) {
     var task = service.create(req.title(), req.description(), req.dueDate(), req.priority());
-    return toResponse(task);
+    return withETag(task);
+  }
+
+  @Operation(summary = "Buscar tarefa", description = "Retorna uma tarefa com ETag. Com If-None-Match igual à versão atual responde 304 sem corpo.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Tarefa encontrada"),
+      @ApiResponse(responseCode = "304", description = "Tarefa não mudou desde o ETag informado"),
+      @ApiResponse(responseCode = "404", description = "Tarefa não encontrada")
+  })
+  @GetMapping("/{id}")
+  @SqlBudget(1)
+  public ResponseEntity<TaskResponse> get(@PathVariable UUID id) {
+    // com ETag no ResponseEntity o Spring responde 304 ao If-None-Match sem serializar o corpo
+    return withETag(service.get(id));
   }
 
-  @Operation(summary = "Listar tarefas", description = "Lista todas as tarefas (ignorando deletadas). Permite filtrar por status.")
+  @Operation(summary = "Criar tarefas em lote", description = "Cria até 5000 tarefas numa única transação com inserts em lote. Itens inválidos são reportados individualmente.")
   @ApiResponses(value = {
-      @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso")
+      @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+      @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite")
+  })
+  @PostMapping("/batch")
+  @SqlBudget(BATCH_STATEMENTS)
+  public BatchResponse createBatch(@RequestBody List<CreateTaskRequest> req) {
+    // cada item passa pelas mesmas validações do POST /api/tarefas; o inválido vai como null (não é criado)
+    // e o resultado dele é trocado pelo da validação
+    var rejected = new HashMap<Integer, BatchItemResult>();
+    var items = new ArrayList<NewTask>(req.size());
+    for (int i = 0; i < req.size(); i++) {
+      var r = req.get(i);
+      var fields = r == null ? Map.<String, String>of() : invalidFields(r);
+      if (!fields.isEmpty()) rejected.put(i, BatchItemResult.invalidFields(i, fields));
+      items.add(r == null || !fields.isEmpty() ? null : new NewTask(r.title(), r.description(), r.dueDate(), r.priority()));
+    }
+    var results = new ArrayList<>(service.createAll(items));
+    rejected.forEach(results::set);
+    return BatchResponse.of(results);
+  }
+
+  @Operation(summary = "Mover tarefas em lote", description = "Move várias tarefas para o mesmo status.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+      @ApiResponse(responseCode = "400", description = "Requisição inválida")
+  })
+  @PostMapping("/batch/status")
+  @SqlBudget(1 + BATCH_STATEMENTS)
+  public BatchResponse moveBatch(@RequestBody @Valid BatchStatusRequest req) {
+    return BatchResponse.of(service.moveAll(req.ids(), req.status()));
+  }
+
+  @Operation(summary = "Excluir tarefas em lote (lógica)", description = "Marca várias tarefas como deletadas (deleted=true).")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Lote processado; veja o resultado de cada item"),
+      @ApiResponse(responseCode = "400", description = "Requisição inválida")
+  })
+  @PostMapping("/batch/delete")
+  @SqlBudget(1 + BATCH_STATEMENTS)
+  public BatchResponse deleteBatch(@RequestBody @Valid BatchDeleteRequest req) {
+    return BatchResponse.of(service.deleteLogicalAll(req.ids()));
+  }
+
+  @Operation(summary = "Listar tarefas", description = "Lista as tarefas (ignorando deletadas) paginadas por cursor, por padrão em ordem de criação. "
+      + "Filtros opcionais (combinados com E): status, priority, vencimento entre dueFrom e dueTo, overdue (vencidas e não concluídas) "
+      + "e createdAfter. Ordenações: createdAt, dueDate, priority (mais urgente primeiro), com '-' na frente para inverter. "
+      + "Responde ETag; com If-None-Match igual e nada alterado devolve 304 sem consultar as tarefas (exceto com overdue, que muda com o relógio).")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+      @ApiResponse(responseCode = "304", description = "Nenhuma tarefa mudou desde o ETag informado"),
+      @ApiResponse(responseCode = "400", description = "Parâmetro inválido")
   })
   @GetMapping
-  public List<TaskResponse> list(
-      @Parameter(description = "Filtro opcional por status: TODO, DOING, DONE") @RequestParam(required = false) TaskStatus status) {
-    return service.list(status).stream().map(this::toResponse).toList();
+  @SqlBudget(1)
+  public ResponseEntity<TaskPageResponse> list(
+      @Parameter(description = "Filtro opcional por status: TODO, DOING, DONE") @RequestParam(required = false) TaskStatus status,
+      @Parameter(description = "Filtro opcional por prioridade: LOW, MEDIUM, HIGH") @RequestParam(required = false) TaskPriority priority,
+      @Parameter(description = "Vencimento a partir de (inclusivo), ex.: 2026-03-01T00:00")
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueFrom,
+      @Parameter(description = "Vencimento até (inclusivo), ex.: 2026-03-31T23:59")
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime dueTo,
+      @Parameter(description = "Só as vencidas ainda não concluídas") @RequestParam(defaultValue = "false") boolean overdue,
+      @Parameter(description = "Criadas depois de (horário de Brasília), ex.: 2026-03-01T00:00")
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+      @Parameter(description = "Ordenação: createdAt, -createdAt, dueDate, -dueDate, priority, -priority (padrão createdAt)") @RequestParam(required = false) String sort,
+      @Parameter(description = "Cursor opaco devolvido em nextCursor pela página anterior") @RequestParam(required = false) String cursor,
+      @Parameter(description = "Tamanho da página (padrão 50, máximo 200)") @RequestParam(required = false) Integer limit,
+      WebRequest request) {
+    var query = new TaskQuery(status, priority, dueFrom, dueTo, overdue,
+        createdAfter == null ? null : createdAfter.atZone(TaskResponse.ZONE_BR).toInstant(), parseSort(sort));
+
+    // o token é lido antes dos dados: se mudar no meio, o cliente só baixa de novo na próxima vez.
+    // overdue depende do relógio (muda sem nenhuma escrita), então fica sem ETag
+    var etag = overdue ? null : "\"" + service.listRevision() + "\"";
+    if (etag != null && request.checkNotModified(etag)) {
+      return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CacheControl.noCache()).build();
+    }
+
+    TaskPageResponse body;
+    if (query.onlyStatus()) {
+      var page = service.listPage(status, TaskCursorCodec.decode(cursor), limit);
+      body = new TaskPageResponse(
+          page.items().stream().map(TaskResponse::of).toList(),
+          TaskCursorCodec.encode(page.next()));
+    } else {
+      var page = service.query(query, TaskCursorCodec.decodeQuery(cursor), limit);
+      body = new TaskPageResponse(
+          page.items().stream().map(TaskResponse::of).toList(),
+          TaskCursorCodec.encodeQuery(page.next()));
+    }
+    // no-cache: o navegador guarda a resposta e revalida com If-None-Match a cada requisição
+    var response = ResponseEntity.ok().cacheControl(CacheControl.noCache());
+    if (etag != null) response.eTag(etag);
+    return response.body(body);
+  }
+
+  @Operation(summary = "Buscar tarefas", description = "Busca em título e descrição (ignorando deletadas), da mais para a menos relevante. "
+      + "Cada palavra vale como prefixo e acentos são ignorados; sem resultado, procura títulos parecidos (erros de digitação). "
+      + "Paginada por cursor como a listagem.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Página retornada com sucesso"),
+      @ApiResponse(responseCode = "400", description = "Parâmetro 'q' ausente ou inválido")
+  })
+  @GetMapping("/search")
+  @SqlBudget(2) // busca textual + fallback por similaridade
+  public TaskPageResponse search(
+      @Parameter(description = "Texto a buscar (até 200 caracteres)") @RequestParam(required = false) String q,
+      @Parameter(description = "Filtro opcional por status: TODO, DOING, DONE") @RequestParam(required = false) TaskStatus status,
+      @Parameter(description = "Cursor opaco devolvido em nextCursor pela página anterior") @RequestParam(required = false) String cursor,
+      @Parameter(description = "Tamanho da página (padrão 50, máximo 200)") @RequestParam(required = false) Integer limit) {
+    var page = service.search(q, status, TaskCursorCodec.decodeSearch(cursor), limit);
+    return new TaskPageResponse(
+        page.items().stream().map(TaskResponse::of).toList(),
+        TaskCursorCodec.encodeSearch(page.next()));
   }
 
-  @Operation(summary = "Atualizar tarefa", description = "Edita título/descrição/prioridade/data ou move status.")
+  @Operation(summary = "Estatísticas do painel", description = "Contagens das tarefas (ignorando deletadas) por status, por prioridade e pelas duas, "
+      + "e das vencidas não concluídas. Lidas de um resumo atualizado a cada escrita, sem carregar a listagem.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Contagens retornadas com sucesso")
+  })
+  @GetMapping("/stats")
+  @SqlBudget(1)
+  public TaskStatsResponse stats() {
+    return TaskStatsResponse.of(service.stats());
+  }
+
+  @Operation(summary = "Alterações desde uma revisão", description = "Sincronização incremental: devolve as tarefas criadas/alteradas (upserts) e os ids deletados "
+      + "desde 'since'. Comece com since=0; siga nextCursor até vir nulo e guarde 'revision' como o próximo 'since'. "
+      + "Uma tarefa pode vir repetida em rodadas seguintes, por isso aplique os itens como upsert.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Alterações retornadas com sucesso"),
+      @ApiResponse(responseCode = "400", description = "Informe 'since' ou 'cursor'"),
+      @ApiResponse(responseCode = "410", description = "'since' anterior ao expurgo: sincronize de novo com since=0")
+  })
+  @GetMapping("/changes")
+  @SqlBudget(2) // watermark e horizonte do expurgo + página
+  public TaskChangesResponse changes(
+      @Parameter(description = "Revisão devolvida em 'revision' pela última sincronização (0 para tudo)") @RequestParam(required = false) Long since,
+      @Parameter(description = "Cursor opaco devolvido em nextCursor pela página anterior") @RequestParam(required = false) String cursor,
+      @Parameter(description = "Tamanho da página (padrão 500, máximo 1000)") @RequestParam(required = false) Integer limit) {
+    var position = TaskCursorCodec.decodeChanges(cursor);
+    if (position == null) {
+      if (since == null) {
+        throw new BadRequestException("Informe o parâmetro 'since' ou 'cursor'.");
+      }
+      position = TaskChangeCursor.since(since);
+    }
+
+    var changes = service.changesSince(position, limit);
+    var upserts = new ArrayList<TaskResponse>();
+    var deleted = new ArrayList<UUID>();
+    for (var t : changes.items()) {
+      if (t.isDeleted()) deleted.add(t.getId().value());
+      else upserts.add(toResponse(t));
+    }
+    return new TaskChangesResponse(upserts, deleted, changes.revision(), TaskCursorCodec.encodeChanges(changes.next()));
+  }
+
+  @Operation(summary = "Exportar tarefas", description = "Exporta todas as tarefas (ignorando deletadas) em NDJSON ou CSV, em streaming e com memória constante.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Exportação iniciada"),
+      @ApiResponse(responseCode = "400", description = "Formato inválido")
+  })
+  @GetMapping("/export")
+  public ResponseEntity<StreamingResponseBody> export(
+      @Parameter(description = "Formato: ndjson (padrão) ou csv") @RequestParam(defaultValue = "ndjson") String format) {
+    return switch (format.toLowerCase()) {
+      case "ndjson" -> ResponseEntity.ok()
+          .contentType(NDJSON)
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tarefas.ndjson\"")
+          .body(this::writeNdjson);
+      case "csv" -> ResponseEntity.ok()
+          .contentType(CSV)
+          .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tarefas.csv\"")
+          .body(this::writeCsv);
+      default -> throw new BadRequestException("Parâmetro 'format' inválido. Valores aceitos: ndjson, csv.");
+    };
+  }
+
+  @Operation(summary = "Atualizar tarefa", description = "Edita título/descrição/prioridade/data ou move status. Com If-Match só grava se a versão não mudou.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Tarefa atualizada com sucesso"),
       @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
-      @ApiResponse(responseCode = "400", description = "Requisição inválida")
+      @ApiResponse(responseCode = "400", description = "Requisição inválida"),
+      @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual")
   })
   @PutMapping("/{id}")
-  public TaskResponse update(@PathVariable UUID id, @RequestBody @Valid UpdateTaskRequest req) {
-    var task = service.update(id, req.title(), req.description(), req.status(), req.priority(), req.dueDate());
-    return toResponse(task);
+  @SqlBudget(2) // UPDATE ... RETURNING; se nada foi gravado, uma leitura para diferenciar 404 de 412
+  public ResponseEntity<TaskResponse> update(
+      @PathVariable UUID id,
+      @Parameter(description = "ETag da versão lida (opcional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+      @RequestBody @Valid UpdateTaskRequest req) {
+    var task = service.update(id, TaskETags.expectedVersion(ifMatch),
+        req.title(), req.description(), req.status(), req.priority(), req.dueDate());
+    return withETag(task);
   }
 
-  @Operation(summary = "Excluir tarefa (lógica)", description = "Marca a tarefa como deletada (deleted=true).")
+  @Operation(summary = "Excluir tarefa (lógica)", description = "Marca a tarefa como deletada (deleted=true). Com If-Match só exclui se a versão não mudou.")
   @ApiResponses(value = {
       @ApiResponse(responseCode = "200", description = "Tarefa deletada logicamente com sucesso"),
-      @ApiResponse(responseCode = "404", description = "Tarefa não encontrada")
+      @ApiResponse(responseCode = "404", description = "Tarefa não encontrada"),
+      @ApiResponse(responseCode = "412", description = "If-Match não confere com a versão atual")
   })
   @DeleteMapping("/{id}")
-  public void deleteLogical(@PathVariable UUID id) {
-    service.deleteLogical(id);
+  @SqlBudget(2) // idem
+  public void deleteLogical(
+      @PathVariable UUID id,
+      @Parameter(description = "ETag da versão lida (opcional)") @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+    service.deleteLogical(id, TaskETags.expectedVersion(ifMatch));
+  }
+
+  private void writeNdjson(OutputStream out) throws IOException {
+    try (var gen = mapper.getFactory().createGenerator(out)) {
+      gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+      gen.setRootValueSeparator(null); // o separador entre valores é a quebra de linha
+      service.export(t -> {
+        try {
+          gen.writeObject(toResponse(t));
+          gen.writeRaw('\n');
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+  }
+
+  private void writeCsv(OutputStream out) throws IOException {
+    var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    try {
+      TaskCsv.writeHeader(writer);
+      service.export(t -> {
+        try {
+          TaskCsv.writeRow(writer, toResponse(t));
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      });
+    } catch (UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    writer.flush();
+  }
+
+  private Map<String, String> invalidFields(CreateTaskRequest req) {
+    var campos = new HashMap<String, String>();
+    for (var violation : validator.validate(req)) {
+      campos.put(violation.getPropertyPath().toString(), violation.getMessage());
+    }
+    return campos;
+  }
+
+  private static TaskSort parseSort(String sort) {
+    try {
+      return TaskSort.fromParam(sort);
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException("Parâmetro 'sort' inválido. Valores aceitos: " + TaskSort.ACCEPTED + ".");
+    }
+  }
+
+  private ResponseEntity<TaskResponse> withETag(Task t) {
+    return ResponseEntity.ok().eTag(TaskETags.of(t)).body(toResponse(t));
   }
 
   private TaskResponse toResponse(Task t) {
-    var createdLocal = LocalDateTime.ofInstant(t.getCreatedAt(), ZONE_BR);
-    return new TaskResponse(
-        t.getId().value(),
-        t.getTitle(),
-        t.getDescription(),
-        t.getStatus(),
-        t.getPriority(),
-        t.getDueDate(),
-        createdLocal);
+    return TaskResponse.of(t);
   }
 }
@@ -0,0 +1,55 @@
+package com.silverio.tasks.task.interfaces.rest;
+
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Escrita de tarefas em CSV (RFC 4180), com os mesmos formatos de data do JSON.
+ */
+class TaskCsv {
+
+  static final String HEADER = "id,title,description,status,priority,dueDate,createdAt,version";
+
+  private static final DateTimeFormatter DUE_DATE = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+  private static final DateTimeFormatter CREATED_AT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss");
+
+  static void writeHeader(Writer out) throws IOException {
+    out.write(HEADER);
+    out.write("\r\n");
+  }
+
+  static void writeRow(Writer out, TaskResponse r) throws IOException {
+    out.write(r.id().toString());
+    out.write(',');
+    out.write(escape(r.title()));
+    out.write(',');
+    out.write(escape(r.description()));
+    out.write(',');
+    out.write(r.status().name());
+    out.write(',');
+    out.write(r.priority().name());
+    out.write(',');
+    out.write(format(r.dueDate(), DUE_DATE));
+    out.write(',');
+    out.write(format(r.createdAt(), CREATED_AT));
+    out.write(',');
+    out.write(Long.toString(r.version()));
+    out.write("\r\n");
+  }
+
+  static String escape(String value) {
+    if (value == null) return "";
+    if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+      return value;
+    }
+    return '"' + value.replace("\"", "\"\"") + '"';
+  }
+
+  private static String format(LocalDateTime value, DateTimeFormatter fmt) {
+    return value == null ? "" : fmt.format(value);
+  }
+}
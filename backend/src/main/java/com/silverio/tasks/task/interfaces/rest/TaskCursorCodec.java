@@ -0,0 +1,110 @@
+package com.silverio.tasks.task.interfaces.rest;
+
+import com.silverio.tasks.shared.exception.BadRequestException;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskCursor;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Converte {@link TaskCursor}, {@link TaskQueryCursor}, {@link TaskChangeCursor} e {@link TaskSearchCursor}
+ * de/para os tokens opacos expostos na API (base64url de "epochSecond:nano:id",
+ * "q:sort:createdSecond:createdNano:dueSecond:dueNano:priority:id", "c:since:watermark:revision:id"
+ * e "s:fts|trgm:score:id").
+ */
+public class TaskCursorCodec {
+
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  public static String encode(TaskCursor cursor) {
+    if (cursor == null) return null;
+    var raw = cursor.createdAt().getEpochSecond() + ":" + cursor.createdAt().getNano() + ":" + cursor.id();
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TaskCursor decode(String token) {
+    if (token == null || token.isBlank()) return null;
+    try {
+      var parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 3);
+      if (parts.length != 3) throw new IllegalArgumentException("formato");
+      var createdAt = Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1]));
+      return new TaskCursor(createdAt, UUID.fromString(parts[2]));
+    } catch (IllegalArgumentException | DateTimeException ex) {
+      throw new BadRequestException("Parâmetro 'cursor' inválido.");
+    }
+  }
+
+  public static String encodeQuery(TaskQueryCursor cursor) {
+    if (cursor == null) return null;
+    var due = cursor.dueDate().toInstant(ZoneOffset.UTC);
+    var raw = "q:" + cursor.sort().name() + ":" + cursor.createdAt().getEpochSecond() + ":" + cursor.createdAt().getNano()
+        + ":" + due.getEpochSecond() + ":" + due.getNano() + ":" + cursor.priority().name() + ":" + cursor.id();
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TaskQueryCursor decodeQuery(String token) {
+    if (token == null || token.isBlank()) return null;
+    try {
+      var parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 8);
+      if (parts.length != 8 || !parts[0].equals("q")) throw new IllegalArgumentException("formato");
+      var createdAt = Instant.ofEpochSecond(Long.parseLong(parts[2]), Long.parseLong(parts[3]));
+      var dueDate = LocalDateTime.ofEpochSecond(Long.parseLong(parts[4]), Integer.parseInt(parts[5]), ZoneOffset.UTC);
+      return new TaskQueryCursor(TaskSort.valueOf(parts[1]), createdAt, dueDate,
+          TaskPriority.valueOf(parts[6]), UUID.fromString(parts[7]));
+    } catch (IllegalArgumentException | DateTimeException ex) {
+      throw new BadRequestException("Parâmetro 'cursor' inválido.");
+    }
+  }
+
+  public static String encodeChanges(TaskChangeCursor cursor) {
+    if (cursor == null) return null;
+    var raw = "c:" + cursor.since() + ":" + cursor.watermark() + ":" + cursor.afterRevision() + ":" + cursor.afterId();
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TaskChangeCursor decodeChanges(String token) {
+    if (token == null || token.isBlank()) return null;
+    try {
+      var parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 5);
+      if (parts.length != 5 || !parts[0].equals("c")) throw new IllegalArgumentException("formato");
+      return new TaskChangeCursor(
+          Long.parseLong(parts[1]), Long.parseLong(parts[2]), Long.parseLong(parts[3]), UUID.fromString(parts[4]));
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException("Parâmetro 'cursor' inválido.");
+    }
+  }
+
+  public static String encodeSearch(TaskSearchCursor cursor) {
+    if (cursor == null) return null;
+    // Float.toString volta exatamente ao mesmo float, condição do keyset por score
+    var raw = "s:" + (cursor.fuzzy() ? "trgm" : "fts") + ":" + cursor.score() + ":" + cursor.id();
+    return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static TaskSearchCursor decodeSearch(String token) {
+    if (token == null || token.isBlank()) return null;
+    try {
+      var parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":", 4);
+      if (parts.length != 4 || !parts[0].equals("s")) throw new IllegalArgumentException("formato");
+      var fuzzy = switch (parts[1]) {
+        case "fts" -> false;
+        case "trgm" -> true;
+        default -> throw new IllegalArgumentException("modo");
+      };
+      return new TaskSearchCursor(fuzzy, Float.parseFloat(parts[2]), UUID.fromString(parts[3]));
+    } catch (IllegalArgumentException ex) {
+      throw new BadRequestException("Parâmetro 'cursor' inválido.");
+    }
+  }
+}
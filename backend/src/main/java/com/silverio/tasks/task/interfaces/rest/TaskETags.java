@@ -0,0 +1,32 @@
+package com.silverio.tasks.task.interfaces.rest;
+
+import com.silverio.tasks.task.domain.model.Task;
+
+/**
+ * ETag forte de uma tarefa, derivado da coluna version.
+ */
+class TaskETags {
+
+  // Nenhuma tarefa tem essa versão: força 412 quando o If-Match não pode casar
+  private static final long NO_MATCH = -1L;
+
+  static String of(Task task) {
+    return "\"" + task.getVersion() + "\"";
+  }
+
+  /**
+   * Versão esperada a partir do If-Match; nulo quando ausente ou "*".
+   * ETags fracas, listas ou valores estranhos nunca casam (comparação forte).
+   */
+  static Long expectedVersion(String ifMatch) {
+    if (ifMatch == null || ifMatch.isBlank()) return null;
+    var value = ifMatch.trim();
+    if (value.equals("*")) return null;
+    if (value.length() < 3 || !value.startsWith("\"") || !value.endsWith("\"")) return NO_MATCH;
+    try {
+      return Long.parseLong(value.substring(1, value.length() - 1));
+    } catch (NumberFormatException ex) {
+      return NO_MATCH;
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.silverio.tasks.task.interfaces.rest.request;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchDeleteRequest(
+  @NotEmpty(message = "Informe ao menos um id")
+  List<UUID> ids
+) {}
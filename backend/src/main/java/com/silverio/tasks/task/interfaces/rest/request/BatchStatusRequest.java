@@ -0,0 +1,16 @@
+package com.silverio.tasks.task.interfaces.rest.request;
+
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+import java.util.UUID;
+
+public record BatchStatusRequest(
+  @NotEmpty(message = "Informe ao menos um id")
+  List<UUID> ids,
+
+  @NotNull(message = "Status é obrigatório")
+  TaskStatus status
+) {}
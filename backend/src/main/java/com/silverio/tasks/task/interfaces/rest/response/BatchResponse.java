@@ -0,0 +1,17 @@
+package com.silverio.tasks.task.interfaces.rest.response;
+
+import com.silverio.tasks.task.application.service.BatchItemResult;
+
+import java.util.List;
+
+public record BatchResponse(
+  int total,
+  int succeeded,
+  int failed,
+  List<BatchItemResult> items
+) {
+  public static BatchResponse of(List<BatchItemResult> items) {
+    var succeeded = (int) items.stream().filter(BatchItemResult::ok).count();
+    return new BatchResponse(items.size(), succeeded, items.size() - succeeded, items);
+  }
+}
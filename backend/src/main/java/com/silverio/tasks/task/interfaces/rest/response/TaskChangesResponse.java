@@ -0,0 +1,11 @@
+package com.silverio.tasks.task.interfaces.rest.response;
+
+import java.util.List;
+import java.util.UUID;
+
+public record TaskChangesResponse(
+  List<TaskResponse> upserts,
+  List<UUID> deleted,
+  long revision,
+  String nextCursor
+) {}
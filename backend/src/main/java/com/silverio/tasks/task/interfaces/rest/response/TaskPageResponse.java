@@ -0,0 +1,8 @@
+package com.silverio.tasks.task.interfaces.rest.response;
+
+import java.util.List;
+
+public record TaskPageResponse(
+  List<TaskResponse> items,
+  String nextCursor
+) {}
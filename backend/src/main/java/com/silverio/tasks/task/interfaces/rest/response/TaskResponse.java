@@ -1,10 +1,13 @@
 package com.silverio.tasks.task.interfaces.rest.response;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.silverio.tasks.task.domain.model.Task;
 import com.silverio.tasks.task.domain.model.TaskPriority;
 import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.model.TaskView;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.UUID;
 
 public record TaskResponse(
@@ -18,5 +21,36 @@ public record TaskResponse(
   LocalDateTime dueDate,
 
   @JsonFormat(pattern = "dd/MM/yyyy HH:mm:ss")
-  LocalDateTime createdAt
-) {}
+  LocalDateTime createdAt,
+
+  long version
+) {
+
+  // fuso em que createdAt é exibido (e interpretado nos filtros da listagem)
+  public static final ZoneId ZONE_BR = ZoneId.of("America/Sao_Paulo");
+
+  public static TaskResponse of(Task t) {
+    var createdLocal = LocalDateTime.ofInstant(t.getCreatedAt(), ZONE_BR);
+    return new TaskResponse(
+        t.getId().value(),
+        t.getTitle(),
+        t.getDescription(),
+        t.getStatus(),
+        t.getPriority(),
+        t.getDueDate(),
+        createdLocal,
+        t.getVersion());
+  }
+
+  public static TaskResponse of(TaskView t) {
+    return new TaskResponse(
+        t.id(),
+        t.title(),
+        t.description(),
+        t.status(),
+        t.priority(),
+        t.dueDate(),
+        LocalDateTime.ofInstant(t.createdAt(), ZONE_BR),
+        t.version());
+  }
+}
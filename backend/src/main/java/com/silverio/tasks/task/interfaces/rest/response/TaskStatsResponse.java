@@ -0,0 +1,21 @@
+package com.silverio.tasks.task.interfaces.rest.response;
+
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStats;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+
+import java.util.Map;
+
+public record TaskStatsResponse(
+  long total,
+  Map<TaskStatus, Long> byStatus,
+  Map<TaskPriority, Long> byPriority,
+  Map<TaskStatus, Map<TaskPriority, Long>> byStatusAndPriority,
+  long overdue,
+  Map<TaskPriority, Long> overdueByPriority
+) {
+  public static TaskStatsResponse of(TaskStats stats) {
+    return new TaskStatsResponse(stats.total(), stats.byStatus(), stats.byPriority(), stats.counts(),
+        stats.overdueTotal(), stats.overdue());
+  }
+}
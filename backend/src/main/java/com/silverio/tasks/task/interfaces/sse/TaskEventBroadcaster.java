@@ -0,0 +1,206 @@
+package com.silverio.tasks.task.interfaces.sse;
+
+import com.silverio.tasks.shared.concurrent.Threads;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskResyncEvent;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Distribui as alterações de tarefas para as conexões SSE abertas.
+ * <p>
+ * Conexões ociosas não prendem thread (requisição assíncrona do servlet). Cada assinante tem
+ * uma fila limitada; quem publica só enfileira, e um pool pequeno e fixo escreve nas conexões.
+ * Se a fila de um assinante lento enche, os eventos pendentes são descartados e ele recebe
+ * {@code resync}: deve recarregar a lista (ou usar /changes) em vez de confiar nos eventos.
+ * <p>
+ * Eventos: {@code upsert} (tarefa completa), {@code remove} ({@code {"id": ...}}: deletada ou
+ * saiu do status filtrado) e {@code resync}. Conexões ociosas recebem um comentário de keep-alive.
+ * Escritas de outras instâncias chegam pelo canal de alterações; se ele cai, todos recebem {@code resync}.
+ */
+public class TaskEventBroadcaster implements DisposableBean {
+
+  // no máximo isso por vez para um assinante, para não monopolizar uma thread do pool
+  private static final int MAX_SENDS_PER_TURN = 64;
+
+  private final TaskStreamProperties props;
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  private final ExecutorService dispatcher;
+  private final ScheduledExecutorService heartbeat;
+  private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+  private final AtomicLong sequence = new AtomicLong();
+  private final AtomicLong resyncs = new AtomicLong();
+
+  public TaskEventBroadcaster(TaskStreamProperties props) {
+    this.props = props;
+    this.dispatcher = Executors.newFixedThreadPool(props.dispatchThreads(), Threads.daemon("tasks-sse-"));
+    this.heartbeat = Executors.newSingleThreadScheduledExecutor(Threads.daemon("tasks-sse-heartbeat-"));
+    var period = props.heartbeat().toMillis();
+    heartbeat.scheduleAtFixedRate(this::ping, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Abre uma assinatura. {@code lastEventId} é o cabeçalho Last-Event-ID que o EventSource
+   * reenvia ao reconectar: se algo foi publicado desde então, o cliente recebe {@code resync}.
+   */
+  public SseEmitter subscribe(TaskStatus status, String lastEventId) {
+    return register(new SseEmitter(props.timeout().toMillis()), status, lastEventId);
+  }
+
+  SseEmitter register(SseEmitter emitter, TaskStatus status, String lastEventId) {
+    var sub = new Subscriber(emitter, status, props.bufferSize());
+    emitter.onCompletion(() -> subscribers.remove(sub));
+    emitter.onError(ex -> subscribers.remove(sub));
+    emitter.onTimeout(emitter::complete);
+
+    if (lastEventId != null && !lastEventId.equals(lastEventId())) {
+      sub.overflowed.set(true);
+    } else {
+      // primeiro envio faz o servidor mandar os cabeçalhos e o EventSource disparar "open"
+      sub.queue.offer(Message.PING);
+    }
+    subscribers.add(sub);
+    schedule(sub);
+    return emitter;
+  }
+
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onTaskChanged(TaskChangedEvent event) {
+    // a sequência avança mesmo sem assinantes: é o que o Last-Event-ID de uma reconexão compara
+    var id = epoch + "-" + sequence.incrementAndGet();
+    if (subscribers.isEmpty()) return;
+    var remove = new Message(id, "remove", Map.of("id", event.id()));
+    var upsert = event.isDeleted() ? remove : new Message(id, "upsert", TaskResponse.of(event.task()));
+    var status = event.isDeleted() ? null : event.task().getStatus();
+
+    for (var sub : subscribers) {
+      var msg = (sub.status == null || sub.status == status) ? upsert : remove;
+      sub.offer(msg);
+      schedule(sub);
+    }
+  }
+
+  @EventListener
+  public void onResync(TaskResyncEvent event) {
+    sequence.incrementAndGet();
+    for (var sub : subscribers) {
+      sub.overflowed.set(true);
+      schedule(sub);
+    }
+  }
+
+  public int subscriberCount() {
+    return subscribers.size();
+  }
+
+  public long resyncCount() {
+    return resyncs.get();
+  }
+
+  String lastEventId() {
+    return epoch + "-" + sequence.get();
+  }
+
+  @Override
+  public void destroy() {
+    heartbeat.shutdownNow();
+    dispatcher.shutdownNow();
+    subscribers.forEach(sub -> sub.emitter.complete());
+    subscribers.clear();
+  }
+
+  private void ping() {
+    for (var sub : subscribers) {
+      if (sub.queue.isEmpty() && sub.queue.offer(Message.PING)) {
+        schedule(sub);
+      }
+    }
+  }
+
+  private void schedule(Subscriber sub) {
+    if (sub.scheduled.compareAndSet(false, true)) {
+      try {
+        dispatcher.execute(() -> drain(sub));
+      } catch (RejectedExecutionException ex) {
+        sub.scheduled.set(false); // encerrando
+      }
+    }
+  }
+
+  private void drain(Subscriber sub) {
+    try {
+      for (int i = 0; i < MAX_SENDS_PER_TURN; i++) {
+        if (sub.overflowed.compareAndSet(true, false)) {
+          sub.queue.clear();
+          resyncs.incrementAndGet();
+          sub.send(new Message(lastEventId(), "resync", Map.of()));
+          continue;
+        }
+        var msg = sub.queue.poll();
+        if (msg == null) break;
+        sub.send(msg);
+      }
+    } catch (IOException | IllegalStateException ex) {
+      // cliente desconectou ou a conexão já foi encerrada
+      subscribers.remove(sub);
+      sub.queue.clear();
+    } finally {
+      sub.scheduled.set(false);
+    }
+    if (subscribers.contains(sub) && (!sub.queue.isEmpty() || sub.overflowed.get())) {
+      schedule(sub);
+    }
+  }
+
+  /** Evento a enviar; {@code name} nulo é o comentário de keep-alive. */
+  private record Message(String id, String name, Object data) {
+    static final Message PING = new Message(null, null, null);
+  }
+
+  private static final class Subscriber {
+    final SseEmitter emitter;
+    final TaskStatus status;
+    final ArrayBlockingQueue<Message> queue;
+    final AtomicBoolean scheduled = new AtomicBoolean();
+    final AtomicBoolean overflowed = new AtomicBoolean();
+
+    Subscriber(SseEmitter emitter, TaskStatus status, int bufferSize) {
+      this.emitter = emitter;
+      this.status = status;
+      this.queue = new ArrayBlockingQueue<>(bufferSize);
+    }
+
+    void offer(Message msg) {
+      if (!queue.offer(msg)) {
+        overflowed.set(true);
+      }
+    }
+
+    void send(Message msg) throws IOException {
+      if (msg.name() == null) {
+        emitter.send(SseEmitter.event().comment("ping"));
+      } else {
+        emitter.send(SseEmitter.event().id(msg.id()).name(msg.name()).data(msg.data(), MediaType.APPLICATION_JSON));
+      }
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package com.silverio.tasks.task.interfaces.sse;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TaskStreamProperties.class)
+public class TaskStreamConfig {
+
+  @Bean
+  public TaskEventBroadcaster taskEventBroadcaster(TaskStreamProperties props, ObjectProvider<MeterRegistry> registry) {
+    var broadcaster = new TaskEventBroadcaster(props);
+    registry.ifAvailable(r -> {
+      Gauge.builder("tasks.stream.subscribers", broadcaster, TaskEventBroadcaster::subscriberCount)
+          .description("Conexões abertas em /api/tarefas/stream")
+          .register(r);
+      FunctionCounter.builder("tasks.stream.resyncs", broadcaster, TaskEventBroadcaster::resyncCount)
+          .description("Assinantes que estouraram o buffer e receberam resync")
+          .register(r);
+    });
+    return broadcaster;
+  }
+}
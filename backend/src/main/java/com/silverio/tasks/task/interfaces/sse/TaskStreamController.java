@@ -0,0 +1,35 @@
+package com.silverio.tasks.task.interfaces.sse;
+
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/tarefas")
+@CrossOrigin(origins = "*")
+public class TaskStreamController {
+
+  private final TaskEventBroadcaster broadcaster;
+
+  public TaskStreamController(TaskEventBroadcaster broadcaster) {
+    this.broadcaster = broadcaster;
+  }
+
+  @Operation(summary = "Stream de alterações (SSE)", description = "Envia upsert/remove a cada tarefa criada, alterada ou deletada, substituindo o polling da listagem. "
+      + "Com status, tarefas que saem do status chegam como remove. Ao receber resync, recarregue a listagem.")
+  @ApiResponses(value = {
+      @ApiResponse(responseCode = "200", description = "Stream aberto"),
+      @ApiResponse(responseCode = "400", description = "Status inválido")
+  })
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public SseEmitter stream(
+      @Parameter(description = "Filtro opcional por status: TODO, DOING, DONE") @RequestParam(required = false) TaskStatus status,
+      @Parameter(hidden = true) @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+    return broadcaster.subscribe(status, lastEventId);
+  }
+}
@@ -0,0 +1,22 @@
+package com.silverio.tasks.task.interfaces.sse;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Configuração do stream de alterações ({@code tasks.stream.*}).
+ *
+ * @param bufferSize      eventos pendentes por assinante; ao estourar, o assinante recebe {@code resync}
+ * @param heartbeat       intervalo do comentário de keep-alive enviado a conexões ociosas
+ * @param timeout         duração máxima de uma conexão (o EventSource reconecta sozinho)
+ * @param dispatchThreads threads que escrevem nas conexões, compartilhadas por todos os assinantes
+ */
+@ConfigurationProperties(prefix = "tasks.stream")
+public record TaskStreamProperties(
+  @DefaultValue("256") int bufferSize,
+  @DefaultValue("15s") Duration heartbeat,
+  @DefaultValue("30m") Duration timeout,
+  @DefaultValue("2") int dispatchThreads
+) {}
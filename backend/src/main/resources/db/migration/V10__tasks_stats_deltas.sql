@@ -0,0 +1,40 @@
+-- Os triggers de V9 somavam direto nas linhas do resumo (9 de status x prioridade): escritas concorrentes
+-- com o mesmo status e prioridade esperavam umas pelas outras pelo lock da linha até o commit.
+-- Agora cada comando só acrescenta deltas; a leitura soma resumo + deltas e um job (tasks.stats.fold-interval)
+-- move os deltas para o resumo. Inserção em tabela sem chave não espera por ninguém
+CREATE TABLE tasks_stats_delta (
+  status VARCHAR(10) NOT NULL,
+  priority VARCHAR(10) NOT NULL,
+  total BIGINT NOT NULL
+);
+
+CREATE TABLE tasks_due_stats_delta (
+  due_day DATE NOT NULL,
+  priority VARCHAR(10) NOT NULL,
+  total BIGINT NOT NULL
+);
+
+-- Continua uma vez por comando: um lote de 5000 inserções grava uma linha por contador alterado.
+-- Sem o lock consultivo de V9: a reconciliação também só acrescenta deltas
+CREATE OR REPLACE FUNCTION tasks_stats_apply() RETURNS trigger LANGUAGE plpgsql AS $$
+DECLARE
+  changed TEXT;
+BEGIN
+  changed := CASE TG_OP
+    WHEN 'INSERT' THEN 'SELECT status, priority, due_date, 1 AS n FROM new_rows WHERE NOT deleted'
+    WHEN 'DELETE' THEN 'SELECT status, priority, due_date, -1 AS n FROM old_rows WHERE NOT deleted'
+    ELSE 'SELECT status, priority, due_date, 1 AS n FROM new_rows WHERE NOT deleted'
+      || ' UNION ALL SELECT status, priority, due_date, -1 AS n FROM old_rows WHERE NOT deleted'
+  END;
+  EXECUTE format($sql$
+    WITH delta AS (%s),
+    counts AS (
+      INSERT INTO tasks_stats_delta (status, priority, total)
+      SELECT status, priority, sum(n) FROM delta GROUP BY status, priority HAVING sum(n) <> 0)
+    INSERT INTO tasks_due_stats_delta (due_day, priority, total)
+    SELECT due_date::date, priority, sum(n) FROM delta WHERE status <> 'DONE'
+    GROUP BY due_date::date, priority HAVING sum(n) <> 0
+    $sql$, changed);
+  RETURN NULL;
+END;
+$$;
@@ -0,0 +1,46 @@
+-- Outbox: um evento por tarefa alterada, gravado na mesma transação da escrita (trigger cobre
+-- todos os caminhos: JPA, comandos diretos, lotes, arquivamento). TaskOutboxRelay entrega e apaga
+CREATE TABLE tasks_outbox (
+  id BIGINT GENERATED ALWAYS AS IDENTITY PRIMARY KEY,
+  task_id UUID NOT NULL,
+  type VARCHAR(10) NOT NULL,
+  -- linha de tasks como gravada (sem a coluna de busca); lida de volta com jsonb_populate_record
+  payload JSONB NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL DEFAULT now(),
+  attempts INT NOT NULL DEFAULT 0,
+  available_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+-- Fila: próximos disponíveis, do mais antigo para o mais novo
+CREATE INDEX idx_tasks_outbox_available_id ON tasks_outbox (available_at, id);
+
+-- Tudo que entra sai logo: vacuum pelo número de linhas mortas, não pela fração da tabela
+ALTER TABLE tasks_outbox SET (autovacuum_vacuum_scale_factor = 0, autovacuum_vacuum_threshold = 1000);
+
+-- Por comando: um lote de 5000 vira um único INSERT ... SELECT no outbox.
+-- Tarefa já deletada logicamente não gera mais eventos (a remoção já foi anunciada)
+CREATE FUNCTION tasks_outbox_write() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+  IF TG_OP = 'INSERT' THEN
+    INSERT INTO tasks_outbox (task_id, type, payload)
+    SELECT id, 'CREATED', to_jsonb(n) - 'search' FROM new_rows n;
+  ELSIF TG_OP = 'UPDATE' THEN
+    INSERT INTO tasks_outbox (task_id, type, payload)
+    SELECT n.id, CASE WHEN n.deleted THEN 'DELETED' ELSE 'UPDATED' END, to_jsonb(n) - 'search'
+    FROM new_rows n JOIN old_rows o ON o.id = n.id
+    WHERE NOT o.deleted;
+  ELSE
+    -- saiu da tabela viva (arquivamento ou exclusão física)
+    INSERT INTO tasks_outbox (task_id, type, payload)
+    SELECT id, 'REMOVED', to_jsonb(o) - 'search' FROM old_rows o WHERE NOT deleted;
+  END IF;
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_tasks_outbox_insert AFTER INSERT ON tasks
+  REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_outbox_write();
+CREATE TRIGGER trg_tasks_outbox_update AFTER UPDATE ON tasks
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_outbox_write();
+CREATE TRIGGER trg_tasks_outbox_delete AFTER DELETE ON tasks
+  REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_outbox_write();
@@ -0,0 +1,43 @@
+-- Outbox opcional: sem quem consuma, gravar um evento por escrita só gerava escrita, WAL e trabalho para o
+-- relay apagar. O trigger de V11 passa a olhar esta chave, ligada por TaskOutboxRelay na subida quando
+-- tasks.outbox.enabled=true e há algum TaskEventSink (vale para todas as instâncias do banco)
+CREATE TABLE tasks_outbox_state (
+  singleton BOOLEAN PRIMARY KEY DEFAULT true CHECK (singleton),
+  enabled BOOLEAN NOT NULL
+);
+
+INSERT INTO tasks_outbox_state (enabled) VALUES (false);
+
+-- Eventos que esgotaram tasks.outbox.max-attempts: saem da fila para não voltarem para sempre.
+-- Para reentregar: INSERT INTO tasks_outbox (task_id, type, payload, created_at) SELECT ... e apague daqui
+CREATE TABLE tasks_outbox_dead (
+  id BIGINT PRIMARY KEY,
+  task_id UUID NOT NULL,
+  type VARCHAR(10) NOT NULL,
+  payload JSONB NOT NULL,
+  created_at TIMESTAMPTZ NOT NULL,
+  attempts INT NOT NULL,
+  failed_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE OR REPLACE FUNCTION tasks_outbox_write() RETURNS trigger LANGUAGE plpgsql AS $$
+BEGIN
+  IF NOT (SELECT enabled FROM tasks_outbox_state) THEN
+    RETURN NULL;
+  END IF;
+  IF TG_OP = 'INSERT' THEN
+    INSERT INTO tasks_outbox (task_id, type, payload)
+    SELECT id, 'CREATED', to_jsonb(n) - 'search' FROM new_rows n;
+  ELSIF TG_OP = 'UPDATE' THEN
+    INSERT INTO tasks_outbox (task_id, type, payload)
+    SELECT n.id, CASE WHEN n.deleted THEN 'DELETED' ELSE 'UPDATED' END, to_jsonb(n) - 'search'
+    FROM new_rows n JOIN old_rows o ON o.id = n.id
+    WHERE NOT o.deleted;
+  ELSE
+    -- saiu da tabela viva (arquivamento ou exclusão física)
+    INSERT INTO tasks_outbox (task_id, type, payload)
+    SELECT id, 'REMOVED', to_jsonb(o) - 'search' FROM old_rows o WHERE NOT deleted;
+  END IF;
+  RETURN NULL;
+END;
+$$;
@@ -0,0 +1,37 @@
+-- Aviso de alteração às outras instâncias (TaskChangeNotifier) de dentro da transação que escreve:
+-- o NOTIFY só sai no commit, e sai sempre que o commit acontece. Payload "<nó>;<id>,<id>,...", no
+-- máximo 200 ids por mensagem (cabem nos 8000 bytes do NOTIFY).
+-- Canal e nó vêm da sessão (tasks.cluster_channel/tasks.cluster_node, nas options da conexão do pool
+-- da aplicação): escrita de fora da aplicação, sem canal, não avisa ninguém
+CREATE FUNCTION tasks_notify() RETURNS trigger LANGUAGE plpgsql AS $$
+DECLARE
+  channel TEXT := current_setting('tasks.cluster_channel', true);
+  node TEXT := current_setting('tasks.cluster_node', true);
+  changed TEXT;
+BEGIN
+  IF channel IS NULL OR channel = '' THEN
+    RETURN NULL;
+  END IF;
+  -- exclusão física só avisa de tarefa viva (arquivamento); o expurgo apaga o que já saiu da listagem
+  changed := CASE TG_OP
+    WHEN 'DELETE' THEN 'SELECT DISTINCT id FROM old_rows WHERE NOT deleted'
+    ELSE 'SELECT DISTINCT id FROM new_rows'
+  END;
+  EXECUTE format($sql$
+    SELECT count(pg_notify($1, $2 || ';' || ids))
+    FROM (
+      SELECT string_agg(id::text, ',') AS ids
+      FROM (SELECT id, (row_number() OVER (ORDER BY id) - 1) / 200 AS chunk FROM (%s) c) n
+      GROUP BY chunk
+    ) m
+    $sql$, changed) USING channel, node;
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_tasks_notify_insert AFTER INSERT ON tasks
+  REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_notify();
+CREATE TRIGGER trg_tasks_notify_update AFTER UPDATE ON tasks
+  REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_notify();
+CREATE TRIGGER trg_tasks_notify_delete AFTER DELETE ON tasks
+  REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_notify();
@@ -0,0 +1,3 @@
+-- Índices compostos para a paginação por chave (created_at, id) da listagem
+CREATE INDEX idx_tasks_created_at_id ON tasks(created_at, id);
+CREATE INDEX idx_tasks_status_created_at_id ON tasks(status, created_at, id);
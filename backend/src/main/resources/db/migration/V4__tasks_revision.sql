@@ -0,0 +1,22 @@
+-- Revisão por linha para sincronização incremental (GET /api/tarefas/changes?since=N).
+-- revision recebe o id da transação que gravou a linha; como transações podem commitar
+-- fora de ordem, a API devolve como próximo "since" o xmin do snapshot (a transação
+-- mais antiga ainda em andamento), nunca o maior valor lido.
+ALTER TABLE tasks ADD COLUMN revision BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE tasks ADD COLUMN updated_at TIMESTAMPTZ NOT NULL DEFAULT now();
+
+CREATE FUNCTION tasks_touch() RETURNS trigger AS $$
+BEGIN
+  NEW.revision := pg_current_xact_id()::text::bigint;
+  NEW.updated_at := now();
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Trigger cobre todos os caminhos de escrita (JPA, UPDATE ... RETURNING, updates em massa)
+CREATE TRIGGER trg_tasks_touch
+  BEFORE INSERT OR UPDATE ON tasks
+  FOR EACH ROW EXECUTE FUNCTION tasks_touch();
+
+-- Inclui as deletadas: exclusões lógicas são devolvidas como tombstones
+CREATE INDEX idx_tasks_revision_id ON tasks(revision, id);
@@ -0,0 +1,20 @@
+-- Busca textual em título e descrição (GET /api/tarefas/search?q=).
+-- Configuração própria: stemming em português sem acento ("relatorio" encontra "relatórios")
+CREATE EXTENSION IF NOT EXISTS unaccent;
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE TEXT SEARCH CONFIGURATION tasks_pt (COPY = portuguese);
+ALTER TEXT SEARCH CONFIGURATION tasks_pt
+  ALTER MAPPING FOR hword, hword_part, word WITH unaccent, portuguese_stem;
+
+-- Título pesa mais que a descrição no ranking. Coluna gerada: mantida pelo próprio banco
+-- em todos os caminhos de escrita (reescreve a tabela uma vez ao aplicar a migration)
+ALTER TABLE tasks ADD COLUMN search tsvector GENERATED ALWAYS AS (
+  setweight(to_tsvector('tasks_pt', coalesce(title, '')), 'A') ||
+  setweight(to_tsvector('tasks_pt', coalesce(description, '')), 'B')
+) STORED;
+
+CREATE INDEX idx_tasks_search ON tasks USING gin (search) WHERE deleted = false;
+
+-- Fallback quando a busca textual não acha nada (erro de digitação): similaridade de trigramas no título
+CREATE INDEX idx_tasks_title_trgm ON tasks USING gin (title gin_trgm_ops) WHERE deleted = false;
@@ -0,0 +1,16 @@
+-- Listagem com filtros e ordenação (GET /api/tarefas?priority=&dueFrom=&dueTo=&overdue=&createdAfter=&sort=).
+-- Parciais em deleted = false: nenhuma listagem lê as deletadas, e os índices ficam só com as linhas vivas.
+-- Ordem de criação (padrão) e status + ordem de criação continuam em idx_tasks_created_at_id / idx_tasks_status_created_at_id
+
+-- sort=dueDate/-dueDate, dueFrom/dueTo
+CREATE INDEX idx_tasks_live_due_date_id ON tasks (due_date, id) WHERE deleted = false;
+-- status + sort=dueDate ou status + dueFrom/dueTo
+CREATE INDEX idx_tasks_live_status_due_date_id ON tasks (status, due_date, id) WHERE deleted = false;
+-- priority + ordem de criação
+CREATE INDEX idx_tasks_live_priority_created_at_id ON tasks (priority, created_at, id) WHERE deleted = false;
+-- sort=priority/-priority: mesma expressão de TaskQuerySql.PRIORITY_RANK (HIGH primeiro)
+CREATE INDEX idx_tasks_live_priority_rank ON tasks (
+  (CASE priority WHEN 'HIGH' THEN 0 WHEN 'MEDIUM' THEN 1 ELSE 2 END), due_date, id
+) WHERE deleted = false;
+-- overdue=true: só as abertas, ordenadas pelo vencimento
+CREATE INDEX idx_tasks_open_due_date_id ON tasks (due_date, id) WHERE deleted = false AND status <> 'DONE';
@@ -0,0 +1,32 @@
+-- Índices quentes só com as linhas vivas: as deletadas ficam fora de toda listagem
+-- (só a sincronização as lê, por idx_tasks_revision_id). Menores e sem entrada a cada exclusão lógica
+CREATE INDEX idx_tasks_live_created_at_id ON tasks (created_at, id) WHERE deleted = false;
+CREATE INDEX idx_tasks_live_status_created_at_id ON tasks (status, created_at, id) WHERE deleted = false;
+DROP INDEX idx_tasks_created_at_id;
+DROP INDEX idx_tasks_status_created_at_id;
+-- Boolean de baixa cardinalidade e status sozinho: o planejador não usa, só custam nas escritas
+DROP INDEX idx_tasks_deleted;
+DROP INDEX idx_tasks_status;
+
+-- Candidatas ao arquivamento (TaskArchiver), da alteração mais antiga para a mais nova
+CREATE INDEX idx_tasks_deleted_updated_at ON tasks (updated_at) WHERE deleted = true;
+CREATE INDEX idx_tasks_done_updated_at ON tasks (updated_at) WHERE deleted = false AND status = 'DONE';
+
+-- Tarefas tiradas da tabela viva: deletadas há muito tempo e concluídas sem alteração há muito tempo
+CREATE TABLE tasks_archive (
+  id UUID PRIMARY KEY,
+  title VARCHAR(255) NOT NULL,
+  description TEXT,
+  status VARCHAR(10) NOT NULL,
+  priority VARCHAR(10) NOT NULL,
+  due_date TIMESTAMP NOT NULL,
+  created_at TIMESTAMP NOT NULL,
+  deleted BOOLEAN NOT NULL,
+  version BIGINT NOT NULL,
+  updated_at TIMESTAMPTZ NOT NULL,
+  -- transação que arquivou: a sincronização devolve a tarefa como removida a partir desta revisão
+  revision BIGINT NOT NULL,
+  archived_at TIMESTAMPTZ NOT NULL DEFAULT now()
+);
+
+CREATE INDEX idx_tasks_archive_revision_id ON tasks_archive (revision, id);
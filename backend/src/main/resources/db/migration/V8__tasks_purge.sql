@@ -0,0 +1,11 @@
+-- Expurgo (TaskPurger): deletadas no arquivo, da exclusão mais antiga para a mais nova, em lotes por chave
+CREATE INDEX idx_tasks_archive_purge ON tasks_archive (updated_at, id) WHERE deleted = true;
+
+-- Maior revisão já expurgada: a sincronização não consegue mais devolver remoções até ela,
+-- então um since menor ou igual precisa recomeçar do zero
+CREATE TABLE tasks_sync_horizon (
+  id BOOLEAN PRIMARY KEY DEFAULT true CHECK (id),
+  revision BIGINT NOT NULL
+);
+
+INSERT INTO tasks_sync_horizon (revision) VALUES (0);
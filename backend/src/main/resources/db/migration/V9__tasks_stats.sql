@@ -0,0 +1,60 @@
+-- Contagens das tarefas vivas mantidas a cada escrita, para o painel não varrer a tabela:
+-- por status x prioridade e, das abertas (não DONE), por dia de vencimento (vencidas = dias passados + hoje)
+CREATE TABLE tasks_stats (
+  status VARCHAR(10) NOT NULL,
+  priority VARCHAR(10) NOT NULL,
+  total BIGINT NOT NULL,
+  PRIMARY KEY (status, priority)
+);
+
+CREATE TABLE tasks_due_stats (
+  due_day DATE NOT NULL,
+  priority VARCHAR(10) NOT NULL,
+  total BIGINT NOT NULL,
+  PRIMARY KEY (due_day, priority)
+);
+
+-- Uma vez por comando (não por linha): um lote de 5000 inserções soma cada contador uma vez só.
+-- O lock consultivo compartilhado não bloqueia escritas entre si; só a reconciliação o pede exclusivo
+CREATE FUNCTION tasks_stats_apply() RETURNS trigger LANGUAGE plpgsql AS $$
+DECLARE
+  changed TEXT;
+BEGIN
+  PERFORM pg_advisory_xact_lock_shared(hashtext('tasks_stats'));
+  changed := CASE TG_OP
+    WHEN 'INSERT' THEN 'SELECT status, priority, due_date, 1 AS n FROM new_rows WHERE NOT deleted'
+    WHEN 'DELETE' THEN 'SELECT status, priority, due_date, -1 AS n FROM old_rows WHERE NOT deleted'
+    ELSE 'SELECT status, priority, due_date, 1 AS n FROM new_rows WHERE NOT deleted'
+      || ' UNION ALL SELECT status, priority, due_date, -1 AS n FROM old_rows WHERE NOT deleted'
+  END;
+  -- sempre na mesma ordem (tabela, chave): dois comandos concorrentes não se travam
+  EXECUTE format($sql$
+    WITH delta AS (%s),
+    counts AS (
+      INSERT INTO tasks_stats AS s (status, priority, total)
+      SELECT status, priority, sum(n) FROM delta GROUP BY status, priority HAVING sum(n) <> 0
+      ORDER BY status, priority
+      ON CONFLICT (status, priority) DO UPDATE SET total = s.total + EXCLUDED.total)
+    INSERT INTO tasks_due_stats AS d (due_day, priority, total)
+    SELECT due_date::date, priority, sum(n) FROM delta WHERE status <> 'DONE'
+    GROUP BY due_date::date, priority HAVING sum(n) <> 0
+    ORDER BY 1, 2
+    ON CONFLICT (due_day, priority) DO UPDATE SET total = d.total + EXCLUDED.total
+    $sql$, changed);
+  RETURN NULL;
+END;
+$$;
+
+CREATE TRIGGER trg_tasks_stats_insert AFTER INSERT ON tasks
+  REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_stats_apply();
+CREATE TRIGGER trg_tasks_stats_update AFTER UPDATE ON tasks
+  REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_stats_apply();
+CREATE TRIGGER trg_tasks_stats_delete AFTER DELETE ON tasks
+  REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT EXECUTE FUNCTION tasks_stats_apply();
+
+INSERT INTO tasks_stats (status, priority, total)
+SELECT status, priority, count(*) FROM tasks WHERE deleted = false GROUP BY status, priority;
+
+INSERT INTO tasks_due_stats (due_day, priority, total)
+SELECT due_date::date, priority, count(*) FROM tasks WHERE deleted = false AND status <> 'DONE'
+GROUP BY due_date::date, priority;
@@ -0,0 +1,89 @@
+package com.silverio.tasks.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+class DbConcurrencyFilterTest {
+
+  private final ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+
+  @Test
+  void deve_responder_503_quando_nao_houver_vaga_dentro_do_timeout() throws Exception {
+    // arrange: uma vaga, ocupada por uma requisição travada
+    var filter = new DbConcurrencyFilter(1, Duration.ofMillis(50), mapper);
+    var entrou = new CountDownLatch(1);
+    var liberar = new CountDownLatch(1);
+    FilterChain travada = (req, res) -> {
+      entrou.countDown();
+      try {
+        liberar.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+    };
+    try (var executor = Executors.newSingleThreadExecutor()) {
+      executor.submit(() -> {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/tarefas"), new MockHttpServletResponse(), travada);
+        return null;
+      });
+      assertThat(entrou.await(5, TimeUnit.SECONDS)).isTrue();
+
+      // act
+      var response = new MockHttpServletResponse();
+      filter.doFilter(new MockHttpServletRequest("GET", "/api/tarefas"), response, new MockFilterChain());
+
+      // assert
+      assertThat(response.getStatus()).isEqualTo(503);
+      assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+      assertThat(response.getContentAsString()).contains("Muitas requisições simultâneas");
+      assertThat(filter.inFlight()).isEqualTo(1);
+      assertThat(filter.rejectedCount()).isEqualTo(1);
+      liberar.countDown();
+    }
+    assertThat(filter.inFlight()).isZero();
+  }
+
+  @Test
+  void stream_sse_nao_deve_ocupar_vaga() throws Exception {
+    // arrange
+    var filter = new DbConcurrencyFilter(1, Duration.ofMillis(50), mapper);
+    var chain = new MockFilterChain();
+
+    // act
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/tarefas/stream"), new MockHttpServletResponse(), chain);
+
+    // assert
+    assertThat(chain.getRequest()).isNotNull();
+    assertThat(filter.inFlight()).isZero();
+  }
+
+  @Test
+  void resposta_assincrona_deve_segurar_a_vaga_ate_completar() throws Exception {
+    // arrange: exportação em streaming continua na thread assíncrona depois que a cadeia retorna
+    var filter = new DbConcurrencyFilter(1, Duration.ofMillis(50), mapper);
+    var request = new MockHttpServletRequest("GET", "/api/tarefas/export");
+    request.setAsyncSupported(true);
+    FilterChain exportacao = (req, res) -> req.startAsync();
+
+    // act
+    filter.doFilter(request, new MockHttpServletResponse(), exportacao);
+    var durante = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/api/tarefas"), durante, new MockFilterChain());
+    request.getAsyncContext().complete();
+
+    // assert
+    assertThat(durante.getStatus()).isEqualTo(503);
+    assertThat(filter.inFlight()).isZero();
+  }
+}
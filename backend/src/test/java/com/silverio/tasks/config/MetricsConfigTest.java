@@ -0,0 +1,83 @@
+package com.silverio.tasks.config;
+
+import com.silverio.tasks.shared.exception.NotFoundException;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.application.service.TaskService;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MetricsConfigTest {
+
+  private SimpleMeterRegistry registry;
+  private TaskRepository repository;
+  private TaskService service;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    repository = mock(TaskRepository.class);
+    var factory = new AspectJProxyFactory(new TaskService(repository, mock(TaskStatsRepository.class), new TaskRevision(), mock(ApplicationEventPublisher.class)));
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new MetricsConfig().timedAspect(registry));
+    service = factory.getProxy();
+  }
+
+  @Test
+  void deve_marcar_o_timer_do_servico_com_operacao_e_status() {
+    // arrange
+    when(repository.findAll(any())).thenReturn(List.of());
+
+    // act
+    service.list(TaskStatus.DOING);
+    service.list(TaskStatus.DOING);
+    service.list(null);
+
+    // assert
+    var doing = registry.find("tasks.service").tags("operation", "list", "status", "DOING").timer();
+    var all = registry.find("tasks.service").tags("operation", "list", "status", "ALL").timer();
+    assertThat(doing).isNotNull();
+    assertThat(doing.count()).isEqualTo(2);
+    assertThat(all).isNotNull();
+    assertThat(all.count()).isEqualTo(1);
+  }
+
+  @Test
+  void operacao_sem_status_deve_usar_NONE_e_registrar_a_excecao() {
+    // arrange
+    when(repository.findById(any())).thenReturn(Optional.empty());
+
+    // act
+    assertThatThrownBy(() -> service.get(UUID.randomUUID())).isInstanceOf(NotFoundException.class);
+
+    // assert: mesmas chaves de tag em todas as séries (exigência do Prometheus)
+    var timer = registry.find("tasks.service").tags("operation", "get").timer();
+    assertThat(timer).isNotNull();
+    assertThat(timer.getId().getTag("status")).isEqualTo(MetricsConfig.NO_STATUS);
+    assertThat(timer.getId().getTag("exception")).isEqualTo("NotFoundException");
+  }
+
+  @Test
+  void meter_tag_com_expressao_deve_ser_avaliada_no_parametro() {
+    // act
+    var status = MetricsConfig.EXPRESSIONS.resolve("name().toLowerCase()", TaskStatus.DOING);
+    var nulo = MetricsConfig.EXPRESSIONS.resolve("#root", null);
+
+    // assert
+    assertThat(status).isEqualTo("doing");
+    assertThat(nulo).isEqualTo("null");
+  }
+}
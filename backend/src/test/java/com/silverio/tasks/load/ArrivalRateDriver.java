@@ -0,0 +1,61 @@
+package com.silverio.tasks.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de carga em malha aberta: dispara requisições numa taxa fixa, independente de o
+ * servidor estar respondendo rápido ou não (como usuários reais). A latência é medida a partir
+ * do instante em que a requisição <em>deveria</em> ter saído, então atrasos do próprio gerador
+ * ou fila no servidor aparecem no p99/p999 em vez de sumirem (coordinated omission).
+ */
+final class ArrivalRateDriver {
+
+  /** Requisição sorteada pelo mix de carga. */
+  record Call(String endpoint, HttpRequest request) {}
+
+  private ArrivalRateDriver() {}
+
+  /**
+   * @param maxOutstanding requisições em voo; acima disso a chamada é descartada (e contada),
+   *                       para o gerador não esgotar memória quando o servidor travar
+   */
+  static void run(HttpClient http, double ratePerSecond, Duration duration, int maxOutstanding,
+                  Supplier<Call> mix, EndpointStats stats) {
+    var intervalNanos = 1_000_000_000d / ratePerSecond;
+    var total = (long) (duration.toNanos() / intervalNanos);
+    var outstanding = new Semaphore(maxOutstanding);
+    var start = System.nanoTime();
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (long i = 0; i < total; i++) {
+        var intended = start + (long) (i * intervalNanos);
+        var wait = intended - System.nanoTime();
+        if (wait > 0) LockSupport.parkNanos(wait);
+
+        var call = mix.get();
+        if (!outstanding.tryAcquire()) {
+          stats.dropped(call.endpoint());
+          continue;
+        }
+        executor.submit(() -> {
+          var status = -1;
+          try {
+            status = http.send(call.request(), HttpResponse.BodyHandlers.discarding()).statusCode();
+          } catch (Exception ex) {
+            // conta como erro (status -1)
+          } finally {
+            stats.record(call.endpoint(), System.nanoTime() - intended, status);
+            outstanding.release();
+          }
+        });
+      }
+    }
+  }
+}
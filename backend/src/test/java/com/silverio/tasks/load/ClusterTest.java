@@ -0,0 +1,228 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.shared.cluster.LeaderElection;
+import com.silverio.tasks.task.application.reminder.TaskDueEvent;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskService;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Três instâncias da aplicação no mesmo Postgres: escrita numa aparece nas outras (cache, ETag da
+ * listagem, eventos), cada job agendado tem um só líder e outro assume quando ele sai, e a queda
+ * do canal faz todas descartarem o que têm em memória. O aviso sai do trigger, na transação que escreve.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=ClusterTest}; latência de propagação em
+ * {@code target/load-reports/cluster.txt}.
+ */
+@Tag("load")
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ClusterTest {
+
+  private static final String BASE = "/api/tarefas";
+  private static final int UPDATES = 200;
+
+  private static LoadDatabase db;
+  private static final List<LoadApp> apps = new ArrayList<>();
+  private static final List<Recorder> recorders = new ArrayList<>();
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  @BeforeAll
+  static void start() {
+    db = LoadDatabase.start();
+    for (var node : List.of("a", "b", "c")) {
+      var recorder = new Recorder();
+      recorders.add(recorder);
+      apps.add(LoadApp.start(db, List.of(recorder), "tasks.cluster.node-id=" + node,
+          "tasks.cluster.reconnect-delay=200ms", "tasks.reminders.tick=100ms"));
+    }
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    apps.forEach(LoadApp::close);
+    if (db != null) db.close();
+  }
+
+  @Test
+  @Order(1)
+  void escrita_numa_instancia_invalida_cache_e_etag_nas_outras() throws Exception {
+    var a = apps.get(0).mockMvc();
+    var b = apps.get(1).mockMvc();
+    var id = body(a.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(
+        Map.of("title", "Antes", "dueDate", "10/10/2030 10:00", "priority", "LOW"))))).get("id").asText();
+    await(() -> recorders.get(1).changed.containsKey(UUID.fromString(id)), Duration.ofSeconds(5));
+    // b guarda a tarefa e a listagem no cache
+    assertThat(body(b.perform(get(BASE + "/" + id))).get("title").asText()).isEqualTo("Antes");
+    var etag = b.perform(get(BASE)).andReturn().getResponse().getHeader("ETag");
+
+    a.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"Depois\"}"))
+        .andExpect(status().isOk());
+
+    await(() -> "Depois".equals(title(recorders.get(1).changed.get(UUID.fromString(id)))), Duration.ofSeconds(5));
+    assertThat(body(b.perform(get(BASE + "/" + id))).get("title").asText()).isEqualTo("Depois");
+    assertThat(b.perform(get(BASE)).andReturn().getResponse().getHeader("ETag")).isNotEqualTo(etag);
+    // quem escreveu não recebe a própria escrita de volta
+    assertThat(recorders.get(0).remote).doesNotContainKey(UUID.fromString(id));
+  }
+
+  @Test
+  @Order(2)
+  void propagacao_entre_instancias_leva_milissegundos() throws Exception {
+    var service = apps.get(0).bean(TaskService.class);
+    var id = service.create("Propagação", null, LocalDateTime.now().plusDays(1), TaskPriority.LOW).getId().value();
+    var latencies = new long[UPDATES];
+    for (int i = 0; i < UPDATES; i++) {
+      var title = "Propagação " + i;
+      var start = System.nanoTime();
+      service.update(id, title, null, null, null, null);
+      await(() -> recorders.stream().skip(1).allMatch(r -> title.equals(title(r.changed.get(id)))), Duration.ofSeconds(5));
+      latencies[i] = System.nanoTime() - start;
+    }
+    Arrays.sort(latencies);
+    var p50 = latencies[UPDATES / 2] / 1_000_000.0;
+    var p99 = latencies[UPDATES * 99 / 100] / 1_000_000.0;
+    LoadReport.publish("cluster.txt", "escrita -> visível nas outras 2 instâncias (%d escritas): p50 %.1f ms, p99 %.1f ms%n"
+        .formatted(UPDATES, p50, p99));
+    assertThat(p99).as("p99 da propagação (ms)").isLessThan(500);
+  }
+
+  @Test
+  @Order(3)
+  void lembrete_dispara_uma_vez_so_no_cluster() throws Exception {
+    var due = LocalDateTime.now().plusSeconds(3).truncatedTo(ChronoUnit.MILLIS);
+    // criada numa instância qualquer: a líder dos lembretes fica sabendo pelo canal
+    var id = apps.get(2).bean(TaskService.class).create("Lembrete do cluster", null, due, TaskPriority.HIGH)
+        .getId().value();
+
+    await(() -> recorders.stream().anyMatch(r -> r.due.containsKey(id)), Duration.ofSeconds(10));
+    Thread.sleep(1000);
+
+    assertThat(recorders.stream().mapToInt(r -> r.due.getOrDefault(id, 0)).sum()).isEqualTo(1);
+  }
+
+  @Test
+  @Order(4)
+  void queda_do_canal_faz_todas_descartarem_o_cache() throws Exception {
+    var before = resyncs();
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.execute("SELECT pg_terminate_backend(pid) FROM pg_stat_activity WHERE application_name = 'tasks-listen'");
+    }
+    await(() -> resyncs() >= before + apps.size(), Duration.ofSeconds(10));
+
+    // reconectadas, voltam a receber
+    var id = apps.get(0).bean(TaskService.class)
+        .create("Depois da queda", null, LocalDateTime.now().plusDays(1), TaskPriority.LOW).getId().value();
+    await(() -> recorders.get(1).changed.containsKey(id) && recorders.get(2).changed.containsKey(id),
+        Duration.ofSeconds(5));
+  }
+
+  @Test
+  @Order(5)
+  void cada_job_tem_um_so_lider_e_outro_assume_quando_ele_sai() throws Exception {
+    var leaders = leaders("cluster-test");
+    assertThat(leaders).hasSize(1);
+    int leader = leaders.get(0);
+
+    apps.get(leader).close();
+    apps.remove(leader);
+    recorders.remove(leader);
+
+    await(() -> leaders("cluster-test").size() == 1, Duration.ofSeconds(10));
+    // os jobs de verdade também: cada um com exatamente uma líder entre as que sobraram
+    for (var job : List.of("archive", "purge", "stats-reconcile", "reminders")) {
+      assertThat(leaders(job)).as(job).hasSizeLessThanOrEqualTo(1);
+    }
+  }
+
+  @Test
+  @Order(6)
+  void aviso_sai_da_transacao_que_escreve_mesmo_sem_passar_pelo_servico() throws Exception {
+    var id = apps.get(0).bean(TaskService.class)
+        .create("Direta", null, LocalDateTime.now().plusDays(1), TaskPriority.LOW).getId().value();
+    await(() -> recorders.get(1).changed.containsKey(id), Duration.ofSeconds(5));
+
+    // UPDATE no pool da aplicação, sem evento local: quem avisa é o trigger, no commit
+    var jdbc = new JdbcTemplate(apps.get(0).bean(DataSource.class));
+    jdbc.update("UPDATE tasks SET title = 'Direta 2' WHERE id = ?", id);
+
+    await(() -> "Direta 2".equals(title(recorders.get(1).changed.get(id))), Duration.ofSeconds(5));
+  }
+
+  private static List<Integer> leaders(String job) {
+    var leaders = new ArrayList<Integer>();
+    for (int i = 0; i < apps.size(); i++) {
+      if (apps.get(i).bean(LeaderElection.class).isLeader(job)) leaders.add(i);
+    }
+    return leaders;
+  }
+
+  private static double resyncs() {
+    return apps.stream()
+        .mapToDouble(app -> app.bean(MeterRegistry.class).get("tasks.cluster.notify.resync").counter().count())
+        .sum();
+  }
+
+  private static String title(TaskChangedEvent event) {
+    return event == null || event.task() == null ? null : event.task().getTitle();
+  }
+
+  private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+    var deadline = System.nanoTime() + timeout.toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) Thread.sleep(1);
+    assertThat(condition.getAsBoolean()).as("condição dentro de " + timeout).isTrue();
+  }
+
+  private JsonNode body(ResultActions result) throws Exception {
+    return json.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+  }
+
+  /** Guarda o último evento de cada tarefa (locais e remotos) e os lembretes disparados. */
+  static final class Recorder {
+    private final Map<UUID, TaskChangedEvent> changed = new ConcurrentHashMap<>();
+    private final Map<UUID, TaskChangedEvent> remote = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> due = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onChanged(TaskChangedEvent event) {
+      changed.put(event.id(), event);
+      if (event.remote()) remote.put(event.id(), event);
+    }
+
+    @EventListener
+    public void onDue(TaskDueEvent event) {
+      due.merge(event.id(), 1, Integer::sum);
+    }
+  }
+}
@@ -0,0 +1,151 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Antes e depois do perfil {@code prod}: a mesma carga contra a configuração anterior (lotes sem
+ * reescrita, IN sem padding, {@code format_sql} ligado, pool elástico) e contra o perfil, com o mesmo
+ * tamanho de pool e a mesma espera por conexão, e o cache desligado para toda requisição ir ao banco.
+ * Mede lotes de inserção ({@code POST /batch}) e uma mistura de leituras (detalhe, listagem filtrada,
+ * busca) separadamente.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=ConfigTuningLoadTest}; tabela em
+ * {@code target/load-reports/config-tuning.txt}. Carga ajustável com {@code -Dload.clients} e
+ * {@code -Dload.seconds}.
+ */
+@Tag("load")
+class ConfigTuningLoadTest {
+
+  private static final int CLIENTS = Integer.getInteger("load.clients", 40);
+  private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.seconds", 15));
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final int BATCH = 50;
+  private static final int SEED = 1000;
+
+  private static final String[] BEFORE = {
+      "spring.datasource.hikari.minimum-idle=2",
+      "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts=false",
+      "spring.jpa.properties.hibernate.format_sql=true",
+      "spring.jpa.properties.hibernate.query.in_clause_parameter_padding=false"
+  };
+  private static final String[] AFTER = {
+      "spring.profiles.active=prod",
+      "spring.datasource.hikari.minimum-idle=10",
+      // a espera de 3s do perfil é para sobrecarga; aqui a fila é de propósito, igual nos dois
+      "spring.datasource.hikari.connection-timeout=30000"
+  };
+
+  private static LoadDatabase db;
+  private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final Map<String, Double> findings = new LinkedHashMap<>();
+
+  @BeforeAll
+  static void startDatabase() {
+    db = LoadDatabase.start();
+  }
+
+  @AfterAll
+  static void stopDatabase() throws Exception {
+    if (db != null) db.close();
+  }
+
+  @Test
+  void perfil_prod_contra_a_configuracao_anterior() throws Exception {
+    // act
+    var before = measure("antes", BEFORE);
+    var after = measure("prod", AFTER);
+
+    // assert
+    var results = List.of(before.get(0), after.get(0), before.get(1), after.get(1));
+    var report = new StringBuilder();
+    findings.forEach((name, count) -> report.append(String.format("%s: %.0f configurações lentas na auditoria%n", name, count)));
+    report.append(LoadDriver.Result.header()).append('\n');
+    results.forEach(result -> report.append(result.row()).append('\n'));
+    LoadReport.publish("config-tuning.txt", report.toString());
+
+    results.forEach(result -> assertThat(result.errors()).as(result.name()).isZero());
+  }
+
+  /** Lotes de inserção e depois leituras, na mesma aplicação. */
+  private List<LoadDriver.Result> measure(String name, String... config) throws Exception {
+    var properties = new ArrayList<>(List.of(
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "tasks.cache.enabled=false",
+        "tasks.sql.budget-mode=off"));
+    properties.addAll(List.of(config));
+    try (var app = LoadApp.start(db, properties.toArray(String[]::new))) {
+      findings.put(name, app.bean(MeterRegistry.class).get("tasks.config.audit.findings").gauge().value());
+      var base = app.baseUrl();
+      var ids = create(base, SEED);
+
+      Supplier<HttpRequest> inserts = () -> HttpRequest.newBuilder(URI.create(base + "/batch"))
+          .header("Content-Type", "application/json")
+          .timeout(Duration.ofSeconds(30))
+          .POST(HttpRequest.BodyPublishers.ofString(batch(BATCH)))
+          .build();
+      // detalhe (60%), listagem filtrada e ordenada (30%), busca (10%)
+      Supplier<HttpRequest> reads = () -> {
+        var random = ThreadLocalRandom.current();
+        var pick = random.nextInt(10);
+        var uri = pick < 6 ? base + "/" + ids.get(random.nextInt(ids.size()))
+            : pick < 9 ? base + "?status=TODO&priority=LOW&sort=dueDate&limit=50"
+            : base + "/search?q=carga+" + random.nextInt(SEED);
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+      };
+
+      var results = new ArrayList<LoadDriver.Result>();
+      for (var scenario : List.of(new Scenario(name + ": /batch de " + BATCH, inserts),
+                                  new Scenario(name + ": leituras", reads))) {
+        LoadDriver.run(scenario.name(), http, CLIENTS, WARMUP, scenario.requests());
+        results.add(LoadDriver.run(scenario.name(), http, CLIENTS, DURATION, scenario.requests()));
+      }
+      return results;
+    }
+  }
+
+  private record Scenario(String name, Supplier<HttpRequest> requests) {}
+
+  private List<String> create(String base, int count) throws Exception {
+    var request = HttpRequest.newBuilder(URI.create(base + "/batch"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(batch(count)))
+        .build();
+    var response = http.send(request, HttpResponse.BodyHandlers.ofString());
+    assertThat(response.statusCode()).isEqualTo(200);
+
+    var ids = new ArrayList<String>(count);
+    mapper.readTree(response.body()).get("items").forEach(item -> ids.add(item.get("id").asText()));
+    return ids;
+  }
+
+  private static String batch(int count) {
+    var random = ThreadLocalRandom.current();
+    var body = new StringBuilder("[");
+    for (int i = 0; i < count; i++) {
+      if (i > 0) body.append(',');
+      body.append("{\"title\":\"carga ").append(random.nextInt(SEED))
+          .append("\",\"dueDate\":\"01/12/2030 00:00\",\"priority\":\"LOW\"}");
+    }
+    return body.append(']').toString();
+  }
+}
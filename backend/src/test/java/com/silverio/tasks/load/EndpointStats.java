@@ -0,0 +1,74 @@
+package com.silverio.tasks.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/** Latência (HdrHistogram, 3 dígitos) e contagem de respostas por endpoint. */
+final class EndpointStats {
+
+  private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+  void record(String endpoint, long latencyNanos, int status) {
+    var e = endpoints.computeIfAbsent(endpoint, k -> new Endpoint());
+    e.latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(latencyNanos)));
+    if (status < 0 || status >= 500) e.errors.incrementAndGet();
+    else if (status >= 400) e.clientErrors.incrementAndGet();
+  }
+
+  void dropped(String endpoint) {
+    endpoints.computeIfAbsent(endpoint, k -> new Endpoint()).dropped.incrementAndGet();
+  }
+
+  long totalRequests() {
+    return endpoints.values().stream().mapToLong(e -> e.latency.getTotalCount()).sum();
+  }
+
+  long totalErrors() {
+    return endpoints.values().stream().mapToLong(e -> e.errors.get() + e.dropped.get()).sum();
+  }
+
+  String report(String title, Duration duration) {
+    var sb = new StringBuilder();
+    sb.append(title).append('\n');
+    sb.append(String.format("%-24s %9s %8s %7s %7s %7s %9s %9s %9s %9s%n",
+        "endpoint", "reqs", "req/s", "4xx", "erros", "descart", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+    var all = new Histogram(3);
+    long clientErrors = 0, errors = 0, dropped = 0;
+    for (var entry : new TreeMap<>(endpoints).entrySet()) {
+      var e = entry.getValue();
+      var h = e.latency.copy();
+      all.add(h);
+      clientErrors += e.clientErrors.get();
+      errors += e.errors.get();
+      dropped += e.dropped.get();
+      sb.append(row(entry.getKey(), h, e.clientErrors.get(), e.errors.get(), e.dropped.get(), duration));
+    }
+    sb.append(row("TOTAL", all, clientErrors, errors, dropped, duration));
+    return sb.toString();
+  }
+
+  private static String row(String name, Histogram h, long clientErrors, long errors, long dropped, Duration duration) {
+    return String.format("%-24s %9d %8.0f %7d %7d %7d %9.1f %9.1f %9.1f %9.1f%n",
+        name, h.getTotalCount(), h.getTotalCount() / (duration.toMillis() / 1000.0), clientErrors, errors, dropped,
+        ms(h.getValueAtPercentile(50)), ms(h.getValueAtPercentile(99)),
+        ms(h.getValueAtPercentile(99.9)), ms(h.getMaxValue()));
+  }
+
+  private static double ms(long micros) {
+    return micros / 1000.0;
+  }
+
+  private static final class Endpoint {
+    final Histogram latency = new ConcurrentHistogram(3);
+    final AtomicLong clientErrors = new AtomicLong();
+    final AtomicLong errors = new AtomicLong();
+    final AtomicLong dropped = new AtomicLong();
+  }
+}
@@ -0,0 +1,116 @@
+package com.silverio.tasks.load;
+
+import com.silverio.tasks.task.infrastructure.mapper.TaskMapper;
+import com.silverio.tasks.task.infrastructure.persistence.JpaTaskEntity;
+import com.silverio.tasks.task.infrastructure.persistence.JpaTaskRepository;
+import com.silverio.tasks.task.interfaces.rest.response.TaskResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara, contra o Postgres, os dois caminhos de leitura da listagem até a lista de {@link TaskResponse}:
+ * entidades gerenciadas → {@code Task} → resposta (como era) e projeção {@code TaskView} → resposta.
+ * Mede latência (p50/p99) e bytes alocados por chamada na thread, numa transação somente leitura.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=ListReadPathComparisonTest}; relatório em
+ * {@code target/load-reports/list-read-path.txt}.
+ */
+@Tag("load")
+class ListReadPathComparisonTest {
+
+  private static final int[] SIZES = { 200, 5000 };
+  private static final int WARMUP = 100;
+  private static final int ITERATIONS = Integer.getInteger("load.iterations", 300);
+  private static final String ENTITY_QUERY =
+      "select t from JpaTaskEntity t where t.deleted = false order by t.createdAt, t.id";
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private static final com.sun.management.ThreadMXBean threads =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  @BeforeAll
+  static void start() throws Exception {
+    db = LoadDatabase.start();
+    app = LoadApp.start(db);
+    LoadSeed.ensure(db, 10_000);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void projecao_aloca_menos_que_entidade_dominio_resposta() throws Exception {
+    var jpa = app.bean(JpaTaskRepository.class);
+    EntityManager em = SharedEntityManagerCreator.createSharedEntityManager(app.bean(EntityManagerFactory.class));
+    var tx = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+    tx.setReadOnly(true);
+
+    var report = new StringBuilder("Listagem: entidade → Task → TaskResponse x projeção TaskView → TaskResponse\n");
+    report.append(String.format("%-10s %6s %10s %10s %14s%n", "caminho", "itens", "p50 ms", "p99 ms", "KB/chamada"));
+    for (int size : SIZES) {
+      Supplier<List<TaskResponse>> entities = () -> tx.execute(s -> em.createQuery(ENTITY_QUERY, JpaTaskEntity.class)
+          .setMaxResults(size)
+          .getResultList().stream()
+          .map(TaskMapper::toDomain)
+          .map(TaskResponse::of)
+          .toList());
+      Supplier<List<TaskResponse>> projection = () -> tx.execute(s -> jpa.findFirstPage(PageRequest.ofSize(size))
+          .stream()
+          .map(TaskResponse::of)
+          .toList());
+
+      var before = measure(entities, size);
+      var after = measure(projection, size);
+      report.append(before.row("entidade", size)).append(after.row("projeção", size));
+
+      assertThat(after.bytesPerCall).isLessThan(before.bytesPerCall);
+    }
+
+    LoadReport.publish("list-read-path.txt", report.toString());
+  }
+
+  private static Result measure(Supplier<List<TaskResponse>> path, int size) {
+    for (int i = 0; i < WARMUP; i++) {
+      assertThat(path.get()).hasSize(size);
+    }
+    var latency = new Histogram(3);
+    long bytes = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      var allocated = threads.getCurrentThreadAllocatedBytes();
+      var start = System.nanoTime();
+      path.get();
+      latency.recordValue(Math.max(1, TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start)));
+      bytes += threads.getCurrentThreadAllocatedBytes() - allocated;
+    }
+    return new Result(latency, bytes / ITERATIONS);
+  }
+
+  private record Result(Histogram latency, long bytesPerCall) {
+    String row(String name, int size) {
+      return String.format("%-10s %6d %10.2f %10.2f %14.1f%n", name, size,
+          latency.getValueAtPercentile(50) / 1000.0, latency.getValueAtPercentile(99) / 1000.0,
+          bytesPerCall / 1024.0);
+    }
+  }
+}
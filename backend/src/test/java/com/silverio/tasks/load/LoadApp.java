@@ -0,0 +1,81 @@
+package com.silverio.tasks.load;
+
+import com.silverio.tasks.TasksApplication;
+import jakarta.servlet.Filter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/** Sobe a aplicação inteira (Tomcat em porta aleatória) apontando para o banco de carga. */
+final class LoadApp implements AutoCloseable {
+
+  private final ConfigurableApplicationContext context;
+
+  private LoadApp(ConfigurableApplicationContext context) {
+    this.context = context;
+  }
+
+  static LoadApp start(LoadDatabase db, String... properties) {
+    return start(db, List.of(), properties);
+  }
+
+  /** Com beans extras do teste (ex.: um sink do outbox), registrados antes de o contexto subir. */
+  static LoadApp start(LoadDatabase db, List<?> beans, String... properties) {
+    // como argumentos de linha de comando: propriedades "default" do builder perdem para o application.yml
+    var args = Stream.of(db.springProperties(), new String[] { "server.port=0", "logging.level.root=WARN",
+        "logging.level.com.silverio.tasks.load=INFO" }, properties)
+        .flatMap(Arrays::stream)
+        .map(p -> "--" + p)
+        .toArray(String[]::new);
+    var context = new SpringApplicationBuilder(TasksApplication.class)
+        .initializers(ctx -> beans.forEach(b -> ctx.getBeanFactory().registerSingleton(b.getClass().getName(), b)))
+        .run(args);
+    try {
+      checkApplied(context, args);
+    } catch (IllegalStateException ex) {
+      context.close();
+      throw ex;
+    }
+    return new LoadApp(context);
+  }
+
+  /** Uma propriedade do teste que não vale no contexto invalida a medição: falha na hora. */
+  private static void checkApplied(ConfigurableApplicationContext context, String[] args) {
+    for (var arg : args) {
+      var property = arg.substring(2).split("=", 2);
+      var actual = context.getEnvironment().getProperty(property[0]);
+      if (!property[1].equals(actual)) {
+        throw new IllegalStateException("Propriedade do teste ignorada: " + property[0] + "=" + property[1]
+            + " (valendo: " + actual + ")");
+      }
+    }
+  }
+
+  String baseUrl() {
+    return "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/tarefas";
+  }
+
+  /** MockMvc sobre o mesmo contexto: exceções dos filtros chegam ao teste em vez de virar 500. */
+  MockMvc mockMvc(Filter... filters) {
+    return MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).addFilters(filters).build();
+  }
+
+  <T> T bean(Class<T> type) {
+    return context.getBean(type);
+  }
+
+  <T> T bean(String name, Class<T> type) {
+    return context.getBean(name, type);
+  }
+
+  @Override
+  public void close() {
+    context.close();
+  }
+}
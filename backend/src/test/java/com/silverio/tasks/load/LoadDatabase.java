@@ -0,0 +1,83 @@
+package com.silverio.tasks.load;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+
+/**
+ * Banco dos testes de carga, escolhido por {@code -Dload.db}:
+ * <ul>
+ *   <li>{@code url}: Postgres já existente ({@code -Dload.jdbc-url=...}, usuário/senha em
+ *       {@code load.jdbc-username}/{@code load.jdbc-password});</li>
+ *   <li>{@code container}: Postgres 16 via Testcontainers (precisa de Docker);</li>
+ *   <li>{@code embedded}: Postgres 16 embarcado, sem Docker nem serviços externos
+ *       (não roda como root).</li>
+ * </ul>
+ * Sem {@code load.db}: {@code url} se a URL foi informada, senão {@code container} se houver Docker,
+ * senão {@code embedded}.
+ */
+final class LoadDatabase implements AutoCloseable {
+
+  private final String url;
+  private final String username;
+  private final String password;
+  private final AutoCloseable owned;
+
+  private LoadDatabase(String url, String username, String password, AutoCloseable owned) {
+    this.url = url;
+    this.username = username;
+    this.password = password;
+    this.owned = owned;
+  }
+
+  static LoadDatabase start() {
+    var url = System.getProperty("load.jdbc-url", "");
+    var mode = System.getProperty("load.db", "");
+    if (mode.isBlank()) {
+      mode = !url.isBlank() ? "url" : DockerClientFactory.instance().isDockerAvailable() ? "container" : "embedded";
+    }
+    return switch (mode) {
+      case "url" -> new LoadDatabase(url,
+          System.getProperty("load.jdbc-username", "postgres"),
+          System.getProperty("load.jdbc-password", "postgres"),
+          null);
+      case "container" -> {
+        var pg = new PostgreSQLContainer<>("postgres:16");
+        pg.start();
+        yield new LoadDatabase(pg.getJdbcUrl(), pg.getUsername(), pg.getPassword(), pg::stop);
+      }
+      case "embedded" -> {
+        try {
+          var pg = EmbeddedPostgres.builder().start();
+          yield new LoadDatabase(pg.getJdbcUrl("postgres", "postgres"), "postgres", "postgres", pg);
+        } catch (IOException ex) {
+          throw new UncheckedIOException(ex);
+        }
+      }
+      default -> throw new IllegalArgumentException("load.db inválido: " + mode + " (url, container ou embedded)");
+    };
+  }
+
+  String[] springProperties() {
+    return new String[] {
+        "spring.datasource.url=" + url,
+        "spring.datasource.username=" + username,
+        "spring.datasource.password=" + password
+    };
+  }
+
+  Connection connect() throws SQLException {
+    return DriverManager.getConnection(url, username, password);
+  }
+
+  @Override
+  public void close() throws Exception {
+    if (owned != null) owned.close();
+  }
+}
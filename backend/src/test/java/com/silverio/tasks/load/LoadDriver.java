@@ -0,0 +1,91 @@
+package com.silverio.tasks.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Gerador de carga em malha fechada: {@code clients} clientes (virtual threads) repetem
+ * requisições até acabar o tempo, medindo a latência de cada uma.
+ */
+final class LoadDriver {
+
+  record Result(String name, int clients, long requests, long errors, long rejected,
+                double throughput, double p50Ms, double p99Ms, double maxMs) {
+
+    static String header() {
+      return String.format("%-28s %8s %10s %8s %8s %10s %9s %9s %9s",
+          "cenário", "clientes", "reqs", "erros", "503", "req/s", "p50 ms", "p99 ms", "max ms");
+    }
+
+    String row() {
+      return String.format("%-28s %8d %10d %8d %8d %10.0f %9.1f %9.1f %9.1f",
+          name, clients, requests, errors, rejected, throughput, p50Ms, p99Ms, maxMs);
+    }
+  }
+
+  private LoadDriver() {}
+
+  static Result run(String name, HttpClient http, int clients, Duration duration, Supplier<HttpRequest> requests)
+      throws InterruptedException {
+    var deadline = System.nanoTime() + duration.toNanos();
+    var errors = new AtomicLong();
+    var rejected = new AtomicLong();
+    var latencies = new ArrayList<long[]>();
+    var counts = new int[clients];
+
+    try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int c = 0; c < clients; c++) {
+        var samples = new long[1 << 16];
+        latencies.add(samples);
+        var client = c;
+        executor.submit(() -> {
+          int n = 0;
+          while (System.nanoTime() < deadline) {
+            var start = System.nanoTime();
+            try {
+              var status = http.send(requests.get(), HttpResponse.BodyHandlers.discarding()).statusCode();
+              if (status == 503) rejected.incrementAndGet();
+              else if (status >= 400) errors.incrementAndGet();
+            } catch (Exception ex) {
+              errors.incrementAndGet();
+            }
+            if (n < samples.length) samples[n++] = System.nanoTime() - start;
+          }
+          counts[client] = n;
+          return null;
+        });
+      }
+    }
+
+    var all = merge(latencies, counts);
+    Arrays.sort(all);
+    var seconds = duration.toNanos() / 1e9;
+    return new Result(name, clients, all.length, errors.get(), rejected.get(),
+        all.length / seconds, percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0));
+  }
+
+  private static long[] merge(List<long[]> latencies, int[] counts) {
+    var total = Arrays.stream(counts).sum();
+    var all = new long[total];
+    int pos = 0;
+    for (int i = 0; i < counts.length; i++) {
+      System.arraycopy(latencies.get(i), 0, all, pos, counts[i]);
+      pos += counts[i];
+    }
+    return all;
+  }
+
+  private static double percentile(long[] sorted, double p) {
+    if (sorted.length == 0) return 0;
+    var index = (int) Math.ceil(p * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1e6;
+  }
+}
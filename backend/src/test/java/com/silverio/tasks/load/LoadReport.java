@@ -0,0 +1,24 @@
+package com.silverio.tasks.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/** Relatório de um teste de carga: vai para o log e para {@code target/load-reports/<arquivo>}. */
+final class LoadReport {
+
+  private static final Logger log = LoggerFactory.getLogger(LoadReport.class);
+  private static final Path DIR = Path.of("target", "load-reports");
+
+  private LoadReport() {}
+
+  static void publish(String file, String report) throws IOException {
+    var out = DIR.resolve(file);
+    Files.createDirectories(DIR);
+    Files.writeString(out, report);
+    log.info("{}:\n{}", out, report);
+  }
+}
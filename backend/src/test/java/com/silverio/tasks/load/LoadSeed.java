@@ -0,0 +1,61 @@
+package com.silverio.tasks.load;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/** Massa de dados da carga, inserida direto no banco (milhões de linhas em segundos). */
+final class LoadSeed {
+
+  private static final int CHUNK = 100_000;
+
+  private static final String INSERT = """
+      INSERT INTO tasks (id, title, description, status, priority, due_date, created_at, deleted, version)
+      SELECT gen_random_uuid(),
+             'carga ' || g,
+             CASE WHEN g % 3 = 0 THEN NULL ELSE 'descrição da tarefa de carga ' || g END,
+             (ARRAY['TODO', 'DOING', 'DONE'])[1 + g % 3],
+             (ARRAY['LOW', 'MEDIUM', 'HIGH'])[1 + (g / 3) % 3],
+             now() + (g % 365) * interval '1 day',
+             now() - g * interval '1 second',
+             false,
+             0
+      FROM generate_series(1, ?) AS g
+      """;
+
+  private LoadSeed() {}
+
+  /** Garante pelo menos {@code rows} tarefas não deletadas (reaproveita a massa de rodadas anteriores). */
+  static void ensure(LoadDatabase db, int rows) throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement(); var insert = conn.prepareStatement(INSERT)) {
+      long existing;
+      try (var rs = st.executeQuery("SELECT count(*) FROM tasks WHERE deleted = false")) {
+        rs.next();
+        existing = rs.getLong(1);
+      }
+      for (long done = existing; done < rows; done += CHUNK) {
+        var n = Math.min(CHUNK, rows - done);
+        insert.setLong(1, n);
+        insert.executeUpdate();
+      }
+      st.execute("ANALYZE tasks");
+    }
+  }
+
+  /** Amostra de ids existentes, embaralhada. */
+  static List<UUID> sampleIds(LoadDatabase db, int limit) throws SQLException {
+    var ids = new ArrayList<UUID>(limit);
+    try (var conn = db.connect();
+         var ps = conn.prepareStatement("SELECT id FROM tasks WHERE deleted = false LIMIT ?")) {
+      ps.setInt(1, limit);
+      try (var rs = ps.executeQuery()) {
+        while (rs.next()) ids.add(rs.getObject(1, UUID.class));
+      }
+    }
+    Collections.shuffle(ids, new Random(42));
+    return ids;
+  }
+}
@@ -0,0 +1,185 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.shared.datasource.ReadYourWritesFilter;
+import com.silverio.tasks.shared.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+/**
+ * Roteamento para uma réplica de streaming de verdade: buscas sem escrita recente vão para a
+ * réplica, o cliente que acabou de gravar lê do primário pelo header que recebeu, a carga do cache da listagem
+ * só usa a réplica longe da última invalidação, e com a reaplicação da réplica pausada as leituras
+ * voltam para o primário até ela alcançar.
+ * <p>
+ * Precisa de uma réplica em hot standby do banco de carga (o usuário precisa poder pausar a
+ * reaplicação): {@code mvn test -Pload -Dtest=ReplicaRoutingTest -Dload.jdbc-url=...
+ * -Dload.replica-url=jdbc:postgresql://localhost:5433/tasksdb}. Sem {@code load.replica-url}, o teste é ignorado.
+ */
+@Tag("load")
+class ReplicaRoutingTest {
+
+  private static final String REPLICA_URL = System.getProperty("load.replica-url", "");
+  private static final Duration LIST_TTL = Duration.ofSeconds(2);
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final ObjectMapper json = new ObjectMapper();
+  private final HttpClient http = HttpClient.newHttpClient();
+
+  @BeforeAll
+  static void start() {
+    assumeFalse(REPLICA_URL.isBlank(), "sem -Dload.replica-url");
+    db = LoadDatabase.start();
+    app = LoadApp.start(db, "tasks.replica.enabled=true", "tasks.replica.url=" + REPLICA_URL,
+        "tasks.replica.max-lag=1s", "tasks.replica.stickiness=3s", "tasks.replica.check-interval=100ms",
+        "tasks.cache.list-ttl=" + LIST_TTL.toMillis() + "ms");
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void busca_vai_para_a_replica_e_quem_acabou_de_gravar_le_do_primario() throws Exception {
+    var monitor = app.bean(ReplicaLagMonitor.class);
+    await(monitor::usable, Duration.ofSeconds(10));
+    var title = "Réplica " + UUID.randomUUID();
+
+    var replicaReads = routed("replica", "read");
+    var pinnedReads = routed("primary", "pinned");
+    var primaryUntil = create(title);
+    assertThat(search(title, primaryUntil)).as("quem gravou vê na hora").isTrue();
+    assertThat(routed("primary", "pinned")).isGreaterThan(pinnedReads);
+
+    await(() -> search(title, null), Duration.ofSeconds(10));
+    assertThat(routed("replica", "read")).isGreaterThan(replicaReads);
+  }
+
+  @Test
+  void replica_atrasada_devolve_as_leituras_ao_primario() throws Exception {
+    var monitor = app.bean(ReplicaLagMonitor.class);
+    await(monitor::usable, Duration.ofSeconds(10));
+    var title = "Atrasada " + UUID.randomUUID();
+
+    try (var replica = replica()) {
+      replica.createStatement().execute("SELECT pg_wal_replay_pause()");
+      try {
+        create(title);
+        await(() -> !monitor.usable(), Duration.ofSeconds(10));
+
+        var lagging = routed("primary", "lagging");
+        assertThat(search(title, null)).as("lida do primário").isTrue();
+        assertThat(routed("primary", "lagging")).isGreaterThan(lagging);
+        assertThat(onReplica(replica, title)).as("a réplica ainda não tem").isFalse();
+      } finally {
+        replica.createStatement().execute("SELECT pg_wal_replay_resume()");
+      }
+      await(monitor::usable, Duration.ofSeconds(10));
+      assertThat(onReplica(replica, title)).isTrue();
+    }
+  }
+
+  @Test
+  void carga_do_cache_usa_a_replica_so_longe_da_ultima_invalidacao() throws Exception {
+    var monitor = app.bean(ReplicaLagMonitor.class);
+    await(monitor::usable, Duration.ofSeconds(10));
+
+    create("Cache " + UUID.randomUUID());
+    var replicaReads = routed("replica", "read");
+    var pinnedReads = routed("primary", "pinned");
+    // logo depois da escrita (mesmo sem o header de quem gravou), a carga da página vai ao primário
+    list();
+    assertThat(routed("primary", "pinned")).isGreaterThan(pinnedReads);
+    assertThat(routed("replica", "read")).isEqualTo(replicaReads);
+
+    // página expirada (list-ttl) sem invalidação há mais de max-lag + check-interval: vem da réplica
+    Thread.sleep(Math.max(LIST_TTL.toMillis(), monitor.maxStaleness().toMillis()) + 300);
+    list();
+    assertThat(routed("replica", "read")).isGreaterThan(replicaReads);
+  }
+
+  // devolve o header de leitura no primário, que o cliente manda de volta nas leituras seguintes
+  private String create(String title) throws Exception {
+    var task = Map.of("title", title, "description", "Teste de réplica", "dueDate", "10/10/2030 10:00",
+        "priority", "LOW");
+    var response = http.send(HttpRequest.newBuilder(URI.create(app.baseUrl()))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json.writeValueAsString(task)))
+            .build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertThat(response.statusCode()).isEqualTo(200);
+    return response.headers().firstValue(ReadYourWritesFilter.HEADER).orElseThrow();
+  }
+
+  private boolean search(String title, String primaryUntil) {
+    try {
+      var q = URLEncoder.encode(title, StandardCharsets.UTF_8);
+      var request = HttpRequest.newBuilder(URI.create(app.baseUrl() + "/search?q=" + q));
+      if (primaryUntil != null) request.header(ReadYourWritesFilter.HEADER, primaryUntil);
+      var response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+      assertThat(response.statusCode()).isEqualTo(200);
+      for (JsonNode item : json.readTree(response.body()).get("items")) {
+        if (title.equals(item.get("title").asText())) return true;
+      }
+      return false;
+    } catch (Exception ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private void list() throws Exception {
+    var response = http.send(HttpRequest.newBuilder(URI.create(app.baseUrl())).build(),
+        HttpResponse.BodyHandlers.ofString());
+    assertThat(response.statusCode()).isEqualTo(200);
+  }
+
+  private static double routed(String pool, String reason) {
+    return app.bean(MeterRegistry.class).get("tasks.datasource.connections")
+        .tags("pool", pool, "reason", reason).counter().count();
+  }
+
+  private static Connection replica() throws SQLException {
+    return DriverManager.getConnection(REPLICA_URL,
+        System.getProperty("load.jdbc-username", "postgres"), System.getProperty("load.jdbc-password", "postgres"));
+  }
+
+  private static boolean onReplica(Connection replica, String title) throws SQLException {
+    try (var ps = replica.prepareStatement("SELECT 1 FROM tasks WHERE title = ?")) {
+      ps.setString(1, title);
+      try (var rs = ps.executeQuery()) {
+        return rs.next();
+      }
+    }
+  }
+
+  private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+    var deadline = System.nanoTime() + timeout.toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) Thread.sleep(10);
+    assertThat(condition.getAsBoolean()).as("condição dentro de " + timeout).isTrue();
+  }
+}
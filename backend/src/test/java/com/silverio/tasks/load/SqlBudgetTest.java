@@ -0,0 +1,171 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.shared.sql.SqlBudget;
+import com.silverio.tasks.shared.sql.SqlStatementsFilter;
+import com.silverio.tasks.task.application.service.TaskService;
+import jakarta.servlet.Filter;
+import org.junit.jupiter.api.AfterAll;
+import org.hamcrest.Matchers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Confere o {@link SqlBudget} de cada endpoint contra um Postgres de verdade: a aplicação sobe com
+ * {@code tasks.sql.budget-mode=fail} e um endpoint acima do orçamento faz a requisição lançar
+ * {@code SqlBudgetExceededException}. Pega N+1 e idas ao banco a mais antes de chegarem em produção.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=SqlBudgetTest} (banco escolhido como em {@link LoadDatabase}).
+ */
+@Tag("load")
+class SqlBudgetTest {
+
+  private static final String BASE = "/api/tarefas";
+  private static final String DUE = "10/10/2030 10:00";
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final ObjectMapper json = new ObjectMapper();
+  private MockMvc mvc;
+
+  @BeforeAll
+  static void start() {
+    db = LoadDatabase.start();
+    app = LoadApp.start(db, "tasks.sql.budget-mode=fail");
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @BeforeEach
+  void setUp() {
+    @SuppressWarnings("unchecked")
+    FilterRegistrationBean<Filter> sql = app.bean("sqlStatementsFilter", FilterRegistrationBean.class);
+    mvc = app.mockMvc(sql.getFilter());
+  }
+
+  @Test
+  void crud_de_uma_tarefa_dentro_do_orcamento() throws Exception {
+    var created = body(mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON)
+            .content(json.writeValueAsString(newTask("Orçamento"))))
+        .andExpect(status().isOk()));
+    var id = created.get("id").asText();
+
+    mvc.perform(get(BASE + "/" + id)).andExpect(status().isOk());
+    mvc.perform(get(BASE + "/" + UUID.randomUUID())).andExpect(status().isNotFound());
+    mvc.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DOING\"}"))
+        .andExpect(status().isOk());
+    // If-Match antigo: UPDATE sem linhas + leitura para responder 412
+    mvc.perform(put(BASE + "/" + id).header(HttpHeaders.IF_MATCH, "\"0\"")
+            .contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DONE\"}"))
+        .andExpect(status().isPreconditionFailed());
+    mvc.perform(delete(BASE + "/" + id).header(HttpHeaders.IF_MATCH, "\"0\""))
+        .andExpect(status().isPreconditionFailed());
+    mvc.perform(delete(BASE + "/" + id)).andExpect(status().isOk());
+  }
+
+  @Test
+  void listagem_e_sincronizacao_dentro_do_orcamento() throws Exception {
+    mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON)
+        .content(json.writeValueAsString(newTask("Lista")))).andExpect(status().isOk());
+
+    for (var status : new String[] { "", "TODO", "DOING", "DONE" }) {
+      var page = body(mvc.perform(get(BASE).param("status", status).param("limit", "200"))
+          .andExpect(status().isOk()));
+      if (!page.get("nextCursor").isNull()) {
+        mvc.perform(get(BASE).param("status", status).param("cursor", page.get("nextCursor").asText()))
+            .andExpect(status().isOk());
+      }
+    }
+
+    // filtros e ordenações: consulta montada (TaskQuerySql), também num único comando
+    for (var sort : new String[] { "dueDate", "-priority", "-createdAt" }) {
+      var page = body(mvc.perform(get(BASE).param("sort", sort).param("priority", "MEDIUM").param("limit", "1"))
+          .andExpect(status().isOk()));
+      mvc.perform(get(BASE).param("sort", sort).param("priority", "MEDIUM").param("cursor", page.get("nextCursor").asText()))
+          .andExpect(status().isOk());
+    }
+    mvc.perform(get(BASE).param("overdue", "true").param("dueFrom", "2020-01-01T00:00")).andExpect(status().isOk());
+    // painel: só o resumo, qualquer que seja o tamanho da tabela
+    mvc.perform(get(BASE + "/stats")).andExpect(status().isOk());
+
+    var changes = body(mvc.perform(get(BASE + "/changes").param("since", "0").param("limit", "1000"))
+        .andExpect(status().isOk()));
+    if (!changes.get("nextCursor").isNull()) {
+      mvc.perform(get(BASE + "/changes").param("cursor", changes.get("nextCursor").asText()))
+          .andExpect(status().isOk());
+    }
+  }
+
+  @Test
+  void busca_e_fallback_por_similaridade_dentro_do_orcamento() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON)
+          .content(json.writeValueAsString(newTask("Relatório de vendas " + i)))).andExpect(status().isOk());
+    }
+
+    // sem acento e por prefixo: uma consulta; página de 1 devolve cursor
+    var page = body(mvc.perform(get(BASE + "/search").param("q", "relatorio vend").param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").value(1)));
+    mvc.perform(get(BASE + "/search").param("q", "relatorio vend").param("cursor", page.get("nextCursor").asText()))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items.length()").isNotEmpty());
+
+    // erro de digitação em todas as palavras: busca textual vazia + similaridade no título
+    var fuzzy = body(mvc.perform(get(BASE + "/search").param("q", "relatoro vendsa").param("limit", "1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.items[0].title").value(Matchers.startsWith("Relatório de vendas"))));
+    mvc.perform(get(BASE + "/search").param("q", "relatoro vendsa").param("cursor", fuzzy.get("nextCursor").asText()))
+        .andExpect(status().isOk());
+
+    mvc.perform(get(BASE + "/search").param("q", "!!!").param("status", "DONE")).andExpect(status().isOk());
+  }
+
+  @Test
+  void lotes_no_tamanho_maximo_dentro_do_orcamento() throws Exception {
+    var items = new ArrayList<Map<String, String>>();
+    for (int i = 0; i < TaskService.MAX_BATCH_SIZE; i++) items.add(newTask("Lote " + i));
+    var created = body(mvc.perform(post(BASE + "/batch").contentType(MediaType.APPLICATION_JSON)
+            .content(json.writeValueAsString(items)))
+        .andExpect(status().isOk()));
+    var ids = new ArrayList<String>();
+    created.get("items").forEach(item -> ids.add(item.get("id").asText()));
+
+    mvc.perform(post(BASE + "/batch/status").contentType(MediaType.APPLICATION_JSON)
+            .content(json.writeValueAsString(Map.of("ids", ids, "status", "DONE"))))
+        .andExpect(status().isOk());
+    mvc.perform(post(BASE + "/batch/delete").contentType(MediaType.APPLICATION_JSON)
+            .content(json.writeValueAsString(Map.of("ids", List.copyOf(ids)))))
+        .andExpect(status().isOk());
+  }
+
+  private static Map<String, String> newTask(String title) {
+    return Map.of("title", title, "description", "Teste de orçamento SQL", "dueDate", DUE, "priority", "MEDIUM");
+  }
+
+  private JsonNode body(ResultActions result) throws Exception {
+    var response = result.andExpect(header().exists(SqlStatementsFilter.STATEMENTS_HEADER)).andReturn().getResponse();
+    return json.readTree(response.getContentAsString());
+  }
+}
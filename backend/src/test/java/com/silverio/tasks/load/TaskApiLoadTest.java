@@ -0,0 +1,160 @@
+package com.silverio.tasks.load;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Carga ponta a ponta nos endpoints do {@code TaskController} para dimensionar a implantação:
+ * sobe a aplicação contra um Postgres de verdade (veja {@link LoadDatabase}), garante a massa
+ * de tarefas e dispara um mix de criação/listagem/leitura/edição/exclusão numa taxa fixa.
+ * Reporta p50/p99/p999 e vazão por endpoint no log e em {@code target/load-reports/task-api.txt}.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskApiLoadTest}. Parâmetros ({@code -D}):
+ * <ul>
+ *   <li>{@code load.seed} tarefas na base (padrão 100000; até 10^6 leva alguns segundos a mais);</li>
+ *   <li>{@code load.rate} requisições por segundo somando todos os endpoints (padrão 200);</li>
+ *   <li>{@code load.seconds} duração da medição (padrão 60), depois de {@code load.warmup} (padrão 10);</li>
+ *   <li>{@code load.mix} pesos por operação (padrão {@code list=50,get=20,create=10,update=15,delete=5}).</li>
+ * </ul>
+ * Propriedades da aplicação também podem ser passadas com -D (ex.: {@code -Dtasks.cache.enabled=false}).
+ */
+@Tag("load")
+class TaskApiLoadTest {
+
+  private static final int SEED = Integer.getInteger("load.seed", 100_000);
+  private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "200"));
+  private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.seconds", 60));
+  private static final Duration WARMUP = Duration.ofSeconds(Integer.getInteger("load.warmup", 10));
+  private static final String MIX = System.getProperty("load.mix", "list=50,get=20,create=10,update=15,delete=5");
+  private static final int MAX_OUTSTANDING = 10_000;
+  private static final String[] STATUSES = { null, "TODO", "DOING", "DONE" };
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final HttpClient http = HttpClient.newBuilder()
+      .executor(Executors.newVirtualThreadPerTaskExecutor())
+      .connectTimeout(Duration.ofSeconds(5))
+      .build();
+
+  private String base;
+  private List<UUID> ids;
+  private final ConcurrentLinkedQueue<UUID> deletable = new ConcurrentLinkedQueue<>();
+
+  @BeforeAll
+  static void start() throws Exception {
+    db = LoadDatabase.start();
+    app = LoadApp.start(db); // aplica as migrations antes da massa
+    LoadSeed.ensure(db, SEED);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void mix_de_endpoints_em_taxa_fixa() throws Exception {
+    // arrange: ids para leitura/edição e um lote separado só para exclusão (sem 404 por repetição)
+    base = app.baseUrl();
+    var sample = LoadSeed.sampleIds(db, 50_000);
+    var deletes = (int) Math.min(sample.size() / 2, RATE * (WARMUP.toSeconds() + DURATION.toSeconds()));
+    deletable.addAll(sample.subList(0, deletes));
+    ids = sample.subList(deletes, sample.size());
+    var mix = mix(parseWeights(MIX));
+
+    // act
+    ArrivalRateDriver.run(http, RATE, WARMUP, MAX_OUTSTANDING, mix, new EndpointStats());
+    var stats = new EndpointStats();
+    ArrivalRateDriver.run(http, RATE, DURATION, MAX_OUTSTANDING, mix, stats);
+
+    // assert
+    var title = String.format("TaskApiLoadTest: %d tarefas, %.0f req/s por %ds, mix %s", SEED, RATE, DURATION.toSeconds(), MIX);
+    var report = stats.report(title, DURATION);
+    LoadReport.publish("task-api.txt", report);
+
+    assertThat(stats.totalRequests()).isPositive();
+    assertThat(stats.totalErrors()).as("erros 5xx, falhas de conexão e descartes").isLessThanOrEqualTo(stats.totalRequests() / 100);
+  }
+
+  private Supplier<ArrivalRateDriver.Call> mix(Map<String, Integer> weights) {
+    var total = weights.values().stream().mapToInt(Integer::intValue).sum();
+    return () -> {
+      var pick = ThreadLocalRandom.current().nextInt(total);
+      for (var entry : weights.entrySet()) {
+        pick -= entry.getValue();
+        if (pick < 0) return call(entry.getKey());
+      }
+      throw new IllegalStateException();
+    };
+  }
+
+  private ArrivalRateDriver.Call call(String operation) {
+    var random = ThreadLocalRandom.current();
+    return switch (operation) {
+      case "list" -> {
+        var status = STATUSES[random.nextInt(STATUSES.length)];
+        var uri = base + "?limit=50" + (status == null ? "" : "&status=" + status);
+        yield new ArrivalRateDriver.Call("GET /api/tarefas", get(uri));
+      }
+      case "get" -> new ArrivalRateDriver.Call("GET /api/tarefas/{id}", get(base + "/" + randomId()));
+      case "create" -> new ArrivalRateDriver.Call("POST /api/tarefas", json("POST", base,
+          "{\"title\":\"carga nova\",\"description\":\"criada no teste de carga\",\"dueDate\":\"01/12/2030 00:00\",\"priority\":\"MEDIUM\"}"));
+      case "update" -> new ArrivalRateDriver.Call("PUT /api/tarefas/{id}", json("PUT", base + "/" + randomId(),
+          "{\"status\":\"" + STATUSES[1 + random.nextInt(3)] + "\",\"title\":\"carga editada " + random.nextInt(1000) + "\"}"));
+      case "delete" -> {
+        var id = deletable.poll();
+        // acabou o lote reservado: vira leitura para manter a taxa
+        yield id == null
+            ? new ArrivalRateDriver.Call("GET /api/tarefas/{id}", get(base + "/" + randomId()))
+            : new ArrivalRateDriver.Call("DELETE /api/tarefas/{id}",
+                HttpRequest.newBuilder(URI.create(base + "/" + id)).timeout(Duration.ofSeconds(30)).DELETE().build());
+      }
+      default -> throw new IllegalArgumentException("operação desconhecida em load.mix: " + operation);
+    };
+  }
+
+  private UUID randomId() {
+    return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+  }
+
+  private static HttpRequest get(String uri) {
+    return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+  }
+
+  private static HttpRequest json(String method, String uri, String body) {
+    return HttpRequest.newBuilder(URI.create(uri))
+        .timeout(Duration.ofSeconds(30))
+        .header("Content-Type", "application/json")
+        .method(method, HttpRequest.BodyPublishers.ofString(body))
+        .build();
+  }
+
+  private static Map<String, Integer> parseWeights(String spec) {
+    var weights = new LinkedHashMap<String, Integer>();
+    for (var part : spec.split(",")) {
+      var kv = part.trim().split("=");
+      var weight = Integer.parseInt(kv[1].trim());
+      if (weight > 0) weights.put(kv[0].trim(), weight);
+    }
+    return weights;
+  }
+}
@@ -0,0 +1,157 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.task.application.archive.TaskArchiver;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Arquivamento contra um Postgres de verdade: tarefas deletadas e concluídas "antigas" saem da tabela
+ * viva em lotes, somem da API e voltam na sincronização como removidas. A busca das candidatas usa
+ * os índices parciais de V7.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskArchiveTest} (banco escolhido como em {@link LoadDatabase}).
+ */
+@Tag("load")
+class TaskArchiveTest {
+
+  private static final String BASE = "/api/tarefas";
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  @BeforeAll
+  static void start() {
+    db = LoadDatabase.start();
+    // lotes pequenos para a rodada precisar de vários; o agendamento não dispara durante o teste
+    app = LoadApp.start(db, "tasks.archive.batch-size=2", "tasks.archive.pause=0ms", "tasks.archive.interval=1d");
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void antigas_vao_para_o_arquivo_e_a_sincronizacao_as_devolve_como_removidas() throws Exception {
+    var mvc = app.mockMvc();
+    var deleted = new ArrayList<String>();
+    var done = new ArrayList<String>();
+    for (int i = 0; i < 3; i++) {
+      var id = create(mvc, "Arquivar deletada " + i);
+      mvc.perform(delete(BASE + "/" + id)).andExpect(status().isOk());
+      deleted.add(id);
+    }
+    for (int i = 0; i < 2; i++) {
+      var id = create(mvc, "Arquivar concluída " + i);
+      mvc.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DONE\"}"))
+          .andExpect(status().isOk());
+      done.add(id);
+    }
+    var recent = create(mvc, "Concluída recente");
+    mvc.perform(put(BASE + "/" + recent).contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DONE\"}"))
+        .andExpect(status().isOk());
+
+    var old = new ArrayList<>(deleted);
+    old.addAll(done);
+    backdate(old);
+    var since = syncRevision(mvc, 0);
+
+    app.bean(TaskArchiver.class).run();
+
+    assertThat(idsIn("tasks_archive", old)).containsExactlyInAnyOrderElementsOf(old);
+    assertThat(idsIn("tasks", old)).isEmpty();
+    assertThat(idsIn("tasks", List.of(recent))).containsExactly(recent);
+    for (var id : done) {
+      mvc.perform(get(BASE + "/" + id)).andExpect(status().isNotFound());
+    }
+    mvc.perform(get(BASE + "/" + recent)).andExpect(status().isOk());
+
+    // quem já tinha sincronizado recebe todas como removidas, inclusive as concluídas
+    var removed = new HashSet<String>();
+    var page = body(mvc.perform(get(BASE + "/changes").param("since", Long.toString(since)).param("limit", "2")));
+    while (true) {
+      page.get("deleted").forEach(id -> removed.add(id.asText()));
+      page.get("upserts").forEach(t -> assertThat(old).doesNotContain(t.get("id").asText()));
+      if (page.get("nextCursor").isNull()) break;
+      page = body(mvc.perform(get(BASE + "/changes").param("cursor", page.get("nextCursor").asText())));
+    }
+    assertThat(removed).containsAll(old);
+  }
+
+  @Test
+  void candidatas_ao_arquivamento_saem_dos_indices_parciais() throws Exception {
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      // com poucas linhas (banco novo) o planner prefere seq scan; aqui importa existir índice que sirva
+      st.execute("SET enable_seqscan = off");
+      for (var candidates : List.of("deleted = true", "deleted = false AND status = 'DONE'")) {
+        var plan = new StringBuilder();
+        try (var rs = st.executeQuery("EXPLAIN SELECT id FROM tasks WHERE " + candidates
+            + " AND updated_at < now() - interval '30 days' ORDER BY updated_at LIMIT 500 FOR UPDATE SKIP LOCKED")) {
+          while (rs.next()) plan.append(rs.getString(1)).append('\n');
+        }
+        assertThat(plan.toString()).as(candidates).contains("Index").doesNotContain("Seq Scan");
+      }
+    }
+  }
+
+  private String create(MockMvc mvc, String title) throws Exception {
+    var task = Map.of("title", title, "description", "Teste de arquivamento", "dueDate", "10/10/2030 10:00",
+        "priority", "LOW");
+    return body(mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(task))))
+        .get("id").asText();
+  }
+
+  /** Percorre uma rodada de sincronização e devolve o próximo since. */
+  private long syncRevision(MockMvc mvc, long since) throws Exception {
+    var page = body(mvc.perform(get(BASE + "/changes").param("since", Long.toString(since)).param("limit", "1000")));
+    while (!page.get("nextCursor").isNull()) {
+      page = body(mvc.perform(get(BASE + "/changes").param("cursor", page.get("nextCursor").asText()).param("limit", "1000")));
+    }
+    return page.get("revision").asLong();
+  }
+
+  // o trigger trg_tasks_touch sempre grava updated_at = now(): com replica ele não dispara
+  private static void backdate(List<String> ids) throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.execute("SET session_replication_role = replica");
+      st.executeUpdate("UPDATE tasks SET updated_at = now() - interval '10 years' WHERE id IN ("
+          + String.join(", ", ids.stream().map(id -> "'" + id + "'").toList()) + ")");
+    }
+  }
+
+  private static Set<String> idsIn(String table, List<String> ids) throws SQLException {
+    var found = new HashSet<String>();
+    var in = String.join(", ", ids.stream().map(id -> "'" + UUID.fromString(id) + "'").toList());
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT id FROM " + table + " WHERE id IN (" + in + ")")) {
+      while (rs.next()) found.add(rs.getString(1));
+    }
+    return found;
+  }
+
+  private JsonNode body(ResultActions result) throws Exception {
+    return json.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+  }
+}
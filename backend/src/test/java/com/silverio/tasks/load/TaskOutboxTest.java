@@ -0,0 +1,342 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.task.application.archive.TaskArchiver;
+import com.silverio.tasks.task.application.outbox.TaskEventSink;
+import com.silverio.tasks.task.application.outbox.TaskOutboxProperties;
+import com.silverio.tasks.task.application.outbox.TaskOutboxRelay;
+import com.silverio.tasks.task.domain.model.TaskEvent;
+import com.silverio.tasks.task.domain.model.TaskEventType;
+import com.silverio.tasks.task.domain.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Outbox contra um Postgres de verdade: cada escrita da API (e o arquivamento) vira evento, a vazão de
+ * entrega cresce com os workers sem evento repetido nem perdido, um sink que falha recebe tudo de novo e
+ * um evento que nenhum sink aceita vai para {@code tasks_outbox_dead} sem segurar os outros.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskOutboxTest}; vazão em {@code target/load-reports/outbox.txt}.
+ */
+@Tag("load")
+class TaskOutboxTest {
+
+  private static final String BASE = "/api/tarefas";
+  private static final int EVENTS = 20_000;
+  // custo de um sink de verdade (chamada de rede) por lote: é o que os workers paralelizam
+  private static final Duration SINK_COST = Duration.ofMillis(5);
+
+  private static final CollectingSink appSink = new CollectingSink();
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  @BeforeAll
+  static void start() {
+    db = LoadDatabase.start();
+    app = LoadApp.start(db, List.of(appSink), "tasks.outbox.enabled=true", "tasks.outbox.poll-interval=20ms",
+        "tasks.archive.pause=0ms", "tasks.archive.interval=1d");
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void cada_escrita_vira_um_evento_com_o_estado_gravado() throws Exception {
+    var mvc = app.mockMvc();
+    var edited = create(mvc, "Outbox editada");
+    mvc.perform(put(BASE + "/" + edited).contentType(MediaType.APPLICATION_JSON).content("{\"priority\":\"HIGH\"}"))
+        .andExpect(status().isOk());
+    mvc.perform(delete(BASE + "/" + edited)).andExpect(status().isOk());
+    var archived = create(mvc, "Outbox arquivada");
+    mvc.perform(put(BASE + "/" + archived).contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DONE\"}"))
+        .andExpect(status().isOk());
+    // com replica nem o trigger de updated_at nem o do outbox disparam
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.execute("SET session_replication_role = replica");
+      st.executeUpdate("UPDATE tasks SET updated_at = now() - interval '10 years' WHERE id = '" + archived + "'");
+    }
+    app.bean(TaskArchiver.class).run();
+
+    awaitTrue(() -> appSink.types(archived).size() == 3);
+    assertThat(appSink.types(edited)).containsExactly(TaskEventType.CREATED, TaskEventType.UPDATED, TaskEventType.DELETED);
+    assertThat(appSink.types(archived)).containsExactly(TaskEventType.CREATED, TaskEventType.UPDATED, TaskEventType.REMOVED);
+    var update = appSink.events(edited).get(1);
+    assertThat(update.task().getPriority().name()).isEqualTo("HIGH");
+    assertThat(update.task().getVersion()).isEqualTo(1);
+    assertThat(appSink.events(archived).get(2).task().getStatus().name()).isEqualTo("DONE");
+  }
+
+  @Test
+  void instancia_sem_sinks_nao_desliga_a_gravacao_das_outras() throws Exception {
+    try (var withoutSinks = LoadApp.start(db)) {
+      assertThat(outboxEnabled()).as("chave do trigger depois da subida sem sinks").isTrue();
+      var created = create(withoutSinks.mockMvc(), "Outbox por outra instância");
+
+      awaitTrue(() -> appSink.types(created).contains(TaskEventType.CREATED));
+    }
+  }
+
+  @Test
+  void vazao_cresce_com_os_workers_sem_perder_nem_repetir_eventos() throws Exception {
+    var report = new StringBuilder("eventos=").append(EVENTS).append(", custo do sink por lote=")
+        .append(SINK_COST.toMillis()).append("ms (gravados antes de ligar o relay: o lag inclui essa espera)\n");
+    var appRelay = app.bean(TaskOutboxRelay.class);
+    appRelay.stop();
+    try {
+      var rates = new ArrayList<Double>();
+      for (var workers : new int[] { 1, 4 }) {
+        clearOutbox();
+        var ids = createBatches(EVENTS);
+        var sink = new CollectingSink(SINK_COST, 0);
+        var relay = relay(sink, workers, Duration.ofSeconds(1), 20);
+
+        var start = System.nanoTime();
+        relay.start();
+        awaitTrue(() -> sink.count() >= EVENTS && outboxSize() == 0);
+        var seconds = (System.nanoTime() - start) / 1e9;
+        relay.stop();
+
+        // sem falhas nem quedas, cada evento exatamente uma vez, mesmo com workers concorrentes
+        assertThat(sink.count()).isEqualTo(EVENTS);
+        assertThat(sink.distinctEvents()).isEqualTo(EVENTS);
+        assertThat(sink.tasks()).containsAll(ids);
+        rates.add(EVENTS / seconds);
+        report.append(String.format("workers=%d: %.2fs, %.0f eventos/s, lag p99=%dms%n", workers, seconds,
+            EVENTS / seconds, sink.lagP99().toMillis()));
+      }
+      assertThat(rates.get(1)).as("4 workers mais rápido que 1").isGreaterThan(rates.get(0));
+    } finally {
+      appRelay.start();
+    }
+    LoadReport.publish("outbox.txt", report.toString());
+  }
+
+  @Test
+  void sink_que_falha_recebe_o_lote_de_novo_ate_conseguir() throws Exception {
+    var appRelay = app.bean(TaskOutboxRelay.class);
+    appRelay.stop();
+    try {
+      clearOutbox();
+      var ids = createBatches(500);
+      var sink = new CollectingSink(Duration.ZERO, 3);
+      var relay = relay(sink, 2, Duration.ofMillis(20), 20);
+
+      relay.start();
+      awaitTrue(() -> outboxSize() == 0);
+      relay.stop();
+
+      assertThat(sink.failures()).isEqualTo(3);
+      assertThat(sink.tasks()).containsAll(ids);
+    } finally {
+      appRelay.start();
+    }
+  }
+
+  @Test
+  void evento_que_nenhum_sink_aceita_vai_para_a_fila_de_mortos_sem_segurar_os_outros() throws Exception {
+    var appRelay = app.bean(TaskOutboxRelay.class);
+    appRelay.stop();
+    try {
+      clearOutbox();
+      var ids = createBatches(300);
+      var poison = ids.get(150);
+      var sink = new CollectingSink(poison);
+      var relay = relay(sink, 2, Duration.ofMillis(20), 3);
+
+      relay.start();
+      awaitTrue(() -> outboxSize() == 0);
+      relay.stop();
+
+      assertThat(sink.tasks()).hasSize(ids.size() - 1).doesNotContain(poison);
+      assertThat(deadEvents(poison)).isEqualTo(1);
+    } finally {
+      appRelay.start();
+    }
+  }
+
+  private TaskOutboxRelay relay(TaskEventSink sink, int workers, Duration retryDelay, int maxAttempts) {
+    var props = new TaskOutboxProperties(true, workers, 100, Duration.ofMillis(20), retryDelay, Duration.ofSeconds(1),
+        maxAttempts);
+    var transactions = new TransactionTemplate(app.bean(PlatformTransactionManager.class));
+    return new TaskOutboxRelay(app.bean(TaskOutboxRepository.class), transactions, List.of(sink), props, new SimpleMeterRegistry());
+  }
+
+  private List<UUID> createBatches(int total) throws Exception {
+    var mvc = app.mockMvc();
+    var ids = new ArrayList<UUID>(total);
+    for (int done = 0; done < total; done += 5000) {
+      var items = new ArrayList<Map<String, String>>();
+      for (int i = 0; i < Math.min(5000, total - done); i++) items.add(newTask("Outbox lote " + (done + i)));
+      var results = body(mvc.perform(post(BASE + "/batch").contentType(MediaType.APPLICATION_JSON)
+          .content(json.writeValueAsString(items))));
+      results.get("items").forEach(r -> ids.add(UUID.fromString(r.get("id").asText())));
+    }
+    return ids;
+  }
+
+  private String create(MockMvc mvc, String title) throws Exception {
+    return body(mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON)
+        .content(json.writeValueAsString(newTask(title))))).get("id").asText();
+  }
+
+  private static Map<String, String> newTask(String title) {
+    return Map.of("title", title, "description", "Teste do outbox", "dueDate", "10/10/2030 10:00", "priority", "LOW");
+  }
+
+  private static void clearOutbox() throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.executeUpdate("DELETE FROM tasks_outbox");
+      st.executeUpdate("DELETE FROM tasks_outbox_dead");
+    }
+  }
+
+  private static long deadEvents(UUID task) throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT count(*) FROM tasks_outbox_dead WHERE task_id = '" + task + "'")) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static boolean outboxEnabled() throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT enabled FROM tasks_outbox_state")) {
+      rs.next();
+      return rs.getBoolean(1);
+    }
+  }
+
+  private static long outboxSize() {
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT count(*) FROM tasks_outbox")) {
+      rs.next();
+      return rs.getLong(1);
+    } catch (SQLException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    var deadline = Instant.now().plusSeconds(120);
+    while (!condition.getAsBoolean()) {
+      assertThat(Instant.now()).as("tempo esgotado esperando o outbox").isBefore(deadline);
+      Thread.sleep(20);
+    }
+  }
+
+  private JsonNode body(ResultActions result) throws Exception {
+    return json.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+  }
+
+  /**
+   * Guarda tudo que recebe; opcionalmente simula custo por lote, falha nas primeiras entregas ou recusa
+   * sempre os lotes com eventos de uma tarefa.
+   */
+  static final class CollectingSink implements TaskEventSink {
+    private final Duration cost;
+    private final AtomicInteger failuresLeft;
+    private final UUID rejected;
+    private final AtomicInteger failures = new AtomicInteger();
+    private final List<TaskEvent> received = new CopyOnWriteArrayList<>();
+    private final Map<UUID, List<TaskEvent>> byTask = new ConcurrentHashMap<>();
+    private final List<Duration> lags = new CopyOnWriteArrayList<>();
+
+    CollectingSink() {
+      this(Duration.ZERO, 0);
+    }
+
+    CollectingSink(Duration cost, int failFirst) {
+      this(cost, failFirst, null);
+    }
+
+    CollectingSink(UUID rejected) {
+      this(Duration.ZERO, 0, rejected);
+    }
+
+    private CollectingSink(Duration cost, int failFirst, UUID rejected) {
+      this.cost = cost;
+      this.failuresLeft = new AtomicInteger(failFirst);
+      this.rejected = rejected;
+    }
+
+    @Override
+    public void deliver(List<TaskEvent> events) throws Exception {
+      if (failuresLeft.getAndDecrement() > 0) {
+        failures.incrementAndGet();
+        throw new IllegalStateException("falha simulada");
+      }
+      if (rejected != null && events.stream().anyMatch(e -> rejected.equals(e.task().getId().value()))) {
+        throw new IllegalArgumentException("evento recusado");
+      }
+      if (!cost.isZero()) Thread.sleep(cost);
+      var now = Instant.now();
+      for (var e : events) {
+        received.add(e);
+        byTask.computeIfAbsent(e.task().getId().value(), id -> new CopyOnWriteArrayList<>()).add(e);
+        lags.add(Duration.between(e.createdAt(), now));
+      }
+    }
+
+    int count() {
+      return received.size();
+    }
+
+    long distinctEvents() {
+      return received.stream().map(TaskEvent::id).distinct().count();
+    }
+
+    Set<UUID> tasks() {
+      return new HashSet<>(byTask.keySet());
+    }
+
+    int failures() {
+      return failures.get();
+    }
+
+    List<TaskEvent> events(String taskId) {
+      return byTask.getOrDefault(UUID.fromString(taskId), List.of()).stream()
+          .sorted((a, b) -> Long.compare(a.id(), b.id())).toList();
+    }
+
+    List<TaskEventType> types(String taskId) {
+      return events(taskId).stream().map(TaskEvent::type).toList();
+    }
+
+    Duration lagP99() {
+      var sorted = lags.stream().sorted().toList();
+      return sorted.isEmpty() ? Duration.ZERO : sorted.get((int) Math.floor(sorted.size() * 0.99));
+    }
+  }
+}
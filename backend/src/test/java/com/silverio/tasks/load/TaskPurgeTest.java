@@ -0,0 +1,138 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.task.application.archive.TaskArchiver;
+import com.silverio.tasks.task.application.purge.TaskPurger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Expurgo contra um Postgres de verdade: deletadas além da retenção saem de {@code tasks_archive}
+ * em vários lotes, quem sincronizou antes delas recebe 410 e quem recomeça do zero segue normalmente.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskPurgeTest} (banco escolhido como em {@link LoadDatabase}).
+ */
+@Tag("load")
+class TaskPurgeTest {
+
+  private static final String BASE = "/api/tarefas";
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  @BeforeAll
+  static void start() {
+    db = LoadDatabase.start();
+    // lotes pequenos para a rodada precisar de vários; os agendamentos não disparam durante o teste
+    app = LoadApp.start(db, "tasks.archive.pause=0ms", "tasks.archive.interval=1d",
+        "tasks.purge.batch-size=2", "tasks.purge.pause=0ms", "tasks.purge.interval=1d");
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void deletadas_alem_da_retencao_sao_apagadas_e_since_antigo_recebe_410() throws Exception {
+    var mvc = app.mockMvc();
+    var old = new ArrayList<String>();
+    for (int i = 0; i < 5; i++) {
+      var id = create(mvc, "Expurgar " + i);
+      mvc.perform(delete(BASE + "/" + id)).andExpect(status().isOk());
+      old.add(id);
+    }
+    backdate(old);
+    var since = syncRevision(mvc, 0);
+    app.bean(TaskArchiver.class).run();
+    assertThat(idsIn("tasks_archive", old)).containsExactlyInAnyOrderElementsOf(old);
+
+    app.bean(TaskPurger.class).run();
+
+    assertThat(idsIn("tasks_archive", old)).isEmpty();
+    assertThat(idsIn("tasks", old)).isEmpty();
+    // as remoções se perderam: o cliente que parou antes delas tem que recomeçar
+    mvc.perform(get(BASE + "/changes").param("since", Long.toString(since)))
+        .andExpect(status().isGone())
+        .andExpect(jsonPath("$.mensagem").value(containsString("since=0")));
+    var fresh = syncRevision(mvc, 0);
+    mvc.perform(get(BASE + "/changes").param("since", Long.toString(fresh))).andExpect(status().isOk());
+  }
+
+  @Test
+  void lote_do_expurgo_desce_pelo_indice_parcial() throws Exception {
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      // o arquivo do teste é pequeno e a varredura ganharia: o que importa é o índice servir filtro e ordem
+      st.execute("SET enable_seqscan = off");
+      var plan = new StringBuilder();
+      try (var rs = st.executeQuery("EXPLAIN SELECT id FROM tasks_archive WHERE deleted = true"
+          + " AND updated_at < now() - interval '365 days' AND (updated_at, id) > (now() - interval '10 years', gen_random_uuid())"
+          + " ORDER BY updated_at, id LIMIT 500 FOR UPDATE SKIP LOCKED")) {
+        while (rs.next()) plan.append(rs.getString(1)).append('\n');
+      }
+      assertThat(plan.toString()).contains("idx_tasks_archive_purge").doesNotContain("Sort Key");
+    }
+  }
+
+  private String create(MockMvc mvc, String title) throws Exception {
+    var task = Map.of("title", title, "description", "Teste de expurgo", "dueDate", "10/10/2030 10:00",
+        "priority", "LOW");
+    return body(mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(task))))
+        .get("id").asText();
+  }
+
+  /** Percorre uma rodada de sincronização e devolve o próximo since. */
+  private long syncRevision(MockMvc mvc, long since) throws Exception {
+    var page = body(mvc.perform(get(BASE + "/changes").param("since", Long.toString(since)).param("limit", "1000")));
+    while (!page.get("nextCursor").isNull()) {
+      page = body(mvc.perform(get(BASE + "/changes").param("cursor", page.get("nextCursor").asText()).param("limit", "1000")));
+    }
+    return page.get("revision").asLong();
+  }
+
+  // o trigger trg_tasks_touch sempre grava updated_at = now(): com replica ele não dispara
+  private static void backdate(List<String> ids) throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.execute("SET session_replication_role = replica");
+      st.executeUpdate("UPDATE tasks SET updated_at = now() - interval '10 years' WHERE id IN (" + in(ids) + ")");
+    }
+  }
+
+  private static Set<String> idsIn(String table, List<String> ids) throws SQLException {
+    var found = new HashSet<String>();
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT id FROM " + table + " WHERE id IN (" + in(ids) + ")")) {
+      while (rs.next()) found.add(rs.getString(1));
+    }
+    return found;
+  }
+
+  private static String in(List<String> ids) {
+    return String.join(", ", ids.stream().map(id -> "'" + id + "'").toList());
+  }
+
+  private JsonNode body(ResultActions result) throws Exception {
+    return json.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+  }
+}
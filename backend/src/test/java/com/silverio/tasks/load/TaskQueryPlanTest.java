@@ -0,0 +1,97 @@
+package com.silverio.tasks.load;
+
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskSort;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.infrastructure.persistence.TaskQuerySql;
+import com.silverio.tasks.task.infrastructure.persistence.TaskRepositoryImpl;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cada filtro e ordenação aceitos pela listagem ({@link TaskQuery}) roda o SQL de {@link TaskQuerySql}
+ * sob {@code EXPLAIN} contra um Postgres com massa de dados: o plano tem que usar índice e nunca
+ * varrer a tabela. Nas ordenações sem filtro o índice também entrega a ordem (sem nó Sort).
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskQueryPlanTest}; planos em {@code target/load-reports/query-plans.txt}.
+ */
+@Tag("load")
+class TaskQueryPlanTest {
+
+  private static final int LIMIT = 51;
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  @BeforeAll
+  static void start() throws Exception {
+    db = LoadDatabase.start();
+    app = LoadApp.start(db);
+    LoadSeed.ensure(db, 100_000);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void filtros_e_ordenacoes_aceitos_usam_indice() throws Exception {
+    var now = LocalDateTime.now();
+    var queries = new LinkedHashMap<String, TaskQuery>();
+    queries.put("createdAfter", query(null, null, null, null, false, Instant.now().minus(1, ChronoUnit.HOURS), null));
+    queries.put("priority", query(null, TaskPriority.HIGH, null, null, false, null, null));
+    queries.put("status + priority", query(TaskStatus.TODO, TaskPriority.LOW, null, null, false, null, null));
+    queries.put("dueFrom/dueTo", query(null, null, now.plusDays(10), now.plusDays(12), false, null, null));
+    queries.put("status + dueFrom/dueTo", query(TaskStatus.DOING, null, now.plusDays(10), now.plusDays(40), false, null, null));
+    queries.put("overdue", query(null, null, null, null, true, null, null));
+    queries.put("status + sort=dueDate", query(TaskStatus.TODO, null, null, null, false, null, TaskSort.DUE_DATE));
+    queries.put("priority + sort=dueDate", query(null, TaskPriority.MEDIUM, null, null, false, null, TaskSort.DUE_DATE));
+    queries.put("overdue + sort=-dueDate", query(null, null, null, null, true, null, TaskSort.DUE_DATE_DESC));
+    queries.put("status + sort=priority", query(TaskStatus.DONE, null, null, null, false, null, TaskSort.PRIORITY));
+    for (var sort : TaskSort.values()) {
+      queries.put("sort=" + sort.param(), query(null, null, null, null, false, null, sort));
+    }
+
+    var repo = app.bean(TaskRepositoryImpl.class);
+    var jdbc = app.bean(NamedParameterJdbcTemplate.class);
+    var report = new StringBuilder();
+    for (Map.Entry<String, TaskQuery> entry : queries.entrySet()) {
+      var query = entry.getValue();
+      // primeira página e página seguinte (keyset): as duas precisam do índice
+      TaskQueryCursor after = repo.findByQuery(query, null, LIMIT - 1).next();
+      for (var cursor : after == null ? new TaskQueryCursor[] { null } : new TaskQueryCursor[] { null, after }) {
+        var select = TaskQuerySql.of(query, cursor, LIMIT, now);
+        var plan = String.join("\n", jdbc.queryForList("EXPLAIN " + select.sql(), select.params(), String.class));
+        var name = entry.getKey() + (cursor == null ? "" : " (após cursor)");
+        report.append("== ").append(name).append('\n').append(select.sql()).append('\n').append(plan).append("\n\n");
+
+        assertThat(plan).as(name).contains("Index").doesNotContain("Seq Scan");
+        if (query.onlyStatus() || entry.getKey().startsWith("sort=")) {
+          assertThat(plan).as(name + ": ordem vem do índice").doesNotContain("Sort Key");
+        }
+      }
+    }
+
+    LoadReport.publish("query-plans.txt", report.toString());
+  }
+
+  private static TaskQuery query(TaskStatus status, TaskPriority priority, LocalDateTime dueFrom, LocalDateTime dueTo,
+                                 boolean overdue, Instant createdAfter, TaskSort sort) {
+    return new TaskQuery(status, priority, dueFrom, dueTo, overdue, createdAfter, sort);
+  }
+}
@@ -0,0 +1,159 @@
+package com.silverio.tasks.load;
+
+import com.silverio.tasks.task.application.reminder.TaskDueEvent;
+import com.silverio.tasks.task.application.service.TaskService;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Lembretes contra um Postgres de verdade: escritas pela aplicação entram na roda na hora, o que é
+ * gravado por fora chega pela carga da janela (índice parcial de vencimento, nunca a tabela inteira),
+ * e cada lembrete dispara uma vez, com atraso perto de um tick.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskReminderTest}; atrasos em {@code target/load-reports/reminders.txt}.
+ */
+@Tag("load")
+class TaskReminderTest {
+
+  private static final int ROWS = 20_000;
+  private static final Duration TICK = Duration.ofMillis(100);
+  private static final Duration LOOKAHEAD = Duration.ofSeconds(4);
+
+  private static final DueListener listener = new DueListener();
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  @BeforeAll
+  static void start() throws Exception {
+    db = LoadDatabase.start();
+    // janela curta para a carga por faixa rodar várias vezes durante o teste
+    app = LoadApp.start(db, List.of(listener), "tasks.reminders.tick=" + TICK.toMillis() + "ms",
+        "tasks.reminders.lookahead=" + LOOKAHEAD.toSeconds() + "s", "tasks.reminders.catch-up=0s",
+        "tasks.reminders.load-batch-size=2000");
+    // depois da subida: é o Flyway que cria a tabela num banco novo
+    LoadSeed.ensure(db, 100_000);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void escritas_pela_aplicacao_agendam_reagendam_e_cancelam() throws Exception {
+    var service = app.bean(TaskService.class);
+    var due = LocalDateTime.now().plusSeconds(3).truncatedTo(ChronoUnit.MILLIS);
+    var kept = service.create("Lembrete mantido", null, due, TaskPriority.HIGH).getId().value();
+    var done = service.create("Lembrete concluído", null, due, TaskPriority.HIGH).getId().value();
+    var deleted = service.create("Lembrete deletado", null, due, TaskPriority.HIGH).getId().value();
+    var moved = service.create("Lembrete adiado", null, due, TaskPriority.HIGH).getId().value();
+    var movedDue = due.plusSeconds(2);
+    service.update(done, null, null, TaskStatus.DONE, null, null);
+    service.deleteLogical(deleted);
+    service.update(moved, null, null, null, null, movedDue);
+
+    await(() -> listener.fired.containsKey(moved), Duration.ofSeconds(15));
+    Thread.sleep(500);
+
+    assertThat(listener.fired.get(kept).dueDate()).isEqualTo(due);
+    assertThat(listener.fired.get(moved).dueDate()).isEqualTo(movedDue);
+    assertThat(listener.fired).doesNotContainKeys(done, deleted);
+    assertThat(listener.firedAt.get(kept)).isBetween(due, due.plusSeconds(1));
+    assertThat(listener.firedAt.get(moved)).isBetween(movedDue, movedDue.plusSeconds(1));
+    assertThat(listener.count(kept)).isEqualTo(1);
+  }
+
+  @Test
+  void gravadas_por_fora_chegam_pela_carga_da_janela_e_disparam_uma_vez() throws Exception {
+    // além da janela: dentro dela, escrita de fora chega pelo aviso entre instâncias, não pela carga,
+    // e a carga que andasse antes do commit do INSERT (1-2s para 20 mil linhas) não veria as linhas
+    var start = LocalDateTime.now().plus(LOOKAHEAD).plusSeconds(5);
+    var ids = new HashSet<UUID>();
+    // direto no banco (como outra instância faria): a aplicação não recebe evento nenhum
+    try (var conn = db.connect(); var insert = conn.prepareStatement("""
+        INSERT INTO tasks (id, title, status, priority, due_date, created_at, deleted, version)
+        SELECT gen_random_uuid(), 'lembrete ' || g, 'TODO', 'LOW', ?::timestamp + (g % 5000) * interval '1 millisecond',
+               now(), false, 0
+        FROM generate_series(1, ?) AS g
+        RETURNING id
+        """)) {
+      insert.setObject(1, start);
+      insert.setInt(2, ROWS);
+      try (var rs = insert.executeQuery()) {
+        while (rs.next()) ids.add(rs.getObject(1, UUID.class));
+      }
+    }
+
+    await(() -> listener.fired.keySet().containsAll(ids), Duration.ofSeconds(30));
+    Thread.sleep(500);
+
+    assertThat(ids).allSatisfy(id -> assertThat(listener.count(id)).isEqualTo(1));
+    var lateness = app.bean(MeterRegistry.class).get("tasks.reminders.lateness").timer();
+    var max = lateness.max(TimeUnit.MILLISECONDS);
+    var report = "lembretes disparados: %d%natraso máximo: %.0f ms (tick %d ms)%ncargas da janela: %d, média %.1f ms%n"
+        .formatted((long) lateness.count(), max, TICK.toMillis(),
+            app.bean(MeterRegistry.class).get("tasks.reminders.load").timer().count(),
+            app.bean(MeterRegistry.class).get("tasks.reminders.load").timer().mean(TimeUnit.MILLISECONDS));
+    LoadReport.publish("reminders.txt", report);
+    assertThat(max).as("atraso de um lembrete (ms)").isLessThan(1000);
+  }
+
+  @Test
+  void carga_da_janela_le_so_o_indice_de_vencimento() throws Exception {
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      var plan = new StringBuilder();
+      try (var rs = st.executeQuery("EXPLAIN SELECT id, due_date FROM tasks WHERE deleted = false AND status <> 'DONE'"
+          + " AND due_date >= now()::timestamp AND due_date < now()::timestamp + interval '10 minutes'"
+          + " AND (due_date, id) > (now()::timestamp, '00000000-0000-0000-0000-000000000000'::uuid)"
+          + " ORDER BY due_date, id LIMIT 5000")) {
+        while (rs.next()) plan.append(rs.getString(1)).append('\n');
+      }
+      assertThat(plan.toString()).contains("idx_tasks_open_due_date_id").doesNotContain("Seq Scan")
+          .doesNotContain("Sort");
+    }
+  }
+
+  private static void await(BooleanSupplier condition, Duration timeout) throws InterruptedException {
+    var deadline = System.nanoTime() + timeout.toNanos();
+    while (!condition.getAsBoolean() && System.nanoTime() < deadline) Thread.sleep(50);
+    assertThat(condition.getAsBoolean()).as("condição dentro de " + timeout).isTrue();
+  }
+
+  static final class DueListener {
+    private final Map<UUID, TaskDueEvent> fired = new ConcurrentHashMap<>();
+    private final Map<UUID, LocalDateTime> firedAt = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> counts = new ConcurrentHashMap<>();
+
+    @EventListener
+    public void onDue(TaskDueEvent event) {
+      firedAt.putIfAbsent(event.id(), LocalDateTime.now());
+      fired.putIfAbsent(event.id(), event);
+      counts.merge(event.id(), 1, Integer::sum);
+    }
+
+    int count(UUID id) {
+      return counts.getOrDefault(id, 0);
+    }
+  }
+}
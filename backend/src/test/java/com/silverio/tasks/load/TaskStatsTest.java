@@ -0,0 +1,206 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.task.application.archive.TaskArchiver;
+import com.silverio.tasks.task.application.stats.TaskStatsReconciler;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Resumo do painel contra um Postgres de verdade: depois de escritas de todo tipo (inclusive em lote,
+ * concorrentes e pelo arquivamento), {@code /stats} tem que bater com o {@code GROUP BY} em {@code tasks},
+ * antes e depois de os deltas irem para o resumo; e uma divergência forçada por fora dos triggers é
+ * corrigida pela reconciliação.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=TaskStatsTest} (banco escolhido como em {@link LoadDatabase}).
+ */
+@Tag("load")
+class TaskStatsTest {
+
+  private static final String BASE = "/api/tarefas";
+  private static final String[] STATUSES = { "TODO", "DOING", "DONE" };
+  private static final String[] PRIORITIES = { "LOW", "MEDIUM", "HIGH" };
+
+  private static LoadDatabase db;
+  private static LoadApp app;
+
+  private final ObjectMapper json = new ObjectMapper();
+
+  @BeforeAll
+  static void start() throws Exception {
+    db = LoadDatabase.start();
+    // agendamentos não disparam durante o teste; o arquivamento roda à mão
+    app = LoadApp.start(db, "tasks.archive.pause=0ms", "tasks.archive.interval=1d", "tasks.stats.fold-interval=1d",
+        "tasks.stats.reconcile-interval=1d");
+    LoadSeed.ensure(db, 10_000);
+  }
+
+  @AfterAll
+  static void stop() throws Exception {
+    if (app != null) app.close();
+    if (db != null) db.close();
+  }
+
+  @Test
+  void resumo_bate_com_group_by_depois_de_escritas_concorrentes() throws Exception {
+    var mvc = app.mockMvc();
+    var pool = Executors.newFixedThreadPool(8);
+    try {
+      var work = new ArrayList<Future<?>>();
+      for (int w = 0; w < 8; w++) {
+        work.add(pool.submit(() -> {
+          for (int i = 0; i < 25; i++) write(mvc);
+          return null;
+        }));
+      }
+      // reconciliação e deltas indo para o resumo no meio das escritas não podem perder nem contar duas vezes
+      work.add(pool.submit(() -> {
+        var reconciler = app.bean(TaskStatsReconciler.class);
+        for (int i = 0; i < 5; i++) {
+          reconciler.fold();
+          reconciler.run();
+        }
+        return null;
+      }));
+      for (var f : work) f.get();
+    } finally {
+      pool.shutdown();
+    }
+    var batch = new ArrayList<Map<String, String>>();
+    for (int i = 0; i < 200; i++) batch.add(newTask("Painel lote " + i, PRIORITIES[i % 3], "10/10/2030 10:00"));
+    mvc.perform(post(BASE + "/batch").contentType(MediaType.APPLICATION_JSON).content(json.writeValueAsString(batch)))
+        .andExpect(status().isOk());
+    app.bean(TaskArchiver.class).run();
+
+    assertStatsMatchGroupBy(mvc);
+    app.bean(TaskStatsReconciler.class).fold();
+    assertStatsMatchGroupBy(mvc);
+    assertThat(pendingDeltas()).isZero();
+  }
+
+  @Test
+  void vencidas_contam_dias_anteriores_e_o_que_ja_passou_hoje() throws Exception {
+    var mvc = app.mockMvc();
+    var before = body(mvc.perform(get(BASE + "/stats"))).get("overdueByPriority").get("HIGH").asLong();
+    create(mvc, "Venceu ontem", "HIGH", "01/01/2020 10:00");
+    var doneLate = create(mvc, "Concluída atrasada", "HIGH", "01/01/2020 10:00");
+    mvc.perform(put(BASE + "/" + doneLate).contentType(MediaType.APPLICATION_JSON).content("{\"status\":\"DONE\"}"))
+        .andExpect(status().isOk());
+    create(mvc, "Vence no futuro", "HIGH", "10/10/2030 10:00");
+    var today = create(mvc, "Vence hoje", "HIGH", "10/10/2030 10:00");
+    // vencimento de hoje que já passou: fica no balde de hoje e entra pela consulta ao índice
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.executeUpdate("UPDATE tasks SET due_date = date_trunc('day', localtimestamp) WHERE id = '" + today + "'");
+    }
+
+    var stats = body(mvc.perform(get(BASE + "/stats")));
+    assertThat(stats.get("overdueByPriority").get("HIGH").asLong()).isEqualTo(before + 2);
+    assertThat(stats.get("overdue").asLong()).isEqualTo(countOverdue());
+  }
+
+  @Test
+  void reconciliacao_corrige_divergencia_de_escrita_por_fora_dos_triggers() throws Exception {
+    var mvc = app.mockMvc();
+    var reconciler = app.bean(TaskStatsReconciler.class);
+    reconciler.run();
+    var drift = app.bean(MeterRegistry.class).get("tasks.stats.drift").counter();
+    var before = drift.count();
+
+    // com replica os triggers não disparam: 7 tarefas mudam de status sem o resumo saber
+    try (var conn = db.connect(); var st = conn.createStatement()) {
+      st.execute("SET session_replication_role = replica");
+      st.executeUpdate("UPDATE tasks SET status = 'DOING' WHERE id IN"
+          + " (SELECT id FROM tasks WHERE deleted = false AND status = 'TODO' LIMIT 7)");
+    }
+    reconciler.run();
+
+    // 7 a mais em TODO e 7 a menos em DOING (as duas abertas: o resumo por vencimento não muda)
+    assertThat(drift.count() - before).isEqualTo(14);
+    assertStatsMatchGroupBy(mvc);
+  }
+
+  private void write(MockMvc mvc) throws Exception {
+    var random = ThreadLocalRandom.current();
+    var id = create(mvc, "Painel", PRIORITIES[random.nextInt(3)], random.nextBoolean() ? "01/01/2020 10:00" : "10/10/2030 10:00");
+    switch (random.nextInt(4)) {
+      case 0 -> mvc.perform(delete(BASE + "/" + id)).andExpect(status().isOk());
+      case 1 -> mvc.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON)
+          .content("{\"status\":\"" + STATUSES[random.nextInt(3)] + "\"}")).andExpect(status().isOk());
+      case 2 -> mvc.perform(put(BASE + "/" + id).contentType(MediaType.APPLICATION_JSON)
+          .content("{\"priority\":\"" + PRIORITIES[random.nextInt(3)] + "\",\"dueDate\":\"10/10/2031 10:00\"}"))
+          .andExpect(status().isOk());
+      default -> mvc.perform(post(BASE + "/batch/status").contentType(MediaType.APPLICATION_JSON)
+          .content("{\"ids\":[\"" + id + "\"],\"status\":\"DONE\"}")).andExpect(status().isOk());
+    }
+  }
+
+  private void assertStatsMatchGroupBy(MockMvc mvc) throws Exception {
+    var stats = body(mvc.perform(get(BASE + "/stats")));
+    var actual = new TreeMap<String, Long>();
+    stats.get("byStatusAndPriority").fields()
+        .forEachRemaining(s -> s.getValue().fields()
+            .forEachRemaining(p -> actual.put(s.getKey() + "/" + p.getKey(), p.getValue().asLong())));
+    assertThat(actual).isEqualTo(groupBy());
+    assertThat(stats.get("overdue").asLong()).isEqualTo(countOverdue());
+  }
+
+  private static Map<String, Long> groupBy() throws SQLException {
+    var expected = new TreeMap<String, Long>();
+    for (var s : STATUSES) for (var p : PRIORITIES) expected.put(s + "/" + p, 0L);
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT status, priority, count(*) FROM tasks WHERE deleted = false GROUP BY 1, 2")) {
+      while (rs.next()) expected.put(rs.getString(1) + "/" + rs.getString(2), rs.getLong(3));
+    }
+    return expected;
+  }
+
+  private static long pendingDeltas() throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT (SELECT count(*) FROM tasks_stats_delta) + (SELECT count(*) FROM tasks_due_stats_delta)")) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private static long countOverdue() throws SQLException {
+    try (var conn = db.connect(); var st = conn.createStatement();
+         var rs = st.executeQuery("SELECT count(*) FROM tasks WHERE deleted = false AND status <> 'DONE'"
+             + " AND due_date < localtimestamp")) {
+      rs.next();
+      return rs.getLong(1);
+    }
+  }
+
+  private String create(MockMvc mvc, String title, String priority, String due) throws Exception {
+    return body(mvc.perform(post(BASE).contentType(MediaType.APPLICATION_JSON)
+        .content(json.writeValueAsString(newTask(title, priority, due))))).get("id").asText();
+  }
+
+  private static Map<String, String> newTask(String title, String priority, String due) {
+    return Map.of("title", title, "description", "Teste do painel", "dueDate", due, "priority", priority);
+  }
+
+  private JsonNode body(ResultActions result) throws Exception {
+    return json.readTree(result.andExpect(status().isOk()).andReturn().getResponse().getContentAsString());
+  }
+}
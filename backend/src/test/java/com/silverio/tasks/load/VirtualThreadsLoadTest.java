@@ -0,0 +1,108 @@
+package com.silverio.tasks.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compara o modo padrão (pool de threads do Tomcat) com o modo virtual threads sob a mesma
+ * carga: mais clientes simultâneos do que threads do Tomcat, pool de 10 conexões e cache
+ * desligado para que toda requisição vá ao banco.
+ * <p>
+ * Rodar: {@code mvn test -Pload -Dtest=VirtualThreadsLoadTest} (banco: veja {@link LoadDatabase}).
+ * Tabela em {@code target/load-reports/virtual-threads.txt}. Carga ajustável com {@code -Dload.clients} e {@code -Dload.seconds}.
+ */
+@Tag("load")
+class VirtualThreadsLoadTest {
+
+  private static final int CLIENTS = Integer.getInteger("load.clients", 400);
+  private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.seconds", 20));
+  private static final Duration WARMUP = Duration.ofSeconds(5);
+  private static final int SEED = 1000;
+
+  private static LoadDatabase db;
+  private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+  private final ObjectMapper mapper = new ObjectMapper();
+
+  @BeforeAll
+  static void startDatabase() {
+    db = LoadDatabase.start();
+  }
+
+  @AfterAll
+  static void stopDatabase() throws Exception {
+    if (db != null) db.close();
+  }
+
+  @Test
+  void compara_threads_de_plataforma_e_virtual_threads() throws Exception {
+    // act
+    var platform = measure("threads de plataforma (50)", false);
+    var virtual = measure("virtual threads", true);
+
+    // assert
+    LoadReport.publish("virtual-threads.txt",
+        String.join("\n", LoadDriver.Result.header(), platform.row(), virtual.row()) + "\n");
+
+    assertThat(platform.errors()).as("erros no modo padrão").isZero();
+    // com virtual threads o excesso vira 503 rápido no filtro, nunca timeout do Hikari (500)
+    assertThat(virtual.errors()).as("erros no modo virtual threads").isZero();
+    assertThat(virtual.requests()).isPositive();
+  }
+
+  private LoadDriver.Result measure(String name, boolean virtualThreads) throws Exception {
+    try (var app = LoadApp.start(db,
+        "server.tomcat.threads.max=50",
+        "spring.threads.virtual.enabled=" + virtualThreads,
+        "spring.datasource.hikari.maximum-pool-size=10",
+        "tasks.cache.enabled=false")) {
+      var base = app.baseUrl();
+      var ids = seed(base);
+
+      // mistura de leitura por id (80%) e primeira página da listagem (20%)
+      Supplier<HttpRequest> workload = () -> {
+        var random = ThreadLocalRandom.current();
+        var uri = random.nextInt(10) < 8
+            ? base + "/" + ids.get(random.nextInt(ids.size()))
+            : base + "?limit=50";
+        return HttpRequest.newBuilder(URI.create(uri)).timeout(Duration.ofSeconds(30)).GET().build();
+      };
+
+      LoadDriver.run(name, http, CLIENTS, WARMUP, workload);
+      return LoadDriver.run(name, http, CLIENTS, DURATION, workload);
+    }
+  }
+
+  private List<String> seed(String base) throws Exception {
+    var body = new StringBuilder("[");
+    for (int i = 0; i < SEED; i++) {
+      if (i > 0) body.append(',');
+      body.append("{\"title\":\"carga ").append(i).append("\",\"dueDate\":\"01/12/2030 00:00\",\"priority\":\"LOW\"}");
+    }
+    body.append(']');
+    var request = HttpRequest.newBuilder(URI.create(base + "/batch"))
+        .header("Content-Type", "application/json")
+        .POST(HttpRequest.BodyPublishers.ofString(body.toString()))
+        .build();
+    var response = http.send(request, HttpResponse.BodyHandlers.ofString());
+    assertThat(response.statusCode()).isEqualTo(200);
+
+    var ids = new ArrayList<String>(SEED);
+    mapper.readTree(response.body()).get("items").forEach(item -> ids.add(item.get("id").asText()));
+    return ids;
+  }
+}
@@ -0,0 +1,79 @@
+package com.silverio.tasks.shared.audit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ConfigAuditorTest {
+
+  private static final Map<String, Object> TUNED_JPA = Map.of(
+      "hibernate.jdbc.batch_size", "50",
+      "hibernate.query.in_clause_parameter_padding", "true");
+
+  @Test
+  void configuracao_ajustada_nao_tem_achados() {
+    // arrange
+    var auditor = auditor(pool("jdbc:postgresql://localhost:5432/tasksdb", true), TUNED_JPA, noOpenInView(),
+        ConfigAuditProperties.Mode.FAIL, Set.of());
+
+    // act / assert
+    assertThat(auditor.audit()).isEmpty();
+    assertThatCode(auditor::afterSingletonsInstantiated).doesNotThrowAnyException();
+  }
+
+  @Test
+  void configuracao_anterior_aponta_cada_item_lento() {
+    // arrange: format_sql ligado, sem reescrita de lotes nem padding, open-in-view padrão, pool elástico
+    var pool = pool("jdbc:postgresql://localhost:5432/tasksdb?prepareThreshold=0", false);
+    pool.setMinimumIdle(2);
+    var jpa = Map.<String, Object>of("hibernate.format_sql", "true", "hibernate.jdbc.batch_size", "50");
+    var auditor = auditor(pool, jpa, new MockEnvironment(), ConfigAuditProperties.Mode.LOG, Set.of());
+
+    // act
+    var checks = auditor.audit().stream().map(ConfigAuditor.Finding::check).toList();
+
+    // assert
+    assertThat(checks).containsExactlyInAnyOrder("format-sql", "in-clause-padding", "open-in-view", "pool-fixed",
+        "server-prepare", "batched-inserts-rewrite");
+  }
+
+  @Test
+  void modo_fail_impede_a_subida_a_nao_ser_que_o_achado_seja_aceito() {
+    // arrange
+    var jpa = Map.<String, Object>of("hibernate.show_sql", "true", "hibernate.jdbc.batch_size", "50",
+        "hibernate.query.in_clause_parameter_padding", "true");
+    var strict = auditor(pool("jdbc:postgresql://localhost:5432/tasksdb", true), jpa, noOpenInView(),
+        ConfigAuditProperties.Mode.FAIL, Set.of());
+    var accepted = auditor(pool("jdbc:postgresql://localhost:5432/tasksdb", true), jpa, noOpenInView(),
+        ConfigAuditProperties.Mode.FAIL, Set.of("show-sql"));
+
+    // act / assert
+    assertThatThrownBy(strict::afterSingletonsInstantiated)
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("[show-sql]");
+    assertThatCode(accepted::afterSingletonsInstantiated).doesNotThrowAnyException();
+  }
+
+  private static MockEnvironment noOpenInView() {
+    return new MockEnvironment().withProperty("spring.jpa.open-in-view", "false");
+  }
+
+  private static HikariDataSource pool(String url, boolean rewriteBatchedInserts) {
+    var pool = new HikariDataSource();
+    pool.setJdbcUrl(url);
+    pool.setMaximumPoolSize(10);
+    if (rewriteBatchedInserts) pool.addDataSourceProperty("reWriteBatchedInserts", "true");
+    return pool;
+  }
+
+  private static ConfigAuditor auditor(HikariDataSource pool, Map<String, Object> jpa, MockEnvironment env,
+                                       ConfigAuditProperties.Mode mode, Set<String> ignore) {
+    return new ConfigAuditor(pool, jpa, env, new ConfigAuditProperties(mode, ignore), new SimpleMeterRegistry());
+  }
+}
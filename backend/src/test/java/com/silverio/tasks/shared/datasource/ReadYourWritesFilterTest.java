@@ -0,0 +1,63 @@
+package com.silverio.tasks.shared.datasource;
+
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ReadYourWritesFilterTest {
+
+  private final ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+
+  @Test
+  void escrita_deve_devolver_o_header_antes_do_corpo() throws Exception {
+    // arrange
+    var request = new MockHttpServletRequest("PUT", "/api/tarefas/1");
+    var response = new MockHttpServletResponse();
+    FilterChain chain = (req, res) -> res.flushBuffer();
+
+    // act
+    var before = System.currentTimeMillis();
+    filter.doFilter(request, response, chain);
+
+    // assert
+    var until = response.getHeader(ReadYourWritesFilter.HEADER);
+    assertThat(until).isNotNull();
+    assertThat(Long.parseLong(until)).isBetween(before + 5000, System.currentTimeMillis() + 5000);
+  }
+
+  @Test
+  void leitura_com_header_no_prazo_deve_ficar_no_primario() throws Exception {
+    // arrange
+    var recent = get(System.currentTimeMillis() + 3000);
+    var expired = get(System.currentTimeMillis() - 1);
+    var forged = get(System.currentTimeMillis() + 60_000);
+    var pinned = new AtomicBoolean();
+    FilterChain chain = (req, res) -> pinned.set(ReadRouting.pinnedToPrimary());
+
+    // act
+    filter.doFilter(recent, new MockHttpServletResponse(), chain);
+    var recentPinned = pinned.get();
+    filter.doFilter(expired, new MockHttpServletResponse(), chain);
+    var expiredPinned = pinned.get();
+    filter.doFilter(forged, new MockHttpServletResponse(), chain);
+    var forgedPinned = pinned.get();
+
+    // assert
+    assertThat(recentPinned).isTrue();
+    assertThat(expiredPinned).isFalse();
+    assertThat(forgedPinned).isFalse();
+    assertThat(ReadRouting.pinnedToPrimary()).isFalse();
+  }
+
+  private static MockHttpServletRequest get(long until) {
+    var request = new MockHttpServletRequest("GET", "/api/tarefas");
+    request.addHeader(ReadYourWritesFilter.HEADER, Long.toString(until));
+    return request;
+  }
+}
@@ -0,0 +1,67 @@
+package com.silverio.tasks.shared.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+  private ReplicaLagMonitor monitor;
+  private SimpleMeterRegistry registry;
+  private ReplicaRoutingDataSource routing;
+
+  @BeforeEach
+  void setUp() {
+    monitor = mock(ReplicaLagMonitor.class);
+    registry = new SimpleMeterRegistry();
+    routing = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), monitor, registry);
+    when(monitor.usable()).thenReturn(true);
+  }
+
+  @AfterEach
+  void tearDown() {
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+  }
+
+  @Test
+  void so_transacao_somente_leitura_deve_ir_para_a_replica() {
+    // arrange / act
+    var write = routing.determineCurrentLookupKey();
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    var read = routing.determineCurrentLookupKey();
+
+    // assert
+    assertThat(write).isEqualTo(ReplicaRoutingDataSource.Pool.PRIMARY);
+    assertThat(read).isEqualTo(ReplicaRoutingDataSource.Pool.REPLICA);
+    assertThat(registry.get("tasks.datasource.connections").tags("pool", "replica", "reason", "read").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void leitura_presa_ao_primario_ou_com_replica_atrasada_deve_ir_para_o_primario() {
+    // arrange
+    TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+    // act
+    ReplicaRoutingDataSource.Route pinned;
+    try (var pin = ReadRouting.pinToPrimary()) {
+      pinned = routing.route();
+    }
+    var afterPin = routing.route();
+    when(monitor.usable()).thenReturn(false);
+    var lagging = routing.route();
+
+    // assert
+    assertThat(pinned).isEqualTo(ReplicaRoutingDataSource.Route.PINNED);
+    assertThat(afterPin).isEqualTo(ReplicaRoutingDataSource.Route.READ);
+    assertThat(lagging).isEqualTo(ReplicaRoutingDataSource.Route.LAGGING);
+    assertThat(ReadRouting.pinnedToPrimary()).isFalse();
+  }
+}
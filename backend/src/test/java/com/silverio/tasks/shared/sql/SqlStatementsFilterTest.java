@@ -0,0 +1,97 @@
+package com.silverio.tasks.shared.sql;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.*;
+
+class SqlStatementsFilterTest {
+
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void deve_devolver_contagem_nos_headers_antes_do_corpo_e_registrar_por_endpoint() throws Exception {
+    // arrange
+    var filter = new SqlStatementsFilter(props(SqlStatementsProperties.BudgetMode.FAIL), registry);
+    var request = request("semOrcamento");
+    var response = new MockHttpServletResponse();
+    FilterChain chain = (req, res) -> {
+      executar(2);
+      res.getWriter().write("{}");
+      res.flushBuffer();
+      executar(1); // depois do commit: não muda o header, só a métrica
+    };
+
+    // act
+    filter.doFilter(request, response, chain);
+
+    // assert
+    assertThat(response.getHeader(SqlStatementsFilter.STATEMENTS_HEADER)).isEqualTo("2");
+    assertThat(response.getHeader(SqlStatementsFilter.SERVER_TIMING_HEADER)).startsWith("db;dur=");
+    var summary = registry.find("tasks.sql.statements").tags("method", "GET", "uri", "/api/tarefas/{id}").summary();
+    assertThat(summary).isNotNull();
+    assertThat(summary.totalAmount()).isEqualTo(3);
+    assertThat(SqlStatements.current()).isNull();
+  }
+
+  @Test
+  void deve_falhar_quando_o_endpoint_passar_do_orcamento_no_modo_fail() {
+    // arrange
+    var filter = new SqlStatementsFilter(props(SqlStatementsProperties.BudgetMode.FAIL), registry);
+    FilterChain chain = (req, res) -> executar(2);
+
+    // act + assert
+    assertThatThrownBy(() -> filter.doFilter(request("umComando"), new MockHttpServletResponse(), chain))
+        .isInstanceOf(SqlBudgetExceededException.class)
+        .hasMessageContaining("GET /api/tarefas/{id} executou 2 comandos SQL (orçamento: 1)");
+    assertThat(registry.get("tasks.sql.budget.exceeded").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void no_modo_log_deve_so_contar_o_estouro() throws Exception {
+    // arrange
+    var filter = new SqlStatementsFilter(props(SqlStatementsProperties.BudgetMode.LOG), registry);
+    var response = new MockHttpServletResponse();
+
+    // act
+    filter.doFilter(request("umComando"), response, (req, res) -> executar(3));
+
+    // assert: resposta sem corpo também ganha os headers
+    assertThat(response.getHeader(SqlStatementsFilter.STATEMENTS_HEADER)).isEqualTo("3");
+    assertThat(registry.get("tasks.sql.budget.exceeded").counter().count()).isEqualTo(1);
+  }
+
+  private static void executar(int comandos) {
+    var stats = SqlStatements.current();
+    for (int i = 0; i < comandos; i++) {
+      stats.started(System.nanoTime());
+      stats.finished(System.nanoTime());
+    }
+  }
+
+  private static MockHttpServletRequest request(String handler) throws NoSuchMethodException {
+    var request = new MockHttpServletRequest("GET", "/api/tarefas/1");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/tarefas/{id}");
+    request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+        new HandlerMethod(new Handlers(), Handlers.class.getDeclaredMethod(handler)));
+    return request;
+  }
+
+  private static SqlStatementsProperties props(SqlStatementsProperties.BudgetMode mode) {
+    return new SqlStatementsProperties(true, true, mode);
+  }
+
+  static class Handlers {
+    @SqlBudget(1)
+    void umComando() {
+    }
+
+    void semOrcamento() {
+    }
+  }
+}
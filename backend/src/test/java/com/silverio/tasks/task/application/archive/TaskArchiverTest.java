@@ -0,0 +1,104 @@
+package com.silverio.tasks.task.application.archive;
+
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TaskArchiverTest {
+
+  private TaskRepository repository;
+  private TaskRevision revision;
+  private ApplicationEventPublisher events;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(TaskRepository.class);
+    revision = new TaskRevision();
+    events = mock(ApplicationEventPublisher.class);
+    registry = new SimpleMeterRegistry();
+    when(repository.archiveDeleted(any(), anyInt())).thenReturn(List.of());
+    when(repository.archiveDone(any(), anyInt())).thenReturn(List.of());
+  }
+
+  @Test
+  void deve_arquivar_em_lotes_ate_vir_um_lote_incompleto() {
+    // arrange
+    when(repository.archiveDeleted(any(), eq(2))).thenReturn(ids(2), ids(2), ids(1));
+    var archiver = archiver(10);
+    var antes = revision.current();
+
+    // act
+    archiver.run();
+
+    // assert
+    verify(repository, times(3)).archiveDeleted(argThat(before -> before.isBefore(Instant.now().minus(Duration.ofDays(29)))), eq(2));
+    verify(repository, times(1)).archiveDone(any(), eq(2));
+    assertThat(registry.get("tasks.archive.rows").tag("kind", "deleted").counter().count()).isEqualTo(5);
+    assertThat(registry.get("tasks.archive.batch").timer().count()).isEqualTo(4);
+    // deletadas já tinham saído da listagem: nada muda para os clientes
+    assertThat(revision.current()).isEqualTo(antes);
+    verifyNoInteractions(events);
+  }
+
+  @Test
+  void concluidas_arquivadas_devem_mudar_a_revisao_e_publicar_remocao() {
+    // arrange
+    var moved = ids(1);
+    when(repository.archiveDone(any(), eq(2))).thenReturn(moved);
+    var archiver = archiver(10);
+    var antes = revision.current();
+
+    // act
+    archiver.run();
+
+    // assert
+    assertThat(revision.current()).isNotEqualTo(antes);
+    verify(events).publishEvent(TaskChangedEvent.deleted(moved.get(0).value()));
+    assertThat(registry.get("tasks.archive.rows").tag("kind", "done").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void deve_parar_no_maximo_de_lotes_por_rodada() {
+    // arrange
+    when(repository.archiveDone(any(), eq(2))).thenAnswer(inv -> ids(2));
+    var archiver = archiver(3);
+
+    // act
+    archiver.run();
+
+    // assert
+    verify(repository, times(3)).archiveDone(any(), eq(2));
+    verify(events, times(6)).publishEvent(any(TaskChangedEvent.class));
+  }
+
+  private TaskArchiver archiver(int maxBatches) {
+    var props = new TaskArchiveProperties(true, Duration.ofDays(30), Duration.ofDays(90), 2, maxBatches,
+        Duration.ZERO, Duration.ofHours(1));
+    return new TaskArchiver(repository, revision, events, props, registry);
+  }
+
+  private static List<TaskId> ids(int n) {
+    var ids = new ArrayList<TaskId>(n);
+    for (int i = 0; i < n; i++) ids.add(new TaskId(UUID.randomUUID()));
+    return ids;
+  }
+}
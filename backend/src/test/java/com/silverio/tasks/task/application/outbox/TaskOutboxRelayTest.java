@@ -0,0 +1,195 @@
+package com.silverio.tasks.task.application.outbox;
+
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskEvent;
+import com.silverio.tasks.task.domain.model.TaskEventType;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.repository.TaskOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TaskOutboxRelayTest {
+
+  private TaskOutboxRepository repository;
+  private SimpleMeterRegistry registry;
+  private TaskOutboxProperties props;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(TaskOutboxRepository.class);
+    registry = new SimpleMeterRegistry();
+    props = new TaskOutboxProperties(true, 2, 3, Duration.ofMillis(10), Duration.ofSeconds(1), Duration.ofMinutes(5), 4);
+  }
+
+  @Test
+  void deve_entregar_o_lote_a_todos_os_sinks_e_apagar() {
+    // arrange
+    var events = events(1, 2);
+    when(repository.claimEvents(3)).thenReturn(events);
+    var a = new RecordingSink("a");
+    var b = new RecordingSink("b");
+
+    // act
+    var claimed = relay(a, b).drain();
+
+    // assert
+    assertThat(claimed).isEqualTo(2);
+    assertThat(a.received).containsExactlyElementsOf(events);
+    assertThat(b.received).containsExactlyElementsOf(events);
+    verify(repository).completeEvents(List.of(1L, 2L));
+    verify(repository, never()).retryEvents(any(), any(), any(), anyInt());
+    assertThat(registry.get("tasks.outbox.delivered").tag("sink", "a").counter().count()).isEqualTo(2);
+    assertThat(registry.get("tasks.outbox.lag").timer().count()).isEqualTo(2);
+  }
+
+  @Test
+  void falha_em_um_sink_deve_adiar_o_lote_inteiro_sem_apagar() {
+    // arrange
+    when(repository.claimEvents(3)).thenReturn(events(7));
+    var ok = new RecordingSink("ok");
+    TaskEventSink broken = list -> { throw new IllegalStateException("fora do ar"); };
+
+    // act
+    relay(broken, ok).drain();
+
+    // assert
+    assertThat(ok.received).hasSize(1);
+    verify(repository).retryEvents(List.of(7L), props.retryDelay(), props.maxRetryDelay(), props.maxAttempts());
+    verify(repository, never()).completeEvents(any());
+    assertThat(registry.get("tasks.outbox.failed").tag("sink", broken.name()).counter().count()).isEqualTo(1);
+    assertThat(registry.get("tasks.outbox.dead").counter().count()).isZero();
+  }
+
+  @Test
+  void evento_que_ja_falhou_deve_ser_reentregue_sozinho() {
+    // arrange
+    var events = new ArrayList<>(events(1, 3));
+    events.add(1, new TaskEvent(2, TaskEventType.UPDATED, events.get(0).task(), Instant.now(), 2));
+    when(repository.claimEvents(3)).thenReturn(events);
+    var sink = new RecordingSink("a");
+
+    // act
+    var claimed = relay(sink).drain();
+
+    // assert
+    assertThat(claimed).isEqualTo(3);
+    assertThat(sink.received).extracting(TaskEvent::id).containsExactly(2L);
+    verify(repository).completeEvents(List.of(2L));
+  }
+
+  @Test
+  void evento_que_esgota_as_tentativas_deve_ser_contado_como_morto() {
+    // arrange
+    when(repository.claimEvents(3)).thenReturn(List.of(
+        new TaskEvent(9, TaskEventType.CREATED, events(9).get(0).task(), Instant.now(), 3)));
+    when(repository.retryEvents(List.of(9L), props.retryDelay(), props.maxRetryDelay(), 4)).thenReturn(1);
+    TaskEventSink broken = list -> { throw new IllegalStateException("evento inválido"); };
+
+    // act
+    relay(broken).drain();
+
+    // assert
+    assertThat(registry.get("tasks.outbox.dead").counter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void desligado_ou_sem_sinks_nao_deve_mexer_no_trigger_nem_abrir_workers() {
+    // arrange
+    var disabled = new TaskOutboxProperties(false, 2, 3, Duration.ofMillis(10), Duration.ofSeconds(1),
+        Duration.ofMinutes(5), 4);
+    var off = new TaskOutboxRelay(repository, TransactionOperations.withoutTransaction(),
+        List.of(new RecordingSink("a")), disabled, registry);
+    var withoutSinks = relay();
+
+    // act
+    off.start();
+    withoutSinks.start();
+
+    // assert
+    verify(repository, never()).enableOutbox();
+    verify(repository, never()).claimEvents(anyInt());
+    assertThat(off.isRunning()).isFalse();
+    assertThat(withoutSinks.isRunning()).isFalse();
+  }
+
+  @Test
+  void outbox_vazio_nao_deve_apagar_nem_adiar() {
+    // arrange
+    when(repository.claimEvents(anyInt())).thenReturn(List.of());
+
+    // act
+    var claimed = relay(new RecordingSink("a")).drain();
+
+    // assert
+    assertThat(claimed).isZero();
+    verify(repository, never()).completeEvents(any());
+    verify(repository, never()).retryEvents(any(), any(), any(), anyInt());
+    assertThat(registry.get("tasks.outbox.oldest.age").gauge().value()).isZero();
+  }
+
+  @Test
+  void workers_devem_drenar_ate_esvaziar_e_parar_no_stop() throws Exception {
+    // arrange
+    when(repository.claimEvents(eq(3))).thenReturn(events(1, 2, 3), events(4)).thenReturn(List.of());
+    var sink = new RecordingSink("a");
+    var relay = relay(sink);
+
+    // act
+    relay.start();
+    var deadline = Instant.now().plusSeconds(5);
+    while (sink.received.size() < 4 && Instant.now().isBefore(deadline)) Thread.sleep(10);
+    relay.stop();
+
+    // assert
+    verify(repository).enableOutbox();
+    assertThat(sink.received).extracting(TaskEvent::id).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    assertThat(relay.isRunning()).isFalse();
+  }
+
+  private TaskOutboxRelay relay(TaskEventSink... sinks) {
+    return new TaskOutboxRelay(repository, TransactionOperations.withoutTransaction(), List.of(sinks), props, registry);
+  }
+
+  private static List<TaskEvent> events(long... ids) {
+    var events = new ArrayList<TaskEvent>();
+    for (var id : ids) {
+      var task = Task.create("Evento " + id, null, LocalDateTime.of(2030, 1, 1, 0, 0), TaskPriority.LOW);
+      events.add(new TaskEvent(id, TaskEventType.CREATED, task, Instant.now().minusMillis(50), 0));
+    }
+    return events;
+  }
+
+  private static final class RecordingSink implements TaskEventSink {
+    private final String name;
+    private final List<TaskEvent> received = new CopyOnWriteArrayList<>();
+
+    RecordingSink(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String name() {
+      return name;
+    }
+
+    @Override
+    public void deliver(List<TaskEvent> events) {
+      received.addAll(events);
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.silverio.tasks.task.application.purge;
+
+import com.silverio.tasks.task.domain.model.TaskPurgeBatch;
+import com.silverio.tasks.task.domain.model.TaskPurgeCursor;
+import com.silverio.tasks.task.domain.repository.TaskPurgeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class TaskPurgerTest {
+
+  private TaskPurgeRepository repository;
+  private SimpleMeterRegistry registry;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(TaskPurgeRepository.class);
+    registry = new SimpleMeterRegistry();
+  }
+
+  @Test
+  void deve_expurgar_em_lotes_continuando_da_ultima_chave() {
+    // arrange
+    var first = batch(2);
+    var second = batch(2);
+    when(repository.purgeDeleted(any(), isNull(), eq(2))).thenReturn(first);
+    when(repository.purgeDeleted(any(), eq(first.last()), eq(2))).thenReturn(second);
+    when(repository.purgeDeleted(any(), eq(second.last()), eq(2))).thenReturn(batch(1));
+
+    // act
+    purger(10).run();
+
+    // assert
+    verify(repository, times(3)).purgeDeleted(
+        argThat(before -> before.isBefore(Instant.now().minus(Duration.ofDays(364)))), any(), eq(2));
+    assertThat(registry.get("tasks.purge.rows").counter().count()).isEqualTo(5);
+    assertThat(registry.get("tasks.purge.batch").timer().count()).isEqualTo(3);
+  }
+
+  @Test
+  void deve_parar_no_maximo_de_lotes_por_rodada() {
+    // arrange
+    when(repository.purgeDeleted(any(), any(), eq(2))).thenAnswer(inv -> batch(2));
+
+    // act
+    purger(3).run();
+
+    // assert
+    verify(repository, times(3)).purgeDeleted(any(), any(), eq(2));
+    assertThat(registry.get("tasks.purge.rows").counter().count()).isEqualTo(6);
+  }
+
+  @Test
+  void nada_vencido_deve_encerrar_a_rodada_no_primeiro_lote() {
+    // arrange
+    when(repository.purgeDeleted(any(), any(), anyInt())).thenReturn(TaskPurgeBatch.empty());
+
+    // act
+    purger(10).run();
+
+    // assert
+    verify(repository, times(1)).purgeDeleted(any(), isNull(), eq(2));
+    assertThat(registry.get("tasks.purge.rows").counter().count()).isZero();
+  }
+
+  private TaskPurger purger(int maxBatches) {
+    var props = new TaskPurgeProperties(true, Duration.ofDays(365), 2, maxBatches, Duration.ZERO, Duration.ofHours(6));
+    return new TaskPurger(repository, props, registry);
+  }
+
+  private static TaskPurgeBatch batch(int n) {
+    return new TaskPurgeBatch(n, new TaskPurgeCursor(Instant.now(), UUID.randomUUID()));
+  }
+}
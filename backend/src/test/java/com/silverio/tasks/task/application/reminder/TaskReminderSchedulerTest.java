@@ -0,0 +1,145 @@
+package com.silverio.tasks.task.application.reminder;
+
+import com.silverio.tasks.shared.cluster.LeaderElection;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskDue;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.repository.TaskReminderRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TaskReminderSchedulerTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+  private TaskReminderRepository repository;
+  private ApplicationEventPublisher events;
+  private SimpleMeterRegistry registry;
+  private TaskReminderScheduler scheduler;
+
+  @BeforeEach
+  void setUp() {
+    repository = mock(TaskReminderRepository.class);
+    events = mock(ApplicationEventPublisher.class);
+    registry = new SimpleMeterRegistry();
+    var props = new TaskReminderProperties(true, Duration.ZERO, Duration.ofSeconds(1), Duration.ofMinutes(10),
+        Duration.ofMinutes(5), 2);
+    scheduler = new TaskReminderScheduler(repository, events, props, LeaderElection.standalone(), registry);
+    scheduler.init(NOW);
+  }
+
+  @Test
+  void deve_carregar_a_janela_por_chave_e_so_de_novo_depois_da_metade() {
+    // arrange
+    var a = new TaskDue(UUID.randomUUID(), NOW.plusMinutes(1));
+    var b = new TaskDue(UUID.randomUUID(), NOW.plusMinutes(2));
+    var c = new TaskDue(UUID.randomUUID(), NOW.plusMinutes(3));
+    when(repository.findOpenDueBetween(NOW.minusMinutes(5), NOW.plusMinutes(10), null, 2)).thenReturn(List.of(a, b));
+    when(repository.findOpenDueBetween(NOW.minusMinutes(5), NOW.plusMinutes(10), b, 2)).thenReturn(List.of(c));
+
+    // act
+    scheduler.refill(NOW);
+    scheduler.refill(NOW.plusMinutes(4));
+    scheduler.refill(NOW.plusMinutes(6));
+
+    // assert
+    assertThat(scheduler.pending()).isEqualTo(3);
+    verify(repository, times(2)).findOpenDueBetween(eq(NOW.minusMinutes(5)), any(), any(), anyInt());
+    verify(repository).findOpenDueBetween(NOW.plusMinutes(10), NOW.plusMinutes(16), null, 2);
+  }
+
+  @Test
+  void falha_na_carga_deve_ler_a_mesma_faixa_no_proximo_tick() {
+    // arrange
+    var due = new TaskDue(UUID.randomUUID(), NOW.plusMinutes(1));
+    when(repository.findOpenDueBetween(eq(NOW.minusMinutes(5)), any(), any(), anyInt()))
+        .thenThrow(new IllegalStateException("banco fora"))
+        .thenReturn(List.of(due));
+
+    // act
+    var failure = catchThrowable(() -> scheduler.refill(NOW));
+    scheduler.refill(NOW.plusSeconds(1));
+
+    // assert
+    assertThat(failure).isInstanceOf(IllegalStateException.class);
+    assertThat(scheduler.pending()).isEqualTo(1);
+    verify(repository, times(2)).findOpenDueBetween(eq(NOW.minusMinutes(5)), any(), any(), anyInt());
+  }
+
+  @Test
+  void deve_disparar_so_o_que_continua_aberto_com_o_mesmo_vencimento() {
+    // arrange
+    var open = new TaskDue(UUID.randomUUID(), NOW.plusSeconds(1));
+    var done = new TaskDue(UUID.randomUUID(), NOW.plusSeconds(1));
+    var moved = new TaskDue(UUID.randomUUID(), NOW.plusSeconds(1));
+    when(repository.findOpenDueBetween(any(), any(), any(), anyInt())).thenReturn(List.of(open, done, moved));
+    when(repository.findOpenDue(anyCollection()))
+        .thenReturn(List.of(open, new TaskDue(moved.id(), NOW.plusMinutes(1))));
+
+    // act
+    scheduler.tick(NOW.plusSeconds(2));
+
+    // assert
+    verify(events).publishEvent(new TaskDueEvent(open.id(), open.dueDate()));
+    verify(events, times(1)).publishEvent(any(Object.class));
+    assertThat(registry.get("tasks.reminders.fired").counter().count()).isEqualTo(1);
+    assertThat(registry.get("tasks.reminders.skipped").counter().count()).isEqualTo(2);
+    assertThat(registry.get("tasks.reminders.lateness").timer().count()).isEqualTo(1);
+    assertThat(scheduler.pending()).isEqualTo(1); // a adiada voltou para a roda
+  }
+
+  @Test
+  void escritas_devem_agendar_e_cancelar_sem_ir_ao_banco() {
+    // arrange
+    when(repository.findOpenDueBetween(any(), any(), any(), anyInt())).thenReturn(List.of());
+    scheduler.init(LocalDateTime.now()); // escritas comparam com o relógio de verdade
+    scheduler.refill(LocalDateTime.now());
+    var task = Task.create("Lembrar", null, LocalDateTime.now().plusMinutes(2), TaskPriority.HIGH);
+    var later = Task.create("Depois da janela", null, LocalDateTime.now().plusDays(1), TaskPriority.LOW);
+
+    // act
+    scheduler.onTaskChanged(TaskChangedEvent.saved(task));
+    scheduler.onTaskChanged(TaskChangedEvent.saved(later));
+    var scheduled = scheduler.pending();
+    task.moveTo(TaskStatus.DONE);
+    scheduler.onTaskChanged(TaskChangedEvent.saved(task));
+
+    // assert
+    assertThat(scheduled).isEqualTo(1);
+    assertThat(scheduler.pending()).isZero();
+    verify(repository, never()).findOpenDue(anyCollection());
+  }
+
+  @Test
+  void falha_na_conferencia_deve_devolver_os_vencidos_para_a_roda() {
+    // arrange
+    var due = new TaskDue(UUID.randomUUID(), NOW.plusSeconds(1));
+    when(repository.findOpenDueBetween(any(), any(), any(), anyInt())).thenReturn(List.of(due));
+    when(repository.findOpenDue(anyCollection())).thenThrow(new IllegalStateException("banco fora"))
+        .thenReturn(List.of(due));
+
+    // act
+    var failure = catchThrowable(() -> scheduler.tick(NOW.plusSeconds(2)));
+    scheduler.tick(NOW.plusSeconds(3));
+
+    // assert
+    assertThat(failure).isInstanceOf(IllegalStateException.class);
+    verify(events).publishEvent(new TaskDueEvent(due.id(), due.dueDate()));
+  }
+}
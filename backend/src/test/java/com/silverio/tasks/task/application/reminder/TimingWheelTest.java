@@ -0,0 +1,82 @@
+package com.silverio.tasks.task.application.reminder;
+
+import com.silverio.tasks.task.domain.model.TaskDue;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class TimingWheelTest {
+
+  private static final LocalDateTime T0 = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+  @Test
+  void deve_disparar_cada_tarefa_no_seu_tick_e_so_uma_vez() {
+    // arrange
+    var wheel = new TimingWheel(1000, 8, T0);
+    var a = due(T0.plusSeconds(2));
+    var b = due(T0.plusSeconds(5));
+    wheel.schedule(a, a.dueDate());
+    wheel.schedule(b, b.dueDate());
+
+    // act
+    var early = wheel.advance(T0.plusSeconds(1));
+    var first = wheel.advance(T0.plusSeconds(3));
+    var second = wheel.advance(T0.plusSeconds(5));
+    var again = wheel.advance(T0.plusSeconds(6));
+
+    // assert
+    assertThat(early).isEmpty();
+    assertThat(first).containsExactly(a);
+    assertThat(second).containsExactly(b);
+    assertThat(again).isEmpty();
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  void horario_alem_de_uma_volta_deve_esperar_as_voltas_e_reagendar_deve_trocar_o_horario() {
+    // arrange
+    var wheel = new TimingWheel(1000, 4, T0);
+    var far = due(T0.plusSeconds(9));   // mesma posição do tick 1, duas voltas depois
+    var moved = due(T0.plusSeconds(2));
+    wheel.schedule(far, far.dueDate());
+    wheel.schedule(moved, moved.dueDate());
+    wheel.schedule(moved, T0.plusSeconds(3));
+
+    // act
+    var lap = wheel.advance(T0.plusSeconds(2));
+    var third = wheel.advance(T0.plusSeconds(3));
+    var end = wheel.advance(T0.plusSeconds(9));
+
+    // assert
+    assertThat(lap).isEmpty();
+    assertThat(third).containsExactly(moved);
+    assertThat(end).containsExactly(far);
+  }
+
+  @Test
+  void cancelada_nao_dispara_e_atrasada_dispara_no_proximo_avanco() {
+    // arrange
+    var wheel = new TimingWheel(1000, 4, T0);
+    var cancelled = due(T0.plusSeconds(1));
+    var late = due(T0.minusMinutes(3));
+    wheel.schedule(cancelled, cancelled.dueDate());
+    wheel.schedule(late, late.dueDate());
+
+    // act
+    var removed = wheel.cancel(cancelled.id());
+    var kept = wheel.scheduleIfAbsent(late, T0.plusSeconds(3));
+    var fired = wheel.advance(T0.plusMinutes(10));
+
+    // assert
+    assertThat(removed).isTrue();
+    assertThat(kept).isFalse();
+    assertThat(fired).containsExactly(late);
+  }
+
+  private static TaskDue due(LocalDateTime dueDate) {
+    return new TaskDue(UUID.randomUUID(), dueDate);
+  }
+}
@@ -1,33 +1,63 @@
 package com.silverio.tasks.task.application.service;
 
+import com.silverio.tasks.shared.exception.BadRequestException;
+import com.silverio.tasks.shared.exception.GoneException;
 import com.silverio.tasks.shared.exception.NotFoundException;
+import com.silverio.tasks.shared.exception.PreconditionFailedException;
 import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskChanges;
+import com.silverio.tasks.task.domain.model.TaskCursor;
 import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
+import com.silverio.tasks.task.domain.model.TaskPatch;
 import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskQueryPage;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchPage;
+import com.silverio.tasks.task.domain.model.TaskStats;
+import com.silverio.tasks.task.domain.model.TaskSort;
 import com.silverio.tasks.task.domain.model.TaskStatus;
 import com.silverio.tasks.task.domain.repository.TaskRepository;
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 class TaskServiceTest {
 
   private TaskRepository repository;
+  private TaskStatsRepository statsRepository;
   private TaskService service;
+  private TaskRevision revision;
+  private ApplicationEventPublisher events;
 
   @BeforeEach
   void setUp() {
     repository = mock(TaskRepository.class);
-    service = new TaskService(repository);
+    statsRepository = mock(TaskStatsRepository.class);
+    revision = new TaskRevision();
+    events = mock(ApplicationEventPublisher.class);
+    service = new TaskService(repository, statsRepository, revision, events);
   }
 
   @Test
@@ -82,11 +112,109 @@ class TaskServiceTest {
     verify(repository).findAll(TaskStatus.TODO);
   }
 
+  @Test
+  void listPage_deve_usar_tamanho_padrao_quando_limit_ausente() {
+    // arrange
+    when(repository.findPage(null, null, TaskService.DEFAULT_PAGE_SIZE)).thenReturn(new TaskPage(List.of(), null));
+
+    // act
+    var page = service.listPage(null, null, null);
+
+    // assert
+    assertThat(page.items()).isEmpty();
+    assertThat(page.hasNext()).isFalse();
+    verify(repository).findPage(null, null, TaskService.DEFAULT_PAGE_SIZE);
+  }
+
+  @Test
+  void listPage_deve_limitar_tamanho_maximo_e_repassar_cursor() {
+    // arrange
+    var cursor = new TaskCursor(Instant.now(), UUID.randomUUID());
+    when(repository.findPage(TaskStatus.DONE, cursor, TaskService.MAX_PAGE_SIZE)).thenReturn(new TaskPage(List.of(), null));
+
+    // act
+    service.listPage(TaskStatus.DONE, cursor, 10_000);
+
+    // assert
+    verify(repository).findPage(TaskStatus.DONE, cursor, TaskService.MAX_PAGE_SIZE);
+  }
+
+  @Test
+  void query_deve_limitar_tamanho_e_repassar_filtros_e_cursor() {
+    // arrange
+    var query = new TaskQuery(TaskStatus.TODO, TaskPriority.HIGH, null, null, true, null, TaskSort.DUE_DATE);
+    var cursor = new TaskQueryCursor(TaskSort.DUE_DATE, Instant.now(), LocalDateTime.now(), TaskPriority.HIGH, UUID.randomUUID());
+    when(repository.findByQuery(query, cursor, TaskService.MAX_PAGE_SIZE)).thenReturn(new TaskQueryPage(List.of(), null));
+
+    // act
+    var page = service.query(query, cursor, 10_000);
+
+    // assert
+    assertThat(page.hasNext()).isFalse();
+    verify(repository).findByQuery(query, cursor, TaskService.MAX_PAGE_SIZE);
+  }
+
+  @Test
+  void query_deve_rejeitar_intervalo_invertido_e_cursor_de_outra_ordenacao() {
+    var due = LocalDateTime.of(2026, 3, 1, 0, 0);
+    var invertido = new TaskQuery(null, null, due, due.minusDays(1), false, null, null);
+    assertThatThrownBy(() -> service.query(invertido, null, null))
+      .isInstanceOf(BadRequestException.class)
+      .hasMessageContaining("dueFrom");
+
+    var porPrioridade = new TaskQuery(null, null, null, null, false, null, TaskSort.PRIORITY);
+    var cursorPorVencimento = new TaskQueryCursor(TaskSort.DUE_DATE, Instant.now(), due, TaskPriority.LOW, UUID.randomUUID());
+    assertThatThrownBy(() -> service.query(porPrioridade, cursorPorVencimento, null))
+      .isInstanceOf(BadRequestException.class);
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void search_deve_repassar_texto_sem_espacos_nas_pontas_e_limitar_pagina() {
+    // arrange
+    var cursor = new TaskSearchCursor(false, 0.5f, UUID.randomUUID());
+    when(repository.search(TaskStatus.TODO, "relatório", cursor, TaskService.MAX_PAGE_SIZE))
+      .thenReturn(new TaskSearchPage(List.of(), null));
+
+    // act
+    var page = service.search("  relatório ", TaskStatus.TODO, cursor, 10_000);
+
+    // assert
+    assertThat(page.hasNext()).isFalse();
+    verify(repository).search(TaskStatus.TODO, "relatório", cursor, TaskService.MAX_PAGE_SIZE);
+  }
+
+  @Test
+  void stats_deve_ler_o_resumo_com_o_horario_atual() {
+    // arrange
+    var antes = LocalDateTime.now();
+    when(statsRepository.stats(any())).thenReturn(TaskStats.empty());
+
+    // act
+    var stats = service.stats();
+
+    // assert
+    assertThat(stats.total()).isZero();
+    verify(statsRepository).stats(argThat(now -> !now.isBefore(antes) && !now.isAfter(LocalDateTime.now())));
+  }
+
+  @Test
+  void search_deve_rejeitar_texto_em_branco_ou_longo_demais() {
+    assertThatThrownBy(() -> service.search(null, null, null, null))
+      .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> service.search("   ", null, null, null))
+      .isInstanceOf(BadRequestException.class);
+    assertThatThrownBy(() -> service.search("a".repeat(TaskService.MAX_SEARCH_LENGTH + 1), null, null, null))
+      .isInstanceOf(BadRequestException.class);
+    verifyNoInteractions(repository);
+  }
+
   @Test
   void update_deve_lancar_not_found_quando_repo_nao_encontrar() {
     // arrange
     var id = new TaskId(UUID.randomUUID());
-    when(repository.findById(id)).thenReturn(Optional.empty());
+    when(repository.update(eq(id), any(TaskPatch.class), isNull())).thenReturn(Optional.empty());
 
     // act + assert
     assertThatThrownBy(() ->
@@ -95,59 +223,64 @@ class TaskServiceTest {
     ).isInstanceOf(NotFoundException.class)
      .hasMessageContaining("Tarefa não encontrada");
 
-    verify(repository).findById(id);
+    verify(repository).update(eq(id), any(TaskPatch.class), isNull());
+    verify(repository, never()).findById(any());
     verify(repository, never()).save(any());
   }
 
   @Test
-  void update_deve_atualizar_apenas_campos_informados() {
+  void update_deve_enviar_apenas_campos_informados_num_unico_comando() {
     // arrange
     var uuid = UUID.randomUUID();
     var id = new TaskId(uuid);
+    var newDue = LocalDateTime.of(2026, 2, 12, 0, 0);
 
-    var existing = task("Antigo", TaskStatus.TODO, false);
-    existing.setId(id);
-    existing.setDescription("Desc antiga");
-    existing.setPriority(TaskPriority.LOW);
-    existing.setDueDate(LocalDateTime.of(2026, 2, 10, 0, 0));
-
-    when(repository.findById(id)).thenReturn(Optional.of(existing));
-    when(repository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+    var updated = task("Novo Título", TaskStatus.DOING, false);
+    updated.setId(id);
+    updated.setDescription("Desc antiga");
+    updated.setPriority(TaskPriority.HIGH);
+    updated.setDueDate(newDue);
 
-    var newDue = LocalDateTime.of(2026, 2, 12, 0, 0);
+    var expectedPatch = new TaskPatch("Novo Título", null, TaskStatus.DOING, TaskPriority.HIGH, newDue);
+    when(repository.update(id, expectedPatch, null)).thenReturn(Optional.of(updated));
 
     // act
-    var updated = service.update(uuid, "Novo Título", null, TaskStatus.DOING, TaskPriority.HIGH, newDue);
+    var result = service.update(uuid, "  Novo Título ", null, TaskStatus.DOING, TaskPriority.HIGH, newDue);
 
     // assert
-    assertThat(updated.getTitle()).isEqualTo("Novo Título");
-    assertThat(updated.getDescription()).isEqualTo("Desc antiga"); // manteve
-    assertThat(updated.getStatus()).isEqualTo(TaskStatus.DOING);
-    assertThat(updated.getPriority()).isEqualTo(TaskPriority.HIGH);
-    assertThat(updated.getDueDate()).isEqualTo(newDue);
+    assertThat(result.getTitle()).isEqualTo("Novo Título");
+    assertThat(result.getDescription()).isEqualTo("Desc antiga"); // manteve
+    assertThat(result.getStatus()).isEqualTo(TaskStatus.DOING);
+    assertThat(result.getDueDate()).isEqualTo(newDue);
+
+    verify(repository).update(id, expectedPatch, null);
+    verify(repository, never()).findById(any());
+    verify(repository, never()).save(any());
+  }
 
-    verify(repository).findById(id);
-    verify(repository).save(existing);
+  @Test
+  void update_deve_lancar_bad_request_quando_titulo_em_branco() {
+    assertThatThrownBy(() -> service.update(UUID.randomUUID(), "   ", null, null, null, null))
+      .isInstanceOf(BadRequestException.class)
+      .hasMessageContaining("título é obrigatório");
+
+    verifyNoInteractions(repository);
   }
 
   @Test
-  void delete_logico_deve_marcar_deleted_true_e_salvar() {
+  void delete_logico_deve_marcar_deleted_num_unico_comando() {
     // arrange
     var uuid = UUID.randomUUID();
     var id = new TaskId(uuid);
-
-    var existing = task("A", TaskStatus.TODO, false);
-    existing.setId(id);
-
-    when(repository.findById(id)).thenReturn(Optional.of(existing));
-    when(repository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(repository.deleteLogical(id, null)).thenReturn(true);
 
     // act
     service.deleteLogical(uuid);
 
     // assert
-    assertThat(existing.isDeleted()).isTrue();
-    verify(repository).save(existing);
+    verify(repository).deleteLogical(id, null);
+    verify(repository, never()).findById(any());
+    verify(repository, never()).save(any());
   }
 
   @Test
@@ -156,17 +289,136 @@ class TaskServiceTest {
     var uuid = UUID.randomUUID();
     var id = new TaskId(uuid);
 
-    when(repository.findById(id)).thenReturn(Optional.empty());
+    when(repository.deleteLogical(id, null)).thenReturn(false);
 
     // act + assert
     assertThatThrownBy(() -> service.deleteLogical(uuid))
       .isInstanceOf(NotFoundException.class)
       .hasMessageContaining("Tarefa não encontrada");
 
-    verify(repository).findById(id);
+    verify(repository).deleteLogical(id, null);
     verify(repository, never()).save(any());
   }
 
+  @Test
+  void update_com_versao_desatualizada_deve_lancar_precondition_failed() {
+    // arrange
+    var existing = task("A", TaskStatus.TODO, false);
+    var id = existing.getId();
+    when(repository.update(eq(id), any(TaskPatch.class), eq(3L))).thenReturn(Optional.empty());
+    when(repository.findById(id)).thenReturn(Optional.of(existing));
+
+    // act + assert
+    assertThatThrownBy(() -> service.update(id.value(), 3L, "Novo", null, null, null, null))
+      .isInstanceOf(PreconditionFailedException.class);
+  }
+
+  @Test
+  void update_com_versao_de_tarefa_inexistente_deve_lancar_not_found() {
+    // arrange
+    var id = new TaskId(UUID.randomUUID());
+    when(repository.update(eq(id), any(TaskPatch.class), eq(3L))).thenReturn(Optional.empty());
+    when(repository.findById(id)).thenReturn(Optional.empty());
+
+    // act + assert
+    assertThatThrownBy(() -> service.update(id.value(), 3L, "Novo", null, null, null, null))
+      .isInstanceOf(NotFoundException.class);
+  }
+
+  @Test
+  void delete_logico_com_versao_desatualizada_deve_lancar_precondition_failed() {
+    // arrange
+    var existing = task("A", TaskStatus.TODO, false);
+    var id = existing.getId();
+    when(repository.deleteLogical(id, 0L)).thenReturn(false);
+    when(repository.findById(id)).thenReturn(Optional.of(existing));
+
+    // act + assert
+    assertThatThrownBy(() -> service.deleteLogical(id.value(), 0L))
+      .isInstanceOf(PreconditionFailedException.class);
+  }
+
+  @Test
+  void escritas_devem_mudar_a_revisao_da_listagem_e_leituras_nao() {
+    // arrange
+    when(repository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(repository.deleteLogical(any(), any())).thenReturn(true);
+    var inicial = service.listRevision();
+
+    // act + assert
+    service.list(null);
+    assertThat(service.listRevision()).isEqualTo(inicial);
+
+    service.create("A", null, LocalDateTime.now(), null);
+    var aposCriar = service.listRevision();
+    assertThat(aposCriar).isNotEqualTo(inicial);
+
+    service.deleteLogical(UUID.randomUUID());
+    assertThat(service.listRevision()).isNotEqualTo(aposCriar);
+  }
+
+  @Test
+  void escrita_que_falha_nao_deve_mudar_a_revisao() {
+    when(repository.deleteLogical(any(), any())).thenReturn(false);
+    var inicial = service.listRevision();
+
+    assertThatThrownBy(() -> service.deleteLogical(UUID.randomUUID())).isInstanceOf(NotFoundException.class);
+
+    assertThat(service.listRevision()).isEqualTo(inicial);
+  }
+
+  @Test
+  void escritas_devem_publicar_evento_de_alteracao_e_falhas_nao() {
+    // arrange
+    var id = UUID.randomUUID();
+    when(repository.save(any(Task.class))).thenAnswer(inv -> inv.getArgument(0));
+    when(repository.deleteLogical(eq(new TaskId(id)), isNull())).thenReturn(true);
+
+    // act
+    var created = service.create("A", null, LocalDateTime.now(), null);
+    service.deleteLogical(id);
+    assertThatThrownBy(() -> service.deleteLogical(UUID.randomUUID())).isInstanceOf(NotFoundException.class);
+
+    // assert
+    verify(events).publishEvent(TaskChangedEvent.saved(created));
+    verify(events).publishEvent(TaskChangedEvent.deleted(id));
+    verifyNoMoreInteractions(events);
+  }
+
+  @Test
+  void changesSince_deve_limitar_tamanho_da_pagina() {
+    // arrange
+    var cursor = TaskChangeCursor.since(10);
+    when(repository.findChanges(eq(cursor), anyInt())).thenReturn(new TaskChanges(List.of(), 10, null));
+
+    // act
+    service.changesSince(cursor, null);
+    service.changesSince(cursor, 50_000);
+
+    // assert
+    verify(repository).findChanges(cursor, TaskService.DEFAULT_CHANGES_PAGE_SIZE);
+    verify(repository).findChanges(cursor, TaskService.MAX_CHANGES_PAGE_SIZE);
+  }
+
+  @Test
+  void changesSince_deve_responder_gone_quando_since_ja_foi_expurgado() {
+    // arrange
+    var cursor = TaskChangeCursor.since(10);
+    when(repository.findChanges(eq(cursor), anyInt())).thenReturn(TaskChanges.expired(42));
+
+    // act + assert
+    assertThatThrownBy(() -> service.changesSince(cursor, null))
+      .isInstanceOf(GoneException.class)
+      .hasMessageContaining("since=0");
+  }
+
+  @Test
+  void changesSince_deve_rejeitar_revisao_negativa() {
+    assertThatThrownBy(() -> service.changesSince(TaskChangeCursor.since(-1), null))
+      .isInstanceOf(BadRequestException.class);
+    verifyNoInteractions(repository);
+  }
+
   @Test
   void delete_fisico_deve_chamar_deletePhysical_com_taskId() {
     // arrange
@@ -180,6 +432,74 @@ class TaskServiceTest {
     verify(repository).deletePhysical(id);
   }
 
+  @Test
+  void createAll_deve_inserir_validos_e_reportar_invalidos() {
+    // arrange
+    var due = LocalDateTime.of(2026, 2, 12, 0, 0);
+    var items = Arrays.asList(
+        new NewTask("A", null, due, TaskPriority.LOW),
+        new NewTask("  ", null, due, null),
+        null,
+        new NewTask("B", "d", null, null));
+
+    // act
+    var results = service.createAll(items);
+
+    // assert
+    assertThat(results).extracting(BatchItemResult::outcome).containsExactly(
+        BatchItemResult.Outcome.CREATED,
+        BatchItemResult.Outcome.INVALID,
+        BatchItemResult.Outcome.INVALID,
+        BatchItemResult.Outcome.INVALID);
+    assertThat(results.get(0).id()).isNotNull();
+    assertThat(results.get(1).message()).contains("título");
+
+    verify(repository).insertAll(argThat(list -> list.size() == 1 && list.get(0).getTitle().equals("A")));
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  void createAll_deve_rejeitar_lote_acima_do_limite() {
+    var item = new NewTask("A", null, LocalDateTime.now(), null);
+    var items = Collections.nCopies(TaskService.MAX_BATCH_SIZE + 1, item);
+
+    assertThatThrownBy(() -> service.createAll(items))
+      .isInstanceOf(BadRequestException.class);
+
+    verifyNoInteractions(repository);
+  }
+
+  @Test
+  void moveAll_deve_mover_encontradas_e_reportar_nao_encontradas() {
+    // arrange
+    var existing = task("A", TaskStatus.TODO, false);
+    var missing = UUID.randomUUID();
+    when(repository.findAllById(any())).thenReturn(List.of(existing));
+
+    // act
+    var results = service.moveAll(List.of(existing.getId().value(), missing), TaskStatus.DONE);
+
+    // assert
+    assertThat(results).extracting(BatchItemResult::outcome).containsExactly(
+        BatchItemResult.Outcome.UPDATED, BatchItemResult.Outcome.NOT_FOUND);
+    assertThat(existing.getStatus()).isEqualTo(TaskStatus.DONE);
+    verify(repository).findAllById(Set.of(existing.getId(), new TaskId(missing)));
+    verify(repository).saveAll(List.of(existing));
+  }
+
+  @Test
+  void deleteLogicalAll_deve_marcar_deleted_e_nao_salvar_quando_nada_encontrado() {
+    // arrange
+    when(repository.findAllById(any())).thenReturn(List.of());
+
+    // act
+    var results = service.deleteLogicalAll(List.of(UUID.randomUUID()));
+
+    // assert
+    assertThat(results).extracting(BatchItemResult::outcome).containsExactly(BatchItemResult.Outcome.NOT_FOUND);
+    verify(repository, never()).saveAll(any());
+  }
+
   // ========= helpers =========
   private static Task task(String title, TaskStatus status, boolean deleted) {
     var t = new Task();
@@ -0,0 +1,46 @@
+package com.silverio.tasks.task.application.stats;
+
+import com.silverio.tasks.task.domain.repository.TaskStatsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskStatsReconcilerTest {
+
+  @Test
+  void deve_registrar_a_divergencia_corrigida_e_a_duracao() {
+    // arrange
+    var repository = mock(TaskStatsRepository.class);
+    when(repository.reconcileStats()).thenReturn(3L, 0L);
+    var registry = new SimpleMeterRegistry();
+    var reconciler = new TaskStatsReconciler(repository, registry);
+
+    // act
+    reconciler.run();
+    reconciler.run();
+
+    // assert
+    verify(repository, times(2)).reconcileStats();
+    assertThat(registry.get("tasks.stats.drift").counter().count()).isEqualTo(3);
+    assertThat(registry.get("tasks.stats.reconcile").timer().count()).isEqualTo(2);
+  }
+
+  @Test
+  void deve_contar_os_deltas_movidos_para_o_resumo() {
+    // arrange
+    var repository = mock(TaskStatsRepository.class);
+    when(repository.foldStats()).thenReturn(5L, 0L);
+    var registry = new SimpleMeterRegistry();
+    var reconciler = new TaskStatsReconciler(repository, registry);
+
+    // act
+    reconciler.fold();
+    reconciler.fold();
+
+    // assert
+    verify(repository, times(2)).foldStats();
+    assertThat(registry.get("tasks.stats.folded").counter().count()).isEqualTo(5);
+  }
+}
@@ -0,0 +1,164 @@
+package com.silverio.tasks.task.infrastructure.cache;
+
+import com.silverio.tasks.shared.datasource.ReadRouting;
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
+import com.silverio.tasks.task.domain.model.TaskPatch;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.model.TaskView;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CachingTaskRepositoryTest {
+
+  private TaskRepository delegate;
+  private CachingTaskRepository cache;
+
+  @BeforeEach
+  void setUp() {
+    delegate = mock(TaskRepository.class);
+    var props = new TaskCacheProperties(true, 100, Duration.ofMinutes(5), 1000, Duration.ofSeconds(30));
+    cache = new CachingTaskRepository(delegate, props);
+  }
+
+  @Test
+  void findById_deve_ir_ao_banco_uma_vez_e_depois_usar_o_cache() {
+    // arrange
+    var t = task("A", TaskStatus.TODO);
+    when(delegate.findById(t.getId())).thenReturn(Optional.of(t));
+
+    // act
+    var first = cache.findById(t.getId());
+    var second = cache.findById(t.getId());
+
+    // assert
+    assertThat(first).isPresent();
+    assertThat(second.get().getTitle()).isEqualTo("A");
+    verify(delegate, times(1)).findById(t.getId());
+    assertThat(cache.byIdCache().stats().hitCount()).isEqualTo(1);
+    assertThat(cache.byIdCache().stats().missCount()).isEqualTo(1);
+  }
+
+  @Test
+  void findById_deve_devolver_copia_que_nao_altera_o_cache() {
+    // arrange
+    var t = task("A", TaskStatus.TODO);
+    when(delegate.findById(t.getId())).thenReturn(Optional.of(t));
+
+    // act
+    cache.findById(t.getId()).get().moveTo(TaskStatus.DONE);
+
+    // assert
+    assertThat(cache.findById(t.getId()).get().getStatus()).isEqualTo(TaskStatus.TODO);
+  }
+
+  @Test
+  void findById_nao_deve_guardar_ausencia() {
+    var id = TaskId.newId();
+    when(delegate.findById(id)).thenReturn(Optional.empty());
+
+    cache.findById(id);
+    cache.findById(id);
+
+    verify(delegate, times(2)).findById(id);
+  }
+
+  @Test
+  void listas_e_paginas_devem_ser_cacheadas_por_status() {
+    // arrange
+    when(delegate.findAll(TaskStatus.TODO)).thenReturn(List.of(task("A", TaskStatus.TODO)));
+    when(delegate.findPage(null, null, 50)).thenReturn(new TaskPage(List.of(TaskView.of(task("B", TaskStatus.DOING))), null));
+
+    // act
+    cache.findAll(TaskStatus.TODO);
+    cache.findAll(TaskStatus.TODO);
+    cache.findAll(TaskStatus.DONE);
+    var first = cache.findPage(null, null, 50);
+    var page = cache.findPage(null, null, 50);
+
+    // assert
+    assertThat(page.items()).extracting(TaskView::title).containsExactly("B");
+    assertThat(page).isSameAs(first); // TaskView é imutável: o acerto não copia a página
+    verify(delegate, times(1)).findAll(TaskStatus.TODO);
+    verify(delegate, times(1)).findAll(TaskStatus.DONE);
+    verify(delegate, times(1)).findPage(null, null, 50);
+  }
+
+  @Test
+  void pagina_logo_depois_de_invalidar_vem_do_primario_e_depois_pode_vir_da_replica() throws Exception {
+    // arrange
+    var props = new TaskCacheProperties(true, 100, Duration.ofMinutes(5), 1000, Duration.ofSeconds(30));
+    var replicaAware = new CachingTaskRepository(delegate, props, Duration.ofMillis(50));
+    var pinned = new ArrayList<Boolean>();
+    when(delegate.findPage(null, null, 50)).thenAnswer(inv -> {
+      pinned.add(ReadRouting.pinnedToPrimary());
+      return new TaskPage(List.of(), null);
+    });
+
+    // act
+    replicaAware.evict(List.of(TaskId.newId()));
+    replicaAware.findPage(null, null, 50);
+    Thread.sleep(100);
+    replicaAware.evict(List.of());
+    replicaAware.findPage(null, null, 50);
+    Thread.sleep(100);
+    replicaAware.pageCache().invalidateAll(); // expirou pelo TTL, sem invalidação recente
+    replicaAware.findPage(null, null, 50);
+
+    // assert
+    assertThat(pinned).containsExactly(true, true, false);
+  }
+
+  @Test
+  void escrita_deve_invalidar_tarefa_e_listas() {
+    // arrange
+    var t = task("A", TaskStatus.TODO);
+    when(delegate.findById(t.getId())).thenReturn(Optional.of(t));
+    when(delegate.findAll(null)).thenReturn(List.of(t));
+    when(delegate.update(any(), any(), any())).thenReturn(Optional.of(t));
+    cache.findById(t.getId());
+    cache.findAll(null);
+
+    // act
+    cache.update(t.getId(), new TaskPatch(null, null, TaskStatus.DONE, null, null), null);
+    cache.findById(t.getId());
+    cache.findAll(null);
+
+    // assert
+    verify(delegate, times(2)).findById(t.getId());
+    verify(delegate, times(2)).findAll(null);
+  }
+
+  @Test
+  void delete_fisico_deve_invalidar_tarefa() {
+    var t = task("A", TaskStatus.TODO);
+    when(delegate.findById(t.getId())).thenReturn(Optional.of(t));
+    cache.findById(t.getId());
+
+    cache.deletePhysical(t.getId());
+    cache.findById(t.getId());
+
+    verify(delegate).deletePhysical(t.getId());
+    verify(delegate, times(2)).findById(t.getId());
+  }
+
+  // ========= helpers =========
+  private static Task task(String title, TaskStatus status) {
+    var t = Task.create(title, null, LocalDateTime.of(2026, 2, 12, 0, 0), TaskPriority.MEDIUM);
+    t.moveTo(status);
+    return t;
+  }
+}
@@ -0,0 +1,135 @@
+package com.silverio.tasks.task.infrastructure.notify;
+
+import com.silverio.tasks.shared.cluster.ClusterProperties;
+import com.silverio.tasks.shared.cluster.DedicatedConnections;
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskResyncEvent;
+import com.silverio.tasks.task.application.service.TaskRevision;
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.repository.TaskRepository;
+import com.silverio.tasks.task.infrastructure.cache.CachingTaskRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.postgresql.PGConnection;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TaskChangeNotifierTest {
+
+  private DedicatedConnections connections;
+  private TaskRepository repository;
+  private CachingTaskRepository cache;
+  private TaskRevision revision;
+  private ApplicationEventPublisher events;
+  private TaskChangeNotifier notifier;
+
+  @BeforeEach
+  void setUp() {
+    connections = mock(DedicatedConnections.class);
+    repository = mock(TaskRepository.class);
+    cache = mock(CachingTaskRepository.class);
+    revision = new TaskRevision();
+    events = mock(ApplicationEventPublisher.class);
+    var props = new ClusterProperties(true, "a", "tasks_changed", Duration.ofMillis(100), 3, Duration.ofMillis(100));
+    notifier = new TaskChangeNotifier(connections, repository, cache, revision, events, props,
+        new SimpleMeterRegistry());
+  }
+
+  @Test
+  void payload_do_trigger_deve_trazer_o_no_e_os_ids() {
+    // arrange
+    var first = UUID.randomUUID();
+    var second = UUID.randomUUID();
+
+    // act
+    var message = TaskChangeMessage.parse("no-1;" + first + "," + second);
+
+    // assert
+    assertThat(message.node()).isEqualTo("no-1");
+    assertThat(message.ids()).containsExactly(first, second);
+    assertThatThrownBy(() -> TaskChangeMessage.parse(";" + first)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void alteracao_de_outra_instancia_deve_invalidar_o_cache_e_republicar_o_estado_atual() {
+    // arrange
+    var live = Task.create("Viva", null, LocalDateTime.now().plusDays(1), TaskPriority.LOW);
+    var gone = UUID.randomUUID();
+    var ids = List.of(live.getId(), new TaskId(gone));
+    when(repository.findAllById(ids)).thenReturn(List.of(live));
+    var etag = revision.current();
+
+    // act
+    notifier.apply(new TaskChangeMessage("b", new LinkedHashSet<>(List.of(live.getId().value(), gone))));
+
+    // assert
+    var order = inOrder(cache, repository);
+    order.verify(cache).evict(ids);
+    order.verify(repository).findAllById(ids);
+    verify(events).publishEvent(TaskChangedEvent.remote(live.getId().value(), live));
+    verify(events).publishEvent(TaskChangedEvent.remote(gone, null));
+    assertThat(revision.current()).isNotEqualTo(etag);
+  }
+
+  @Test
+  void resync_deve_descartar_tudo_sem_ir_ao_banco() {
+    // arrange
+    var etag = revision.current();
+
+    // act
+    notifier.resync();
+
+    // assert
+    verify(cache).invalidateAll();
+    verify(events).publishEvent(new TaskResyncEvent());
+    verifyNoInteractions(repository);
+    assertThat(revision.current()).isNotEqualTo(etag);
+  }
+
+  @Test
+  void conexao_do_listen_que_nao_responde_deve_reconectar_e_descartar_o_cache() throws Exception {
+    // arrange
+    var dead = listenConnection(false);
+    var alive = listenConnection(true);
+    when(connections.open("listen")).thenReturn(dead, alive);
+
+    // act
+    notifier.start();
+    try {
+      // assert
+      verify(events, timeout(2000)).publishEvent(new TaskResyncEvent());
+      verify(dead).close();
+      verify(connections, times(2)).open("listen");
+      verify(cache).invalidateAll();
+    } finally {
+      notifier.stop();
+    }
+  }
+
+  private static Connection listenConnection(boolean valid) throws Exception {
+    var conn = mock(Connection.class);
+    var pg = mock(PGConnection.class);
+    when(conn.createStatement()).thenReturn(mock(Statement.class));
+    when(conn.unwrap(PGConnection.class)).thenReturn(pg);
+    when(conn.isValid(anyInt())).thenReturn(valid);
+    // espera vazia: nenhuma notificação no intervalo
+    when(pg.getNotifications(anyInt())).thenAnswer(inv -> {
+      Thread.sleep(10);
+      return null;
+    });
+    return conn;
+  }
+}
@@ -1,13 +1,29 @@
 package com.silverio.tasks.task.interfaces.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.silverio.tasks.shared.datasource.ReadYourWritesFilter;
 import com.silverio.tasks.shared.exception.GlobalExceptionHandler;
+import com.silverio.tasks.shared.exception.GoneException;
 import com.silverio.tasks.shared.exception.NotFoundException;
+import com.silverio.tasks.shared.exception.PreconditionFailedException;
+import com.silverio.tasks.task.application.service.BatchItemResult;
 import com.silverio.tasks.task.application.service.TaskService;
 import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskChangeCursor;
+import com.silverio.tasks.task.domain.model.TaskChanges;
+import com.silverio.tasks.task.domain.model.TaskCursor;
 import com.silverio.tasks.task.domain.model.TaskId;
+import com.silverio.tasks.task.domain.model.TaskPage;
 import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskQuery;
+import com.silverio.tasks.task.domain.model.TaskQueryCursor;
+import com.silverio.tasks.task.domain.model.TaskQueryPage;
+import com.silverio.tasks.task.domain.model.TaskSearchCursor;
+import com.silverio.tasks.task.domain.model.TaskSearchPage;
+import com.silverio.tasks.task.domain.model.TaskSort;
+import com.silverio.tasks.task.domain.model.TaskStats;
 import com.silverio.tasks.task.domain.model.TaskStatus;
+import com.silverio.tasks.task.domain.model.TaskView;
 import com.silverio.tasks.task.interfaces.rest.request.CreateTaskRequest;
 import com.silverio.tasks.task.interfaces.rest.request.UpdateTaskRequest;
 import org.junit.jupiter.api.Test;
@@ -18,11 +34,18 @@ import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -77,34 +100,167 @@ class TaskControllerTest {
     verify(service, never()).create(any(), any(), any(), any());
   }
 
+  // ---------- POST /api/tarefas/batch ----------
+  @Test
+  void post_batch_deve_retornar_resultado_por_item() throws Exception {
+    var id = UUID.randomUUID();
+    when(service.createAll(anyList())).thenReturn(List.of(
+        new BatchItemResult(0, id, BatchItemResult.Outcome.CREATED, null),
+        new BatchItemResult(1, null, BatchItemResult.Outcome.INVALID, "título é obrigatório")));
+
+    var body = "[{\"title\":\"A\",\"dueDate\":\"12/02/2026 00:00\"},{\"title\":\"\",\"dueDate\":\"12/02/2026 00:00\"}]";
+
+    mvc.perform(post("/api/tarefas/batch")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content(body))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.total").value(2))
+      .andExpect(jsonPath("$.succeeded").value(1))
+      .andExpect(jsonPath("$.failed").value(1))
+      .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+      .andExpect(jsonPath("$.items[1].outcome").value("INVALID"));
+
+    verify(service).createAll(argThat(items -> items.size() == 2
+        && items.get(0).title().equals("A")
+        && items.get(0).dueDate().equals(LocalDateTime.of(2026, 2, 12, 0, 0))));
+  }
+
+  @Test
+  void post_batch_deve_validar_cada_item_como_o_post_avulso() throws Exception {
+    // arrange
+    var id = UUID.randomUUID();
+    // o serviço recebe null no lugar do item inválido e o reporta como vazio
+    when(service.createAll(anyList())).thenReturn(List.of(
+        new BatchItemResult(0, id, BatchItemResult.Outcome.CREATED, null),
+        new BatchItemResult(1, null, BatchItemResult.Outcome.INVALID, "item vazio")));
+    var body = "[{\"title\":\"A\",\"dueDate\":\"12/02/2026 00:00\"},{\"title\":\" \"}]";
+
+    // act
+    var batch = mvc.perform(post("/api/tarefas/batch").contentType(MediaType.APPLICATION_JSON).content(body));
+    var single = mvc.perform(post("/api/tarefas").contentType(MediaType.APPLICATION_JSON).content("{\"title\":\" \"}"));
+
+    // assert: mesmos campos e mensagens da requisição avulsa; o item inválido não chega ao serviço
+    single.andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").value("Existem campos inválidos na requisição"))
+      .andExpect(jsonPath("$.campos.title").value("Título é obrigatório"))
+      .andExpect(jsonPath("$.campos.dueDate").value("Data limite é obrigatória"));
+    batch.andExpect(status().isOk())
+      .andExpect(jsonPath("$.succeeded").value(1))
+      .andExpect(jsonPath("$.items[1].outcome").value("INVALID"))
+      .andExpect(jsonPath("$.items[1].message").value("Existem campos inválidos na requisição"))
+      .andExpect(jsonPath("$.items[1].fields.title").value("Título é obrigatório"))
+      .andExpect(jsonPath("$.items[1].fields.dueDate").value("Data limite é obrigatória"));
+    verify(service).createAll(argThat(items -> items.size() == 2 && items.get(0) != null && items.get(1) == null));
+  }
+
+  @Test
+  void post_batch_status_deve_retornar_400_sem_status() throws Exception {
+    mvc.perform(post("/api/tarefas/batch/status")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"ids\":[\"" + UUID.randomUUID() + "\"]}"))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.campos.status").exists());
+
+    verify(service, never()).moveAll(any(), any());
+  }
+
+  @Test
+  void post_batch_delete_deve_chamar_servico() throws Exception {
+    var id = UUID.randomUUID();
+    when(service.deleteLogicalAll(List.of(id))).thenReturn(List.of(
+        new BatchItemResult(0, id, BatchItemResult.Outcome.NOT_FOUND, "Tarefa não encontrada")));
+
+    mvc.perform(post("/api/tarefas/batch/delete")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"ids\":[\"" + id + "\"]}"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.failed").value(1))
+      .andExpect(jsonPath("$.items[0].outcome").value("NOT_FOUND"));
+  }
+
   // ---------- GET /api/tarefas ----------
   @Test
   void get_deve_listar_sem_filtro() throws Exception {
     var t1 = task(UUID.randomUUID(), "A", null, TaskStatus.TODO, TaskPriority.LOW, LocalDateTime.now());
     var t2 = task(UUID.randomUUID(), "B", null, TaskStatus.DOING, TaskPriority.MEDIUM, LocalDateTime.now());
 
-    when(service.list(null)).thenReturn(List.of(t1, t2));
+    when(service.listPage(null, null, null)).thenReturn(new TaskPage(List.of(TaskView.of(t1), TaskView.of(t2)), null));
 
     mvc.perform(get("/api/tarefas"))
       .andExpect(status().isOk())
-      .andExpect(jsonPath("$.length()").value(2))
-      .andExpect(jsonPath("$[0].title").value("A"))
-      .andExpect(jsonPath("$[1].title").value("B"));
+      .andExpect(jsonPath("$.items.length()").value(2))
+      .andExpect(jsonPath("$.items[0].title").value("A"))
+      .andExpect(jsonPath("$.items[1].title").value("B"))
+      .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    verify(service).listPage(null, null, null);
+  }
+
+  @Test
+  void get_deve_responder_304_sem_consultar_tarefas_quando_revisao_nao_mudou() throws Exception {
+    when(service.listRevision()).thenReturn("abc-1");
+    when(service.listPage(null, null, null)).thenReturn(new TaskPage(List.of(), null));
+
+    mvc.perform(get("/api/tarefas"))
+      .andExpect(status().isOk())
+      .andExpect(header().string("ETag", "\"abc-1\""))
+      .andExpect(header().string("Cache-Control", "no-cache"));
+
+    mvc.perform(get("/api/tarefas").header("If-None-Match", "\"abc-1\""))
+      .andExpect(status().isNotModified())
+      .andExpect(header().string("ETag", "\"abc-1\""))
+      .andExpect(content().string(""));
+
+    when(service.listRevision()).thenReturn("abc-2");
+    mvc.perform(get("/api/tarefas").header("If-None-Match", "\"abc-1\""))
+      .andExpect(status().isOk())
+      .andExpect(header().string("ETag", "\"abc-2\""));
 
-    verify(service).list(null);
+    verify(service, times(2)).listPage(null, null, null);
   }
 
   @Test
   void get_deve_listar_com_filtro_status() throws Exception {
     var t1 = task(UUID.randomUUID(), "A", null, TaskStatus.TODO, TaskPriority.LOW, LocalDateTime.now());
-    when(service.list(TaskStatus.TODO)).thenReturn(List.of(t1));
+    when(service.listPage(TaskStatus.TODO, null, null)).thenReturn(new TaskPage(List.of(TaskView.of(t1)), null));
 
     mvc.perform(get("/api/tarefas").param("status", "TODO"))
       .andExpect(status().isOk())
-      .andExpect(jsonPath("$.length()").value(1))
-      .andExpect(jsonPath("$[0].status").value("TODO"));
+      .andExpect(jsonPath("$.items.length()").value(1))
+      .andExpect(jsonPath("$.items[0].status").value("TODO"));
+
+    verify(service).listPage(TaskStatus.TODO, null, null);
+  }
+
+  @Test
+  void get_deve_devolver_next_cursor_e_aceitar_na_proxima_pagina() throws Exception {
+    var t1 = task(UUID.randomUUID(), "A", null, TaskStatus.TODO, TaskPriority.LOW, LocalDateTime.now());
+    var next = TaskCursor.of(t1);
+    when(service.listPage(null, null, 1)).thenReturn(new TaskPage(List.of(TaskView.of(t1)), next));
+    when(service.listPage(null, next, 1)).thenReturn(new TaskPage(List.of(), null));
+
+    var body = mvc.perform(get("/api/tarefas").param("limit", "1"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.items.length()").value(1))
+      .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+      .andReturn().getResponse().getContentAsString();
+
+    var cursor = mapper.readTree(body).get("nextCursor").asText();
+
+    mvc.perform(get("/api/tarefas").param("limit", "1").param("cursor", cursor))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.items.length()").value(0));
+
+    verify(service).listPage(null, next, 1);
+  }
+
+  @Test
+  void get_deve_retornar_400_quando_cursor_invalido() throws Exception {
+    mvc.perform(get("/api/tarefas").param("cursor", "nao-e-um-cursor"))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").value("Parâmetro 'cursor' inválido."));
 
-    verify(service).list(TaskStatus.TODO);
+    verify(service, never()).listPage(any(), any(), any());
   }
 
   @Test
@@ -113,7 +269,247 @@ class TaskControllerTest {
       .andExpect(status().isBadRequest())
       .andExpect(jsonPath("$.mensagem").exists());
 
-    verify(service, never()).list(any());
+    verify(service, never()).listPage(any(), any(), any());
+  }
+
+  @Test
+  void get_com_filtros_e_ordenacao_deve_usar_query_e_seguir_cursor() throws Exception {
+    var t1 = task(UUID.randomUUID(), "A", null, TaskStatus.TODO, TaskPriority.HIGH, LocalDateTime.of(2026, 3, 10, 9, 0));
+    var query = new TaskQuery(TaskStatus.TODO, TaskPriority.HIGH,
+        LocalDateTime.of(2026, 3, 1, 0, 0), LocalDateTime.of(2026, 3, 31, 23, 59), false, null, TaskSort.DUE_DATE_DESC);
+    var next = TaskQueryCursor.of(TaskSort.DUE_DATE_DESC, TaskView.of(t1));
+    when(service.listRevision()).thenReturn("r1");
+    when(service.query(query, null, 1)).thenReturn(new TaskQueryPage(List.of(TaskView.of(t1)), next));
+    when(service.query(query, next, 1)).thenReturn(new TaskQueryPage(List.of(), null));
+
+    var body = mvc.perform(get("/api/tarefas").param("status", "TODO").param("priority", "HIGH")
+            .param("dueFrom", "2026-03-01T00:00").param("dueTo", "2026-03-31T23:59")
+            .param("sort", "-dueDate").param("limit", "1"))
+      .andExpect(status().isOk())
+      .andExpect(header().string("ETag", "\"r1\""))
+      .andExpect(jsonPath("$.items[0].title").value("A"))
+      .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+      .andReturn().getResponse().getContentAsString();
+
+    var cursor = mapper.readTree(body).get("nextCursor").asText();
+
+    mvc.perform(get("/api/tarefas").param("status", "TODO").param("priority", "HIGH")
+            .param("dueFrom", "2026-03-01T00:00").param("dueTo", "2026-03-31T23:59")
+            .param("sort", "-dueDate").param("limit", "1").param("cursor", cursor))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.items.length()").value(0));
+
+    verify(service).query(query, next, 1);
+    verify(service, never()).listPage(any(), any(), any());
+  }
+
+  @Test
+  void get_com_overdue_nao_deve_responder_etag() throws Exception {
+    var query = new TaskQuery(null, null, null, null, true, null, TaskSort.PRIORITY);
+    when(service.query(query, null, null)).thenReturn(new TaskQueryPage(List.of(), null));
+
+    mvc.perform(get("/api/tarefas").param("overdue", "true").param("sort", "priority"))
+      .andExpect(status().isOk())
+      .andExpect(header().doesNotExist("ETag"));
+
+    verify(service, never()).listRevision();
+  }
+
+  @Test
+  void get_deve_retornar_400_quando_ordenacao_fora_da_lista() throws Exception {
+    mvc.perform(get("/api/tarefas").param("sort", "title"))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").value(
+          "Parâmetro 'sort' inválido. Valores aceitos: createdAt, -createdAt, dueDate, -dueDate, priority, -priority."));
+
+    verify(service, never()).query(any(), any(), any());
+    verify(service, never()).listPage(any(), any(), any());
+  }
+
+  // ---------- GET /api/tarefas/search ----------
+  @Test
+  void search_deve_devolver_next_cursor_e_aceitar_na_proxima_pagina() throws Exception {
+    var t1 = task(UUID.randomUUID(), "Relatório de vendas", null, TaskStatus.TODO, TaskPriority.LOW, LocalDateTime.now());
+    var next = new TaskSearchCursor(true, 0.61538464f, t1.getId().value());
+    when(service.search("relat", TaskStatus.TODO, null, 1)).thenReturn(new TaskSearchPage(List.of(TaskView.of(t1)), next));
+    when(service.search("relat", TaskStatus.TODO, next, 1)).thenReturn(new TaskSearchPage(List.of(), null));
+
+    var body = mvc.perform(get("/api/tarefas/search").param("q", "relat").param("status", "TODO").param("limit", "1"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.items[0].title").value("Relatório de vendas"))
+      .andExpect(jsonPath("$.nextCursor").isNotEmpty())
+      .andReturn().getResponse().getContentAsString();
+
+    var cursor = mapper.readTree(body).get("nextCursor").asText();
+
+    mvc.perform(get("/api/tarefas/search").param("q", "relat").param("status", "TODO").param("limit", "1").param("cursor", cursor))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.items.length()").value(0))
+      .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    // o score volta idêntico: é ele que posiciona o keyset
+    verify(service).search("relat", TaskStatus.TODO, next, 1);
+  }
+
+  @Test
+  void search_deve_retornar_400_quando_cursor_e_da_listagem() throws Exception {
+    var listCursor = TaskCursorCodec.encode(new TaskCursor(Instant.now(), UUID.randomUUID()));
+
+    mvc.perform(get("/api/tarefas/search").param("q", "relat").param("cursor", listCursor))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").value("Parâmetro 'cursor' inválido."));
+
+    verify(service, never()).search(any(), any(), any(), any());
+  }
+
+  // ---------- GET /api/tarefas/stats ----------
+  @Test
+  void stats_deve_devolver_totais_por_status_prioridade_e_vencidas() throws Exception {
+    var stats = TaskStats.empty();
+    stats.add(TaskStatus.TODO, TaskPriority.HIGH, 3);
+    stats.add(TaskStatus.TODO, TaskPriority.LOW, 1);
+    stats.add(TaskStatus.DONE, TaskPriority.HIGH, 2);
+    stats.addOverdue(TaskPriority.HIGH, 2);
+    when(service.stats()).thenReturn(stats);
+
+    mvc.perform(get("/api/tarefas/stats"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.total").value(6))
+      .andExpect(jsonPath("$.byStatus.TODO").value(4))
+      .andExpect(jsonPath("$.byStatus.DOING").value(0))
+      .andExpect(jsonPath("$.byPriority.HIGH").value(5))
+      .andExpect(jsonPath("$.byStatusAndPriority.DONE.HIGH").value(2))
+      .andExpect(jsonPath("$.overdue").value(2))
+      .andExpect(jsonPath("$.overdueByPriority.LOW").value(0));
+  }
+
+  // ---------- GET /api/tarefas/changes ----------
+  @Test
+  void changes_deve_separar_upserts_de_deletadas_e_seguir_cursor() throws Exception {
+    var viva = task(UUID.randomUUID(), "A", null, TaskStatus.TODO, TaskPriority.LOW, LocalDateTime.now());
+    var morta = task(UUID.randomUUID(), "B", null, TaskStatus.DONE, TaskPriority.LOW, LocalDateTime.now());
+    morta.deleteLogical();
+    var next = new TaskChangeCursor(0, 900L, 850L, morta.getId().value());
+    when(service.changesSince(TaskChangeCursor.since(0), 2)).thenReturn(new TaskChanges(List.of(viva, morta), 900L, next));
+    when(service.changesSince(next, 2)).thenReturn(new TaskChanges(List.of(), 900L, null));
+
+    var body = mvc.perform(get("/api/tarefas/changes").param("since", "0").param("limit", "2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.upserts.length()").value(1))
+      .andExpect(jsonPath("$.upserts[0].id").value(viva.getId().value().toString()))
+      .andExpect(jsonPath("$.deleted[0]").value(morta.getId().value().toString()))
+      .andExpect(jsonPath("$.revision").value(900))
+      .andReturn().getResponse().getContentAsString();
+
+    var cursor = mapper.readTree(body).get("nextCursor").asText();
+
+    mvc.perform(get("/api/tarefas/changes").param("cursor", cursor).param("limit", "2"))
+      .andExpect(status().isOk())
+      .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+    verify(service).changesSince(next, 2);
+  }
+
+  @Test
+  void changes_deve_retornar_400_sem_since_nem_cursor() throws Exception {
+    mvc.perform(get("/api/tarefas/changes"))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").value("Informe o parâmetro 'since' ou 'cursor'."));
+
+    mvc.perform(get("/api/tarefas/changes").param("cursor", TaskCursorCodec.encode(new TaskCursor(Instant.now(), UUID.randomUUID()))))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").value("Parâmetro 'cursor' inválido."));
+
+    verify(service, never()).changesSince(any(), any());
+  }
+
+  @Test
+  void changes_deve_retornar_410_quando_since_ja_foi_expurgado() throws Exception {
+    when(service.changesSince(TaskChangeCursor.since(5), null))
+      .thenThrow(new GoneException("Descarte a cópia local e sincronize de novo com since=0."));
+
+    mvc.perform(get("/api/tarefas/changes").param("since", "5"))
+      .andExpect(status().isGone())
+      .andExpect(jsonPath("$.mensagem").value("Descarte a cópia local e sincronize de novo com since=0."));
+  }
+
+  // ---------- GET /api/tarefas/export ----------
+  @Test
+  void export_deve_escrever_uma_tarefa_por_linha_em_ndjson() throws Exception {
+    var t1 = task(UUID.randomUUID(), "A", null, TaskStatus.TODO, TaskPriority.LOW, LocalDateTime.of(2026, 2, 12, 0, 0));
+    var t2 = task(UUID.randomUUID(), "B", "x", TaskStatus.DONE, TaskPriority.HIGH, LocalDateTime.of(2026, 2, 13, 10, 30));
+    exportando(t1, t2);
+
+    var result = mvc.perform(get("/api/tarefas/export"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    var body = mvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+      .andReturn().getResponse().getContentAsString();
+
+    var lines = body.split("\n");
+    assertThat(lines).hasSize(2);
+    assertThat(lines[1]).startsWith("{");
+    assertThat(mapper.readTree(lines[0]).get("title").asText()).isEqualTo("A");
+    assertThat(mapper.readTree(lines[1]).get("dueDate").asText()).isEqualTo("13/02/2026 10:30");
+  }
+
+  @Test
+  void export_csv_deve_escapar_campos() throws Exception {
+    var t1 = task(UUID.randomUUID(), "Título, com vírgula", "diz \"oi\"", TaskStatus.TODO, TaskPriority.LOW,
+        LocalDateTime.of(2026, 2, 12, 0, 0));
+    exportando(t1);
+
+    var result = mvc.perform(get("/api/tarefas/export").param("format", "csv"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    var body = mvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().contentTypeCompatibleWith("text/csv"))
+      .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+    var lines = body.split("\r\n");
+    assertThat(lines[0]).isEqualTo("id,title,description,status,priority,dueDate,createdAt,version");
+    assertThat(lines[1]).startsWith(t1.getId().value() + ",\"Título, com vírgula\",\"diz \"\"oi\"\"\",TODO,LOW,12/02/2026 00:00,");
+  }
+
+  @Test
+  void export_deve_retornar_400_quando_formato_invalido() throws Exception {
+    mvc.perform(get("/api/tarefas/export").param("format", "xml"))
+      .andExpect(status().isBadRequest())
+      .andExpect(jsonPath("$.mensagem").exists());
+
+    verify(service, never()).export(any());
+  }
+
+  @Test
+  void export_deve_tratar_falha_de_escrita_no_servidor_como_erro_interno() throws Exception {
+    doThrow(new UncheckedIOException(new IOException("No space left on device"))).when(service).export(any());
+
+    var result = mvc.perform(get("/api/tarefas/export"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    // o status 200 já foi enviado com o início do stream; o erro chega ao handler genérico (e ao log)
+    mvc.perform(asyncDispatch(result))
+      .andExpect(jsonPath("$.status").value(500))
+      .andExpect(jsonPath("$.erro").value("Erro interno"));
+  }
+
+  @Test
+  void export_deve_ignorar_cliente_que_fechou_a_conexao() throws Exception {
+    doThrow(new UncheckedIOException(new IOException("Broken pipe"))).when(service).export(any());
+
+    var result = mvc.perform(get("/api/tarefas/export"))
+      .andExpect(request().asyncStarted())
+      .andReturn();
+
+    mvc.perform(asyncDispatch(result))
+      .andExpect(status().isOk())
+      .andExpect(content().string(""));
   }
 
   // ---------- PUT /api/tarefas/{id} ----------
@@ -130,7 +526,7 @@ class TaskControllerTest {
     );
 
     var updated = task(id, "Novo", "Desc", TaskStatus.DOING, TaskPriority.HIGH, req.dueDate());
-    when(service.update(eq(id), eq("Novo"), eq("Desc"), eq(TaskStatus.DOING), eq(TaskPriority.HIGH), eq(req.dueDate())))
+    when(service.update(eq(id), isNull(), eq("Novo"), eq("Desc"), eq(TaskStatus.DOING), eq(TaskPriority.HIGH), eq(req.dueDate())))
         .thenReturn(updated);
 
     mvc.perform(put("/api/tarefas/{id}", id)
@@ -139,9 +535,10 @@ class TaskControllerTest {
       .andExpect(status().isOk())
       .andExpect(jsonPath("$.id").value(id.toString()))
       .andExpect(jsonPath("$.title").value("Novo"))
-      .andExpect(jsonPath("$.status").value("DOING"));
+      .andExpect(jsonPath("$.status").value("DOING"))
+      .andExpect(header().string("ETag", "\"0\""));
 
-    verify(service).update(id, "Novo", "Desc", TaskStatus.DOING, TaskPriority.HIGH, req.dueDate());
+    verify(service).update(id, null, "Novo", "Desc", TaskStatus.DOING, TaskPriority.HIGH, req.dueDate());
   }
 
   @Test
@@ -156,7 +553,7 @@ class TaskControllerTest {
         null
     );
 
-    when(service.update(eq(id), any(), any(), any(), any(), any()))
+    when(service.update(eq(id), any(), any(), any(), any(), any(), any()))
       .thenThrow(new NotFoundException("Tarefa não encontrada"));
 
     mvc.perform(put("/api/tarefas/{id}", id)
@@ -165,7 +562,55 @@ class TaskControllerTest {
       .andExpect(status().isNotFound())
       .andExpect(jsonPath("$.mensagem").value("Tarefa não encontrada"));
 
-    verify(service).update(eq(id), any(), any(), any(), any(), any());
+    verify(service).update(eq(id), any(), any(), any(), any(), any(), any());
+  }
+
+  @Test
+  void put_deve_repassar_versao_do_if_match_e_retornar_412_quando_desatualizada() throws Exception {
+    var id = UUID.randomUUID();
+    when(service.update(eq(id), eq(4L), any(), any(), any(), any(), any()))
+      .thenThrow(new PreconditionFailedException("A tarefa foi alterada por outra requisição."));
+
+    mvc.perform(put("/api/tarefas/{id}", id)
+        .header("If-Match", "\"4\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"title\":\"Novo\"}"))
+      .andExpect(status().isPreconditionFailed())
+      .andExpect(jsonPath("$.status").value(412));
+  }
+
+  @Test
+  void put_com_if_match_fraco_nunca_casa() throws Exception {
+    var id = UUID.randomUUID();
+    when(service.update(eq(id), eq(-1L), any(), any(), any(), any(), any()))
+      .thenThrow(new PreconditionFailedException("A tarefa foi alterada por outra requisição."));
+
+    mvc.perform(put("/api/tarefas/{id}", id)
+        .header("If-Match", "W/\"4\"")
+        .contentType(MediaType.APPLICATION_JSON)
+        .content("{\"title\":\"Novo\"}"))
+      .andExpect(status().isPreconditionFailed());
+  }
+
+  // ---------- GET /api/tarefas/{id} ----------
+  @Test
+  void get_por_id_deve_retornar_etag_e_304_com_if_none_match() throws Exception {
+    var id = UUID.randomUUID();
+    var t = new Task(new TaskId(id), "A", null, TaskStatus.TODO, TaskPriority.LOW,
+        LocalDateTime.of(2026, 2, 12, 0, 0), Instant.now(), false, 7L);
+    when(service.get(id)).thenReturn(t);
+
+    mvc.perform(get("/api/tarefas/{id}", id))
+      .andExpect(status().isOk())
+      .andExpect(header().string("ETag", "\"7\""))
+      .andExpect(jsonPath("$.version").value(7));
+
+    mvc.perform(get("/api/tarefas/{id}", id).header("If-None-Match", "\"7\""))
+      .andExpect(status().isNotModified())
+      .andExpect(content().string(""));
+
+    mvc.perform(get("/api/tarefas/{id}", id).header("If-None-Match", "\"6\""))
+      .andExpect(status().isOk());
   }
 
   // ---------- DELETE lógico /api/tarefas/{id} ----------
@@ -176,22 +621,58 @@ class TaskControllerTest {
     mvc.perform(delete("/api/tarefas/{id}", id))
       .andExpect(status().isOk());
 
-    verify(service).deleteLogical(id);
+    verify(service).deleteLogical(id, null);
+  }
+
+  @Test
+  void delete_logico_deve_repassar_versao_do_if_match() throws Exception {
+    var id = UUID.randomUUID();
+
+    mvc.perform(delete("/api/tarefas/{id}", id).header("If-Match", "\"2\""))
+      .andExpect(status().isOk());
+
+    verify(service).deleteLogical(id, 2L);
   }
 
   @Test
   void delete_logico_deve_retornar_404_quando_nao_encontrada() throws Exception {
     var id = UUID.randomUUID();
-    doThrow(new NotFoundException("Tarefa não encontrada")).when(service).deleteLogical(id);
+    doThrow(new NotFoundException("Tarefa não encontrada")).when(service).deleteLogical(id, null);
 
     mvc.perform(delete("/api/tarefas/{id}", id))
       .andExpect(status().isNotFound())
       .andExpect(jsonPath("$.mensagem").value("Tarefa não encontrada"));
 
-    verify(service).deleteLogical(id);
+    verify(service).deleteLogical(id, null);
+  }
+
+  // ---------- CORS ----------
+  @Test
+  void cors_deve_aceitar_e_expor_o_header_de_leitura_no_primario() throws Exception {
+    mvc.perform(options("/api/tarefas")
+        .header("Origin", "http://localhost:4200")
+        .header("Access-Control-Request-Method", "GET")
+        .header("Access-Control-Request-Headers", ReadYourWritesFilter.HEADER))
+      .andExpect(status().isOk())
+      .andExpect(header().string("Access-Control-Allow-Headers", containsStringIgnoringCase(ReadYourWritesFilter.HEADER)));
+
+    when(service.listPage(null, null, null)).thenReturn(new TaskPage(List.of(), null));
+
+    mvc.perform(get("/api/tarefas").header("Origin", "http://localhost:4200"))
+      .andExpect(status().isOk())
+      .andExpect(header().string("Access-Control-Expose-Headers", containsString(ReadYourWritesFilter.HEADER)));
   }
 
   // ---------- helpers ----------
+  @SuppressWarnings("unchecked")
+  private void exportando(Task... tasks) {
+    doAnswer(inv -> {
+      Consumer<Task> sink = inv.getArgument(0);
+      for (var t : tasks) sink.accept(t);
+      return null;
+    }).when(service).export(any());
+  }
+
   private static Task task(UUID uuid, String title, String description,
                            TaskStatus status, TaskPriority priority, LocalDateTime dueDate) {
     var t = new Task();
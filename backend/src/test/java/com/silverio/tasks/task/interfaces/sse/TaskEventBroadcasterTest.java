@@ -0,0 +1,223 @@
+package com.silverio.tasks.task.interfaces.sse;
+
+import com.silverio.tasks.task.application.service.TaskChangedEvent;
+import com.silverio.tasks.task.application.service.TaskResyncEvent;
+import com.silverio.tasks.task.domain.model.Task;
+import com.silverio.tasks.task.domain.model.TaskPriority;
+import com.silverio.tasks.task.domain.model.TaskStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.awaitility.Awaitility.await;
+
+class TaskEventBroadcasterTest {
+
+  private TaskEventBroadcaster broadcaster;
+
+  @AfterEach
+  void tearDown() {
+    broadcaster.destroy();
+  }
+
+  @Test
+  void milhares_de_assinantes_ociosos_nao_devem_usar_uma_thread_por_conexao() {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(16, Duration.ofMinutes(1)));
+    var threadsAntes = Thread.activeCount();
+    var emitters = new ArrayList<RecordingEmitter>();
+    for (int i = 0; i < 5000; i++) {
+      var emitter = new RecordingEmitter();
+      broadcaster.register(emitter, null, null);
+      emitters.add(emitter);
+    }
+
+    // act
+    broadcaster.onTaskChanged(TaskChangedEvent.saved(task(TaskStatus.TODO)));
+
+    // assert
+    await().atMost(Duration.ofSeconds(10)).until(() -> emitters.stream().allMatch(e -> e.events().contains("upsert")));
+    assertThat(broadcaster.subscriberCount()).isEqualTo(5000);
+    // só o pool fixo de envio (2) e a thread do heartbeat
+    assertThat(Thread.activeCount() - threadsAntes).isLessThanOrEqualTo(3);
+  }
+
+  @Test
+  void assinante_com_status_deve_receber_remove_quando_tarefa_sai_do_status() {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(16, Duration.ofMinutes(1)));
+    var todos = new RecordingEmitter();
+    var soTodo = new RecordingEmitter();
+    broadcaster.register(todos, null, null);
+    broadcaster.register(soTodo, TaskStatus.TODO, null);
+
+    // act
+    broadcaster.onTaskChanged(TaskChangedEvent.saved(task(TaskStatus.TODO)));
+    broadcaster.onTaskChanged(TaskChangedEvent.saved(task(TaskStatus.DONE)));
+    broadcaster.onTaskChanged(TaskChangedEvent.deleted(UUID.randomUUID()));
+
+    // assert
+    await().atMost(Duration.ofSeconds(5)).until(() -> todos.events().size() == 3 && soTodo.events().size() == 3);
+    assertThat(todos.events()).containsExactly("upsert", "upsert", "remove");
+    assertThat(soTodo.events()).containsExactly("upsert", "remove", "remove");
+  }
+
+  @Test
+  void assinante_lento_deve_perder_eventos_e_receber_resync_quando_buffer_enche() throws Exception {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(4, Duration.ofMinutes(1)));
+    var liberar = new CountDownLatch(1);
+    var lento = new RecordingEmitter(liberar);
+    var rapido = new RecordingEmitter();
+    broadcaster.register(lento, null, null);
+    broadcaster.register(rapido, null, null);
+
+    // act: o assinante rápido continua recebendo enquanto o lento está travado
+    for (int i = 0; i < 50; i++) {
+      broadcaster.onTaskChanged(TaskChangedEvent.saved(task(TaskStatus.TODO)));
+      var recebidos = i + 1;
+      await().pollInterval(Duration.ofMillis(5)).atMost(Duration.ofSeconds(5)).until(() -> rapido.events().size() == recebidos);
+    }
+    liberar.countDown();
+
+    // assert
+    await().atMost(Duration.ofSeconds(5)).until(() -> lento.events().contains("resync"));
+    assertThat(lento.events().size()).isLessThan(50);
+    assertThat(rapido.events()).doesNotContain("resync");
+    assertThat(broadcaster.resyncCount()).isEqualTo(1);
+  }
+
+  @Test
+  void reconexao_com_last_event_id_antigo_deve_receber_resync() {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(16, Duration.ofMinutes(1)));
+    var emDia = broadcaster.lastEventId();
+    broadcaster.onTaskChanged(TaskChangedEvent.saved(task(TaskStatus.TODO)));
+    var atrasado = new RecordingEmitter();
+    var atualizado = new RecordingEmitter();
+
+    // act
+    broadcaster.register(atrasado, null, emDia);
+    broadcaster.register(atualizado, null, broadcaster.lastEventId());
+
+    // assert
+    await().atMost(Duration.ofSeconds(5)).until(() -> atrasado.events().contains("resync") && atualizado.comments() > 0);
+    assertThat(atualizado.events()).isEmpty();
+  }
+
+  @Test
+  void alteracoes_de_outras_instancias_perdidas_devem_mandar_resync_a_todos() {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(16, Duration.ofMinutes(1)));
+    var a = new RecordingEmitter();
+    var b = new RecordingEmitter();
+    broadcaster.register(a, null, null);
+    broadcaster.register(b, TaskStatus.DONE, null);
+    var antes = broadcaster.lastEventId();
+
+    // act
+    broadcaster.onResync(new TaskResyncEvent());
+
+    // assert
+    await().atMost(Duration.ofSeconds(5)).until(() -> a.events().contains("resync") && b.events().contains("resync"));
+    assertThat(broadcaster.lastEventId()).isNotEqualTo(antes); // quem reconectar também recebe resync
+  }
+
+  @Test
+  void conexao_ociosa_deve_receber_heartbeat() {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(16, Duration.ofMillis(50)));
+    var emitter = new RecordingEmitter();
+
+    // act
+    broadcaster.register(emitter, null, null);
+
+    // assert (o primeiro comentário é enviado ao conectar)
+    await().atMost(Duration.ofSeconds(5)).until(() -> emitter.comments() >= 3);
+  }
+
+  @Test
+  void cliente_desconectado_deve_sair_da_lista_de_assinantes() {
+    // arrange
+    broadcaster = new TaskEventBroadcaster(props(16, Duration.ofMinutes(1)));
+    var emitter = new RecordingEmitter();
+    broadcaster.register(emitter, null, null);
+    emitter.disconnect();
+
+    // act
+    broadcaster.onTaskChanged(TaskChangedEvent.saved(task(TaskStatus.TODO)));
+
+    // assert
+    await().atMost(Duration.ofSeconds(5)).until(() -> broadcaster.subscriberCount() == 0);
+  }
+
+  // ---------- helpers ----------
+  private static TaskStreamProperties props(int bufferSize, Duration heartbeat) {
+    return new TaskStreamProperties(bufferSize, heartbeat, Duration.ofMinutes(30), 2);
+  }
+
+  private static Task task(TaskStatus status) {
+    var t = Task.create("Tarefa", null, LocalDateTime.now(), TaskPriority.LOW);
+    t.moveTo(status);
+    return t;
+  }
+
+  /** Emitter sem conexão HTTP: guarda o nome de cada evento enviado. */
+  private static final class RecordingEmitter extends SseEmitter {
+    private final List<String> events = new CopyOnWriteArrayList<>();
+    private final List<String> comments = new CopyOnWriteArrayList<>();
+    private final CountDownLatch gate;
+    private volatile boolean disconnected;
+
+    RecordingEmitter() {
+      this(new CountDownLatch(0));
+    }
+
+    RecordingEmitter(CountDownLatch gate) {
+      this.gate = gate;
+    }
+
+    @Override
+    public void send(SseEventBuilder builder) throws IOException {
+      try {
+        gate.await();
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      if (disconnected) throw new IOException("Broken pipe");
+
+      var text = new StringBuilder();
+      builder.build().forEach(part -> {
+        if (part.getData() instanceof String s) text.append(s);
+      });
+      var raw = text.toString();
+      if (raw.startsWith(":")) {
+        comments.add(raw);
+        return;
+      }
+      raw.lines().filter(l -> l.startsWith("event:")).forEach(l -> events.add(l.substring("event:".length())));
+    }
+
+    void disconnect() {
+      disconnected = true;
+    }
+
+    List<String> events() {
+      return events;
+    }
+
+    int comments() {
+      return comments.size();
+    }
+  }
+}
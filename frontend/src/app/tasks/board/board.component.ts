@@ -1,9 +1,10 @@
-import { Component, OnInit } from '@angular/core';
+import { Component, OnDestroy, OnInit } from '@angular/core';
 import { CommonModule } from '@angular/common';
 import { CdkDragDrop, DragDropModule, transferArrayItem } from '@angular/cdk/drag-drop';
 import { MatDialog, MatDialogModule } from '@angular/material/dialog';
 import { MatButtonModule } from '@angular/material/button';
-import { Task, TaskStatus } from '../task.model';
+import { Subscription } from 'rxjs';
+import { Task, TaskEvent, TaskStatus } from '../task.model';
 import { TaskService } from '../task.service';
 import { TaskModalComponent } from '../task-modal/task-modal.component';
 import { animate, state, style, transition, trigger } from '@angular/animations';
@@ -22,10 +23,11 @@ import { animate, state, style, transition, trigger } from '@angular/animations'
     ]),
   ]
 })
-export class BoardComponent implements OnInit {
+export class BoardComponent implements OnInit, OnDestroy {
   todo: Task[] = [];
   doing: Task[] = [];
   done: Task[] = [];
+  private stream?: Subscription;
 
   collapsed = {
     TODO: false,
@@ -45,6 +47,33 @@ export class BoardComponent implements OnInit {
 
   ngOnInit(): void {
     this.reload();
+    this.stream = this.tasks.events().subscribe(e => this.apply(e));
+  }
+
+  ngOnDestroy(): void {
+    this.stream?.unsubscribe();
+  }
+
+  // Aplica o evento do stream no quadro sem recarregar a lista inteira
+  private apply(event: TaskEvent) {
+    if (event.type === 'resync') {
+      this.reload();
+      return;
+    }
+    const id = event.type === 'upsert' ? event.task.id : event.id;
+    const columns = { TODO: this.todo, DOING: this.doing, DONE: this.done };
+    for (const column of Object.values(columns)) {
+      const index = column.findIndex(t => t.id === id);
+      if (index < 0) continue;
+      // evento atrasado em relação ao que já está na tela (ex.: resposta do próprio update)
+      if (event.type === 'upsert' && column[index].version > event.task.version) return;
+      if (event.type === 'upsert' && column === columns[event.task.status]) {
+        column[index] = event.task;
+        return;
+      }
+      column.splice(index, 1);
+    }
+    if (event.type === 'upsert') columns[event.task.status].push(event.task);
   }
 
   reload() {
@@ -67,7 +96,10 @@ export class BoardComponent implements OnInit {
     const ref = this.dialog.open(TaskModalComponent, { width: '520px', data: task });
     ref.afterClosed().subscribe(result => {
       if (!result) return;
-      this.tasks.update(task.id, result).subscribe(() => this.reload());
+      this.tasks.update(task.id, result, task.version).subscribe({
+        next: () => this.reload(),
+        error: () => this.reload() // 412: alguém alterou antes; recarrega o quadro
+      });
     });
   }
 
@@ -78,10 +110,11 @@ export class BoardComponent implements OnInit {
 
     transferArrayItem(event.previousContainer.data, event.container.data, event.previousIndex, event.currentIndex);
 
-    this.tasks.update(movedTask.id, { status: newStatus }).subscribe({
-      next: () => {
+    this.tasks.update(movedTask.id, { status: newStatus }, movedTask.version).subscribe({
+      next: (updated) => {
         // Opcional: manter a task local consistente
         movedTask.status = newStatus;
+        movedTask.version = updated.version;
       },
       error: (err) => {
         // rollback: volta pro lugar anterior se falhar
@@ -159,7 +159,7 @@ export class TaskModalComponent {
     const id = this.data?.id;
     if (!id) return;
 
-    this.taskService.delete(id).subscribe({
+    this.taskService.delete(id, this.data?.version).subscribe({
       next: () => this.ref.close({ deleted: true }),
       error: () => {
         // opcional: snack bar
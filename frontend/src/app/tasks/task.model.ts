@@ -9,4 +9,16 @@ export interface Task {
   priority: TaskPriority;
   dueDate: string;
   createdAt: string;
+  version: number;
 }
+
+export interface TaskPage {
+  items: Task[];
+  nextCursor: string | null;
+}
+
+// Eventos de /api/tarefas/stream (SSE)
+export type TaskEvent =
+  | { type: 'upsert'; task: Task }
+  | { type: 'remove'; id: string }
+  | { type: 'resync' };
@@ -1,29 +1,77 @@
-import { HttpClient, HttpParams } from '@angular/common/http';
-import { Injectable } from '@angular/core';
-import { Observable } from 'rxjs';
-import { Task, TaskStatus } from './task.model';
+import { HttpClient, HttpHeaders, HttpParams, HttpResponse } from '@angular/common/http';
+import { Injectable, NgZone } from '@angular/core';
+import { EMPTY, Observable } from 'rxjs';
+import { expand, map, reduce } from 'rxjs/operators';
+import { Task, TaskEvent, TaskPage, TaskStatus } from './task.model';
+
+// Com réplica de leitura, toda escrita devolve até quando ler do primário; as leituras mandam de volta
+const PRIMARY_UNTIL = 'X-Tasks-Primary-Until';
 
 @Injectable({ providedIn: 'root' })
 export class TaskService {
   private baseUrl = 'http://localhost:8080/api/tarefas';
+  private primaryUntil: string | null = null;
 
-  constructor(private http: HttpClient) {}
+  constructor(private http: HttpClient, private zone: NgZone) {}
 
-  list(status?: TaskStatus): Observable<Task[]> {
+  page(status?: TaskStatus, cursor?: string | null): Observable<TaskPage> {
     let params = new HttpParams();
     if (status) params = params.set('status', status);
-    return this.http.get<Task[]>(this.baseUrl, { params });
+    if (cursor) params = params.set('cursor', cursor);
+    return this.http.get<TaskPage>(this.baseUrl, { params, headers: this.readHeaders() });
+  }
+
+  // Percorre todas as páginas (cursor) e junta tudo numa lista só
+  list(status?: TaskStatus): Observable<Task[]> {
+    return this.page(status).pipe(
+      expand(p => p.nextCursor ? this.page(status, p.nextCursor) : EMPTY),
+      map(p => p.items),
+      reduce((all, items) => all.concat(items), [] as Task[])
+    );
+  }
+
+  // Alterações em tempo real; o EventSource reconecta sozinho e o backend manda resync se algo se perdeu
+  events(status?: TaskStatus): Observable<TaskEvent> {
+    const url = status ? `${this.baseUrl}/stream?status=${status}` : `${this.baseUrl}/stream`;
+    return new Observable<TaskEvent>(subscriber => {
+      const source = new EventSource(url);
+      const emit = (event: TaskEvent) => this.zone.run(() => subscriber.next(event));
+      source.addEventListener('upsert', e => emit({ type: 'upsert', task: JSON.parse((e as MessageEvent).data) }));
+      source.addEventListener('remove', e => emit({ type: 'remove', id: JSON.parse((e as MessageEvent).data).id }));
+      source.addEventListener('resync', () => emit({ type: 'resync' }));
+      return () => source.close();
+    });
   }
 
   create(payload: { title: string; description?: string; dueDate: string; priority: string }): Observable<Task> {
-    return this.http.post<Task>(this.baseUrl, payload);
+    return this.http.post<Task>(this.baseUrl, payload, { observe: 'response' })
+      .pipe(map(r => this.written(r)));
+  }
+
+  // Com a versão lida, o backend recusa (412) se outra pessoa alterou a tarefa no meio tempo
+  update(id: string, payload: any, version?: number): Observable<Task> {
+    return this.http.put<Task>(`${this.baseUrl}/${id}`, payload, { headers: this.ifMatch(version), observe: 'response' })
+      .pipe(map(r => this.written(r)));
+  }
+
+  delete(id: string, version?: number): Observable<void> {
+    return this.http.delete<void>(`${this.baseUrl}/${id}`, { headers: this.ifMatch(version), observe: 'response' })
+      .pipe(map(r => this.written(r)));
+  }
+
+  private written<T>(response: HttpResponse<T>): T {
+    const until = response.headers.get(PRIMARY_UNTIL);
+    if (until) this.primaryUntil = until;
+    return response.body as T;
   }
 
-  update(id: string, payload: any): Observable<Task> {
-    return this.http.put<Task>(`${this.baseUrl}/${id}`, payload);
+  private readHeaders(): HttpHeaders {
+    return this.primaryUntil ? new HttpHeaders({ [PRIMARY_UNTIL]: this.primaryUntil }) : new HttpHeaders();
   }
 
-  delete(id: string): Observable<void> {
-    return this.http.delete<void>(`${this.baseUrl}/${id}`);
+  private ifMatch(version?: number): HttpHeaders {
+    let headers = new HttpHeaders();
+    if (version != null) headers = headers.set('If-Match', `"${version}"`);
+    return headers;
   }
 }